@@ -0,0 +1,324 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@code AudioSampleSource} decodes an audio stream, such as a WAV file or a
+ * pipe standing in for a live input, to mono samples on its own reader thread,
+ * and hands them to exactly one consumer thread through a
+ * {@link FloatRingBuffer}.
+ * <p>
+ * All buffers are allocated up front, so streaming never allocates. A file can
+ * be paced to real time, so that it stands in for a live input.
+ * <p>
+ * The consumer polls for samples, and knows that the stream is exhausted once
+ * {@link #read} returns nothing after {@link #isInputEnded} returned true:
+ *
+ * <pre>
+ * final boolean ended = source.isInputEnded();
+ * final int count = source.read( block, 0, block.length );
+ * if ( ( count == 0 ) &amp;&amp; ended ) { ... }
+ * </pre>
+ *
+ * @version 1.0
+ */
+public final class AudioSampleSource implements Closeable {
+
+    // Declare the number of sample frames that are decoded at a time.
+    public static final int        BLOCK_SIZE          = 1024;
+
+    // Declare how long a thread waits before polling again for samples or
+    // space in the ring buffer.
+    public static final long       POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos( 1L );
+
+    // Declare how much audio the ring buffer holds, which absorbs scheduling
+    // hiccups of the consumer thread.
+    private static final double    RING_BUFFER_SECONDS = 1.0d;
+
+    // Declare the sample format that every stream is decoded to.
+    private static final int       SAMPLE_SIZE_IN_BITS = 16;
+    private static final float     SAMPLE_FULL_SCALE   = 32768.0f;
+
+    private final AudioInputStream audioInputStream;
+    private final FloatRingBuffer  ringBuffer;
+
+    // Flag for whether to read the stream no faster than real time, as for a
+    // file that stands in for a live input.
+    private final boolean          pacedToRealTime;
+
+    private Thread                 readerThread;
+
+    private volatile boolean       running;
+    private volatile boolean       inputEnded;
+
+    /**
+     * Makes a source of the given audio stream.
+     *
+     * @param pAudioInputStream
+     *            The audio stream, which is decoded to 16-bit PCM if needed
+     * @param pPacedToRealTime
+     *            Whether to read the stream no faster than real time
+     * @throws IOException
+     *             If the stream cannot be decoded to 16-bit PCM
+     */
+    public AudioSampleSource( final AudioInputStream pAudioInputStream,
+                              final boolean pPacedToRealTime )
+            throws IOException {
+        audioInputStream = toPcmStream( pAudioInputStream );
+        pacedToRealTime = pPacedToRealTime;
+
+        ringBuffer = new FloatRingBuffer( ( int ) Math
+                .ceil( audioInputStream.getFormat().getSampleRate() * RING_BUFFER_SECONDS ) );
+
+        running = false;
+        inputEnded = false;
+    }
+
+    /**
+     * Makes a source of a WAV (or other supported audio) file, which is read
+     * no faster than real time, as if it were a live input.
+     *
+     * @param path
+     *            The path of the audio file
+     * @return The source, which must be started
+     * @throws IOException
+     *             If the file cannot be read or decoded
+     */
+    public static AudioSampleSource openAudioFile( final Path path ) throws IOException {
+        try {
+            return new AudioSampleSource( AudioSystem.getAudioInputStream( path.toFile() ), true );
+        }
+        catch ( final UnsupportedAudioFileException uafe ) {
+            throw new IOException( "Unsupported audio file: " + path, uafe ); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Makes a source of raw, signed 16-bit little-endian PCM from a pipe (or
+     * any other file), which is read as fast as the writer supplies it.
+     *
+     * @param path
+     *            The path of the pipe
+     * @param sampleRate
+     *            The sample rate of the PCM, in Hz
+     * @param numberOfChannels
+     *            The number of interleaved channels, which are mixed to mono
+     * @return The source, which must be started
+     * @throws IOException
+     *             If the pipe cannot be opened
+     */
+    public static AudioSampleSource openPcmPipe( final Path path,
+                                                 final float sampleRate,
+                                                 final int numberOfChannels )
+            throws IOException {
+        final AudioFormat audioFormat = new AudioFormat( sampleRate,
+                                                         SAMPLE_SIZE_IN_BITS,
+                                                         numberOfChannels,
+                                                         true,
+                                                         false );
+        final InputStream inputStream = Files.newInputStream( path );
+        return new AudioSampleSource( new AudioInputStream( inputStream,
+                                                            audioFormat,
+                                                            AudioSystem.NOT_SPECIFIED ),
+                                      false );
+    }
+
+    // Decode the given stream to signed 16-bit little-endian PCM, unless it
+    // already is.
+    private static AudioInputStream toPcmStream( final AudioInputStream sourceStream )
+            throws IOException {
+        final AudioFormat sourceFormat = sourceStream.getFormat();
+        if ( AudioFormat.Encoding.PCM_SIGNED.equals( sourceFormat.getEncoding() )
+                && ( sourceFormat.getSampleSizeInBits() == SAMPLE_SIZE_IN_BITS )
+                && !sourceFormat.isBigEndian() ) {
+            return sourceStream;
+        }
+
+        final AudioFormat targetFormat = new AudioFormat( sourceFormat.getSampleRate(),
+                                                          SAMPLE_SIZE_IN_BITS,
+                                                          sourceFormat.getChannels(),
+                                                          true,
+                                                          false );
+        try {
+            return AudioSystem.getAudioInputStream( targetFormat, sourceStream );
+        }
+        catch ( final IllegalArgumentException iae ) {
+            throw new IOException( "Unsupported audio format: " + sourceFormat, iae ); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Stops the reader thread, and closes the audio stream.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+
+        // Closing the stream also unblocks a reader that waits on a pipe.
+        audioInputStream.close();
+        if ( readerThread != null ) {
+            LockSupport.unpark( readerThread );
+        }
+    }
+
+    public float getSampleRate() {
+        return audioInputStream.getFormat().getSampleRate();
+    }
+
+    /**
+     * Returns whether the stream has ended, or the source was closed, so that
+     * no more samples will be written to the ring buffer.
+     *
+     * @return {@code true} if no more samples will become readable
+     */
+    public boolean isInputEnded() {
+        return inputEnded;
+    }
+
+    /**
+     * Copies up to the given number of decoded samples out of the ring buffer.
+     * <p>
+     * NOTE: This method must only be invoked on the one consumer thread.
+     *
+     * @param target
+     *            The array to copy the samples to
+     * @param offset
+     *            The index in the target array of the first sample
+     * @param length
+     *            The maximum number of samples to copy
+     * @return The number of samples copied, which is zero if none are ready
+     */
+    public int read( final float[] target, final int offset, final int length ) {
+        return ringBuffer.read( target, offset, length );
+    }
+
+    // Decode the stream to mono samples in the ring buffer until it ends or
+    // the source is closed.
+    private void readStream() {
+        final AudioFormat audioFormat = audioInputStream.getFormat();
+        final int numberOfChannels = audioFormat.getChannels();
+        final int frameSize = audioFormat.getFrameSize();
+        final byte[] bytes = new byte[ BLOCK_SIZE * frameSize ];
+        final float[] samples = new float[ BLOCK_SIZE ];
+        final float sampleScale = 1.0f / ( numberOfChannels * SAMPLE_FULL_SCALE );
+        final double nanosPerSample = 1.0E9d / audioFormat.getSampleRate();
+        final long startNanos = System.nanoTime();
+        long numberOfReadSamples = 0L;
+        int numberOfBytes = 0;
+
+        try {
+            while ( running ) {
+                final int count = audioInputStream
+                        .read( bytes, numberOfBytes, bytes.length - numberOfBytes );
+                if ( count < 0 ) {
+                    break;
+                }
+                numberOfBytes += count;
+
+                // Mix the whole frames down to mono, and keep any partial
+                // frame for the next read.
+                final int numberOfFrames = numberOfBytes / frameSize;
+                int byteIndex = 0;
+                for ( int frame = 0; frame < numberOfFrames; frame++ ) {
+                    int sum = 0;
+                    for ( int channel = 0; channel < numberOfChannels; channel++ ) {
+                        sum += ( short ) ( ( bytes[ byteIndex ] & 0xFF )
+                                | ( bytes[ byteIndex + 1 ] << 8 ) );
+                        byteIndex += 2;
+                    }
+                    samples[ frame ] = sum * sampleScale;
+                }
+                numberOfBytes -= byteIndex;
+                System.arraycopy( bytes, byteIndex, bytes, 0, numberOfBytes );
+
+                int written = 0;
+                while ( running && ( written < numberOfFrames ) ) {
+                    final int writeCount = ringBuffer
+                            .write( samples, written, numberOfFrames - written );
+                    if ( writeCount == 0 ) {
+                        LockSupport.parkNanos( POLL_INTERVAL_NANOS );
+                    }
+                    written += writeCount;
+                }
+                numberOfReadSamples += numberOfFrames;
+
+                // Hold a file back to the rate that a live input would have.
+                if ( pacedToRealTime ) {
+                    final long aheadNanos = ( startNanos
+                            + ( long ) ( numberOfReadSamples * nanosPerSample ) )
+                            - System.nanoTime();
+                    if ( aheadNanos > 0L ) {
+                        LockSupport.parkNanos( aheadNanos );
+                    }
+                }
+            }
+        }
+        catch ( final IOException ioe ) {
+            // A stream that is closed while being read is expected on close.
+            if ( running ) {
+                ioe.printStackTrace();
+            }
+        }
+        finally {
+            inputEnded = true;
+        }
+    }
+
+    /**
+     * Starts the reader thread, which stops by itself at the end of the
+     * stream.
+     *
+     * @param threadName
+     *            The name of the reader thread
+     */
+    public void start( final String threadName ) {
+        if ( running ) {
+            return;
+        }
+        running = true;
+
+        readerThread = new Thread( this::readStream, threadName );
+        readerThread.setDaemon( true );
+        readerThread.start();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code FloatRingBuffer} is a bounded, lock-free queue of audio samples between
+ * exactly one producer thread and exactly one consumer thread.
+ * <p>
+ * Samples are copied in and out of a fixed array in bulk, so that streaming
+ * audio through the buffer never allocates. The capacity is rounded up to a
+ * power of two, so that positions wrap with a mask rather than a division.
+ *
+ * @version 1.0
+ */
+public final class FloatRingBuffer {
+
+    private final float[]    samples;
+    private final int        mask;
+
+    // Declare the total number of samples ever written and read, which only
+    // the producer and consumer respectively advance.
+    private final AtomicLong writePosition;
+    private final AtomicLong readPosition;
+
+    public FloatRingBuffer( final int minimumCapacity ) {
+        final int capacity = Integer.highestOneBit( Math.max( 2, minimumCapacity - 1 ) ) << 1;
+        samples = new float[ capacity ];
+        mask = capacity - 1;
+
+        writePosition = new AtomicLong( 0L );
+        readPosition = new AtomicLong( 0L );
+    }
+
+    public int getCapacity() {
+        return samples.length;
+    }
+
+    /**
+     * Returns the number of samples that can currently be read.
+     * <p>
+     * NOTE: This is exact on the consumer thread, and a lower bound elsewhere.
+     *
+     * @return The number of readable samples
+     */
+    public int getNumberOfReadableSamples() {
+        return ( int ) ( writePosition.get() - readPosition.get() );
+    }
+
+    /**
+     * Copies up to the given number of samples out of the buffer.
+     * <p>
+     * NOTE: This method must only be invoked on the consumer thread.
+     *
+     * @param target
+     *            The array to copy the samples to
+     * @param offset
+     *            The index in the target array of the first sample
+     * @param length
+     *            The maximum number of samples to copy
+     * @return The number of samples copied, which is zero if the buffer is empty
+     */
+    public int read( final float[] target, final int offset, final int length ) {
+        final long position = readPosition.get();
+        final int count = ( int ) Math.min( length, writePosition.get() - position );
+        if ( count <= 0 ) {
+            return 0;
+        }
+
+        final int start = ( int ) position & mask;
+        final int firstCount = Math.min( count, samples.length - start );
+        System.arraycopy( samples, start, target, offset, firstCount );
+        System.arraycopy( samples, 0, target, offset + firstCount, count - firstCount );
+
+        // Release the space only after the samples were copied out.
+        readPosition.lazySet( position + count );
+        return count;
+    }
+
+    /**
+     * Copies up to the given number of samples into the buffer.
+     * <p>
+     * NOTE: This method must only be invoked on the producer thread.
+     *
+     * @param source
+     *            The array to copy the samples from
+     * @param offset
+     *            The index in the source array of the first sample
+     * @param length
+     *            The maximum number of samples to copy
+     * @return The number of samples copied, which is zero if the buffer is full
+     */
+    public int write( final float[] source, final int offset, final int length ) {
+        final long position = writePosition.get();
+        final int count = ( int ) Math.min( length,
+                                            samples.length - ( position - readPosition.get() ) );
+        if ( count <= 0 ) {
+            return 0;
+        }
+
+        final int start = ( int ) position & mask;
+        final int firstCount = Math.min( count, samples.length - start );
+        System.arraycopy( source, offset, samples, start, firstCount );
+        System.arraycopy( source, offset + firstCount, samples, 0, count - firstCount );
+
+        // Publish the samples only after they were copied in.
+        writePosition.lazySet( position + count );
+        return count;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.audio;
+
+/**
+ * {@code SplMeter} measures the sound pressure level of a stream of samples,
+ * block by block, as a sound level meter does: the time-weighted level, the
+ * equivalent continuous level (Leq), the peak level, and the running minimum
+ * and maximum of the time-weighted level.
+ * <p>
+ * Samples are scaled to a full scale of one, and levels are referenced to the
+ * calibration level, which is the SPL of a full-scale RMS signal. Processing a
+ * block never allocates.
+ * <p>
+ * This class is not thread-safe, and is meant to be confined to the one
+ * thread that processes the samples.
+ *
+ * @version 1.0
+ */
+public final class SplMeter {
+
+    // Declare the default calibration level, in dB SPL at full-scale RMS.
+    public static final double CALIBRATION_DB_DEFAULT = 120.0d;
+
+    // Declare the smallest mean square that is converted to a level, which
+    // keeps digital silence from turning into negative infinity.
+    private static final double MEAN_SQUARE_MINIMUM   = 1.0E-20d;
+
+    private final double        sampleRate;
+    private final double        calibrationDb;
+
+    private TimeWeighting       timeWeighting;
+
+    // Declare the per-sample smoothing coefficients of the time weighting,
+    // for rising and for decaying levels.
+    private double              riseCoefficient;
+    private double              decayCoefficient;
+
+    // Declare the current time-weighted mean square, which is seeded from
+    // the first block so that it does not have to settle from silence.
+    private double              weightedMeanSquare;
+    private boolean             weightedMeanSquareSeeded;
+
+    // Declare the statistics since the last reset.
+    private double              energySum;
+    private long                numberOfSamples;
+    private double              peakSquare;
+    private double              minimumWeightedMeanSquare;
+    private double              maximumWeightedMeanSquare;
+
+    public SplMeter( final double pSampleRate ) {
+        this( pSampleRate, CALIBRATION_DB_DEFAULT, TimeWeighting.defaultValue() );
+    }
+
+    public SplMeter( final double pSampleRate,
+                     final double pCalibrationDb,
+                     final TimeWeighting pTimeWeighting ) {
+        sampleRate = pSampleRate;
+        calibrationDb = pCalibrationDb;
+
+        weightedMeanSquare = 0.0d;
+        weightedMeanSquareSeeded = false;
+
+        setTimeWeighting( pTimeWeighting );
+        resetStatistics();
+    }
+
+    public double getCalibrationDb() {
+        return calibrationDb;
+    }
+
+    public double getLeqDb() {
+        return ( numberOfSamples > 0L ) ? toLevelDb( energySum / numberOfSamples ) : Double.NaN;
+    }
+
+    public double getLevelDb() {
+        return weightedMeanSquareSeeded ? toLevelDb( weightedMeanSquare ) : Double.NaN;
+    }
+
+    public double getMaximumLevelDb() {
+        return ( numberOfSamples > 0L ) ? toLevelDb( maximumWeightedMeanSquare ) : Double.NaN;
+    }
+
+    public double getMinimumLevelDb() {
+        return ( numberOfSamples > 0L ) ? toLevelDb( minimumWeightedMeanSquare ) : Double.NaN;
+    }
+
+    public long getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    public double getPeakDb() {
+        return ( numberOfSamples > 0L ) ? toLevelDb( peakSquare ) : Double.NaN;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public TimeWeighting getTimeWeighting() {
+        return timeWeighting;
+    }
+
+    /**
+     * Returns a snapshot of the current levels.
+     *
+     * @return The current reading
+     */
+    public SplMeterReading makeReading() {
+        return new SplMeterReading( timeWeighting,
+                                    getLevelDb(),
+                                    getLeqDb(),
+                                    getPeakDb(),
+                                    getMinimumLevelDb(),
+                                    getMaximumLevelDb(),
+                                    numberOfSamples,
+                                    numberOfSamples / sampleRate );
+    }
+
+    /**
+     * Measures a block of samples.
+     *
+     * @param samples
+     *            The samples, scaled to a full scale of one
+     * @param offset
+     *            The index of the first sample of the block
+     * @param length
+     *            The number of samples in the block
+     */
+    public void process( final float[] samples, final int offset, final int length ) {
+        if ( length <= 0 ) {
+            return;
+        }
+
+        final int end = offset + length;
+        double blockEnergy = 0.0d;
+        double blockPeakSquare = 0.0d;
+        for ( int i = offset; i < end; i++ ) {
+            final double square = samples[ i ] * samples[ i ];
+            blockEnergy += square;
+            blockPeakSquare = Math.max( blockPeakSquare, square );
+        }
+
+        if ( !weightedMeanSquareSeeded ) {
+            weightedMeanSquare = blockEnergy / length;
+            weightedMeanSquareSeeded = true;
+        }
+
+        // Run the exponential time weighting, tracking its extrema, which
+        // the statistics may already hold from earlier blocks.
+        double meanSquare = weightedMeanSquare;
+        double minimumMeanSquare = ( numberOfSamples > 0L )
+            ? minimumWeightedMeanSquare
+            : Double.POSITIVE_INFINITY;
+        double maximumMeanSquare = ( numberOfSamples > 0L ) ? maximumWeightedMeanSquare : 0.0d;
+        for ( int i = offset; i < end; i++ ) {
+            final double square = samples[ i ] * samples[ i ];
+            meanSquare += ( square - meanSquare )
+                    * ( ( square > meanSquare ) ? riseCoefficient : decayCoefficient );
+            minimumMeanSquare = Math.min( minimumMeanSquare, meanSquare );
+            maximumMeanSquare = Math.max( maximumMeanSquare, meanSquare );
+        }
+
+        weightedMeanSquare = meanSquare;
+        minimumWeightedMeanSquare = minimumMeanSquare;
+        maximumWeightedMeanSquare = maximumMeanSquare;
+        peakSquare = Math.max( peakSquare, blockPeakSquare );
+        energySum += blockEnergy;
+        numberOfSamples += length;
+    }
+
+    /**
+     * Restarts the Leq, peak, minimum and maximum, without disturbing the
+     * time-weighted level.
+     */
+    public void resetStatistics() {
+        energySum = 0.0d;
+        numberOfSamples = 0L;
+        peakSquare = 0.0d;
+        minimumWeightedMeanSquare = 0.0d;
+        maximumWeightedMeanSquare = 0.0d;
+    }
+
+    public void setTimeWeighting( final TimeWeighting pTimeWeighting ) {
+        timeWeighting = pTimeWeighting;
+
+        riseCoefficient = 1.0d
+                - Math.exp( -1.0d / ( timeWeighting.getRiseTimeSeconds() * sampleRate ) );
+        decayCoefficient = 1.0d
+                - Math.exp( -1.0d / ( timeWeighting.getDecayTimeSeconds() * sampleRate ) );
+    }
+
+    private double toLevelDb( final double meanSquare ) {
+        return calibrationDb + ( 10.0d * Math.log10( Math.max( MEAN_SQUARE_MINIMUM, meanSquare ) ) );
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.audio;
+
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+
+/**
+ * {@code SplMeterReading} is an immutable snapshot of the levels measured by a
+ * {@link SplMeter}, in dB SPL.
+ *
+ * @version 1.0
+ */
+public final class SplMeterReading {
+
+    private final TimeWeighting timeWeighting;
+
+    // Declare the current time-weighted level.
+    private final double        levelDb;
+
+    // Declare the equivalent continuous level, and the peak level, since the
+    // statistics were last reset.
+    private final double        leqDb;
+    private final double        peakDb;
+
+    // Declare the running extrema of the time-weighted level since the
+    // statistics were last reset.
+    private final double        minimumLevelDb;
+    private final double        maximumLevelDb;
+
+    private final long          numberOfSamples;
+    private final double        durationSeconds;
+
+    public SplMeterReading( final TimeWeighting pTimeWeighting,
+                            final double pLevelDb,
+                            final double pLeqDb,
+                            final double pPeakDb,
+                            final double pMinimumLevelDb,
+                            final double pMaximumLevelDb,
+                            final long pNumberOfSamples,
+                            final double pDurationSeconds ) {
+        timeWeighting = pTimeWeighting;
+        levelDb = pLevelDb;
+        leqDb = pLeqDb;
+        peakDb = pPeakDb;
+        minimumLevelDb = pMinimumLevelDb;
+        maximumLevelDb = pMaximumLevelDb;
+        numberOfSamples = pNumberOfSamples;
+        durationSeconds = pDurationSeconds;
+    }
+
+    public double getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public double getLeqDb() {
+        return leqDb;
+    }
+
+    public double getLevelDb() {
+        return levelDb;
+    }
+
+    public double getMaximumLevelDb() {
+        return maximumLevelDb;
+    }
+
+    public double getMinimumLevelDb() {
+        return minimumLevelDb;
+    }
+
+    public long getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    public double getPeakDb() {
+        return peakDb;
+    }
+
+    public TimeWeighting getTimeWeighting() {
+        return timeWeighting;
+    }
+
+    public boolean isEmpty() {
+        return numberOfSamples == 0L;
+    }
+
+    /**
+     * Converts the measured dynamic range to SPL statistics, so that it can
+     * drive the Auto-Range SPL the same way a predicted Sound Field does.
+     * <p>
+     * The floor and ceiling are the running extrema of the time-weighted
+     * level, and the maximum is the peak level.
+     *
+     * @return The SPL statistics, or {@link SplRange#EMPTY} if nothing was
+     *         measured yet
+     */
+    public SplRange toSplRange() {
+        if ( isEmpty() ) {
+            return SplRange.EMPTY;
+        }
+
+        return new SplRange( minimumLevelDb,
+                             maximumLevelDb,
+                             minimumLevelDb,
+                             Math.max( maximumLevelDb, peakDb ),
+                             numberOfSamples );
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.audio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * {@code StreamingSplMeter} continuously meters an audio stream, such as a WAV
+ * file or a pipe standing in for a live input, and publishes its readings to
+ * its listeners at a throttled rate.
+ * <p>
+ * An {@link AudioSampleSource} decodes the stream to mono samples on its own
+ * reader thread, which hands them to the metering thread through a lock-free
+ * ring buffer. The metering thread runs them through a {@link SplMeter}, block
+ * by block, and publishes a {@link SplMeterReading} once per publishing
+ * interval of stream time. All buffers are allocated up front, so the only
+ * allocation while streaming is the published reading.
+ * <p>
+ * Listeners are notified on the metering thread, so they should post the
+ * reading to their UI thread, such as through
+ * {@code SplRangeStage.startSplMetering()}.
+ *
+ * @version 1.0
+ */
+public final class StreamingSplMeter implements Closeable {
+
+    // Declare the default publishing interval, which is the display rate
+    // of a typical sound level meter.
+    public static final long                           PUBLISH_INTERVAL_MILLIS_DEFAULT = 125L;
+
+    private final AudioSampleSource                    audioSampleSource;
+    private final SplMeter                             splMeter;
+
+    // Declare the number of samples per publishing interval.
+    private final int                                  publishIntervalSamples;
+
+    private final List< Consumer< SplMeterReading > >  listeners;
+
+    // Declare the settings requested from other threads, which the metering
+    // thread applies in between blocks.
+    private volatile TimeWeighting                     requestedTimeWeighting;
+    private final AtomicBoolean                        resetRequested;
+
+    private Thread                                     meteringThread;
+
+    private volatile boolean                           running;
+
+    /**
+     * Makes a meter of the given audio source.
+     *
+     * @param pAudioSampleSource
+     *            The audio source, which the meter starts and closes
+     * @param calibrationDb
+     *            The SPL of a full-scale RMS signal
+     * @param timeWeighting
+     *            The initial time weighting
+     * @param publishIntervalMillis
+     *            The stream time between published readings, in milliseconds
+     */
+    public StreamingSplMeter( final AudioSampleSource pAudioSampleSource,
+                              final double calibrationDb,
+                              final TimeWeighting timeWeighting,
+                              final long publishIntervalMillis ) {
+        audioSampleSource = pAudioSampleSource;
+
+        final float sampleRate = audioSampleSource.getSampleRate();
+        splMeter = new SplMeter( sampleRate, calibrationDb, timeWeighting );
+        publishIntervalSamples = Math.max( 1,
+                                           ( int ) Math.round( ( sampleRate * publishIntervalMillis )
+                                                   / 1000.0d ) );
+
+        listeners = new CopyOnWriteArrayList<>();
+
+        requestedTimeWeighting = timeWeighting;
+        resetRequested = new AtomicBoolean( false );
+
+        running = false;
+    }
+
+    /**
+     * Makes a meter of a WAV (or other supported audio) file, which is read
+     * no faster than real time, as if it were a live input.
+     *
+     * @param path
+     *            The path of the audio file
+     * @param calibrationDb
+     *            The SPL of a full-scale RMS signal
+     * @return The meter, which must be started
+     * @throws IOException
+     *             If the file cannot be read or decoded
+     */
+    public static StreamingSplMeter openAudioFile( final Path path, final double calibrationDb )
+            throws IOException {
+        return new StreamingSplMeter( AudioSampleSource.openAudioFile( path ),
+                                      calibrationDb,
+                                      TimeWeighting.defaultValue(),
+                                      PUBLISH_INTERVAL_MILLIS_DEFAULT );
+    }
+
+    /**
+     * Makes a meter of raw, signed 16-bit little-endian PCM from a pipe (or
+     * any other file), which is read as fast as the writer supplies it.
+     *
+     * @param path
+     *            The path of the pipe
+     * @param sampleRate
+     *            The sample rate of the PCM, in Hz
+     * @param numberOfChannels
+     *            The number of interleaved channels, which are mixed to mono
+     * @param calibrationDb
+     *            The SPL of a full-scale RMS signal
+     * @return The meter, which must be started
+     * @throws IOException
+     *             If the pipe cannot be opened
+     */
+    public static StreamingSplMeter openPcmPipe( final Path path,
+                                                 final float sampleRate,
+                                                 final int numberOfChannels,
+                                                 final double calibrationDb )
+            throws IOException {
+        return new StreamingSplMeter( AudioSampleSource
+                .openPcmPipe( path, sampleRate, numberOfChannels ),
+                                      calibrationDb,
+                                      TimeWeighting.defaultValue(),
+                                      PUBLISH_INTERVAL_MILLIS_DEFAULT );
+    }
+
+    public void addListener( final Consumer< SplMeterReading > listener ) {
+        listeners.add( listener );
+    }
+
+    /**
+     * Stops the meter, and closes its audio source.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+
+        audioSampleSource.close();
+        if ( meteringThread != null ) {
+            LockSupport.unpark( meteringThread );
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Meter samples from the audio source until the stream is exhausted or
+    // the meter is stopped or closed.
+    private void meter() {
+        final float[] block = new float[ AudioSampleSource.BLOCK_SIZE ];
+        int samplesSincePublish = 0;
+
+        while ( running ) {
+            if ( requestedTimeWeighting != splMeter.getTimeWeighting() ) {
+                splMeter.setTimeWeighting( requestedTimeWeighting );
+            }
+            if ( resetRequested.getAndSet( false ) ) {
+                splMeter.resetStatistics();
+            }
+
+            // Check for the end of input before reading, so that the samples
+            // written before it ended are still drained.
+            final boolean ended = audioSampleSource.isInputEnded();
+            final int count = audioSampleSource.read( block,
+                                                      0,
+                                                      Math.min( block.length,
+                                                                publishIntervalSamples
+                                                                        - samplesSincePublish ) );
+            if ( count == 0 ) {
+                if ( ended ) {
+                    break;
+                }
+
+                LockSupport.parkNanos( AudioSampleSource.POLL_INTERVAL_NANOS );
+                continue;
+            }
+
+            splMeter.process( block, 0, count );
+
+            samplesSincePublish += count;
+            if ( samplesSincePublish >= publishIntervalSamples ) {
+                publish();
+                samplesSincePublish = 0;
+            }
+        }
+
+        // Publish the tail of the stream, if it is not yet reflected.
+        if ( samplesSincePublish > 0 ) {
+            publish();
+        }
+
+        running = false;
+    }
+
+    private void publish() {
+        final SplMeterReading reading = splMeter.makeReading();
+        for ( final Consumer< SplMeterReading > listener : listeners ) {
+            listener.accept( reading );
+        }
+    }
+
+    private void joinMeteringThread() {
+        // A listener that stops the meter runs on the metering thread, which
+        // then finishes by itself once it returns.
+        if ( ( meteringThread == null ) || ( meteringThread == Thread.currentThread() ) ) {
+            return;
+        }
+
+        LockSupport.unpark( meteringThread );
+        try {
+            meteringThread.join();
+        }
+        catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void removeListener( final Consumer< SplMeterReading > listener ) {
+        listeners.remove( listener );
+    }
+
+    /**
+     * Requests that the Leq, peak, minimum and maximum restart, which takes
+     * effect before the next block is metered.
+     */
+    public void resetStatistics() {
+        resetRequested.set( true );
+    }
+
+    /**
+     * Requests a new time weighting, which takes effect before the next block
+     * is metered.
+     *
+     * @param timeWeighting
+     *            The new time weighting
+     */
+    public void setTimeWeighting( final TimeWeighting timeWeighting ) {
+        requestedTimeWeighting = timeWeighting;
+    }
+
+    /**
+     * Starts the audio source and the metering thread, which stop by
+     * themselves at the end of the stream, or resumes metering after
+     * {@link #stop()}.
+     */
+    public void start() {
+        if ( running ) {
+            return;
+        }
+
+        // Wait for the metering thread of a previous run to finish, so that
+        // only one thread ever meters the source.
+        joinMeteringThread();
+        running = true;
+
+        meteringThread = new Thread( this::meter, "SPL Meter" ); //$NON-NLS-1$
+        meteringThread.setDaemon( true );
+
+        audioSampleSource.start( "SPL Meter Reader" ); //$NON-NLS-1$
+        meteringThread.start();
+    }
+
+    /**
+     * Stops the metering thread, without closing the audio source, so that a
+     * meter that belongs to someone else can be stopped by whoever started it
+     * and still be restarted or closed by its owner.
+     */
+    public void stop() {
+        running = false;
+
+        joinMeteringThread();
+    }
+}
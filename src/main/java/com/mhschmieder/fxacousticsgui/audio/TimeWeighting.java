@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.audio;
+
+/**
+ * {@code TimeWeighting} selects the exponential time weighting of a sound
+ * level meter, per IEC 61672-1.
+ *
+ * @version 1.0
+ */
+public enum TimeWeighting {
+    /**
+     * Fast weighting, with a time constant of 125 ms.
+     */
+    FAST( 0.125d, 0.125d ),
+
+    /**
+     * Slow weighting, with a time constant of one second.
+     */
+    SLOW( 1.0d, 1.0d ),
+
+    /**
+     * Impulse weighting, which rises with a time constant of 35 ms and
+     * decays with a time constant of 1.5 seconds.
+     */
+    IMPULSE( 0.035d, 1.5d );
+
+    private final double riseTimeSeconds;
+    private final double decayTimeSeconds;
+
+    TimeWeighting( final double pRiseTimeSeconds, final double pDecayTimeSeconds ) {
+        riseTimeSeconds = pRiseTimeSeconds;
+        decayTimeSeconds = pDecayTimeSeconds;
+    }
+
+    public double getDecayTimeSeconds() {
+        return decayTimeSeconds;
+    }
+
+    public double getRiseTimeSeconds() {
+        return riseTimeSeconds;
+    }
+
+    public static TimeWeighting defaultValue() {
+        return FAST;
+    }
+}
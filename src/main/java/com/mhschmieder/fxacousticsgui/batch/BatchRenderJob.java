@@ -0,0 +1,314 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.batch;
+
+import com.mhschmieder.fxacousticsgui.render.DitheringMode;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDisplaySettings;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDitherer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.Deflater;
+
+/**
+ * {@code BatchRenderJob} is an immutable description of a headless batch
+ * render, loaded from a job file in {@link Properties} format.
+ * <p>
+ * The job file holds the same settings as the SPL Range and Dithering panes,
+ * plus the SPL grid files to render and where to write the images to:
+ *
+ * <pre>
+ * splGridFiles     = hall.spl, foyer.spl
+ * bands            = 0-30
+ * autoRangeSpl     = true
+ * splRangeDb       = 40
+ * useDithering     = true
+ * ditheringAmount  = 50
+ * ditheringMode    = BLUE_NOISE
+ * outputDirectory  = maps
+ * numberOfWorkers  = 8
+ * compressionLevel = 6
+ * </pre>
+ *
+ * Only the SPL grid files are required. Relative paths are resolved against
+ * the directory of the job file, and an absent or empty band list selects
+ * every band of each SPL grid file.
+ *
+ * @version 1.0
+ */
+public final class BatchRenderJob {
+
+    // Declare the job file keys.
+    public static final String        KEY_SPL_GRID_FILES        = "splGridFiles";     //$NON-NLS-1$
+    public static final String        KEY_BANDS                 = "bands";            //$NON-NLS-1$
+    public static final String        KEY_AUTO_RANGE_SPL        = "autoRangeSpl";     //$NON-NLS-1$
+    public static final String        KEY_SPL_RANGE_DB          = "splRangeDb";       //$NON-NLS-1$
+    public static final String        KEY_USE_DITHERING         = "useDithering";     //$NON-NLS-1$
+    public static final String        KEY_DITHERING_AMOUNT      = "ditheringAmount";  //$NON-NLS-1$
+    public static final String        KEY_DITHERING_MODE        = "ditheringMode";    //$NON-NLS-1$
+    public static final String        KEY_OUTPUT_DIRECTORY      = "outputDirectory";  //$NON-NLS-1$
+    public static final String        KEY_NUMBER_OF_WORKERS     = "numberOfWorkers";  //$NON-NLS-1$
+    public static final String        KEY_COMPRESSION_LEVEL     = "compressionLevel"; //$NON-NLS-1$
+
+    // Declare the defaults for the optional settings.
+    public static final int           SPL_RANGE_DB_DEFAULT      = 40;
+    public static final double        DITHERING_AMOUNT_DEFAULT  = 50.0d;
+    public static final int           COMPRESSION_LEVEL_DEFAULT = Deflater.DEFAULT_COMPRESSION;
+
+    // Declare the SPL grid files to render, and the bands to render of each,
+    // where an empty band list selects every band.
+    private final List< Path >              splGridPaths;
+    private final int[]                     bandIndices;
+
+    // Declare the SPL Range and Dithering settings to render with.
+    private final SoundFieldDisplaySettings displaySettings;
+    private final DitheringMode             ditheringMode;
+
+    // Declare where to write the images to, and how.
+    private final Path                      outputDirectory;
+    private final int                       numberOfWorkers;
+    private final int                       compressionLevel;
+
+    public BatchRenderJob( final List< Path > pSplGridPaths,
+                           final int[] pBandIndices,
+                           final SoundFieldDisplaySettings pDisplaySettings,
+                           final DitheringMode pDitheringMode,
+                           final Path pOutputDirectory,
+                           final int pNumberOfWorkers,
+                           final int pCompressionLevel ) {
+        if ( pSplGridPaths.isEmpty() ) {
+            throw new IllegalArgumentException( "No SPL grid files to render" ); //$NON-NLS-1$
+        }
+        if ( pNumberOfWorkers < 1 ) {
+            throw new IllegalArgumentException( "Number of workers must be positive" ); //$NON-NLS-1$
+        }
+
+        splGridPaths = Collections.unmodifiableList( new ArrayList<>( pSplGridPaths ) );
+        bandIndices = pBandIndices.clone();
+        displaySettings = pDisplaySettings;
+        ditheringMode = pDitheringMode;
+        outputDirectory = pOutputDirectory;
+        numberOfWorkers = pNumberOfWorkers;
+        compressionLevel = pCompressionLevel;
+    }
+
+    /**
+     * Loads a batch render job from a job file.
+     *
+     * @param jobPath
+     *            The path of the job file
+     * @return The batch render job
+     * @throws IOException
+     *             If the job file cannot be read
+     * @throws IllegalArgumentException
+     *             If the job file has a missing or invalid setting
+     */
+    public static BatchRenderJob load( final Path jobPath ) throws IOException {
+        final Properties properties = new Properties();
+        try ( final Reader reader = Files.newBufferedReader( jobPath, StandardCharsets.UTF_8 ) ) {
+            properties.load( reader );
+        }
+
+        final Path jobDirectory = jobPath.toAbsolutePath().getParent();
+        return fromProperties( properties, jobDirectory );
+    }
+
+    /**
+     * Makes a batch render job from the settings of a job file.
+     *
+     * @param properties
+     *            The settings of the job file
+     * @param baseDirectory
+     *            The directory that relative paths are resolved against
+     * @return The batch render job
+     * @throws IllegalArgumentException
+     *             If a setting is missing or invalid
+     */
+    public static BatchRenderJob fromProperties( final Properties properties,
+                                                 final Path baseDirectory ) {
+        final List< Path > splGridPaths = new ArrayList<>();
+        for ( final String splGridFile : getValues( properties, KEY_SPL_GRID_FILES ) ) {
+            splGridPaths.add( baseDirectory.resolve( splGridFile ) );
+        }
+
+        final int[] bandIndices = parseBandIndices( getValues( properties, KEY_BANDS ) );
+
+        final SoundFieldDisplaySettings displaySettings = new SoundFieldDisplaySettings(
+                getInt( properties, KEY_SPL_RANGE_DB, SPL_RANGE_DB_DEFAULT ),
+                getBoolean( properties, KEY_AUTO_RANGE_SPL, true ),
+                getBoolean( properties, KEY_USE_DITHERING, false ),
+                Math.max( 0.0d,
+                          Math.min( SoundFieldDitherer.DITHERING_AMOUNT_MAXIMUM,
+                                    getDouble( properties,
+                                               KEY_DITHERING_AMOUNT,
+                                               DITHERING_AMOUNT_DEFAULT ) ) ) );
+
+        final String ditheringModeName = properties.getProperty( KEY_DITHERING_MODE, "" ).trim(); //$NON-NLS-1$
+        final DitheringMode ditheringMode;
+        try {
+            ditheringMode = ditheringModeName.isEmpty()
+                ? DitheringMode.defaultValue()
+                : DitheringMode.valueOf( ditheringModeName );
+        }
+        catch ( final IllegalArgumentException iae ) {
+            throw new IllegalArgumentException( "Invalid " + KEY_DITHERING_MODE + ": " //$NON-NLS-1$ //$NON-NLS-2$
+                    + ditheringModeName );
+        }
+
+        final Path outputDirectory = baseDirectory
+                .resolve( properties.getProperty( KEY_OUTPUT_DIRECTORY, "" ).trim() ); //$NON-NLS-1$
+
+        return new BatchRenderJob( splGridPaths,
+                                   bandIndices,
+                                   displaySettings,
+                                   ditheringMode,
+                                   outputDirectory,
+                                   getInt( properties,
+                                           KEY_NUMBER_OF_WORKERS,
+                                           Runtime.getRuntime().availableProcessors() ),
+                                   Math.max( Deflater.DEFAULT_COMPRESSION,
+                                             Math.min( Deflater.BEST_COMPRESSION,
+                                                       getInt( properties,
+                                                               KEY_COMPRESSION_LEVEL,
+                                                               COMPRESSION_LEVEL_DEFAULT ) ) ) );
+    }
+
+    private static boolean getBoolean( final Properties properties,
+                                       final String key,
+                                       final boolean defaultValue ) {
+        final String value = properties.getProperty( key, "" ).trim(); //$NON-NLS-1$
+        return value.isEmpty() ? defaultValue : Boolean.parseBoolean( value );
+    }
+
+    private static double getDouble( final Properties properties,
+                                     final String key,
+                                     final double defaultValue ) {
+        final String value = properties.getProperty( key, "" ).trim(); //$NON-NLS-1$
+        try {
+            return value.isEmpty() ? defaultValue : Double.parseDouble( value );
+        }
+        catch ( final NumberFormatException nfe ) {
+            throw new IllegalArgumentException( "Invalid " + key + ": " + value ); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    private static int getInt( final Properties properties,
+                               final String key,
+                               final int defaultValue ) {
+        final String value = properties.getProperty( key, "" ).trim(); //$NON-NLS-1$
+        try {
+            return value.isEmpty() ? defaultValue : Integer.parseInt( value );
+        }
+        catch ( final NumberFormatException nfe ) {
+            throw new IllegalArgumentException( "Invalid " + key + ": " + value ); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    private static List< String > getValues( final Properties properties, final String key ) {
+        final List< String > values = new ArrayList<>();
+        for ( final String value : properties.getProperty( key, "" ).split( "," ) ) { //$NON-NLS-1$ //$NON-NLS-2$
+            if ( !value.trim().isEmpty() ) {
+                values.add( value.trim() );
+            }
+        }
+        return values;
+    }
+
+    private static int[] parseBandIndices( final List< String > bandRanges ) {
+        // Each entry is either a single band index or an inclusive range.
+        final List< Integer > bandIndices = new ArrayList<>();
+        for ( final String bandRange : bandRanges ) {
+            final int separatorIndex = bandRange.indexOf( '-', 1 );
+            try {
+                final int firstBandIndex = Integer.parseInt( ( separatorIndex < 0
+                    ? bandRange
+                    : bandRange.substring( 0, separatorIndex ) ).trim() );
+                final int lastBandIndex = ( separatorIndex < 0 )
+                    ? firstBandIndex
+                    : Integer.parseInt( bandRange.substring( separatorIndex + 1 ).trim() );
+                if ( ( firstBandIndex < 0 ) || ( lastBandIndex < firstBandIndex ) ) {
+                    throw new NumberFormatException();
+                }
+                for ( int bandIndex = firstBandIndex; bandIndex <= lastBandIndex; bandIndex++ ) {
+                    bandIndices.add( bandIndex );
+                }
+            }
+            catch ( final NumberFormatException nfe ) {
+                throw new IllegalArgumentException( "Invalid " + KEY_BANDS + ": " + bandRange ); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+
+        final int[] bandIndexArray = new int[ bandIndices.size() ];
+        for ( int i = 0; i < bandIndexArray.length; i++ ) {
+            bandIndexArray[ i ] = bandIndices.get( i );
+        }
+        return bandIndexArray;
+    }
+
+    public int[] getBandIndices() {
+        return bandIndices.clone();
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public SoundFieldDisplaySettings getDisplaySettings() {
+        return displaySettings;
+    }
+
+    public DitheringMode getDitheringMode() {
+        return ditheringMode;
+    }
+
+    public int getNumberOfWorkers() {
+        return numberOfWorkers;
+    }
+
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public List< Path > getSplGridPaths() {
+        return splGridPaths;
+    }
+
+    public boolean isAllBands() {
+        return bandIndices.length == 0;
+    }
+}
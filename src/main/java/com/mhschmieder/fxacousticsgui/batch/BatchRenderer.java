@@ -0,0 +1,312 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.batch;
+
+import com.mhschmieder.fxacousticsgui.render.RenderCancellation;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldColorizer;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDisplaySettings;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDitherer;
+import com.mhschmieder.fxacousticsgui.render.SplColorLookupTable;
+import com.mhschmieder.fxacousticsgui.soundfield.MappedSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRangeEngine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * {@code BatchRenderer} renders the Sound Field images of a
+ * {@link BatchRenderJob} to PNG files, with no display and without ever
+ * starting the JavaFX toolkit.
+ * <p>
+ * Every selected band of every SPL grid file is an independent render, and
+ * the renders are spread across a fixed pool of worker threads. Each worker
+ * keeps its own colorizer, ditherer and image buffer, which are not
+ * thread-safe, while the per-image quantization, auto-ranging and dithering
+ * all share one fork-join pool, so the renders overlap their serial PNG
+ * encoding with the parallel work of other renders.
+ * <p>
+ * Each band is colormapped just as the interactive display is, by quantizing
+ * it once into an index buffer and then mapping its codes through a color
+ * lookup table for the SPL Range.
+ * <p>
+ * The SPL grids are read through {@link MappedSplGrid}, so no grid is ever
+ * copied to the heap, and the images are written via NIO channels by the
+ * {@link PngImageWriter}.
+ *
+ * @version 1.0
+ */
+public final class BatchRenderer {
+
+    // Declare the suffixes of the image file names.
+    private static final String               BAND_SUFFIX  = "-band";      //$NON-NLS-1$
+    private static final String               IMAGE_SUFFIX = ".png";       //$NON-NLS-1$
+
+    // Declare the job to render.
+    private final BatchRenderJob              job;
+
+    // Declare the pool that the per-image work is shared across.
+    private final ForkJoinPool                forkJoinPool;
+
+    // Declare the engine that auto-ranges the SPL of each band.
+    private final SplRangeEngine              splRangeEngine;
+
+    // Declare the colorizer and ditherer of each worker thread.
+    private final ThreadLocal< RenderContext > renderContexts;
+
+    public BatchRenderer( final BatchRenderJob pJob ) {
+        this( pJob, ForkJoinPool.commonPool() );
+    }
+
+    public BatchRenderer( final BatchRenderJob pJob, final ForkJoinPool pForkJoinPool ) {
+        job = pJob;
+        forkJoinPool = pForkJoinPool;
+
+        splRangeEngine = new SplRangeEngine( forkJoinPool,
+                                             SplRangeEngine.TILE_SIZE_DEFAULT,
+                                             SplRangeEngine.FLOOR_FRACTION_DEFAULT,
+                                             SplRangeEngine.CEILING_FRACTION_DEFAULT );
+        renderContexts = ThreadLocal.withInitial( () -> new RenderContext( job, forkJoinPool ) );
+    }
+
+    /**
+     * Renders the batch render job of the given job file.
+     *
+     * @param args
+     *            The path of the job file
+     */
+    public static void main( final String[] args ) {
+        if ( args.length != 1 ) {
+            System.err.println( "Usage: BatchRenderer <job file>" ); //$NON-NLS-1$
+            System.exit( 2 );
+        }
+
+        try {
+            final BatchRenderJob job = BatchRenderJob.load( Paths.get( args[ 0 ] ) );
+            final List< Path > imagePaths = new BatchRenderer( job ).render();
+            System.out.println( "Rendered " + imagePaths.size() + " images to " //$NON-NLS-1$ //$NON-NLS-2$
+                    + job.getOutputDirectory() );
+        }
+        catch ( final IOException | IllegalArgumentException ex ) {
+            ex.printStackTrace();
+            System.exit( 1 );
+        }
+        catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            System.exit( 1 );
+        }
+    }
+
+    public BatchRenderJob getJob() {
+        return job;
+    }
+
+    private Path getImagePath( final Path splGridPath, final int bandIndex ) {
+        final String splGridFileName = splGridPath.getFileName().toString();
+        final int extensionIndex = splGridFileName.lastIndexOf( '.' );
+        final String baseName = ( extensionIndex > 0 )
+            ? splGridFileName.substring( 0, extensionIndex )
+            : splGridFileName;
+        return job.getOutputDirectory().resolve( baseName + BAND_SUFFIX + bandIndex + IMAGE_SUFFIX );
+    }
+
+    private int[] getBandIndices( final Path splGridPath ) throws IOException {
+        final int numberOfBands;
+        try ( final MappedSplGrid splGrid = MappedSplGrid.open( splGridPath, 0, false ) ) {
+            numberOfBands = splGrid.getNumberOfBands();
+        }
+
+        if ( job.isAllBands() ) {
+            final int[] bandIndices = new int[ numberOfBands ];
+            for ( int bandIndex = 0; bandIndex < numberOfBands; bandIndex++ ) {
+                bandIndices[ bandIndex ] = bandIndex;
+            }
+            return bandIndices;
+        }
+
+        final int[] bandIndices = job.getBandIndices();
+        for ( final int bandIndex : bandIndices ) {
+            if ( bandIndex >= numberOfBands ) {
+                throw new IllegalArgumentException( "No band " + bandIndex + " in " + splGridPath ); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        return bandIndices;
+    }
+
+    /**
+     * Renders every selected band of every SPL grid file of the job, and
+     * waits until all of them have been written.
+     * <p>
+     * A render that fails does not stop the others, but is reported once all
+     * of them are done. Bands with no valid cells have no meaningful SPL
+     * Range, and are skipped.
+     *
+     * @return The paths of the images that were written
+     * @throws IOException
+     *             If an SPL grid file cannot be read, the output directory
+     *             cannot be created, or any render failed
+     * @throws InterruptedException
+     *             If interrupted while waiting for the renders
+     */
+    public List< Path > render() throws IOException, InterruptedException {
+        // Check every SPL grid file up front, so that a bad job fails before
+        // hours of rendering rather than after.
+        final List< Callable< Path > > renderTasks = new ArrayList<>();
+        for ( final Path splGridPath : job.getSplGridPaths() ) {
+            for ( final int bandIndex : getBandIndices( splGridPath ) ) {
+                renderTasks.add( () -> renderImage( splGridPath, bandIndex ) );
+            }
+        }
+
+        Files.createDirectories( job.getOutputDirectory() );
+
+        final ExecutorService renderExecutor = Executors
+                .newFixedThreadPool( job.getNumberOfWorkers(), runnable -> {
+                    final Thread thread = new Thread( runnable, "Batch Renderer" ); //$NON-NLS-1$
+                    thread.setDaemon( true );
+                    return thread;
+                } );
+        try {
+            final List< Path > imagePaths = new ArrayList<>( renderTasks.size() );
+            int numberOfFailures = 0;
+            for ( final Future< Path > renderResult : renderExecutor.invokeAll( renderTasks ) ) {
+                try {
+                    final Path imagePath = renderResult.get();
+                    if ( imagePath != null ) {
+                        imagePaths.add( imagePath );
+                    }
+                }
+                catch ( final ExecutionException ee ) {
+                    ee.getCause().printStackTrace();
+                    numberOfFailures++;
+                }
+            }
+
+            if ( numberOfFailures > 0 ) {
+                throw new IOException( numberOfFailures + " of " + renderTasks.size() //$NON-NLS-1$
+                        + " renders failed" ); //$NON-NLS-1$
+            }
+
+            return imagePaths;
+        }
+        finally {
+            renderExecutor.shutdownNow();
+        }
+    }
+
+    private Path renderImage( final Path splGridPath, final int bandIndex ) throws IOException {
+        final SoundFieldDisplaySettings displaySettings = job.getDisplaySettings();
+        final RenderContext renderContext = renderContexts.get();
+
+        try ( final MappedSplGrid splGrid = MappedSplGrid.open( splGridPath, bandIndex, false ) ) {
+            final SplRange splRange = splRangeEngine.computeRange( splGrid );
+            if ( splRange.isEmpty() ) {
+                return null;
+            }
+
+            // The palette always tops out at the ceiling of the band, so the
+            // fixed SPL Range only replaces the auto-ranged span below it.
+            final int splRangeDb = displaySettings.isAutoRangeSpl()
+                ? splRange.getSplRangeDb()
+                : displaySettings.getSplRangeDb();
+
+            // Quantize the band once, spanning the palette of a wider fixed
+            // SPL Range, and colormap its codes through the lookup table.
+            final SoundFieldColorizer colorizer = renderContext
+                    .getColorizer( splGrid.getNumberOfColumns(), splGrid.getNumberOfRows() );
+            colorizer.setSplGrid( splGrid, splRange, splRangeDb );
+            final SplColorLookupTable lookupTable = colorizer.getLookupTable();
+            lookupTable.update( colorizer.getIndexBuffer(), colorizer.getCeilingDb(), splRangeDb );
+            final SoundFieldDitherer ditherer = renderContext.ditherer;
+            if ( ditherer.isDitheringEnabled() ) {
+                ditherer.dither( colorizer.getIndexBuffer(),
+                                 lookupTable,
+                                 renderContext.argbPixels,
+                                 RenderCancellation.NONE );
+            }
+            else {
+                colorizer.blit( lookupTable.getArgbColors(),
+                                renderContext.argbPixels,
+                                RenderCancellation.NONE );
+            }
+
+            final Path imagePath = getImagePath( splGridPath, bandIndex );
+            PngImageWriter.write( imagePath,
+                                  renderContext.argbPixels,
+                                  colorizer.getNumberOfColumns(),
+                                  colorizer.getNumberOfRows(),
+                                  job.getCompressionLevel() );
+            return imagePath;
+        }
+    }
+
+    /**
+     * Holds the render state of one worker thread, which is reused from one
+     * render to the next, as long as the image size does not change.
+     */
+    private static final class RenderContext {
+        private final ForkJoinPool       forkJoinPool;
+        private final SoundFieldDitherer ditherer;
+        private SoundFieldColorizer      colorizer;
+        private int[]                    argbPixels;
+
+        RenderContext( final BatchRenderJob job, final ForkJoinPool pForkJoinPool ) {
+            forkJoinPool = pForkJoinPool;
+
+            final SoundFieldDisplaySettings displaySettings = job.getDisplaySettings();
+            ditherer = new SoundFieldDitherer( forkJoinPool );
+            ditherer.setDitheringMode( job.getDitheringMode() );
+            ditherer.updateDithering( displaySettings.isUseDithering(),
+                                      displaySettings.getDitheringAmount() );
+            colorizer = null;
+            argbPixels = null;
+        }
+
+        SoundFieldColorizer getColorizer( final int numberOfColumns, final int numberOfRows ) {
+            if ( ( colorizer == null ) || ( colorizer.getNumberOfColumns() != numberOfColumns )
+                    || ( colorizer.getNumberOfRows() != numberOfRows ) ) {
+                colorizer = new SoundFieldColorizer( forkJoinPool, numberOfColumns, numberOfRows );
+                argbPixels = new int[ numberOfColumns * numberOfRows ];
+            }
+            return colorizer;
+        }
+    }
+}
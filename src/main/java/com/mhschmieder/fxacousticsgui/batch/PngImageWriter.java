@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.batch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * This is a utilities class for encoding packed ARGB image buffers as PNG
+ * files, straight to an NIO channel, with no dependency on AWT, ImageIO or
+ * JavaFX.
+ * <p>
+ * Images are written as 8-bit RGBA, so that masked cells keep their
+ * transparency. The pixels are deflated one row at a time into a fixed chunk
+ * buffer, so the encoder never holds more than one row and one chunk of the
+ * encoded image in memory, regardless of the size of the image.
+ */
+public final class PngImageWriter {
+
+    // Declare the PNG file signature.
+    private static final byte[] PNG_SIGNATURE   = {
+                                                    ( byte ) 0x89, 'P', 'N', 'G',
+                                                    '\r', '\n', 0x1A, '\n' };
+
+    // Declare the chunk types, as big-endian ASCII codes.
+    private static final int    CHUNK_TYPE_IHDR = 0x49484452;
+    private static final int    CHUNK_TYPE_IDAT = 0x49444154;
+    private static final int    CHUNK_TYPE_IEND = 0x49454E44;
+
+    // Declare the IHDR settings for non-interlaced 8-bit RGBA.
+    private static final int    BIT_DEPTH       = 8;
+    private static final int    COLOR_TYPE_RGBA = 6;
+    private static final int    BYTES_PER_PIXEL = 4;
+
+    // Declare the filter type that precedes each row, which is left as None
+    // as the banded palette already deflates to long runs.
+    private static final byte   FILTER_NONE     = 0;
+
+    // Declare the maximum size of an IDAT chunk.
+    private static final int    CHUNK_SIZE      = 1 << 16;
+
+    /**
+     * The default constructor is disabled, as this is a static utilities
+     * class.
+     */
+    private PngImageWriter() {}
+
+    /**
+     * Writes a packed ARGB image buffer to a PNG file, which only replaces an
+     * existing file once it has been completely written.
+     *
+     * @param path
+     *            The path of the PNG file to write
+     * @param argbPixels
+     *            The packed ARGB image buffer, in row-major order
+     * @param numberOfColumns
+     *            The width of the image, in pixels
+     * @param numberOfRows
+     *            The height of the image, in pixels
+     * @param compressionLevel
+     *            The deflate compression level, from 0 to 9
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    public static void write( final Path path,
+                              final int[] argbPixels,
+                              final int numberOfColumns,
+                              final int numberOfRows,
+                              final int compressionLevel ) throws IOException {
+        final Path temporaryPath = path.resolveSibling( path.getFileName() + ".tmp" ); //$NON-NLS-1$
+        try {
+            try ( final FileChannel fileChannel = FileChannel
+                    .open( temporaryPath,
+                           StandardOpenOption.CREATE,
+                           StandardOpenOption.TRUNCATE_EXISTING,
+                           StandardOpenOption.WRITE ) ) {
+                write( fileChannel, argbPixels, numberOfColumns, numberOfRows, compressionLevel );
+            }
+            Files.move( temporaryPath,
+                        path,
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE );
+        }
+        finally {
+            Files.deleteIfExists( temporaryPath );
+        }
+    }
+
+    /**
+     * Writes a packed ARGB image buffer to a channel, in PNG format.
+     *
+     * @param channel
+     *            The channel to write the PNG image to
+     * @param argbPixels
+     *            The packed ARGB image buffer, in row-major order
+     * @param numberOfColumns
+     *            The width of the image, in pixels
+     * @param numberOfRows
+     *            The height of the image, in pixels
+     * @param compressionLevel
+     *            The deflate compression level, from 0 to 9
+     * @throws IOException
+     *             If the image cannot be written to the channel
+     */
+    public static void write( final WritableByteChannel channel,
+                              final int[] argbPixels,
+                              final int numberOfColumns,
+                              final int numberOfRows,
+                              final int compressionLevel ) throws IOException {
+        if ( ( numberOfColumns < 1 ) || ( numberOfRows < 1 )
+                || ( argbPixels.length < ( numberOfColumns * numberOfRows ) ) ) {
+            throw new IllegalArgumentException( "Invalid image dimensions" ); //$NON-NLS-1$
+        }
+
+        final CRC32 crc = new CRC32();
+        writeFully( channel, ByteBuffer.wrap( PNG_SIGNATURE ) );
+
+        final ByteBuffer header = ByteBuffer.allocate( 13 );
+        header.putInt( numberOfColumns );
+        header.putInt( numberOfRows );
+        header.put( ( byte ) BIT_DEPTH );
+        header.put( ( byte ) COLOR_TYPE_RGBA );
+        header.put( ( byte ) 0 ); // Deflate compression
+        header.put( ( byte ) 0 ); // Adaptive filtering
+        header.put( ( byte ) 0 ); // No interlacing
+        writeChunk( channel, CHUNK_TYPE_IHDR, header.array(), 0, header.capacity(), crc );
+
+        final byte[] rowBytes = new byte[ 1 + ( numberOfColumns * BYTES_PER_PIXEL ) ];
+        rowBytes[ 0 ] = FILTER_NONE;
+        final byte[] chunkBytes = new byte[ CHUNK_SIZE ];
+        int chunkLength = 0;
+
+        final Deflater deflater = new Deflater( compressionLevel );
+        try {
+            for ( int row = 0; row < numberOfRows; row++ ) {
+                int pixelIndex = row * numberOfColumns;
+                int byteIndex = 1;
+                for ( int column = 0; column < numberOfColumns; column++ ) {
+                    final int argb = argbPixels[ pixelIndex++ ];
+                    rowBytes[ byteIndex++ ] = ( byte ) ( argb >>> 16 );
+                    rowBytes[ byteIndex++ ] = ( byte ) ( argb >>> 8 );
+                    rowBytes[ byteIndex++ ] = ( byte ) argb;
+                    rowBytes[ byteIndex++ ] = ( byte ) ( argb >>> 24 );
+                }
+
+                deflater.setInput( rowBytes );
+                while ( !deflater.needsInput() ) {
+                    chunkLength += deflater
+                            .deflate( chunkBytes, chunkLength, CHUNK_SIZE - chunkLength );
+                    if ( chunkLength == CHUNK_SIZE ) {
+                        writeChunk( channel, CHUNK_TYPE_IDAT, chunkBytes, 0, chunkLength, crc );
+                        chunkLength = 0;
+                    }
+                }
+            }
+
+            deflater.finish();
+            while ( !deflater.finished() ) {
+                chunkLength += deflater.deflate( chunkBytes, chunkLength, CHUNK_SIZE - chunkLength );
+                if ( chunkLength == CHUNK_SIZE ) {
+                    writeChunk( channel, CHUNK_TYPE_IDAT, chunkBytes, 0, chunkLength, crc );
+                    chunkLength = 0;
+                }
+            }
+            if ( chunkLength > 0 ) {
+                writeChunk( channel, CHUNK_TYPE_IDAT, chunkBytes, 0, chunkLength, crc );
+            }
+        }
+        finally {
+            deflater.end();
+        }
+
+        writeChunk( channel, CHUNK_TYPE_IEND, chunkBytes, 0, 0, crc );
+    }
+
+    private static void writeChunk( final WritableByteChannel channel,
+                                    final int chunkType,
+                                    final byte[] data,
+                                    final int offset,
+                                    final int length,
+                                    final CRC32 crc ) throws IOException {
+        final ByteBuffer chunkHeader = ByteBuffer.allocate( 8 );
+        chunkHeader.putInt( length );
+        chunkHeader.putInt( chunkType );
+
+        // The CRC covers the chunk type and data, but not the length.
+        crc.reset();
+        crc.update( chunkHeader.array(), 4, 4 );
+        crc.update( data, offset, length );
+
+        final ByteBuffer chunkTrailer = ByteBuffer.allocate( 4 );
+        chunkTrailer.putInt( ( int ) crc.getValue() );
+
+        chunkHeader.flip();
+        chunkTrailer.flip();
+        writeFully( channel, chunkHeader );
+        writeFully( channel, ByteBuffer.wrap( data, offset, length ) );
+        writeFully( channel, chunkTrailer );
+    }
+
+    private static void writeFully( final WritableByteChannel channel, final ByteBuffer buffer )
+            throws IOException {
+        // A channel may write fewer bytes than requested, so loop until done.
+        while ( buffer.hasRemaining() ) {
+            channel.write( buffer );
+        }
+    }
+}
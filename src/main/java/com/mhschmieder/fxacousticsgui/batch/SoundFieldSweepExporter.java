@@ -0,0 +1,309 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.batch;
+
+import com.mhschmieder.fxacousticsgui.render.DitheringMode;
+import com.mhschmieder.fxacousticsgui.render.RenderCancellation;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldColorizer;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDisplaySettings;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDitherer;
+import com.mhschmieder.fxacousticsgui.render.SplColorLookupTable;
+import com.mhschmieder.fxacousticsgui.render.SplIndexBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+/**
+ * {@code SoundFieldSweepExporter} exports one Sound Field at every combination
+ * of a set of SPL Ranges and Dithering Amounts, such as for a client report.
+ * <p>
+ * The variants share everything that does not depend on their own settings.
+ * The SPL grid is quantized once, by the caller, into the colorizer that is
+ * exported from. Then one color lookup table is built per distinct SPL Range,
+ * and all of the Dithering Amounts of that range share it. Only the final
+ * blit or dither pass is per variant.
+ * <p>
+ * The variants are rendered concurrently on a fixed pool of worker threads,
+ * each of which reuses its own ditherer and image buffer. Each image is
+ * streamed to disk by the {@link PngImageWriter} as soon as it is done, so
+ * memory use depends on the number of workers rather than of variants.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldSweepExporter {
+
+    // Declare the suffixes of the image file names.
+    private static final String RANGE_SUFFIX  = "-range";   //$NON-NLS-1$
+    private static final String DB_SUFFIX     = "dB";       //$NON-NLS-1$
+    private static final String DITHER_SUFFIX = "-dither";  //$NON-NLS-1$
+    private static final String IMAGE_SUFFIX  = ".png";     //$NON-NLS-1$
+
+    // Declare the pool that the per-variant blit and dither passes share.
+    private final ForkJoinPool  forkJoinPool;
+
+    // Declare the Dithering Mode of the dithered variants.
+    private final DitheringMode ditheringMode;
+
+    // Declare the number of variants to render at once.
+    private final int           numberOfWorkers;
+
+    // Declare the deflate compression level of the images.
+    private final int           compressionLevel;
+
+    public SoundFieldSweepExporter( final ForkJoinPool pForkJoinPool,
+                                    final DitheringMode pDitheringMode ) {
+        this( pForkJoinPool,
+              pDitheringMode,
+              Runtime.getRuntime().availableProcessors(),
+              Deflater.DEFAULT_COMPRESSION );
+    }
+
+    public SoundFieldSweepExporter( final ForkJoinPool pForkJoinPool,
+                                    final DitheringMode pDitheringMode,
+                                    final int pNumberOfWorkers,
+                                    final int pCompressionLevel ) {
+        if ( pNumberOfWorkers < 1 ) {
+            throw new IllegalArgumentException( "Number of workers must be positive" ); //$NON-NLS-1$
+        }
+
+        forkJoinPool = pForkJoinPool;
+        ditheringMode = pDitheringMode;
+        numberOfWorkers = pNumberOfWorkers;
+        compressionLevel = pCompressionLevel;
+    }
+
+    /**
+     * Exports every variant of the Sound Field in the given colorizer, which
+     * must already hold the quantized SPL grid, spanning the widest SPL Range
+     * of the variants, and must not be given another one until the export
+     * completes.
+     * <p>
+     * Variants are told apart by their SPL Range and, if dithered, their
+     * Dithering Amount, which are the settings that name their images. All
+     * undithered variants of an SPL Range are therefore one image.
+     *
+     * @param colorizer
+     *            The colorizer that holds the quantized SPL grid
+     * @param variants
+     *            The display settings of each variant to export
+     * @param outputDirectory
+     *            The directory to write the images to
+     * @param baseName
+     *            The file name prefix of the images
+     * @return The paths of the images, in variant order, once all are written,
+     *         where duplicate variants share the path of one image
+     */
+    public CompletableFuture< List< Path > > export( final SoundFieldColorizer colorizer,
+                                                     final List< SoundFieldDisplaySettings > variants,
+                                                     final Path outputDirectory,
+                                                     final String baseName ) {
+        // Fail rather than export variants whose lowest colors are clamped.
+        for ( final SoundFieldDisplaySettings variant : variants ) {
+            if ( !colorizer.isSpanning( variant.getSplRangeDb() ) ) {
+                final CompletableFuture< List< Path > > failedExport = new CompletableFuture<>();
+                failedExport.completeExceptionally( new IllegalArgumentException(
+                        "SPL grid is not quantized for an SPL Range of " //$NON-NLS-1$
+                                + variant.getSplRangeDb() + " dB" ) ); //$NON-NLS-1$
+                return failedExport;
+            }
+        }
+
+        try {
+            Files.createDirectories( outputDirectory );
+        }
+        catch ( final IOException ioe ) {
+            final CompletableFuture< List< Path > > failedExport = new CompletableFuture<>();
+            failedExport.completeExceptionally( ioe );
+            return failedExport;
+        }
+
+        // Build the lookup table of each distinct SPL Range up front, as they
+        // only cost one pass over the codes, and are then read concurrently.
+        final SplIndexBuffer indexBuffer = colorizer.getIndexBuffer();
+        final Map< Integer, SplColorLookupTable > lookupTables = new HashMap<>();
+        for ( final SoundFieldDisplaySettings variant : variants ) {
+            lookupTables.computeIfAbsent( variant.getSplRangeDb(), splRangeDb -> {
+                final SplColorLookupTable lookupTable = new SplColorLookupTable();
+                lookupTable.update( indexBuffer, colorizer.getCeilingDb(), splRangeDb );
+                return lookupTable;
+            } );
+        }
+
+        final ExecutorService exportExecutor = Executors
+                .newFixedThreadPool( Math.min( numberOfWorkers, Math.max( 1, variants.size() ) ),
+                                     runnable -> {
+                                         final Thread thread = new Thread( runnable,
+                                                                           "Sound Field Sweep Exporter" ); //$NON-NLS-1$
+                                         thread.setDaemon( true );
+                                         return thread;
+                                     } );
+        final ThreadLocal< ExportContext > exportContexts = ThreadLocal
+                .withInitial( () -> new ExportContext( colorizer, forkJoinPool, ditheringMode ) );
+
+        // Export each distinct image once, as variants that share an image file
+        // name share their settings, and would otherwise write the same file
+        // concurrently. Duplicate variants share the export of the first one.
+        final Map< String, CompletableFuture< Path > > imageExports = new HashMap<>();
+        final List< CompletableFuture< Path > > variantExports = new ArrayList<>( variants.size() );
+        for ( final SoundFieldDisplaySettings variant : variants ) {
+            final String imageFileName = getImageFileName( baseName, variant );
+            variantExports.add( imageExports.computeIfAbsent( imageFileName, fileName -> {
+                final SplColorLookupTable lookupTable = lookupTables.get( variant.getSplRangeDb() );
+                final Path imagePath = outputDirectory.resolve( fileName );
+                return CompletableFuture.supplyAsync( () -> exportVariant( colorizer,
+                                                                          lookupTable,
+                                                                          variant,
+                                                                          imagePath,
+                                                                          exportContexts.get() ),
+                                                      exportExecutor );
+            } ) );
+        }
+
+        // Wait for every variant, even if one fails, before releasing the
+        // workers and reporting the results.
+        return CompletableFuture
+                .allOf( variantExports.toArray( new CompletableFuture< ? >[ variantExports.size() ] ) )
+                .whenComplete( ( result, throwable ) -> exportExecutor.shutdown() )
+                .thenApply( result -> {
+                    final List< Path > imagePaths = new ArrayList<>( variantExports.size() );
+                    for ( final CompletableFuture< Path > variantExport : variantExports ) {
+                        imagePaths.add( variantExport.join() );
+                    }
+                    return imagePaths;
+                } );
+    }
+
+    private Path exportVariant( final SoundFieldColorizer colorizer,
+                                final SplColorLookupTable lookupTable,
+                                final SoundFieldDisplaySettings variant,
+                                final Path imagePath,
+                                final ExportContext exportContext ) {
+        final int[] argbPixels = exportContext.argbPixels;
+        if ( variant.isDitheringEnabled() ) {
+            exportContext.ditherer.dither( colorizer.getIndexBuffer(),
+                                           lookupTable,
+                                           argbPixels,
+                                           variant.getDitheringAmount(),
+                                           RenderCancellation.NONE );
+        }
+        else {
+            colorizer.blit( lookupTable.getArgbColors(), argbPixels, RenderCancellation.NONE );
+        }
+
+        try {
+            PngImageWriter.write( imagePath,
+                                  argbPixels,
+                                  colorizer.getNumberOfColumns(),
+                                  colorizer.getNumberOfRows(),
+                                  compressionLevel );
+        }
+        catch ( final IOException ioe ) {
+            throw new UncheckedIOException( ioe );
+        }
+
+        return imagePath;
+    }
+
+    private static String getImageFileName( final String baseName,
+                                            final SoundFieldDisplaySettings variant ) {
+        final StringBuilder imageFileName = new StringBuilder( baseName );
+        imageFileName.append( RANGE_SUFFIX ).append( variant.getSplRangeDb() ).append( DB_SUFFIX );
+        if ( variant.isDitheringEnabled() ) {
+            // Drop the fraction of whole Dithering Amounts from the name.
+            final double ditheringAmount = variant.getDitheringAmount();
+            imageFileName.append( DITHER_SUFFIX );
+            if ( ditheringAmount == Math.rint( ditheringAmount ) ) {
+                imageFileName.append( ( long ) ditheringAmount );
+            }
+            else {
+                imageFileName.append( ditheringAmount );
+            }
+        }
+        return imageFileName.append( IMAGE_SUFFIX ).toString();
+    }
+
+    /**
+     * Makes the display settings of every combination of the given SPL Ranges
+     * and Dithering Amounts, in SPL Range major order.
+     *
+     * @param splRangesDb
+     *            The SPL Ranges to export, in dB
+     * @param ditheringAmounts
+     *            The Dithering Amounts to export, as percentages, where zero
+     *            exports the undithered image
+     * @return The display settings of each distinct variant
+     */
+    public static List< SoundFieldDisplaySettings > makeVariants( final int[] splRangesDb,
+                                                                  final double[] ditheringAmounts ) {
+        // Drop repeated settings, which includes any further non-positive
+        // Dithering Amounts, as they all make the same undithered image.
+        final Set< SoundFieldDisplaySettings > variants = new LinkedHashSet<>();
+        for ( final int splRangeDb : splRangesDb ) {
+            for ( final double ditheringAmount : ditheringAmounts ) {
+                variants.add( new SoundFieldDisplaySettings( splRangeDb,
+                                                             false,
+                                                             ditheringAmount > 0.0d,
+                                                             Math.max( 0.0d, ditheringAmount ) ) );
+            }
+        }
+        return new ArrayList<>( variants );
+    }
+
+    /**
+     * Holds the export state of one worker thread, which is reused from one
+     * variant to the next.
+     */
+    private static final class ExportContext {
+        private final SoundFieldDitherer ditherer;
+        private final int[]              argbPixels;
+
+        ExportContext( final SoundFieldColorizer colorizer,
+                       final ForkJoinPool forkJoinPool,
+                       final DitheringMode ditheringMode ) {
+            ditherer = new SoundFieldDitherer( forkJoinPool );
+            ditherer.setDitheringMode( ditheringMode );
+            argbPixels = new int[ colorizer.getNumberOfColumns() * colorizer.getNumberOfRows() ];
+        }
+    }
+}
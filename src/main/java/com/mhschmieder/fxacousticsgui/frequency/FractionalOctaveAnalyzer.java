@@ -0,0 +1,284 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.frequency;
+
+import com.mhschmieder.fxacousticsgui.audio.AudioSampleSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * {@code FractionalOctaveAnalyzer} continuously analyzes an audio stream, such
+ * as a WAV file or a pipe standing in for a live input, into the bands of a
+ * {@link FractionalOctaveBandIndex}, and publishes the band levels to its
+ * listeners at a throttled rate.
+ * <p>
+ * An {@link AudioSampleSource} decodes the stream to mono samples on its own
+ * reader thread. The analysis thread runs them through a
+ * {@link FractionalOctaveFilterBank}, block by block, and publishes a
+ * {@link FractionalOctaveSpectrum} once per publishing interval of stream time.
+ * All buffers are allocated up front, so the only allocation while streaming
+ * is the published snapshot.
+ * <p>
+ * Listeners are notified on the analysis thread, so they should post the
+ * spectrum to their UI thread, such as through
+ * {@code FrequencyRangeInformationPane.postFrequencySpectrum()}.
+ *
+ * @version 1.0
+ */
+public final class FractionalOctaveAnalyzer implements Closeable {
+
+    // Declare the default publishing interval, which is about as often as a
+    // band readout can be followed by eye.
+    public static final long                               PUBLISH_INTERVAL_MILLIS_DEFAULT = 100L;
+
+    private final AudioSampleSource                        audioSampleSource;
+    private final FractionalOctaveFilterBank               filterBank;
+
+    // Declare the number of samples per publishing interval.
+    private final int                                      publishIntervalSamples;
+
+    private final List< Consumer< FractionalOctaveSpectrum > > listeners;
+
+    private Thread                                         analysisThread;
+
+    private volatile boolean                               running;
+
+    // Keep track of the time spent analyzing, relative to the stream time
+    // analyzed, to tell whether the analysis keeps up with real time.
+    private volatile long                                  analysisNanos;
+    private volatile long                                  numberOfAnalyzedSamples;
+
+    /**
+     * Makes an analyzer of the given audio source.
+     *
+     * @param pAudioSampleSource
+     *            The audio source, which the analyzer starts and closes
+     * @param frequencyBandIndex
+     *            The bands to analyze the stream into
+     * @param publishIntervalMillis
+     *            The stream time between published spectra, in milliseconds
+     */
+    public FractionalOctaveAnalyzer( final AudioSampleSource pAudioSampleSource,
+                                     final FractionalOctaveBandIndex frequencyBandIndex,
+                                     final long publishIntervalMillis ) {
+        audioSampleSource = pAudioSampleSource;
+
+        final float sampleRate = audioSampleSource.getSampleRate();
+        filterBank = new FractionalOctaveFilterBank( frequencyBandIndex, sampleRate );
+        publishIntervalSamples = Math.max( 1,
+                                           ( int ) Math.round( ( sampleRate * publishIntervalMillis )
+                                                   / 1000.0d ) );
+
+        listeners = new CopyOnWriteArrayList<>();
+
+        running = false;
+        analysisNanos = 0L;
+        numberOfAnalyzedSamples = 0L;
+    }
+
+    /**
+     * Makes an analyzer of a WAV (or other supported audio) file, which is
+     * read no faster than real time, as if it were a live input.
+     *
+     * @param path
+     *            The path of the audio file
+     * @param frequencyBandIndex
+     *            The bands to analyze the file into
+     * @return The analyzer, which must be started
+     * @throws IOException
+     *             If the file cannot be read or decoded
+     */
+    public static FractionalOctaveAnalyzer openAudioFile( final Path path,
+                                                          final FractionalOctaveBandIndex frequencyBandIndex )
+            throws IOException {
+        return new FractionalOctaveAnalyzer( AudioSampleSource.openAudioFile( path ),
+                                             frequencyBandIndex,
+                                             PUBLISH_INTERVAL_MILLIS_DEFAULT );
+    }
+
+    /**
+     * Makes an analyzer of raw, signed 16-bit little-endian PCM from a pipe
+     * (or any other file), which is read as fast as the writer supplies it.
+     *
+     * @param path
+     *            The path of the pipe
+     * @param sampleRate
+     *            The sample rate of the PCM, in Hz
+     * @param numberOfChannels
+     *            The number of interleaved channels, which are mixed to mono
+     * @param frequencyBandIndex
+     *            The bands to analyze the stream into
+     * @return The analyzer, which must be started
+     * @throws IOException
+     *             If the pipe cannot be opened
+     */
+    public static FractionalOctaveAnalyzer openPcmPipe( final Path path,
+                                                        final float sampleRate,
+                                                        final int numberOfChannels,
+                                                        final FractionalOctaveBandIndex frequencyBandIndex )
+            throws IOException {
+        return new FractionalOctaveAnalyzer( AudioSampleSource
+                .openPcmPipe( path, sampleRate, numberOfChannels ),
+                                             frequencyBandIndex,
+                                             PUBLISH_INTERVAL_MILLIS_DEFAULT );
+    }
+
+    public void addListener( final Consumer< FractionalOctaveSpectrum > listener ) {
+        listeners.add( listener );
+    }
+
+    // Analyze samples from the audio source until the stream is exhausted or
+    // the analyzer is closed.
+    private void analyze() {
+        final float[] block = new float[ AudioSampleSource.BLOCK_SIZE ];
+        final double[] bandLevelsDb = new double[ filterBank.getFrequencyBandIndex()
+                .getNumberOfBands() ];
+        final double sampleRate = filterBank.getSampleRate();
+        long streamPosition = 0L;
+        int samplesSincePublish = 0;
+
+        while ( running ) {
+            // Check for the end of input before reading, so that the samples
+            // written before it ended are still drained.
+            final boolean ended = audioSampleSource.isInputEnded();
+            final int count = audioSampleSource.read( block,
+                                                      0,
+                                                      Math.min( block.length,
+                                                                publishIntervalSamples
+                                                                        - samplesSincePublish ) );
+            if ( count == 0 ) {
+                if ( ended ) {
+                    break;
+                }
+
+                LockSupport.parkNanos( AudioSampleSource.POLL_INTERVAL_NANOS );
+                continue;
+            }
+
+            final long startNanos = System.nanoTime();
+            filterBank.process( block, 0, count );
+            analysisNanos += System.nanoTime() - startNanos;
+            numberOfAnalyzedSamples += count;
+
+            streamPosition += count;
+            samplesSincePublish += count;
+            if ( samplesSincePublish >= publishIntervalSamples ) {
+                publish( bandLevelsDb, streamPosition / sampleRate );
+                samplesSincePublish = 0;
+            }
+        }
+
+        // Publish the tail of the stream, if it is not yet reflected.
+        if ( samplesSincePublish > 0 ) {
+            publish( bandLevelsDb, streamPosition / sampleRate );
+        }
+
+        running = false;
+    }
+
+    /**
+     * Stops the analyzer, and closes its audio source.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+
+        audioSampleSource.close();
+        if ( analysisThread != null ) {
+            LockSupport.unpark( analysisThread );
+        }
+    }
+
+    /**
+     * Returns the time spent analyzing, relative to the stream time analyzed,
+     * which must stay well below one for the analysis to keep up with a live
+     * input.
+     *
+     * @return The real-time load of the analysis thread
+     */
+    public double getAnalysisLoad() {
+        final long analyzedSamples = numberOfAnalyzedSamples;
+        if ( analyzedSamples == 0L ) {
+            return 0.0d;
+        }
+
+        final double streamNanos = ( analyzedSamples * 1.0E9d ) / filterBank.getSampleRate();
+        return analysisNanos / streamNanos;
+    }
+
+    public FractionalOctaveBandIndex getFrequencyBandIndex() {
+        return filterBank.getFrequencyBandIndex();
+    }
+
+    public double getSampleRate() {
+        return filterBank.getSampleRate();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void publish( final double[] bandLevelsDb, final double streamTimeSeconds ) {
+        final int loudestBandNumber = filterBank.drainBandLevels( bandLevelsDb );
+        final FractionalOctaveSpectrum spectrum = new FractionalOctaveSpectrum( filterBank
+                .getFrequencyBandIndex(), bandLevelsDb, loudestBandNumber, streamTimeSeconds );
+        for ( final Consumer< FractionalOctaveSpectrum > listener : listeners ) {
+            listener.accept( spectrum );
+        }
+    }
+
+    public void removeListener( final Consumer< FractionalOctaveSpectrum > listener ) {
+        listeners.remove( listener );
+    }
+
+    /**
+     * Starts the audio source and the analysis thread, which stop by
+     * themselves at the end of the stream.
+     */
+    public void start() {
+        if ( running ) {
+            return;
+        }
+        running = true;
+
+        analysisThread = new Thread( this::analyze, "Fractional Octave Analyzer" ); //$NON-NLS-1$
+        analysisThread.setDaemon( true );
+
+        audioSampleSource.start( "Fractional Octave Reader" ); //$NON-NLS-1$
+        analysisThread.start();
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.frequency;
+
+import java.util.Locale;
+
+/**
+ * {@code FractionalOctaveBandIndex} is an immutable table of the fractional
+ * octave bands that cover a frequency range, from whole octaves down to 1/48
+ * octave, on either a base-two or a base-ten octave ratio.
+ * <p>
+ * The center, start and stop frequencies of every band are computed up front,
+ * along with their locale-specific labels, so that selecting a band (such as
+ * while sweeping through hundreds of bands) is a constant-time lookup that does
+ * no formatting and allocates nothing.
+ * <p>
+ * Bands are numbered from zero at the lowest band in the range. Band centers
+ * follow IEC 61260, with odd band counts per octave centered on the reference
+ * frequency and even band counts straddling it.
+ *
+ * @version 1.0
+ */
+public final class FractionalOctaveBandIndex {
+
+    // Declare the supported band counts per octave.
+    public static final int     BANDS_PER_OCTAVE_MINIMUM    = 1;
+    public static final int     BANDS_PER_OCTAVE_MAXIMUM    = 48;
+
+    // Declare the reference frequency that all band centers are derived from.
+    public static final double  REFERENCE_FREQUENCY         = 1000.0d;
+
+    // Declare the default frequency range, which covers the audible range.
+    public static final double  MINIMUM_FREQUENCY_DEFAULT   = 20.0d;
+    public static final double  MAXIMUM_FREQUENCY_DEFAULT   = 20000.0d;
+
+    private final int           bandsPerOctave;
+    private final OctaveBase    octaveBase;
+
+    // Cache the exact band number, relative to the reference frequency, of
+    // the lowest band in the range.
+    private final int           firstExactBandNumber;
+
+    private final double[]      centerFrequencies;
+    private final double[]      startFrequencies;
+    private final double[]      stopFrequencies;
+
+    // Cache the relative bandwidth label, which is the same for every band.
+    private final String        relativeBandwidthLabel;
+
+    private final String[]      centerFrequencyLabels;
+    private final String[]      startFrequencyLabels;
+    private final String[]      stopFrequencyLabels;
+
+    public FractionalOctaveBandIndex( final int pBandsPerOctave,
+                                      final OctaveBase pOctaveBase,
+                                      final Locale locale ) {
+        this( pBandsPerOctave,
+              pOctaveBase,
+              MINIMUM_FREQUENCY_DEFAULT,
+              MAXIMUM_FREQUENCY_DEFAULT,
+              locale );
+    }
+
+    /**
+     * Makes the index of the bands whose limits overlap the given frequency
+     * range.
+     *
+     * @param pBandsPerOctave
+     *            The number of bands per octave, from one through 48
+     * @param pOctaveBase
+     *            The octave base that the bands are derived from
+     * @param minimumFrequency
+     *            The lowest frequency to cover, in Hz
+     * @param maximumFrequency
+     *            The highest frequency to cover, in Hz
+     * @param locale
+     *            The locale to format the frequency labels for
+     */
+    public FractionalOctaveBandIndex( final int pBandsPerOctave,
+                                      final OctaveBase pOctaveBase,
+                                      final double minimumFrequency,
+                                      final double maximumFrequency,
+                                      final Locale locale ) {
+        if ( ( pBandsPerOctave < BANDS_PER_OCTAVE_MINIMUM )
+                || ( pBandsPerOctave > BANDS_PER_OCTAVE_MAXIMUM ) ) {
+            throw new IllegalArgumentException( "Unsupported number of bands per octave: " //$NON-NLS-1$
+                    + pBandsPerOctave );
+        }
+        if ( !( minimumFrequency > 0.0d ) || !( maximumFrequency >= minimumFrequency ) ) {
+            throw new IllegalArgumentException( "Invalid frequency range: " //$NON-NLS-1$
+                    + minimumFrequency + " to " + maximumFrequency ); //$NON-NLS-1$
+        }
+
+        bandsPerOctave = pBandsPerOctave;
+        octaveBase = pOctaveBase;
+
+        // Find the first and last exact band numbers whose limits overlap the
+        // range, ignoring bands that only touch it within rounding error.
+        firstExactBandNumber = ( int ) Math.ceil( ( getExactBandPosition( minimumFrequency )
+                - 0.5d ) + 1.0E-9d );
+        final int lastExactBandNumber = ( int ) Math.floor( ( getExactBandPosition( maximumFrequency )
+                + 0.5d ) - 1.0E-9d );
+        final int numberOfBands = Math.max( 0, ( lastExactBandNumber - firstExactBandNumber ) + 1 );
+
+        centerFrequencies = new double[ numberOfBands ];
+        startFrequencies = new double[ numberOfBands ];
+        stopFrequencies = new double[ numberOfBands ];
+        centerFrequencyLabels = new String[ numberOfBands ];
+        startFrequencyLabels = new String[ numberOfBands ];
+        stopFrequencyLabels = new String[ numberOfBands ];
+
+        final FrequencyFormatter frequencyFormatter = new FrequencyFormatter( locale );
+
+        final double octaveRatio = octaveBase.getOctaveRatio();
+        final double halfBandRatio = Math.pow( octaveRatio, 0.5d / bandsPerOctave );
+        for ( int bandNumber = 0; bandNumber < numberOfBands; bandNumber++ ) {
+            final double centerFrequency = REFERENCE_FREQUENCY * Math
+                    .pow( octaveRatio, getBandCenterExponent( firstExactBandNumber + bandNumber ) );
+            centerFrequencies[ bandNumber ] = centerFrequency;
+            startFrequencies[ bandNumber ] = centerFrequency / halfBandRatio;
+            stopFrequencies[ bandNumber ] = centerFrequency * halfBandRatio;
+
+            centerFrequencyLabels[ bandNumber ] = frequencyFormatter
+                    .format( centerFrequencies[ bandNumber ] );
+            startFrequencyLabels[ bandNumber ] = frequencyFormatter
+                    .format( startFrequencies[ bandNumber ] );
+            stopFrequencyLabels[ bandNumber ] = frequencyFormatter
+                    .format( stopFrequencies[ bandNumber ] );
+        }
+
+        relativeBandwidthLabel = ( bandsPerOctave == 1 )
+            ? "1" //$NON-NLS-1$
+            : "1/" + bandsPerOctave; //$NON-NLS-1$
+    }
+
+    // Get the exponent of the octave ratio, relative to the reference
+    // frequency, of the center of the band with the given exact band number.
+    private double getBandCenterExponent( final int exactBandNumber ) {
+        return ( ( bandsPerOctave % 2 ) == 1 )
+            ? ( double ) exactBandNumber / bandsPerOctave
+            : ( ( 2.0d * exactBandNumber ) + 1.0d ) / ( 2.0d * bandsPerOctave );
+    }
+
+    /**
+     * Returns the number of the band whose limits contain the given frequency.
+     *
+     * @param frequency
+     *            The frequency to look up, in Hz
+     * @return The band number, or -1 if the frequency is outside every band
+     */
+    public int getBandNumber( final double frequency ) {
+        if ( !( frequency > 0.0d ) ) {
+            return -1;
+        }
+
+        // Band limits sit half-way between whole band positions.
+        final int exactBandNumber = ( int ) Math.floor( getExactBandPosition( frequency ) + 0.5d );
+        final int bandNumber = exactBandNumber - firstExactBandNumber;
+        return ( ( bandNumber >= 0 ) && ( bandNumber < centerFrequencies.length ) )
+            ? bandNumber
+            : -1;
+    }
+
+    public int getBandsPerOctave() {
+        return bandsPerOctave;
+    }
+
+    public double getCenterFrequency( final int bandNumber ) {
+        return centerFrequencies[ bandNumber ];
+    }
+
+    public String getCenterFrequencyLabel( final int bandNumber ) {
+        return centerFrequencyLabels[ bandNumber ];
+    }
+
+    // Get the position of the given frequency relative to the reference
+    // frequency, in bands, offset so that band centers are at whole positions
+    // for even band counts as well as odd ones.
+    private double getExactBandPosition( final double frequency ) {
+        final double position = ( bandsPerOctave * Math.log( frequency / REFERENCE_FREQUENCY ) )
+                / Math.log( octaveBase.getOctaveRatio() );
+        return ( ( bandsPerOctave % 2 ) == 1 ) ? position : position - 0.5d;
+    }
+
+    public int getNumberOfBands() {
+        return centerFrequencies.length;
+    }
+
+    public OctaveBase getOctaveBase() {
+        return octaveBase;
+    }
+
+    public String getRelativeBandwidthLabel() {
+        return relativeBandwidthLabel;
+    }
+
+    public double getStartFrequency( final int bandNumber ) {
+        return startFrequencies[ bandNumber ];
+    }
+
+    public String getStartFrequencyLabel( final int bandNumber ) {
+        return startFrequencyLabels[ bandNumber ];
+    }
+
+    public double getStopFrequency( final int bandNumber ) {
+        return stopFrequencies[ bandNumber ];
+    }
+
+    public String getStopFrequencyLabel( final int bandNumber ) {
+        return stopFrequencyLabels[ bandNumber ];
+    }
+}
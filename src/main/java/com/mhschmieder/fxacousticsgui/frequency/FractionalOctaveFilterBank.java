@@ -0,0 +1,242 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.frequency;
+
+import java.util.Arrays;
+
+/**
+ * {@code FractionalOctaveFilterBank} splits an audio stream into the bands of a
+ * {@link FractionalOctaveBandIndex}, and integrates the energy in each band.
+ * <p>
+ * Each band is a fourth-order band-pass filter, made of two identical biquad
+ * sections whose bandwidth is widened so that the cascade is 3 dB down at the
+ * band limits. The filters run band by band over each block of samples, so
+ * that a band's state stays in registers for the whole block, and nothing is
+ * allocated per block.
+ * <p>
+ * Bands that reach too close to the Nyquist frequency cannot be realized at
+ * the sample rate, and are not analyzed.
+ *
+ * @version 1.0
+ */
+public final class FractionalOctaveFilterBank {
+
+    // Declare the level reported for bands without any integrated energy.
+    public static final double              LEVEL_DB_SILENCE          = -200.0d;
+
+    // Declare the highest band stop frequency that can be analyzed, relative
+    // to the Nyquist frequency.
+    private static final double             NYQUIST_FRACTION_MAXIMUM  = 0.95d;
+
+    // Declare the ratio of the bandwidth of two cascaded identical resonators
+    // to that of each one, which is the square root of (sqrt(2) - 1).
+    private static final double             CASCADE_BANDWIDTH_RATIO   = Math.sqrt( Math.sqrt( 2.0d )
+            - 1.0d );
+
+    // Declare a tiny offset that keeps the filter states out of the subnormal
+    // range during silence, which the band-pass filters remove from the output.
+    private static final double             ANTI_DENORMAL             = 1.0E-20d;
+
+    private final FractionalOctaveBandIndex frequencyBandIndex;
+    private final double                    sampleRate;
+
+    // Declare the number of bands, counting from the lowest, that can be
+    // analyzed at the sample rate.
+    private final int                       numberOfAnalyzedBands;
+
+    // Declare the normalized coefficients of each band's biquad sections,
+    // whose other numerator coefficients are zero and the negated gain.
+    private final double[]                  gains;
+    private final double[]                  feedback1;
+    private final double[]                  feedback2;
+
+    // Declare the transposed direct form state of each band's two sections.
+    private final double[]                  stateA1;
+    private final double[]                  stateA2;
+    private final double[]                  stateB1;
+    private final double[]                  stateB2;
+
+    // Declare the energy integrated in each band since the last drain.
+    private final double[]                  bandEnergies;
+    private long                            numberOfIntegratedSamples;
+
+    public FractionalOctaveFilterBank( final FractionalOctaveBandIndex pFrequencyBandIndex,
+                                       final double pSampleRate ) {
+        frequencyBandIndex = pFrequencyBandIndex;
+        sampleRate = pSampleRate;
+
+        final int numberOfBands = frequencyBandIndex.getNumberOfBands();
+        final double stopFrequencyMaximum = 0.5d * sampleRate * NYQUIST_FRACTION_MAXIMUM;
+        int analyzedBands = 0;
+        while ( ( analyzedBands < numberOfBands ) && ( frequencyBandIndex
+                .getStopFrequency( analyzedBands ) <= stopFrequencyMaximum ) ) {
+            analyzedBands++;
+        }
+        numberOfAnalyzedBands = analyzedBands;
+
+        gains = new double[ numberOfAnalyzedBands ];
+        feedback1 = new double[ numberOfAnalyzedBands ];
+        feedback2 = new double[ numberOfAnalyzedBands ];
+        for ( int bandNumber = 0; bandNumber < numberOfAnalyzedBands; bandNumber++ ) {
+            // Design a constant peak gain band-pass section, per the Audio EQ
+            // Cookbook, with its bandwidth widened for the cascade.
+            final double centerFrequency = frequencyBandIndex.getCenterFrequency( bandNumber );
+            final double bandwidth = frequencyBandIndex.getStopFrequency( bandNumber )
+                    - frequencyBandIndex.getStartFrequency( bandNumber );
+            final double sectionQ = ( centerFrequency * CASCADE_BANDWIDTH_RATIO ) / bandwidth;
+            final double omega = ( 2.0d * Math.PI * centerFrequency ) / sampleRate;
+            final double alpha = Math.sin( omega ) / ( 2.0d * sectionQ );
+            final double a0 = 1.0d + alpha;
+            gains[ bandNumber ] = alpha / a0;
+            feedback1[ bandNumber ] = ( -2.0d * Math.cos( omega ) ) / a0;
+            feedback2[ bandNumber ] = ( 1.0d - alpha ) / a0;
+        }
+
+        stateA1 = new double[ numberOfAnalyzedBands ];
+        stateA2 = new double[ numberOfAnalyzedBands ];
+        stateB1 = new double[ numberOfAnalyzedBands ];
+        stateB2 = new double[ numberOfAnalyzedBands ];
+
+        bandEnergies = new double[ numberOfAnalyzedBands ];
+        numberOfIntegratedSamples = 0L;
+    }
+
+    /**
+     * Converts the energy integrated in each band since the last drain to a
+     * level in dB relative to full scale, and restarts the integration.
+     *
+     * @param bandLevelsDb
+     *            The array to write the level of every band of the index to,
+     *            where bands that are not analyzed are set to NaN
+     * @return The number of the band with the highest level, or -1 if no
+     *         samples were integrated
+     */
+    public int drainBandLevels( final double[] bandLevelsDb ) {
+        Arrays.fill( bandLevelsDb, numberOfAnalyzedBands, bandLevelsDb.length, Double.NaN );
+        if ( numberOfIntegratedSamples == 0L ) {
+            Arrays.fill( bandLevelsDb, 0, numberOfAnalyzedBands, Double.NaN );
+            return -1;
+        }
+
+        int loudestBandNumber = -1;
+        double loudestEnergy = 0.0d;
+        final double inverseSampleCount = 1.0d / numberOfIntegratedSamples;
+        for ( int bandNumber = 0; bandNumber < numberOfAnalyzedBands; bandNumber++ ) {
+            final double meanSquare = bandEnergies[ bandNumber ] * inverseSampleCount;
+            bandLevelsDb[ bandNumber ] = ( meanSquare > 0.0d )
+                ? Math.max( LEVEL_DB_SILENCE, 10.0d * Math.log10( meanSquare ) )
+                : LEVEL_DB_SILENCE;
+            if ( bandEnergies[ bandNumber ] > loudestEnergy ) {
+                loudestEnergy = bandEnergies[ bandNumber ];
+                loudestBandNumber = bandNumber;
+            }
+        }
+
+        Arrays.fill( bandEnergies, 0.0d );
+        numberOfIntegratedSamples = 0L;
+        return loudestBandNumber;
+    }
+
+    public FractionalOctaveBandIndex getFrequencyBandIndex() {
+        return frequencyBandIndex;
+    }
+
+    public int getNumberOfAnalyzedBands() {
+        return numberOfAnalyzedBands;
+    }
+
+    public long getNumberOfIntegratedSamples() {
+        return numberOfIntegratedSamples;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Filters a block of samples through every band, and adds the output
+     * energy of each band to its integrated energy.
+     *
+     * @param samples
+     *            The samples, scaled to a full scale of one
+     * @param offset
+     *            The index of the first sample of the block
+     * @param length
+     *            The number of samples in the block
+     */
+    public void process( final float[] samples, final int offset, final int length ) {
+        final int end = offset + length;
+        for ( int bandNumber = 0; bandNumber < numberOfAnalyzedBands; bandNumber++ ) {
+            final double gain = gains[ bandNumber ];
+            final double a1 = feedback1[ bandNumber ];
+            final double a2 = feedback2[ bandNumber ];
+            double sA1 = stateA1[ bandNumber ];
+            double sA2 = stateA2[ bandNumber ];
+            double sB1 = stateB1[ bandNumber ];
+            double sB2 = stateB2[ bandNumber ];
+            double energy = 0.0d;
+
+            for ( int i = offset; i < end; i++ ) {
+                final double x = ( gain * samples[ i ] ) + ANTI_DENORMAL;
+                final double y = x + sA1;
+                sA1 = sA2 - ( a1 * y );
+                sA2 = -x - ( a2 * y );
+
+                final double z = ( gain * y ) + sB1;
+                sB1 = sB2 - ( a1 * z );
+                sB2 = ( -gain * y ) - ( a2 * z );
+
+                energy += z * z;
+            }
+
+            stateA1[ bandNumber ] = sA1;
+            stateA2[ bandNumber ] = sA2;
+            stateB1[ bandNumber ] = sB1;
+            stateB2[ bandNumber ] = sB2;
+            bandEnergies[ bandNumber ] += energy;
+        }
+
+        numberOfIntegratedSamples += length;
+    }
+
+    /**
+     * Clears the filter states and the integrated energy, such as before
+     * analyzing an unrelated stream.
+     */
+    public void reset() {
+        Arrays.fill( stateA1, 0.0d );
+        Arrays.fill( stateA2, 0.0d );
+        Arrays.fill( stateB1, 0.0d );
+        Arrays.fill( stateB2, 0.0d );
+        Arrays.fill( bandEnergies, 0.0d );
+        numberOfIntegratedSamples = 0L;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.frequency;
+
+/**
+ * {@code FractionalOctaveSpectrum} is an immutable snapshot of the band levels
+ * that a {@link FractionalOctaveAnalyzer} integrated over one publishing
+ * interval of its stream.
+ *
+ * @version 1.0
+ */
+public final class FractionalOctaveSpectrum {
+
+    private final FractionalOctaveBandIndex frequencyBandIndex;
+
+    // Declare the level of each band in dB relative to full scale, which is
+    // NaN for bands that were not analyzed.
+    private final double[]                  bandLevelsDb;
+
+    private final int                       loudestBandNumber;
+
+    // Declare the position in the stream at the end of the interval.
+    private final double                    streamTimeSeconds;
+
+    public FractionalOctaveSpectrum( final FractionalOctaveBandIndex pFrequencyBandIndex,
+                                     final double[] pBandLevelsDb,
+                                     final int pLoudestBandNumber,
+                                     final double pStreamTimeSeconds ) {
+        frequencyBandIndex = pFrequencyBandIndex;
+        bandLevelsDb = pBandLevelsDb.clone();
+        loudestBandNumber = pLoudestBandNumber;
+        streamTimeSeconds = pStreamTimeSeconds;
+    }
+
+    public double getBandLevelDb( final int bandNumber ) {
+        return bandLevelsDb[ bandNumber ];
+    }
+
+    public FractionalOctaveBandIndex getFrequencyBandIndex() {
+        return frequencyBandIndex;
+    }
+
+    /**
+     * Returns the number of the band with the highest level.
+     *
+     * @return The band number, or -1 if the interval had no samples
+     */
+    public int getLoudestBandNumber() {
+        return loudestBandNumber;
+    }
+
+    public int getNumberOfBands() {
+        return bandLevelsDb.length;
+    }
+
+    public double getStreamTimeSeconds() {
+        return streamTimeSeconds;
+    }
+}
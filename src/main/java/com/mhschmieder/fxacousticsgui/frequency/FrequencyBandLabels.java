@@ -0,0 +1,213 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.frequency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code FrequencyBandLabels} provides the cell text of a multi-band frequency
+ * table, such as every band of a 1/24 or 1/48 octave analysis, which may have
+ * hundreds to thousands of rows.
+ * <p>
+ * The band frequencies are held in primitive arrays, and cell text is only
+ * formatted when a table asks for it, which virtualized tables only do for the
+ * rows that are visible. Formatted text is kept in a bounded cache that evicts
+ * the least recently used cells, so that scrolling back and forth through a
+ * spectrum formats each visible cell once, without the cache growing with the
+ * number of bands.
+ * <p>
+ * This class is not thread-safe, and is meant to be confined to the UI thread
+ * of the table that it backs.
+ *
+ * @version 1.0
+ */
+public final class FrequencyBandLabels {
+
+    // Declare the table columns.
+    public static final int                   COLUMN_BAND_NUMBER       = 0;
+    public static final int                   COLUMN_CENTER_FREQUENCY  = 1;
+    public static final int                   COLUMN_START_FREQUENCY   = 2;
+    public static final int                   COLUMN_STOP_FREQUENCY    = 3;
+    public static final int                   NUMBER_OF_COLUMNS        = 4;
+
+    // Declare the column headers, in column order.
+    private static final String[]             COLUMN_NAMES             =
+                                                           { "Band",             //$NON-NLS-1$
+                                                             "Center Frequency", //$NON-NLS-1$
+                                                             "Start Frequency",  //$NON-NLS-1$
+                                                             "Stop Frequency" }; //$NON-NLS-1$
+
+    // Declare the default number of cells to cache, which covers several
+    // screens of rows.
+    public static final int                   CACHE_CAPACITY_DEFAULT   = 1024;
+
+    private static final double[]             NO_FREQUENCIES           = new double[ 0 ];
+
+    private final FrequencyFormatter          frequencyFormatter;
+    private final int                         cacheCapacity;
+
+    private double[]                          centerFrequencies;
+    private double[]                          startFrequencies;
+    private double[]                          stopFrequencies;
+
+    // Declare the formatted cells, keyed by cell index, in order of access
+    // from least recent.
+    private final LinkedHashMap< Integer, String > labelCache;
+
+    public FrequencyBandLabels( final FrequencyFormatter pFrequencyFormatter ) {
+        this( pFrequencyFormatter, CACHE_CAPACITY_DEFAULT );
+    }
+
+    public FrequencyBandLabels( final FrequencyFormatter pFrequencyFormatter,
+                                final int pCacheCapacity ) {
+        frequencyFormatter = pFrequencyFormatter;
+        cacheCapacity = pCacheCapacity;
+
+        centerFrequencies = NO_FREQUENCIES;
+        startFrequencies = NO_FREQUENCIES;
+        stopFrequencies = NO_FREQUENCIES;
+
+        labelCache = new LinkedHashMap< Integer, String >( 16, 0.75f, true ) {
+            private static final long serialVersionUID = 4326931706683906613L;
+
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry< Integer, String > eldest ) {
+                return size() > cacheCapacity;
+            }
+        };
+    }
+
+    public int getCacheSize() {
+        return labelCache.size();
+    }
+
+    public static String getColumnName( final int column ) {
+        return COLUMN_NAMES[ column ];
+    }
+
+    /**
+     * Returns the frequency in the given cell.
+     *
+     * @param bandNumber
+     *            The band number, which is the row of the cell
+     * @param column
+     *            One of the frequency columns
+     * @return The frequency in the cell, in Hz
+     */
+    public double getFrequency( final int bandNumber, final int column ) {
+        switch ( column ) {
+        case COLUMN_CENTER_FREQUENCY:
+            return centerFrequencies[ bandNumber ];
+        case COLUMN_START_FREQUENCY:
+            return startFrequencies[ bandNumber ];
+        case COLUMN_STOP_FREQUENCY:
+            return stopFrequencies[ bandNumber ];
+        default:
+            throw new IllegalArgumentException( "Not a frequency column: " + column ); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns the text of the given cell, formatting it only if it is not
+     * already cached.
+     *
+     * @param bandNumber
+     *            The band number, which is the row of the cell
+     * @param column
+     *            The column of the cell
+     * @return The text of the cell
+     */
+    public String getLabel( final int bandNumber, final int column ) {
+        final Integer cellIndex = Integer.valueOf( ( bandNumber * NUMBER_OF_COLUMNS ) + column );
+        String label = labelCache.get( cellIndex );
+        if ( label == null ) {
+            // Band numbers are shown counting from one.
+            label = ( column == COLUMN_BAND_NUMBER )
+                ? Integer.toString( bandNumber + 1 )
+                : frequencyFormatter.format( getFrequency( bandNumber, column ) );
+            labelCache.put( cellIndex, label );
+        }
+
+        return label;
+    }
+
+    public int getNumberOfBands() {
+        return centerFrequencies.length;
+    }
+
+    /**
+     * Replaces the bands, which are held by reference rather than copied, and
+     * drops every cached cell.
+     *
+     * @param pCenterFrequencies
+     *            The center frequency of each band, in Hz
+     * @param pStartFrequencies
+     *            The start frequency of each band, in Hz
+     * @param pStopFrequencies
+     *            The stop frequency of each band, in Hz
+     */
+    public void setBands( final double[] pCenterFrequencies,
+                          final double[] pStartFrequencies,
+                          final double[] pStopFrequencies ) {
+        if ( ( pStartFrequencies.length != pCenterFrequencies.length )
+                || ( pStopFrequencies.length != pCenterFrequencies.length ) ) {
+            throw new IllegalArgumentException( "Band frequency arrays differ in length" ); //$NON-NLS-1$
+        }
+
+        centerFrequencies = pCenterFrequencies;
+        startFrequencies = pStartFrequencies;
+        stopFrequencies = pStopFrequencies;
+
+        labelCache.clear();
+    }
+
+    /**
+     * Replaces the bands with every band of the given fractional octave band
+     * index.
+     *
+     * @param frequencyBandIndex
+     *            The fractional octave band index
+     */
+    public void setFrequencyBandIndex( final FractionalOctaveBandIndex frequencyBandIndex ) {
+        final int numberOfBands = frequencyBandIndex.getNumberOfBands();
+        final double[] newCenterFrequencies = new double[ numberOfBands ];
+        final double[] newStartFrequencies = new double[ numberOfBands ];
+        final double[] newStopFrequencies = new double[ numberOfBands ];
+        for ( int bandNumber = 0; bandNumber < numberOfBands; bandNumber++ ) {
+            newCenterFrequencies[ bandNumber ] = frequencyBandIndex.getCenterFrequency( bandNumber );
+            newStartFrequencies[ bandNumber ] = frequencyBandIndex.getStartFrequency( bandNumber );
+            newStopFrequencies[ bandNumber ] = frequencyBandIndex.getStopFrequency( bandNumber );
+        }
+
+        setBands( newCenterFrequencies, newStartFrequencies, newStopFrequencies );
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.frequency;
+
+import com.mhschmieder.jacoustics.FrequencySignalUtilities;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * {@code FrequencyFormatter} formats frequencies for display in a given locale,
+ * and is safe to share between threads.
+ * <p>
+ * {@link NumberFormat} is mutable and not thread-safe, so each thread lazily
+ * gets its own fully configured instance, which it then reuses for every
+ * frequency it formats. This lets background threads build label strings, so
+ * that the UI threads only assign them.
+ *
+ * @version 1.0
+ */
+public final class FrequencyFormatter {
+
+    // Default to a maximum three digits of precision (to cover some tightly
+    // spaced low frequencies).
+    public static final int                    FRACTION_DIGITS_DEFAULT = 3;
+
+    private final Locale                        locale;
+    private final int                           maximumFractionDigits;
+
+    // Cache a number format per thread, as getting one queries the locale.
+    private final ThreadLocal< NumberFormat >   numberFormat;
+
+    public FrequencyFormatter( final Locale pLocale ) {
+        this( pLocale, FRACTION_DIGITS_DEFAULT );
+    }
+
+    public FrequencyFormatter( final Locale pLocale, final int pMaximumFractionDigits ) {
+        locale = pLocale;
+        maximumFractionDigits = pMaximumFractionDigits;
+
+        numberFormat = ThreadLocal.withInitial( () -> {
+            final NumberFormat format = NumberFormat.getNumberInstance( locale );
+            format.setMinimumFractionDigits( 0 );
+            format.setMaximumFractionDigits( maximumFractionDigits );
+            return format;
+        } );
+    }
+
+    /**
+     * Formats the given frequency, with its units, using this thread's number
+     * format.
+     *
+     * @param frequency
+     *            The frequency to format, in Hz
+     * @return The formatted frequency
+     */
+    public String format( final double frequency ) {
+        return FrequencySignalUtilities.getFormattedFrequency( frequency, numberFormat.get() );
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public int getMaximumFractionDigits() {
+        return maximumFractionDigits;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.layout;
+
+import com.mhschmieder.fxacousticsgui.frequency.FractionalOctaveBandIndex;
+import com.mhschmieder.fxacousticsgui.frequency.FrequencyBandLabels;
+import com.mhschmieder.fxacousticsgui.frequency.FrequencyFormatter;
+import com.mhschmieder.jcommons.util.ClientProperties;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.ObservableListBase;
+import javafx.geometry.Insets;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+/**
+ * {@code FrequencyBandInformationPane} is a companion to
+ * {@link FrequencyRangeInformationPane} that lists every band of a fractional
+ * octave analysis, one band per row, such as for a full spectrum sweep at 1/24
+ * or 1/48 octave.
+ * <p>
+ * The table is virtualized: its items are band numbers that are computed rather
+ * than stored, and {@link TableView} only asks for the cells of the visible
+ * rows, whose text is formatted on demand from primitive band arrays and kept
+ * in a bounded cache. Rows have a fixed height, so scrolling does not measure
+ * any cells.
+ *
+ * @version 1.0
+ */
+public final class FrequencyBandInformationPane extends VBox {
+
+    // Declare the fixed row height, which spares the table from measuring
+    // rows as they scroll into view.
+    private static final double         ROW_HEIGHT = 24.0d;
+
+    public TableView< Integer >         _frequencyBandTable;
+
+    // Cache the Client Properties for System Type, Locale etc.
+    public ClientProperties             _clientProperties;
+
+    // Cache the lazily formatted cell text of the listed bands.
+    protected FrequencyBandLabels       _frequencyBandLabels;
+
+    public FrequencyBandInformationPane( final ClientProperties pClientProperties ) {
+        // Always call the superclass constructor first!
+        super();
+
+        _clientProperties = pClientProperties;
+
+        try {
+            initPane();
+        }
+        catch ( final Exception ex ) {
+            ex.printStackTrace();
+        }
+    }
+
+    private void initPane() {
+        _frequencyBandLabels = new FrequencyBandLabels( new FrequencyFormatter( _clientProperties.locale ) );
+
+        _frequencyBandTable = new TableView<>( new BandNumberList( 0 ) );
+        _frequencyBandTable.setFixedCellSize( ROW_HEIGHT );
+        _frequencyBandTable.setColumnResizePolicy( TableView.CONSTRAINED_RESIZE_POLICY );
+        _frequencyBandTable.getSelectionModel().setSelectionMode( SelectionMode.SINGLE );
+        for ( int column = 0; column < FrequencyBandLabels.NUMBER_OF_COLUMNS; column++ ) {
+            _frequencyBandTable.getColumns().add( makeColumn( column ) );
+        }
+
+        getChildren().add( _frequencyBandTable );
+        VBox.setVgrow( _frequencyBandTable, Priority.ALWAYS );
+
+        setPadding( new Insets( 6.0d ) );
+    }
+
+    public int getSelectedBand() {
+        return _frequencyBandTable.getSelectionModel().getSelectedIndex();
+    }
+
+    // Make an unsortable column whose cell text comes from the band labels.
+    private TableColumn< Integer, String > makeColumn( final int column ) {
+        final TableColumn< Integer, String > tableColumn = new TableColumn<>( FrequencyBandLabels
+                .getColumnName( column ) );
+        tableColumn.setSortable( false );
+        tableColumn.setCellValueFactory( cellData -> new ReadOnlyObjectWrapper<>( _frequencyBandLabels
+                .getLabel( cellData.getValue().intValue(), column ) ) );
+        return tableColumn;
+    }
+
+    /**
+     * Replaces the listed bands, which are held by reference rather than
+     * copied.
+     * <p>
+     * NOTE: This method must be invoked on the JavaFX Application Thread.
+     *
+     * @param centerFrequencies
+     *            The center frequency of each band, in Hz
+     * @param startFrequencies
+     *            The start frequency of each band, in Hz
+     * @param stopFrequencies
+     *            The stop frequency of each band, in Hz
+     */
+    public void setBands( final double[] centerFrequencies,
+                          final double[] startFrequencies,
+                          final double[] stopFrequencies ) {
+        _frequencyBandLabels.setBands( centerFrequencies, startFrequencies, stopFrequencies );
+        _frequencyBandTable.setItems( new BandNumberList( _frequencyBandLabels.getNumberOfBands() ) );
+    }
+
+    /**
+     * Replaces the listed bands with every band of the given fractional octave
+     * band index.
+     * <p>
+     * NOTE: This method must be invoked on the JavaFX Application Thread.
+     *
+     * @param frequencyBandIndex
+     *            The fractional octave band index
+     */
+    public void setFrequencyBandIndex( final FractionalOctaveBandIndex frequencyBandIndex ) {
+        _frequencyBandLabels.setFrequencyBandIndex( frequencyBandIndex );
+        _frequencyBandTable.setItems( new BandNumberList( _frequencyBandLabels.getNumberOfBands() ) );
+    }
+
+    /**
+     * Selects the given band, and scrolls it into view if it is off-screen,
+     * such as to follow the current band of a sweep.
+     * <p>
+     * NOTE: This method must be invoked on the JavaFX Application Thread.
+     *
+     * @param bandNumber
+     *            The number of the band to select, or -1 to clear the selection
+     */
+    public void setSelectedBand( final int bandNumber ) {
+        if ( ( bandNumber < 0 ) || ( bandNumber >= _frequencyBandLabels.getNumberOfBands() ) ) {
+            _frequencyBandTable.getSelectionModel().clearSelection();
+            return;
+        }
+
+        _frequencyBandTable.getSelectionModel().clearAndSelect( bandNumber );
+        _frequencyBandTable.scrollTo( bandNumber );
+    }
+
+    /**
+     * {@code BandNumberList} is an unmodifiable list of the band numbers from
+     * zero up to a given count, which computes its elements rather than
+     * storing them.
+     */
+    private static final class BandNumberList extends ObservableListBase< Integer > {
+
+        private final int numberOfBands;
+
+        BandNumberList( final int pNumberOfBands ) {
+            numberOfBands = pNumberOfBands;
+        }
+
+        @Override
+        public Integer get( final int index ) {
+            if ( ( index < 0 ) || ( index >= numberOfBands ) ) {
+                throw new IndexOutOfBoundsException( "Band number out of range: " + index ); //$NON-NLS-1$
+            }
+
+            return Integer.valueOf( index );
+        }
+
+        @Override
+        public int size() {
+            return numberOfBands;
+        }
+    }
+}
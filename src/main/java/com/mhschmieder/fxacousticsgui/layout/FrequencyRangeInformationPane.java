@@ -30,11 +30,15 @@
  */
 package com.mhschmieder.fxacousticsgui.layout;
 
+import com.mhschmieder.fxacousticsgui.frequency.FractionalOctaveBandIndex;
+import com.mhschmieder.fxacousticsgui.frequency.FractionalOctaveSpectrum;
+import com.mhschmieder.fxacousticsgui.frequency.FrequencyFormatter;
+import com.mhschmieder.fxacousticsgui.soundfield.SplProbeReading;
 import com.mhschmieder.fxcontrols.util.RegionUtilities;
 import com.mhschmieder.fxgraphics.paint.ColorUtilities;
 import com.mhschmieder.fxgui.util.GuiUtilities;
-import com.mhschmieder.jacoustics.FrequencySignalUtilities;
 import com.mhschmieder.jcommons.util.ClientProperties;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
@@ -51,8 +55,10 @@ public final class FrequencyRangeInformationPane extends VBox {
     public static final String  CENTER_FREQUENCY_LABEL_LABEL     = "Center Frequency";           //$NON-NLS-1$
     public static final String  START_FREQUENCY_LABEL_LABEL      = "Start Frequency";            //$NON-NLS-1$
     public static final String  STOP_FREQUENCY_LABEL_LABEL       = "Stop Frequency";             //$NON-NLS-1$
+    public static final String  SPL_PROBE_LABEL_LABEL            = "Probe SPL";                  //$NON-NLS-1$
 
     private static final String BANDWIDTH_UNITS                  = " octave";                    //$NON-NLS-1$
+    private static final String SPL_UNITS                        = " dB";                        //$NON-NLS-1$
 
     // Declare default formatted data for each label.
     private static final String RELATIVE_BANDWIDTH_LABEL_DEFAULT = RELATIVE_BANDWIDTH_LABEL_LABEL
@@ -63,23 +69,60 @@ public final class FrequencyRangeInformationPane extends VBox {
             + " Not Available";                                                                  //$NON-NLS-1$
     private static final String STOP_FREQUENCY_LABEL_DEFAULT     = STOP_FREQUENCY_LABEL_LABEL
             + " Not Available";                                                                  //$NON-NLS-1$
+    private static final String SPL_PROBE_LABEL_DEFAULT          = SPL_PROBE_LABEL_LABEL
+            + " Not Available";                                                                  //$NON-NLS-1$
 
     public Label                _relativeBandwidthLabel;
     public Label                _centerFrequencyLabel;
     public Label                _startFrequencyLabel;
     public Label                _stopFrequencyLabel;
 
+    // Declare the optional probed SPL readout, which is null unless the pane
+    // was constructed to show it.
+    public Label                _splProbeLabel;
+
     // Cache the Client Properties for System Type, Locale etc.
     public ClientProperties     _clientProperties;
 
-    // Number format cache used for locale-specific number formatting.
-    protected NumberFormat      _numberFormat;
+    // Frequency formatter used for locale-specific frequency formatting, which
+    // is safe to use from any thread.
+    protected FrequencyFormatter _frequencyFormatter;
+
+    // Cache the fractional octave band index, and the labels pre-rendered
+    // from it, so that selecting a band does no formatting or allocation.
+    protected FractionalOctaveBandIndex _frequencyBandIndex;
+    protected String            _relativeBandwidthLabelText;
+    protected String[]          _centerFrequencyLabelTexts;
+    protected String[]          _startFrequencyLabelTexts;
+    protected String[]          _stopFrequencyLabelTexts;
+
+    // Hold the latest posted update, which supersedes any earlier one that
+    // has not been applied yet, and is applied on the JavaFX Application
+    // Thread.
+    private final FrequencyRangeUpdateSlot _pendingUpdate;
+
+    // Number format for the probed SPL, and the rounded values that are
+    // displayed, so that mouse moves within the same readout skip formatting.
+    private NumberFormat        _splNumberFormat;
+    private long                _splProbeTenthsDb                = Long.MIN_VALUE;
+    private int                 _splProbeBandNumber              = -1;
+    private int                 _splProbePercent                 = -1;
 
     public FrequencyRangeInformationPane( final ClientProperties pClientProperties ) {
+        this( pClientProperties, false );
+    }
+
+    public FrequencyRangeInformationPane( final ClientProperties pClientProperties,
+                                          final boolean pShowSplProbe ) {
         // Always call the superclass constructor first!
         super();
 
         _clientProperties = pClientProperties;
+        _pendingUpdate = new FrequencyRangeUpdateSlot( Platform::runLater,
+                                                       new PendingUpdateTarget() );
+        _splProbeLabel = pShowSplProbe
+            ? GuiUtilities.getStatusLabel( SPL_PROBE_LABEL_DEFAULT )
+            : null;
 
         try {
             initPane();
@@ -90,10 +133,13 @@ public final class FrequencyRangeInformationPane extends VBox {
     }
 
     private void initPane() {
-        // Cache the number formats so that we don't have to get information
-        // about locale, language, etc. from the OS each time we format a
-        // number.
-        _numberFormat = NumberFormat.getNumberInstance( _clientProperties.locale );
+        // Cache the frequency formatter so that we don't have to get
+        // information about locale, language, etc. from the OS each time we
+        // format a number. It stores the start, stop and center frequencies
+        // with a maximum three digits of precision (to cover some tightly
+        // spaced low frequencies).
+        _frequencyFormatter = new FrequencyFormatter( _clientProperties.locale,
+                                                      FrequencyFormatter.FRACTION_DIGITS_DEFAULT );
 
         _relativeBandwidthLabel = GuiUtilities.getStatusLabel(
                 RELATIVE_BANDWIDTH_LABEL_DEFAULT );
@@ -104,22 +150,123 @@ public final class FrequencyRangeInformationPane extends VBox {
         _stopFrequencyLabel = GuiUtilities.getStatusLabel(
                 STOP_FREQUENCY_LABEL_DEFAULT );
 
+        // Cache the SPL number format for the same reasons, to one decimal
+        // place as that is the resolution of quantized SPL grids.
+        _splNumberFormat = NumberFormat.getNumberInstance( _clientProperties.locale );
+        _splNumberFormat.setMinimumFractionDigits( 1 );
+        _splNumberFormat.setMaximumFractionDigits( 1 );
+
         getChildren().addAll( _relativeBandwidthLabel,
                               _centerFrequencyLabel,
                               _startFrequencyLabel,
                               _stopFrequencyLabel );
+        if ( _splProbeLabel != null ) {
+            getChildren().add( _splProbeLabel );
+        }
         setAlignment( Pos.CENTER_LEFT );
 
         setPadding( new Insets( 6.0d ) );
     }
 
+    /**
+     * Posts a reset of the displayed Frequency Range from any thread, which
+     * supersedes any update that was posted before it.
+     */
+    public void postReset() {
+        _pendingUpdate.postReset();
+    }
+
+    /**
+     * Posts a Frequency Range from any thread. The labels are formatted on the
+     * calling thread, and only the latest of any number of posts is displayed,
+     * once, on the next JavaFX pulse.
+     *
+     * @param startFrequency
+     *            The start frequency of the range, in Hz
+     * @param stopFrequency
+     *            The stop frequency of the range, in Hz
+     * @param relativeBandwidth
+     *            The relative bandwidth of the range, in octaves
+     * @param centerFrequency
+     *            The center frequency of the range, in Hz
+     */
+    public void postFrequencyRange( final double startFrequency,
+                                    final double stopFrequency,
+                                    final String relativeBandwidth,
+                                    final double centerFrequency ) {
+        final String relativeBandwidthLabelText = makeRelativeBandwidthLabelText( relativeBandwidth );
+        final String centerFrequencyLabelText = makeCenterFrequencyLabelText( centerFrequency );
+        final String startFrequencyLabelText = makeStartFrequencyLabelText( startFrequency );
+        final String stopFrequencyLabelText = makeStopFrequencyLabelText( stopFrequency );
+
+        _pendingUpdate.postLabelTexts( relativeBandwidthLabelText,
+                                       centerFrequencyLabelText,
+                                       startFrequencyLabelText,
+                                       stopFrequencyLabelText );
+    }
+
+    /**
+     * Posts a band of the current fractional octave band index from any
+     * thread. Only the latest of any number of posts is displayed, once, on
+     * the next JavaFX pulse.
+     *
+     * @param bandNumber
+     *            The number of the band to display
+     */
+    public void postFrequencyBand( final int bandNumber ) {
+        _pendingUpdate.postFrequencyBand( bandNumber );
+    }
+
+    /**
+     * Posts the loudest band of an analyzed spectrum from any thread, such as
+     * from a streaming fractional octave analyzer, or posts a reset if the
+     * spectrum has no loudest band.
+     *
+     * @param spectrum
+     *            The analyzed spectrum
+     */
+    public void postFrequencySpectrum( final FractionalOctaveSpectrum spectrum ) {
+        final int bandNumber = spectrum.getLoudestBandNumber();
+        if ( bandNumber < 0 ) {
+            postReset();
+            return;
+        }
+
+        final FractionalOctaveBandIndex frequencyBandIndex = spectrum.getFrequencyBandIndex();
+        postFrequencyRange( frequencyBandIndex.getStartFrequency( bandNumber ),
+                            frequencyBandIndex.getStopFrequency( bandNumber ),
+                            frequencyBandIndex.getRelativeBandwidthLabel(),
+                            frequencyBandIndex.getCenterFrequency( bandNumber ) );
+    }
+
+    // Reset the Frequency Range and, if shown, the probed SPL readout.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
     public void reset() {
+        _pendingUpdate.discard();
+        resetLabels();
+        resetSplProbeLabel();
+    }
+
+    private void resetLabels() {
         _relativeBandwidthLabel.setText( RELATIVE_BANDWIDTH_LABEL_DEFAULT );
         _centerFrequencyLabel.setText( CENTER_FREQUENCY_LABEL_DEFAULT );
         _startFrequencyLabel.setText( START_FREQUENCY_LABEL_DEFAULT );
         _stopFrequencyLabel.setText( STOP_FREQUENCY_LABEL_DEFAULT );
     }
 
+    // Forget the displayed readout too, so that the next reading is always
+    // formatted, even if it rounds to the same values as the last one.
+    private void resetSplProbeLabel() {
+        if ( _splProbeLabel == null ) {
+            return;
+        }
+
+        _splProbeTenthsDb = Long.MIN_VALUE;
+        _splProbeBandNumber = -1;
+        _splProbePercent = -1;
+        _splProbeLabel.setText( SPL_PROBE_LABEL_DEFAULT );
+    }
+
     public void setForegroundFromBackground( final Color backColor ) {
         // Set the new Background first, so it sets context for CSS derivations.
         final Background background = RegionUtilities.makeRegionBackground( backColor );
@@ -130,41 +277,166 @@ public final class FrequencyRangeInformationPane extends VBox {
         _centerFrequencyLabel.setTextFill( foregroundColor );
         _startFrequencyLabel.setTextFill( foregroundColor );
         _stopFrequencyLabel.setTextFill( foregroundColor );
+        if ( _splProbeLabel != null ) {
+            _splProbeLabel.setTextFill( foregroundColor );
+        }
     }
 
     // Update the cached Frequency Range.
-    // NOTE: This method is generally called from an acoustic response context.
-    @SuppressWarnings("nls")
+    // NOTE: This method is generally called from an acoustic response context,
+    //  and must be invoked on the JavaFX Application Thread; use
+    //  postFrequencyRange() from other threads or at high update rates.
     public void setFrequencyRange( final double startFrequency,
                                    final double stopFrequency,
                                    final String relativeBandwidth,
                                    final double centerFrequency ) {
-        // Store the start, stop and center frequencies with a maximum three
-        // digits of precision (to cover some tightly spaced low frequencies).
-        _numberFormat.setMinimumFractionDigits( 0 );
-        _numberFormat.setMaximumFractionDigits( 3 );
-        final String sStartFrequency = FrequencySignalUtilities
-                .getFormattedFrequency( startFrequency, _numberFormat );
-        final String sStopFrequency = FrequencySignalUtilities
-                .getFormattedFrequency( stopFrequency, _numberFormat );
-        final String sCenterFrequency = FrequencySignalUtilities
-                .getFormattedFrequency( centerFrequency, _numberFormat );
-
-        final String relativeBandwidthLabel = RELATIVE_BANDWIDTH_LABEL_LABEL + " = "
-                + relativeBandwidth + BANDWIDTH_UNITS;
-        final String centerFrequencyLabel = CENTER_FREQUENCY_LABEL_LABEL + " = " + sCenterFrequency;
-        final String startFrequencyLabel = START_FREQUENCY_LABEL_LABEL + " = " + sStartFrequency;
-        final String stopFrequencyLabel = STOP_FREQUENCY_LABEL_LABEL + " = " + sStopFrequency;
-
-        // Update the associated labels in the information pane.
-        _relativeBandwidthLabel.setText( relativeBandwidthLabel );
-        _centerFrequencyLabel.setText( centerFrequencyLabel );
-        _startFrequencyLabel.setText( startFrequencyLabel );
-        _stopFrequencyLabel.setText( stopFrequencyLabel );
+        _pendingUpdate.discard();
+        updateFrequencyRange( startFrequency, stopFrequency, relativeBandwidth, centerFrequency );
+    }
+
+    private void updateFrequencyRange( final double startFrequency,
+                                       final double stopFrequency,
+                                       final String relativeBandwidth,
+                                       final double centerFrequency ) {
+        setLabelTexts( makeRelativeBandwidthLabelText( relativeBandwidth ),
+                       makeCenterFrequencyLabelText( centerFrequency ),
+                       makeStartFrequencyLabelText( startFrequency ),
+                       makeStopFrequencyLabelText( stopFrequency ) );
+    }
+
+    // Update the associated labels in the information pane.
+    private void setLabelTexts( final String relativeBandwidthLabelText,
+                                final String centerFrequencyLabelText,
+                                final String startFrequencyLabelText,
+                                final String stopFrequencyLabelText ) {
+        _relativeBandwidthLabel.setText( relativeBandwidthLabelText );
+        _centerFrequencyLabel.setText( centerFrequencyLabelText );
+        _startFrequencyLabel.setText( startFrequencyLabelText );
+        _stopFrequencyLabel.setText( stopFrequencyLabelText );
+    }
+
+    // NOTE: The label text factories are safe to invoke from any thread.
+    @SuppressWarnings("nls")
+    private String makeCenterFrequencyLabelText( final double centerFrequency ) {
+        return CENTER_FREQUENCY_LABEL_LABEL + " = " + _frequencyFormatter.format( centerFrequency );
+    }
+
+    @SuppressWarnings("nls")
+    private static String makeRelativeBandwidthLabelText( final String relativeBandwidth ) {
+        return RELATIVE_BANDWIDTH_LABEL_LABEL + " = " + relativeBandwidth + BANDWIDTH_UNITS;
+    }
+
+    @SuppressWarnings("nls")
+    private String makeStartFrequencyLabelText( final double startFrequency ) {
+        return START_FREQUENCY_LABEL_LABEL + " = " + _frequencyFormatter.format( startFrequency );
+    }
+
+    @SuppressWarnings("nls")
+    private String makeStopFrequencyLabelText( final double stopFrequency ) {
+        return STOP_FREQUENCY_LABEL_LABEL + " = " + _frequencyFormatter.format( stopFrequency );
+    }
+
+    // Set the fractional octave band index that bands are selected from, and
+    // pre-render the labels for all of its bands.
+    @SuppressWarnings("nls")
+    public void setFrequencyBandIndex( final FractionalOctaveBandIndex frequencyBandIndex ) {
+        final int numberOfBands = frequencyBandIndex.getNumberOfBands();
+        _relativeBandwidthLabelText = makeRelativeBandwidthLabelText( frequencyBandIndex
+                .getRelativeBandwidthLabel() );
+        _centerFrequencyLabelTexts = new String[ numberOfBands ];
+        _startFrequencyLabelTexts = new String[ numberOfBands ];
+        _stopFrequencyLabelTexts = new String[ numberOfBands ];
+        for ( int bandNumber = 0; bandNumber < numberOfBands; bandNumber++ ) {
+            _centerFrequencyLabelTexts[ bandNumber ] = CENTER_FREQUENCY_LABEL_LABEL + " = "
+                    + frequencyBandIndex.getCenterFrequencyLabel( bandNumber );
+            _startFrequencyLabelTexts[ bandNumber ] = START_FREQUENCY_LABEL_LABEL + " = "
+                    + frequencyBandIndex.getStartFrequencyLabel( bandNumber );
+            _stopFrequencyLabelTexts[ bandNumber ] = STOP_FREQUENCY_LABEL_LABEL + " = "
+                    + frequencyBandIndex.getStopFrequencyLabel( bandNumber );
+        }
+
+        _frequencyBandIndex = frequencyBandIndex;
+    }
+
+    // Update the probed SPL under the cursor, along with the center frequency
+    // of its band and its position on the colormap, as a percentage of the
+    // SPL Range.
+    // NOTE: The band number is into the current Frequency Band Index, or -1
+    //  if the probed grid does not map to one of its bands. It is the caller
+    //  that knows how its grid bands line up with the index, so the band
+    //  index that is carried by the reading is never used as a band number.
+    // NOTE: The label is only re-formatted when the rounded readout changes,
+    //  so this is cheap enough to call for every mouse move.
+    // NOTE: This does nothing unless the pane was constructed to show the
+    //  probed SPL.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    @SuppressWarnings("nls")
+    public void setSplProbeReading( final SplProbeReading reading, final int bandNumber ) {
+        if ( _splProbeLabel == null ) {
+            return;
+        }
+
+        if ( !reading.isValid() ) {
+            if ( _splProbeTenthsDb != Long.MIN_VALUE ) {
+                resetSplProbeLabel();
+            }
+            return;
+        }
+
+        final long tenthsDb = Math.round( reading.getSplDb() * 10.0d );
+        final int percent = ( int ) Math.round( reading.getColormapPosition() * 100.0d );
+        if ( ( tenthsDb == _splProbeTenthsDb ) && ( bandNumber == _splProbeBandNumber )
+                && ( percent == _splProbePercent ) ) {
+            return;
+        }
+
+        _splProbeTenthsDb = tenthsDb;
+        _splProbeBandNumber = bandNumber;
+        _splProbePercent = percent;
+
+        final StringBuilder splProbeLabelText = new StringBuilder( SPL_PROBE_LABEL_LABEL )
+                .append( " = " ).append( _splNumberFormat.format( tenthsDb * 0.1d ) )
+                .append( SPL_UNITS ).append( " (" );
+        if ( ( _frequencyBandIndex != null ) && ( bandNumber >= 0 )
+                && ( bandNumber < _frequencyBandIndex.getNumberOfBands() ) ) {
+            splProbeLabelText.append( _frequencyBandIndex.getCenterFrequencyLabel( bandNumber ) )
+                    .append( ", " );
+        }
+        splProbeLabelText.append( percent ).append( "% of SPL Range)" );
+        _splProbeLabel.setText( splProbeLabelText.toString() );
+    }
+
+    // Update the displayed Frequency Range to a band of the current index.
+    // NOTE: This only swaps in pre-rendered labels, so it is cheap enough to
+    //  call for every band of a sweep.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    public void setFrequencyBand( final int bandNumber ) {
+        _pendingUpdate.discard();
+        updateFrequencyBand( bandNumber );
+    }
+
+    private void updateFrequencyBand( final int bandNumber ) {
+        if ( ( _frequencyBandIndex == null ) || ( bandNumber < 0 )
+                || ( bandNumber >= _frequencyBandIndex.getNumberOfBands() ) ) {
+            resetLabels();
+            return;
+        }
+
+        _relativeBandwidthLabel.setText( _relativeBandwidthLabelText );
+        _centerFrequencyLabel.setText( _centerFrequencyLabelTexts[ bandNumber ] );
+        _startFrequencyLabel.setText( _startFrequencyLabelTexts[ bandNumber ] );
+        _stopFrequencyLabel.setText( _stopFrequencyLabelTexts[ bandNumber ] );
+    }
+
+    public boolean isSplProbeShown() {
+        return _splProbeLabel != null;
     }
 
     public String[] getFrequencyRangeInformation() {
         // Collect the information fields to render to a single-column table.
+        // NOTE: The probed SPL is deliberately left out, as it describes
+        //  wherever the cursor happens to be rather than the Frequency Range,
+        //  and would make exported tables depend on the mouse position.
         final String[] information = new String[ 4 ];
         int i = 0;
         information[ i++ ] = _relativeBandwidthLabel.getText();
@@ -173,4 +445,32 @@ public final class FrequencyRangeInformationPane extends VBox {
         information[ i++ ] = _stopFrequencyLabel.getText();
         return information;
     }
+
+    /**
+     * Applies the updates posted to this pane, once they reach the JavaFX
+     * Application Thread.
+     */
+    private final class PendingUpdateTarget implements FrequencyRangeUpdateSlot.UpdateTarget {
+
+        @Override
+        public void resetLabels() {
+            FrequencyRangeInformationPane.this.resetLabels();
+        }
+
+        @Override
+        public void setFrequencyBand( final int bandNumber ) {
+            updateFrequencyBand( bandNumber );
+        }
+
+        @Override
+        public void setLabelTexts( final String relativeBandwidthLabelText,
+                                   final String centerFrequencyLabelText,
+                                   final String startFrequencyLabelText,
+                                   final String stopFrequencyLabelText ) {
+            FrequencyRangeInformationPane.this.setLabelTexts( relativeBandwidthLabelText,
+                                                              centerFrequencyLabelText,
+                                                              startFrequencyLabelText,
+                                                              stopFrequencyLabelText );
+        }
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.layout;
+
+import java.util.concurrent.Executor;
+
+/**
+ * {@code FrequencyRangeUpdateSlot} holds the latest Frequency Range update
+ * posted to a {@link FrequencyRangeInformationPane} from any thread, in one
+ * reusable slot, and applies it to the pane's labels on the thread of its
+ * executor, which is the JavaFX Application Thread for the pane.
+ * <p>
+ * Each post overwrites the pending update, and at most one apply task is
+ * queued at a time, so a burst of posts costs one label refresh with the
+ * latest values.
+ *
+ * @version 1.0
+ */
+final class FrequencyRangeUpdateSlot {
+
+    // Declare the kinds of update that can be posted.
+    private static final int     UPDATE_NONE            = 0;
+    private static final int     UPDATE_RESET           = 1;
+    private static final int     UPDATE_FREQUENCY_RANGE = 2;
+    private static final int     UPDATE_FREQUENCY_BAND  = 3;
+
+    // Declare the executor that runs the apply task, and the labels that
+    // the pending update is applied to.
+    private final Executor       applyExecutor;
+    private final UpdateTarget   updateTarget;
+
+    // Declare the pending update, which is guarded by this slot's lock.
+    private int                  pendingUpdateKind;
+    private String               pendingRelativeBandwidthLabelText;
+    private String               pendingCenterFrequencyLabelText;
+    private String               pendingStartFrequencyLabelText;
+    private String               pendingStopFrequencyLabelText;
+    private int                  pendingBandNumber;
+
+    // Flag for whether an apply task is already queued on the executor.
+    private boolean              applyScheduled;
+
+    FrequencyRangeUpdateSlot( final Executor pApplyExecutor, final UpdateTarget pUpdateTarget ) {
+        applyExecutor = pApplyExecutor;
+        updateTarget = pUpdateTarget;
+
+        pendingUpdateKind = UPDATE_NONE;
+        pendingBandNumber = -1;
+        applyScheduled = false;
+    }
+
+    // Applies the pending update, if it has not been discarded.
+    // NOTE: This method runs on the thread of the apply executor.
+    private void apply() {
+        final int updateKind;
+        final String relativeBandwidthLabelText;
+        final String centerFrequencyLabelText;
+        final String startFrequencyLabelText;
+        final String stopFrequencyLabelText;
+        final int bandNumber;
+        synchronized ( this ) {
+            updateKind = pendingUpdateKind;
+            relativeBandwidthLabelText = pendingRelativeBandwidthLabelText;
+            centerFrequencyLabelText = pendingCenterFrequencyLabelText;
+            startFrequencyLabelText = pendingStartFrequencyLabelText;
+            stopFrequencyLabelText = pendingStopFrequencyLabelText;
+            bandNumber = pendingBandNumber;
+
+            clear();
+            applyScheduled = false;
+        }
+
+        switch ( updateKind ) {
+        case UPDATE_RESET:
+            updateTarget.resetLabels();
+            break;
+        case UPDATE_FREQUENCY_RANGE:
+            updateTarget.setLabelTexts( relativeBandwidthLabelText,
+                                        centerFrequencyLabelText,
+                                        startFrequencyLabelText,
+                                        stopFrequencyLabelText );
+            break;
+        case UPDATE_FREQUENCY_BAND:
+            updateTarget.setFrequencyBand( bandNumber );
+            break;
+        default:
+            break;
+        }
+    }
+
+    // Releases the pending update, including its label texts.
+    // NOTE: This method must be invoked while holding this slot's lock.
+    private void clear() {
+        pendingUpdateKind = UPDATE_NONE;
+        pendingRelativeBandwidthLabelText = null;
+        pendingCenterFrequencyLabelText = null;
+        pendingStartFrequencyLabelText = null;
+        pendingStopFrequencyLabelText = null;
+    }
+
+    // Drops any posted update that has not been applied yet, as it is older
+    // than an update that is being applied directly. Any queued apply task
+    // then does nothing.
+    synchronized void discard() {
+        clear();
+    }
+
+    // Posts a band of the pane's fractional octave band index, superseding
+    // any earlier post.
+    synchronized void postFrequencyBand( final int bandNumber ) {
+        clear();
+        pendingUpdateKind = UPDATE_FREQUENCY_BAND;
+        pendingBandNumber = bandNumber;
+        schedule();
+    }
+
+    // Posts label texts that were formatted on the posting thread,
+    // superseding any earlier post.
+    synchronized void postLabelTexts( final String relativeBandwidthLabelText,
+                                      final String centerFrequencyLabelText,
+                                      final String startFrequencyLabelText,
+                                      final String stopFrequencyLabelText ) {
+        pendingUpdateKind = UPDATE_FREQUENCY_RANGE;
+        pendingRelativeBandwidthLabelText = relativeBandwidthLabelText;
+        pendingCenterFrequencyLabelText = centerFrequencyLabelText;
+        pendingStartFrequencyLabelText = startFrequencyLabelText;
+        pendingStopFrequencyLabelText = stopFrequencyLabelText;
+        schedule();
+    }
+
+    // Posts a reset of the labels, superseding any earlier post.
+    synchronized void postReset() {
+        clear();
+        pendingUpdateKind = UPDATE_RESET;
+        schedule();
+    }
+
+    // Queues the apply task unless it is already queued.
+    // NOTE: This method must be invoked while holding this slot's lock.
+    private void schedule() {
+        if ( !applyScheduled ) {
+            applyScheduled = true;
+            applyExecutor.execute( this::apply );
+        }
+    }
+
+    /**
+     * Receives the pending update on the thread of the apply executor.
+     */
+    interface UpdateTarget {
+
+        // Resets the labels to their defaults.
+        void resetLabels();
+
+        // Sets the labels to the given pre-formatted texts.
+        void setLabelTexts( final String relativeBandwidthLabelText,
+                            final String centerFrequencyLabelText,
+                            final String startFrequencyLabelText,
+                            final String stopFrequencyLabelText );
+
+        // Sets the labels to the given band of the band index.
+        void setFrequencyBand( final int bandNumber );
+    }
+}
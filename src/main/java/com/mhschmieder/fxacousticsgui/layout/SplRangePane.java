@@ -32,6 +32,7 @@ package com.mhschmieder.fxacousticsgui.layout;
 
 import com.mhschmieder.fxacousticscontrols.control.AcousticsControlFactory;
 import com.mhschmieder.fxacousticscontrols.control.AcousticsLabeledControlFactory;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
 import com.mhschmieder.jcommons.util.ClientProperties;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -50,9 +51,12 @@ public class SplRangePane extends VBox {
     public Label                _splRangeLabel;
     public Spinner< Integer >   _splRangeSpinner;
 
-    // Declare a cache of the current SPL Range in dB.
+    // Declare a cache of the current Auto-Range SPL Range in dB.
     protected double _splRangeDb = AcousticsControlFactory.SPL_RANGE_DB_DEFAULT;
 
+    // Declare a cache of the most recent Auto-Range SPL statistics, if any.
+    protected SplRange _autoRangeSpl = SplRange.EMPTY;
+
     public SplRangePane( final ClientProperties clientProperties, final boolean useExtendedRange ) {
         // Always call the superclass constructor first!
         super();
@@ -93,11 +97,13 @@ public class SplRangePane extends VBox {
                 } );
     }
 
-    public final int getSplRangeDb() {
-        if ( _autoRangeSplCheckBox.isSelected() ) {
-            return AcousticsControlFactory.SPL_RANGE_DB_DEFAULT;
-        }
+    public final SplRange getAutoRangeSpl() {
+        return _autoRangeSpl;
+    }
 
+    public final int getSplRangeDb() {
+        // NOTE: In Auto-Range Mode, the disabled SPL Range spinner mirrors the
+        // most recent auto-ranged value, already clamped to the legal range.
         final Integer splRangeDb = _splRangeSpinner.getValue();
         return splRangeDb.intValue();
     }
@@ -113,9 +119,11 @@ public class SplRangePane extends VBox {
         // spinner.
         setSplRangeEnabled( !autoRangeSpl );
 
-        // If we are now in Auto-Range Mode, reset to the default SPL Range.
+        // If we are now in Auto-Range Mode, reset to the cached Auto-Range
+        // SPL Range, which is the default SPL Range until a Sound Field has
+        // been auto-ranged.
         if ( autoRangeSpl ) {
-            setSplRangeDb( AcousticsControlFactory.SPL_RANGE_DB_DEFAULT );
+            setSplRangeDb( ( int ) Math.round( _splRangeDb ) );
         }
     }
 
@@ -131,6 +139,23 @@ public class SplRangePane extends VBox {
         _splRangeSpinner.setDisable( !splRangeEnabled );
     }
 
+    // Update the cached Auto-Range SPL statistics from the current Sound Field.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    public final void updateAutoRangeSpl( final SplRange autoRangeSpl ) {
+        // An empty Sound Field has no meaningful range, so keep the last one.
+        if ( autoRangeSpl.isEmpty() ) {
+            return;
+        }
+
+        _autoRangeSpl = autoRangeSpl;
+        _splRangeDb = autoRangeSpl.getSplRangeDb();
+
+        // If we are in Auto-Range Mode, display the new SPL Range.
+        if ( isAutoRangeSpl() ) {
+            setSplRangeDb( autoRangeSpl.getSplRangeDb() );
+        }
+    }
+
     public final void updateSplRange( final boolean autoRangeSpl, final int splRangeDb ) {
         // Set to the cached Auto-Range Mode.
         setAutoRangeSpl( autoRangeSpl );
@@ -140,10 +165,13 @@ public class SplRangePane extends VBox {
         setSplRangeEnabled( !autoRangeSpl );
 
         // If we are no longer in Auto-Range Mode, set to the cached manual SPL
-        // Range.
+        // Range; otherwise display the cached Auto-Range SPL Range.
         if ( !autoRangeSpl ) {
             setSplRangeDb( splRangeDb );
         }
+        else {
+            setSplRangeDb( ( int ) Math.round( _splRangeDb ) );
+        }
     }
 
 }
@@ -0,0 +1,354 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * {@code BlueNoiseTexture} is a tileable blue-noise threshold texture, which is
+ * generated once via Ulichney's void-and-cluster method and stored as one byte
+ * per texel.
+ * <p>
+ * Generation takes a noticeable fraction of a second, so the default texture
+ * is cached in the user's home directory and simply read back on later
+ * launches. Dithering against it is then one table lookup per pixel, with no
+ * random number generation at all.
+ *
+ * @version 1.0
+ */
+public final class BlueNoiseTexture {
+
+    // Declare the texture size, which must be a power of two for wrapping.
+    public static final int     TEXTURE_SIZE      = 64;
+    public static final int     TEXTURE_MASK      = TEXTURE_SIZE - 1;
+    public static final int     TEXTURE_SHIFT     = 6;
+
+    // Declare the number of distinct threshold levels per texel.
+    public static final int     NUMBER_OF_LEVELS  = 256;
+
+    // Declare the void-and-cluster filter width, and prototype fill factor.
+    private static final double SIGMA             = 1.5d;
+    private static final double INITIAL_FILL      = 0.1d;
+
+    // Declare the seed for the default texture, so that it is reproducible.
+    private static final long   DEFAULT_SEED      = 0x5EEDB105EL;
+
+    // Declare the cache file header, for detecting stale or foreign files.
+    private static final int    CACHE_MAGIC       = 0x424E5458;
+    private static final int    CACHE_VERSION     = 1;
+    private static final int    CACHE_HEADER_SIZE = 12;
+
+    // Declare the default cache file location.
+    private static final String CACHE_DIRECTORY   = ".fxacousticsgui";                   //$NON-NLS-1$
+    private static final String CACHE_FILE_NAME   = "BlueNoise64.bin";                   //$NON-NLS-1$
+
+    // Declare the threshold of each texel, in row-major order.
+    private final byte[]        thresholds;
+
+    private BlueNoiseTexture( final byte[] pThresholds ) {
+        thresholds = pThresholds;
+    }
+
+    /**
+     * Returns the shared default texture, loading it from the cache file or
+     * generating and caching it on first use.
+     *
+     * @return The default blue-noise texture
+     */
+    public static BlueNoiseTexture getDefault() {
+        return DefaultTextureHolder.DEFAULT_TEXTURE;
+    }
+
+    public static Path getDefaultCachePath() {
+        return Paths.get( System.getProperty( "user.home" ), //$NON-NLS-1$
+                          CACHE_DIRECTORY,
+                          CACHE_FILE_NAME );
+    }
+
+    /**
+     * Generates a new texture via void-and-cluster, with toroidal distances so
+     * that the texture tiles seamlessly.
+     *
+     * @param seed
+     *            The seed for the initial random prototype pattern
+     * @return The newly generated blue-noise texture
+     */
+    public static BlueNoiseTexture generate( final long seed ) {
+        final int numberOfTexels = TEXTURE_SIZE * TEXTURE_SIZE;
+
+        // Precompute the toroidal Gaussian filter, indexed by texel offset.
+        final double[] filter = new double[ numberOfTexels ];
+        for ( int dy = 0; dy < TEXTURE_SIZE; dy++ ) {
+            final int wrappedDy = Math.min( dy, TEXTURE_SIZE - dy );
+            for ( int dx = 0; dx < TEXTURE_SIZE; dx++ ) {
+                final int wrappedDx = Math.min( dx, TEXTURE_SIZE - dx );
+                final double distanceSquared = ( wrappedDx * wrappedDx ) + ( wrappedDy * wrappedDy );
+                filter[ ( dy << TEXTURE_SHIFT ) | dx ] = Math
+                        .exp( -distanceSquared / ( 2.0d * SIGMA * SIGMA ) );
+            }
+        }
+
+        // Make a random prototype pattern with a small fraction of ones.
+        final boolean[] pattern = new boolean[ numberOfTexels ];
+        final double[] energy = new double[ numberOfTexels ];
+        final Random random = new Random( seed );
+        int numberOfOnes = 0;
+        while ( numberOfOnes < ( int ) ( INITIAL_FILL * numberOfTexels ) ) {
+            final int texel = random.nextInt( numberOfTexels );
+            if ( !pattern[ texel ] ) {
+                pattern[ texel ] = true;
+                addEnergy( energy, filter, texel, 1.0d );
+                numberOfOnes++;
+            }
+        }
+
+        // Move ones from the tightest cluster to the largest void, until that
+        // would just move a one back to where it came from.
+        // NOTE: This converges quickly in practice, but is bounded regardless.
+        for ( int iteration = 0; iteration < numberOfTexels; iteration++ ) {
+            final int cluster = findTightestCluster( pattern, energy );
+            pattern[ cluster ] = false;
+            addEnergy( energy, filter, cluster, -1.0d );
+
+            final int voidTexel = findLargestVoid( pattern, energy );
+            pattern[ voidTexel ] = true;
+            addEnergy( energy, filter, voidTexel, 1.0d );
+
+            if ( voidTexel == cluster ) {
+                break;
+            }
+        }
+
+        final int[] ranks = new int[ numberOfTexels ];
+
+        // Rank the prototype's ones by repeatedly removing the tightest
+        // cluster, working on a copy so the prototype can be reused.
+        final boolean[] workingPattern = pattern.clone();
+        final double[] workingEnergy = energy.clone();
+        for ( int rank = numberOfOnes - 1; rank >= 0; rank-- ) {
+            final int cluster = findTightestCluster( workingPattern, workingEnergy );
+            workingPattern[ cluster ] = false;
+            addEnergy( workingEnergy, filter, cluster, -1.0d );
+            ranks[ cluster ] = rank;
+        }
+
+        // Rank the remaining texels by repeatedly filling the largest void.
+        // NOTE: The filter sums to the same total at every texel, so the
+        //  tightest cluster of zeros (beyond half full) is also the largest
+        //  void of ones, and one loop serves for both of the classic phases.
+        for ( int rank = numberOfOnes; rank < numberOfTexels; rank++ ) {
+            final int voidTexel = findLargestVoid( pattern, energy );
+            pattern[ voidTexel ] = true;
+            addEnergy( energy, filter, voidTexel, 1.0d );
+            ranks[ voidTexel ] = rank;
+        }
+
+        // Reduce the ranks to the number of threshold levels.
+        final byte[] thresholds = new byte[ numberOfTexels ];
+        for ( int texel = 0; texel < numberOfTexels; texel++ ) {
+            thresholds[ texel ] = ( byte ) ( ( ranks[ texel ] * NUMBER_OF_LEVELS )
+                    / numberOfTexels );
+        }
+
+        return new BlueNoiseTexture( thresholds );
+    }
+
+    /**
+     * Loads a texture from a cache file that was written by {@link #save}.
+     *
+     * @param cachePath
+     *            The path of the cache file
+     * @return The cached blue-noise texture
+     * @throws IOException
+     *             If the file cannot be read, or is not a valid cache file
+     */
+    public static BlueNoiseTexture load( final Path cachePath ) throws IOException {
+        final int numberOfTexels = TEXTURE_SIZE * TEXTURE_SIZE;
+        try ( final FileChannel fileChannel = FileChannel.open( cachePath,
+                                                                StandardOpenOption.READ ) ) {
+            final ByteBuffer buffer = ByteBuffer.allocate( CACHE_HEADER_SIZE + numberOfTexels );
+            while ( buffer.hasRemaining() && ( fileChannel.read( buffer ) >= 0 ) ) {
+                continue;
+            }
+            buffer.flip();
+
+            if ( ( buffer.remaining() != buffer.capacity() ) || ( buffer.getInt() != CACHE_MAGIC )
+                    || ( buffer.getInt() != CACHE_VERSION )
+                    || ( buffer.getInt() != TEXTURE_SIZE ) ) {
+                throw new IOException( "Invalid blue-noise cache file: " + cachePath ); //$NON-NLS-1$
+            }
+
+            final byte[] thresholds = new byte[ numberOfTexels ];
+            buffer.get( thresholds );
+            return new BlueNoiseTexture( thresholds );
+        }
+    }
+
+    /**
+     * Saves this texture to a cache file, replacing it atomically so that a
+     * concurrent launch never reads a partially written file.
+     *
+     * @param cachePath
+     *            The path of the cache file
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    public void save( final Path cachePath ) throws IOException {
+        final Path cacheDirectory = cachePath.toAbsolutePath().getParent();
+        Files.createDirectories( cacheDirectory );
+
+        final Path temporaryPath = Files.createTempFile( cacheDirectory,
+                                                         CACHE_FILE_NAME,
+                                                         ".tmp" ); //$NON-NLS-1$
+        try {
+            try ( final FileChannel fileChannel = FileChannel
+                    .open( temporaryPath, StandardOpenOption.WRITE ) ) {
+                final ByteBuffer buffer = ByteBuffer
+                        .allocate( CACHE_HEADER_SIZE + thresholds.length );
+                buffer.putInt( CACHE_MAGIC );
+                buffer.putInt( CACHE_VERSION );
+                buffer.putInt( TEXTURE_SIZE );
+                buffer.put( thresholds );
+                buffer.flip();
+                while ( buffer.hasRemaining() ) {
+                    fileChannel.write( buffer );
+                }
+            }
+
+            Files.move( temporaryPath,
+                        cachePath,
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE );
+        }
+        finally {
+            Files.deleteIfExists( temporaryPath );
+        }
+    }
+
+    /**
+     * Returns the threshold of the texel that covers the given pixel, with the
+     * texture tiled across the image.
+     *
+     * @param column
+     *            The pixel column
+     * @param row
+     *            The pixel row
+     * @return The threshold level, from 0 to {@link #NUMBER_OF_LEVELS} - 1
+     */
+    public int getThreshold( final int column, final int row ) {
+        return thresholds[ ( ( row & TEXTURE_MASK ) << TEXTURE_SHIFT )
+                | ( column & TEXTURE_MASK ) ] & 0xFF;
+    }
+
+    public byte[] getThresholds() {
+        return thresholds;
+    }
+
+    private static void addEnergy( final double[] energy,
+                                   final double[] filter,
+                                   final int texel,
+                                   final double sign ) {
+        final int texelX = texel & TEXTURE_MASK;
+        final int texelY = texel >> TEXTURE_SHIFT;
+        for ( int y = 0; y < TEXTURE_SIZE; y++ ) {
+            final int filterRowOffset = ( ( y - texelY ) & TEXTURE_MASK ) << TEXTURE_SHIFT;
+            final int energyRowOffset = y << TEXTURE_SHIFT;
+            for ( int x = 0; x < TEXTURE_SIZE; x++ ) {
+                energy[ energyRowOffset | x ] += sign
+                        * filter[ filterRowOffset | ( ( x - texelX ) & TEXTURE_MASK ) ];
+            }
+        }
+    }
+
+    private static int findLargestVoid( final boolean[] pattern, final double[] energy ) {
+        int largestVoid = -1;
+        for ( int texel = 0; texel < pattern.length; texel++ ) {
+            if ( !pattern[ texel ]
+                    && ( ( largestVoid < 0 ) || ( energy[ texel ] < energy[ largestVoid ] ) ) ) {
+                largestVoid = texel;
+            }
+        }
+        return largestVoid;
+    }
+
+    private static int findTightestCluster( final boolean[] pattern, final double[] energy ) {
+        int tightestCluster = -1;
+        for ( int texel = 0; texel < pattern.length; texel++ ) {
+            if ( pattern[ texel ]
+                    && ( ( tightestCluster < 0 )
+                            || ( energy[ texel ] > energy[ tightestCluster ] ) ) ) {
+                tightestCluster = texel;
+            }
+        }
+        return tightestCluster;
+    }
+
+    private static BlueNoiseTexture loadOrGenerateDefault() {
+        final Path cachePath = getDefaultCachePath();
+        try {
+            return load( cachePath );
+        }
+        catch ( final NoSuchFileException nsfe ) {
+            // This is expected on first launch, so generate the texture.
+        }
+        catch ( final IOException ioe ) {
+            ioe.printStackTrace();
+        }
+
+        final BlueNoiseTexture blueNoiseTexture = generate( DEFAULT_SEED );
+        try {
+            blueNoiseTexture.save( cachePath );
+        }
+        catch ( final IOException | SecurityException ex ) {
+            // The cache is just an optimization, so generate it again next
+            // time if it cannot be written (such as from a read-only home).
+            ex.printStackTrace();
+        }
+
+        return blueNoiseTexture;
+    }
+
+    /**
+     * Lazily loads the default texture on first use, in a thread-safe way.
+     */
+    private static final class DefaultTextureHolder {
+        static final BlueNoiseTexture DEFAULT_TEXTURE = loadOrGenerateDefault();
+    }
+}
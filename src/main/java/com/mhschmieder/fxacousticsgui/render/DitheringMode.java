@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+/**
+ * {@code DitheringMode} selects how the Sound Field image is dithered across
+ * the color bands of the SPL palette.
+ *
+ * @version 1.0
+ */
+public enum DitheringMode {
+    /**
+     * Ordered dithering against a tiled 8x8 Bayer threshold matrix.
+     */
+    ORDERED,
+
+    /**
+     * Dithering against a tiled blue-noise threshold texture, which avoids
+     * the cross-hatch texture of ordered dithering.
+     */
+    BLUE_NOISE,
+
+    /**
+     * Floyd-Steinberg error diffusion, which carries the banding error of each
+     * pixel to its unprocessed neighbors.
+     */
+    ERROR_DIFFUSION;
+
+    public static DitheringMode defaultValue() {
+        return ORDERED;
+    }
+}
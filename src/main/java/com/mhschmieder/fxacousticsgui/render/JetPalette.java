@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+/**
+ * {@code JetPalette} is the classic 64-color Jet palette that runs from dark
+ * blue through cyan, yellow and red to dark red, as used for Sound Field SPL.
+ * <p>
+ * Colors are packed as opaque 32-bit ARGB values, which is the native pixel
+ * format for writing images without per-pixel conversion.
+ *
+ * @version 1.0
+ */
+public final class JetPalette {
+
+    // Declare the number of colors in the palette.
+    public static final int    NUMBER_OF_COLORS = 64;
+
+    // Declare the packed ARGB value for cells with no valid SPL.
+    public static final int    NO_DATA_ARGB     = 0x00000000;
+
+    // Declare the palette colors, from lowest to highest SPL.
+    private static final int[] COLORS           = makeColors();
+
+    /**
+     * The default constructor is disabled, as this is a static utilities
+     * class.
+     */
+    private JetPalette() {}
+
+    /**
+     * Returns the palette color for the given palette index.
+     *
+     * @param colorIndex
+     *            The palette index, from 0 to {@link #NUMBER_OF_COLORS} - 1
+     * @return The opaque packed ARGB color
+     */
+    public static int getArgb( final int colorIndex ) {
+        return COLORS[ colorIndex ];
+    }
+
+    /**
+     * Returns the palette index for the given normalized value, which is
+     * clamped to the unit interval.
+     *
+     * @param normalizedValue
+     *            The normalized value, where 0 is the floor and 1 the ceiling
+     * @return The palette index, from 0 to {@link #NUMBER_OF_COLORS} - 1
+     */
+    public static int getColorIndex( final double normalizedValue ) {
+        final int colorIndex = ( int ) ( normalizedValue * NUMBER_OF_COLORS );
+        return Math.max( 0, Math.min( NUMBER_OF_COLORS - 1, colorIndex ) );
+    }
+
+    private static int[] makeColors() {
+        final int[] colors = new int[ NUMBER_OF_COLORS ];
+        for ( int i = 0; i < NUMBER_OF_COLORS; i++ ) {
+            // Sample each color at the center of its band.
+            final double value = ( i + 0.5d ) / NUMBER_OF_COLORS;
+            final int red = getChannel( 1.5d - Math.abs( ( 4.0d * value ) - 3.0d ) );
+            final int green = getChannel( 1.5d - Math.abs( ( 4.0d * value ) - 2.0d ) );
+            final int blue = getChannel( 1.5d - Math.abs( ( 4.0d * value ) - 1.0d ) );
+            colors[ i ] = 0xFF000000 | ( red << 16 ) | ( green << 8 ) | blue;
+        }
+        return colors;
+    }
+
+    private static int getChannel( final double intensity ) {
+        final double clampedIntensity = Math.max( 0.0d, Math.min( 1.0d, intensity ) );
+        return ( int ) Math.round( clampedIntensity * 255.0d );
+    }
+}
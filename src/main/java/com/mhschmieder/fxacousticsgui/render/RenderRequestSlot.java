@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@code RenderRequestSlot} holds the latest render request of a
+ * {@link SoundFieldRenderScheduler}, for any number of producers and a single
+ * consumer.
+ * <p>
+ * Each request holds its settings together with its generation, and both are
+ * published in one step, so the consumer can never take newer settings with
+ * an older generation (or vice versa) and then mistake the newest render for
+ * a superseded one.
+ *
+ * @param <S>
+ *            The type of the display settings to render with
+ *
+ * @version 1.0
+ */
+final class RenderRequestSlot< S > {
+
+    // Declare the latest request, which is never cleared.
+    private final AtomicReference< Request< S > > latestRequest;
+
+    // Declare the generation of the latest request taken by the consumer.
+    // NOTE: This is only accessed on the consuming thread.
+    private long                                  takenGeneration;
+
+    RenderRequestSlot() {
+        latestRequest = new AtomicReference<>( new Request<>( null, 0L ) );
+        takenGeneration = 0L;
+    }
+
+    // Returns whether there is a request that the consumer has not taken yet.
+    // NOTE: This method must be invoked on the consuming thread.
+    boolean hasPendingRequest() {
+        return latestRequest.get().generation != takenGeneration;
+    }
+
+    // Returns whether a newer request has been posted than the one with the
+    // given generation.
+    boolean isSuperseded( final long generation ) {
+        return generation != latestRequest.get().generation;
+    }
+
+    // Posts a request, superseding any earlier one, from any thread, and
+    // returns its generation, which is always one more than the request it
+    // supersedes.
+    long post( final S settings ) {
+        Request< S > previousRequest;
+        Request< S > request;
+        do {
+            previousRequest = latestRequest.get();
+            request = new Request<>( settings, previousRequest.generation + 1L );
+        }
+        while ( !latestRequest.compareAndSet( previousRequest, request ) );
+
+        return request.generation;
+    }
+
+    // Takes the latest request, or returns null if it was already taken.
+    // NOTE: This method must be invoked on the consuming thread.
+    Request< S > take() {
+        final Request< S > request = latestRequest.get();
+        if ( request.generation == takenGeneration ) {
+            return null;
+        }
+
+        takenGeneration = request.generation;
+        return request;
+    }
+
+    /**
+     * Holds the settings of a request together with its generation.
+     */
+    static final class Request< S > {
+        private final S    settings;
+        private final long generation;
+
+        Request( final S pSettings, final long pGeneration ) {
+            settings = pSettings;
+            generation = pGeneration;
+        }
+
+        long getGeneration() {
+            return generation;
+        }
+
+        S getSettings() {
+            return settings;
+        }
+    }
+}
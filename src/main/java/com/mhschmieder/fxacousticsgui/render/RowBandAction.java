@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@code RowBandAction} recursively splits the rows of an image or grid into
+ * bands, and applies a {@link RowBandOperation} to each band on a fork-join
+ * pool.
+ * <p>
+ * Bands that have not started yet are skipped once the optional
+ * {@link RenderCancellation} reports that the render has been cancelled.
+ *
+ * @version 1.0
+ */
+public final class RowBandAction extends RecursiveAction {
+    private static final long      serialVersionUID = 2616146092460451740L;
+
+    private final RowBandOperation   operation;
+    private final int                firstRow;
+    private final int                lastRow;
+    private final int                rowsPerBand;
+    private final RenderCancellation cancellation;
+
+    public RowBandAction( final RowBandOperation pOperation,
+                          final int pFirstRow,
+                          final int pLastRow,
+                          final int pRowsPerBand ) {
+        this( pOperation, pFirstRow, pLastRow, pRowsPerBand, RenderCancellation.NONE );
+    }
+
+    public RowBandAction( final RowBandOperation pOperation,
+                          final int pFirstRow,
+                          final int pLastRow,
+                          final int pRowsPerBand,
+                          final RenderCancellation pCancellation ) {
+        operation = pOperation;
+        firstRow = pFirstRow;
+        lastRow = pLastRow;
+        rowsPerBand = Math.max( 1, pRowsPerBand );
+        cancellation = pCancellation;
+    }
+
+    /**
+     * Returns the number of rows per band that keeps each band at roughly the
+     * given number of cells, so that tasks are neither too small to amortize
+     * their overhead nor too large to balance the load.
+     *
+     * @param numberOfColumns
+     *            The number of columns per row
+     * @param cellsPerBand
+     *            The target number of cells per band
+     * @return The number of rows per band, at least one
+     */
+    public static int getRowsPerBand( final int numberOfColumns, final int cellsPerBand ) {
+        return Math.max( 1, cellsPerBand / Math.max( 1, numberOfColumns ) );
+    }
+
+    @Override
+    protected void compute() {
+        if ( cancellation.isCancelled() ) {
+            return;
+        }
+
+        if ( ( lastRow - firstRow ) <= rowsPerBand ) {
+            operation.apply( firstRow, lastRow );
+            return;
+        }
+
+        final int middleRow = ( firstRow + lastRow ) >>> 1;
+        invokeAll( new RowBandAction( operation, firstRow, middleRow, rowsPerBand, cancellation ),
+                   new RowBandAction( operation, middleRow, lastRow, rowsPerBand, cancellation ) );
+    }
+}
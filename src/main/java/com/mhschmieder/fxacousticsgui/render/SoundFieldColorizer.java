@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import com.mhschmieder.fxacousticsgui.soundfield.SplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@code SoundFieldColorizer} colormaps a Sound Field SPL grid into packed
+ * ARGB image buffers, via an {@link SplIndexBuffer} that is quantized once per
+ * grid and an {@link SplColorLookupTable} that is rebuilt per SPL Range.
+ * <p>
+ * Re-coloring for a new SPL Range therefore costs a 4096-entry table rebuild
+ * plus one parallel table lookup per pixel, and never allocates.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldColorizer {
+
+    // Declare the target number of pixels per parallel blit task.
+    private static final int          PIXELS_PER_BAND = 1 << 16;
+
+    // Declare the pool that quantization and blitting run on.
+    private final ForkJoinPool        forkJoinPool;
+
+    // Declare the quantized SPL grid, and its color lookup table.
+    private final SplIndexBuffer      indexBuffer;
+    private final SplColorLookupTable lookupTable;
+
+    // Cache the SPL that maps to the top of the palette for the current grid.
+    private double                    ceilingDb;
+
+    // Count the SPL grids quantized so far, so that cached renders can tell
+    // whether they are still current.
+    private volatile long             splGridRevision;
+
+    public SoundFieldColorizer( final int numberOfColumns, final int numberOfRows ) {
+        this( ForkJoinPool.commonPool(), numberOfColumns, numberOfRows );
+    }
+
+    public SoundFieldColorizer( final ForkJoinPool pForkJoinPool,
+                                final int numberOfColumns,
+                                final int numberOfRows ) {
+        forkJoinPool = pForkJoinPool;
+
+        indexBuffer = new SplIndexBuffer( numberOfColumns, numberOfRows );
+        lookupTable = new SplColorLookupTable();
+
+        ceilingDb = Double.NaN;
+        splGridRevision = 0L;
+    }
+
+    /**
+     * Blits the given image buffer from the color lookup table, skipping the
+     * remaining row bands if the render is cancelled.
+     *
+     * @param argbColors
+     *            The packed ARGB color of each code
+     * @param targetArgbPixels
+     *            The packed ARGB image buffer to write to
+     * @param cancellation
+     *            The cancellation to poll between row bands
+     */
+    public void blit( final int[] argbColors,
+                      final int[] targetArgbPixels,
+                      final RenderCancellation cancellation ) {
+        final short[] codes = indexBuffer.getCodes();
+        final int numberOfColumns = indexBuffer.getNumberOfColumns();
+        forkJoinPool.invoke( new RowBandAction( ( firstRow, lastRow ) -> {
+            final int lastIndex = lastRow * numberOfColumns;
+            for ( int i = firstRow * numberOfColumns; i < lastIndex; i++ ) {
+                targetArgbPixels[ i ] = argbColors[ codes[ i ] ];
+            }
+        },
+                                                0,
+                                                indexBuffer.getNumberOfRows(),
+                                                RowBandAction.getRowsPerBand( numberOfColumns,
+                                                                              PIXELS_PER_BAND ),
+                                                cancellation ) );
+    }
+
+    public double getCeilingDb() {
+        return ceilingDb;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    public SplIndexBuffer getIndexBuffer() {
+        return indexBuffer;
+    }
+
+    public SplColorLookupTable getLookupTable() {
+        return lookupTable;
+    }
+
+    public int getNumberOfColumns() {
+        return indexBuffer.getNumberOfColumns();
+    }
+
+    public int getNumberOfRows() {
+        return indexBuffer.getNumberOfRows();
+    }
+
+    public long getSplGridRevision() {
+        return splGridRevision;
+    }
+
+    /**
+     * Returns whether the quantized SPL grid resolves the whole palette of the
+     * given SPL Range, below the ceiling of the grid, or needs to be quantized
+     * again for it.
+     *
+     * @param splRangeDb
+     *            The SPL Range in dB
+     * @return {@code true} if no cell within the SPL Range was clamped
+     */
+    public boolean isSpanning( final double splRangeDb ) {
+        return indexBuffer.isSpanning( ceilingDb - splRangeDb );
+    }
+
+    /**
+     * Quantizes a new SPL grid, which is the only per-cell floating-point pass
+     * until the next grid arrives.
+     *
+     * @param splGrid
+     *            The SPL grid, in any storage
+     * @param splRange
+     *            The SPL statistics of the grid
+     */
+    public void setSplGrid( final SplGrid splGrid, final SplRange splRange ) {
+        setSplGrid( splGrid, splRange, splRange.getSplRangeDb() );
+    }
+
+    /**
+     * Quantizes a new SPL grid, spanning at least the palette of the given
+     * SPL Range, such as a manual SPL Range wider than the Auto-Range SPL.
+     *
+     * @param splGrid
+     *            The SPL grid, in any storage
+     * @param splRange
+     *            The SPL statistics of the grid
+     * @param splRangeDb
+     *            The SPL Range in dB that the grid is colored for
+     */
+    public void setSplGrid( final SplGrid splGrid,
+                            final SplRange splRange,
+                            final double splRangeDb ) {
+        indexBuffer.quantize( forkJoinPool,
+                              splGrid,
+                              splRange,
+                              splRange.getCeilingDb() - splRangeDb );
+        ceilingDb = splRange.getCeilingDb();
+        splGridRevision++;
+    }
+}
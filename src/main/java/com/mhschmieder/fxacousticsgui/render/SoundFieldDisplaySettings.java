@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+/**
+ * {@code SoundFieldDisplaySettings} is an immutable snapshot of the settings
+ * that the Sound Field image is rendered with, gathered from the SPL Range
+ * and Dithering panes.
+ * <p>
+ * All fields are primitives, so render threads can read a consistent set of
+ * settings from a published snapshot without touching any JavaFX controls,
+ * without locking, and without unboxing spinner values. A new snapshot is
+ * only allocated when a setting actually changes.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldDisplaySettings {
+
+    // Declare the SPL Range in dB, and whether it is auto-ranged.
+    private final int     splRangeDb;
+    private final boolean autoRangeSpl;
+
+    // Declare the Dithering settings, with the amount as a percentage.
+    private final boolean useDithering;
+    private final double  ditheringAmount;
+
+    public SoundFieldDisplaySettings( final int pSplRangeDb, final boolean pAutoRangeSpl ) {
+        this( pSplRangeDb, pAutoRangeSpl, false, 0.0d );
+    }
+
+    public SoundFieldDisplaySettings( final int pSplRangeDb,
+                                      final boolean pAutoRangeSpl,
+                                      final boolean pUseDithering,
+                                      final double pDitheringAmount ) {
+        splRangeDb = pSplRangeDb;
+        autoRangeSpl = pAutoRangeSpl;
+        useDithering = pUseDithering;
+        ditheringAmount = pDitheringAmount;
+    }
+
+    @Override
+    public boolean equals( final Object other ) {
+        if ( this == other ) {
+            return true;
+        }
+        if ( !( other instanceof SoundFieldDisplaySettings ) ) {
+            return false;
+        }
+
+        final SoundFieldDisplaySettings settings = ( SoundFieldDisplaySettings ) other;
+        return ( splRangeDb == settings.splRangeDb ) && ( autoRangeSpl == settings.autoRangeSpl )
+                && ( useDithering == settings.useDithering )
+                && ( Double.compare( ditheringAmount, settings.ditheringAmount ) == 0 );
+    }
+
+    public double getDitheringAmount() {
+        return ditheringAmount;
+    }
+
+    public int getSplRangeDb() {
+        return splRangeDb;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = splRangeDb;
+        hash = ( 31 * hash ) + ( autoRangeSpl ? 1 : 0 );
+        hash = ( 31 * hash ) + ( useDithering ? 1 : 0 );
+        hash = ( 31 * hash ) + Double.hashCode( ditheringAmount );
+        return hash;
+    }
+
+    public boolean isAutoRangeSpl() {
+        return autoRangeSpl;
+    }
+
+    public boolean isDitheringEnabled() {
+        return useDithering && ( ditheringAmount > 0.0d );
+    }
+
+    public boolean isUseDithering() {
+        return useDithering;
+    }
+
+    /**
+     * Returns these settings with the given Dithering settings, or these very
+     * settings if they are unchanged.
+     *
+     * @param pUseDithering
+     *            Flag for whether to dither the Sound Field image
+     * @param pDitheringAmount
+     *            The Dithering Amount, as a percentage
+     * @return The updated settings
+     */
+    public SoundFieldDisplaySettings withDithering( final boolean pUseDithering,
+                                                   final double pDitheringAmount ) {
+        if ( ( useDithering == pUseDithering )
+                && ( Double.compare( ditheringAmount, pDitheringAmount ) == 0 ) ) {
+            return this;
+        }
+
+        return new SoundFieldDisplaySettings( splRangeDb,
+                                              autoRangeSpl,
+                                              pUseDithering,
+                                              pDitheringAmount );
+    }
+
+    /**
+     * Returns these settings with the given SPL Range settings, or these very
+     * settings if they are unchanged.
+     *
+     * @param pSplRangeDb
+     *            The SPL Range in dB
+     * @param pAutoRangeSpl
+     *            Flag for whether the SPL Range is auto-ranged
+     * @return The updated settings
+     */
+    public SoundFieldDisplaySettings withSplRange( final int pSplRangeDb,
+                                                   final boolean pAutoRangeSpl ) {
+        if ( ( splRangeDb == pSplRangeDb ) && ( autoRangeSpl == pAutoRangeSpl ) ) {
+            return this;
+        }
+
+        return new SoundFieldDisplaySettings( pSplRangeDb,
+                                              pAutoRangeSpl,
+                                              useDithering,
+                                              ditheringAmount );
+    }
+}
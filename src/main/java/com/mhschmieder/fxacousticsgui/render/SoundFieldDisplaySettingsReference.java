@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * {@code SoundFieldDisplaySettingsReference} publishes the latest
+ * {@link SoundFieldDisplaySettings} snapshot through an atomic reference, so
+ * that any thread can read a consistent snapshot at any time, and notifies
+ * its listeners on the updating thread whenever a setting actually changes.
+ * <p>
+ * The SPL Range and Dithering settings are updated independently, typically
+ * by the SPL Range and Dithering stages, so each update is applied with a
+ * compare-and-set loop that never loses the other's latest changes.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldDisplaySettingsReference {
+
+    // Declare the latest published settings snapshot.
+    private final AtomicReference< SoundFieldDisplaySettings > settings;
+
+    // Declare the listeners to notify of each newly published snapshot.
+    private final List< Consumer< SoundFieldDisplaySettings > > listeners;
+
+    public SoundFieldDisplaySettingsReference( final SoundFieldDisplaySettings initialSettings ) {
+        settings = new AtomicReference<>( initialSettings );
+        listeners = new CopyOnWriteArrayList<>();
+    }
+
+    public void addListener( final Consumer< SoundFieldDisplaySettings > listener ) {
+        listeners.add( listener );
+    }
+
+    public SoundFieldDisplaySettings get() {
+        return settings.get();
+    }
+
+    public void removeListener( final Consumer< SoundFieldDisplaySettings > listener ) {
+        listeners.remove( listener );
+    }
+
+    /**
+     * Publishes the given Dithering settings, if they differ from the current
+     * ones, and notifies the listeners of the new snapshot.
+     *
+     * @param useDithering
+     *            Flag for whether to dither the Sound Field image
+     * @param ditheringAmount
+     *            The Dithering Amount, as a percentage
+     */
+    public void updateDithering( final boolean useDithering, final double ditheringAmount ) {
+        SoundFieldDisplaySettings currentSettings;
+        SoundFieldDisplaySettings updatedSettings;
+        do {
+            currentSettings = settings.get();
+            updatedSettings = currentSettings.withDithering( useDithering, ditheringAmount );
+            if ( updatedSettings == currentSettings ) {
+                return;
+            }
+        }
+        while ( !settings.compareAndSet( currentSettings, updatedSettings ) );
+
+        fireSettingsChanged( updatedSettings );
+    }
+
+    /**
+     * Publishes the given SPL Range settings, if they differ from the current
+     * ones, and notifies the listeners of the new snapshot.
+     *
+     * @param splRangeDb
+     *            The SPL Range in dB
+     * @param autoRangeSpl
+     *            Flag for whether the SPL Range is auto-ranged
+     */
+    public void updateSplRange( final int splRangeDb, final boolean autoRangeSpl ) {
+        SoundFieldDisplaySettings currentSettings;
+        SoundFieldDisplaySettings updatedSettings;
+        do {
+            currentSettings = settings.get();
+            updatedSettings = currentSettings.withSplRange( splRangeDb, autoRangeSpl );
+            if ( updatedSettings == currentSettings ) {
+                return;
+            }
+        }
+        while ( !settings.compareAndSet( currentSettings, updatedSettings ) );
+
+        fireSettingsChanged( updatedSettings );
+    }
+
+    private void fireSettingsChanged( final SoundFieldDisplaySettings updatedSettings ) {
+        for ( final Consumer< SoundFieldDisplaySettings > listener : listeners ) {
+            listener.accept( updatedSettings );
+        }
+    }
+}
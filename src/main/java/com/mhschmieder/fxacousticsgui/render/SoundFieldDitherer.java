@@ -0,0 +1,507 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code SoundFieldDitherer} dithers the colormapped Sound Field image across
+ * the color bands of the SPL palette, using the Use Dithering and Dithering
+ * Amount settings of the Dithering Pane.
+ * <p>
+ * Dithering perturbs each quantized SPL code by a threshold that spans up to
+ * one palette band (scaled by the Dithering Amount) before the color lookup,
+ * so it works directly on the {@link SplIndexBuffer} and the
+ * {@link SplColorLookupTable} rather than on floating-point SPL values.
+ * <p>
+ * Ordered and blue-noise dithering have no dependencies between pixels, so the
+ * image is split into independent row bands on a fork-join pool. Error
+ * diffusion is scheduled as a wavefront: rows are claimed in order by one task
+ * per worker, and each row trails the row above it by a few pixels, which is
+ * exactly when all of the error destined for a pixel has arrived.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldDitherer {
+
+    // Declare the maximum Dithering Amount, which spans a full palette band.
+    public static final double  DITHERING_AMOUNT_MAXIMUM = 100.0d;
+
+    // Declare the classic 8x8 Bayer threshold matrix, in row-major order.
+    private static final int[]  BAYER_MATRIX             = {
+                                                             0, 32, 8, 40, 2, 34, 10, 42,
+                                                             48, 16, 56, 24, 50, 18, 58, 26,
+                                                             12, 44, 4, 36, 14, 46, 6, 38,
+                                                             60, 28, 52, 20, 62, 30, 54, 22,
+                                                             3, 35, 11, 43, 1, 33, 9, 41,
+                                                             51, 19, 59, 27, 49, 17, 57, 25,
+                                                             15, 47, 7, 39, 13, 45, 5, 37,
+                                                             63, 31, 55, 23, 61, 29, 53, 21 };
+
+    // Declare the target number of pixels per parallel dithering task.
+    private static final int    PIXELS_PER_BAND          = 1 << 16;
+
+    // A row may only process a pixel once the row above has finished this
+    // many more pixels, which delivers all of the error destined for the
+    // pixel and keeps the two rows from ever writing to the same error cell.
+    private static final int    WAVEFRONT_LAG            = 3;
+
+    // Publish the progress of a row every this many pixels (minus one).
+    private static final int    PROGRESS_MASK            = 15;
+
+    // Declare the Floyd-Steinberg error diffusion weights.
+    private static final float  RIGHT_WEIGHT             = 7.0f / 16.0f;
+    private static final float  BELOW_LEFT_WEIGHT        = 3.0f / 16.0f;
+    private static final float  BELOW_WEIGHT             = 5.0f / 16.0f;
+    private static final float  BELOW_RIGHT_WEIGHT       = 1.0f / 16.0f;
+
+    // Declare the pool that dithering runs on.
+    private final ForkJoinPool  forkJoinPool;
+
+    // Declare the current Dithering settings, which may be changed from any
+    // thread in between renders.
+    private volatile boolean       useDithering;
+    private volatile double        ditheringAmount;
+    private volatile DitheringMode ditheringMode;
+
+    // Count the changes to the Dithering settings that affect the dithered
+    // image, so that cached dithered images can tell whether they are still
+    // current. Use Dithering only selects whether that image is shown, and
+    // callers that pass their own Dithering Amount must track it themselves.
+    private final AtomicLong    settingsRevision;
+
+    // Declare the per-render code offsets for the Bayer matrix entries.
+    private final int[]         bayerOffsets;
+
+    // Declare the blue-noise threshold texture, which is loaded lazily, and
+    // the per-render code offsets for its threshold levels.
+    private BlueNoiseTexture    blueNoiseTexture;
+    private final int[]         blueNoiseOffsets;
+
+    // Declare the per-render code of the center of each palette band.
+    private final float[]       bandCenterCodes;
+
+    // Declare the error diffusion ring of row error buffers, and the progress
+    // of each row, which are reused from one render to the next.
+    private float[][]           errorRows;
+    private AtomicIntegerArray  rowProgress;
+
+    public SoundFieldDitherer() {
+        this( ForkJoinPool.commonPool() );
+    }
+
+    public SoundFieldDitherer( final ForkJoinPool pForkJoinPool ) {
+        forkJoinPool = pForkJoinPool;
+
+        useDithering = true;
+        ditheringAmount = DITHERING_AMOUNT_MAXIMUM;
+        ditheringMode = DitheringMode.defaultValue();
+        settingsRevision = new AtomicLong( 0L );
+
+        bayerOffsets = new int[ BAYER_MATRIX.length ];
+        blueNoiseTexture = null;
+        blueNoiseOffsets = new int[ BlueNoiseTexture.NUMBER_OF_LEVELS ];
+        bandCenterCodes = new float[ JetPalette.NUMBER_OF_COLORS ];
+
+        errorRows = new float[ 0 ][];
+        rowProgress = new AtomicIntegerArray( 0 );
+    }
+
+    /**
+     * Dithers the colormapped image, using the current Dithering settings.
+     *
+     * @param indexBuffer
+     *            The quantized SPL grid
+     * @param lookupTable
+     *            The color lookup table, already updated for the SPL Range
+     * @param argbPixels
+     *            The packed ARGB image buffer to write the dithered image to
+     */
+    public void dither( final SplIndexBuffer indexBuffer,
+                        final SplColorLookupTable lookupTable,
+                        final int[] argbPixels ) {
+        dither( indexBuffer, lookupTable, argbPixels, RenderCancellation.NONE );
+    }
+
+    /**
+     * Dithers the colormapped image, using the current Dithering settings,
+     * and skipping the remaining work if the render is cancelled.
+     *
+     * @param indexBuffer
+     *            The quantized SPL grid
+     * @param lookupTable
+     *            The color lookup table, already updated for the SPL Range
+     * @param argbPixels
+     *            The packed ARGB image buffer to write the dithered image to
+     * @param cancellation
+     *            The cancellation to poll between row bands or rows
+     */
+    public void dither( final SplIndexBuffer indexBuffer,
+                        final SplColorLookupTable lookupTable,
+                        final int[] argbPixels,
+                        final RenderCancellation cancellation ) {
+        dither( indexBuffer, lookupTable, argbPixels, ditheringAmount, cancellation );
+    }
+
+    /**
+     * Dithers the colormapped image by the given Dithering Amount, such as
+     * from a published settings snapshot, using the current Dithering Mode.
+     *
+     * @param indexBuffer
+     *            The quantized SPL grid
+     * @param lookupTable
+     *            The color lookup table, already updated for the SPL Range
+     * @param argbPixels
+     *            The packed ARGB image buffer to write the dithered image to
+     * @param pDitheringAmount
+     *            The Dithering Amount, as a percentage
+     * @param cancellation
+     *            The cancellation to poll between row bands or rows
+     */
+    public void dither( final SplIndexBuffer indexBuffer,
+                        final SplColorLookupTable lookupTable,
+                        final int[] argbPixels,
+                        final double pDitheringAmount,
+                        final RenderCancellation cancellation ) {
+        // Scale the threshold so that the full Dithering Amount perturbs the
+        // codes by up to one palette band.
+        final double amountFraction = Math.max( 0.0d,
+                                                Math.min( 1.0d,
+                                                          pDitheringAmount
+                                                                  / DITHERING_AMOUNT_MAXIMUM ) );
+        final double codesPerColor = ( lookupTable.getSplRangeDb() / JetPalette.NUMBER_OF_COLORS )
+                / indexBuffer.getStepDb();
+        final double thresholdScale = amountFraction * codesPerColor;
+
+        switch ( ditheringMode ) {
+        case ORDERED:
+            ditherOrdered( indexBuffer, lookupTable, argbPixels, thresholdScale, cancellation );
+            break;
+        case BLUE_NOISE:
+            ditherBlueNoise( indexBuffer, lookupTable, argbPixels, thresholdScale, cancellation );
+            break;
+        case ERROR_DIFFUSION:
+            ditherErrorDiffusion( indexBuffer,
+                                  lookupTable,
+                                  argbPixels,
+                                  ( float ) amountFraction,
+                                  ( float ) codesPerColor,
+                                  cancellation );
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void ditherBlueNoise( final SplIndexBuffer indexBuffer,
+                                  final SplColorLookupTable lookupTable,
+                                  final int[] argbPixels,
+                                  final double thresholdScale,
+                                  final RenderCancellation cancellation ) {
+        // Convert each threshold level to a signed code offset, once, so that
+        // the Dithering Amount is just a scale on this small table.
+        for ( int level = 0; level < BlueNoiseTexture.NUMBER_OF_LEVELS; level++ ) {
+            final double threshold = ( ( level + 0.5d ) / BlueNoiseTexture.NUMBER_OF_LEVELS ) - 0.5d;
+            blueNoiseOffsets[ level ] = ( int ) Math.floor( ( threshold * thresholdScale ) + 0.5d );
+        }
+
+        final byte[] thresholds = getBlueNoiseTexture().getThresholds();
+        final short[] codes = indexBuffer.getCodes();
+        final int[] argbColors = lookupTable.getArgbColors();
+        final int numberOfColumns = indexBuffer.getNumberOfColumns();
+        forkJoinPool.invoke( new RowBandAction( ( firstRow, lastRow ) -> {
+            for ( int row = firstRow; row < lastRow; row++ ) {
+                final int rowOffset = row * numberOfColumns;
+                final int textureRowOffset = ( row & BlueNoiseTexture.TEXTURE_MASK )
+                        << BlueNoiseTexture.TEXTURE_SHIFT;
+                for ( int column = 0; column < numberOfColumns; column++ ) {
+                    final int level = thresholds[ textureRowOffset
+                            | ( column & BlueNoiseTexture.TEXTURE_MASK ) ] & 0xFF;
+                    argbPixels[ rowOffset + column ] = argbColors[ getDitheredCode( codes[ rowOffset
+                            + column ], blueNoiseOffsets[ level ] ) ];
+                }
+            }
+        },
+                                                0,
+                                                indexBuffer.getNumberOfRows(),
+                                                RowBandAction.getRowsPerBand( numberOfColumns,
+                                                                              PIXELS_PER_BAND ),
+                                                cancellation ) );
+    }
+
+    private void ditherErrorDiffusion( final SplIndexBuffer indexBuffer,
+                                       final SplColorLookupTable lookupTable,
+                                       final int[] argbPixels,
+                                       final float strength,
+                                       final float codesPerColor,
+                                       final RenderCancellation cancellation ) {
+        final int numberOfColumns = indexBuffer.getNumberOfColumns();
+        final int numberOfRows = indexBuffer.getNumberOfRows();
+
+        // Find the code at the center of each palette band, as the error is
+        // measured relative to the color that a pixel is quantized to.
+        final double floorDb = lookupTable.getCeilingDb() - lookupTable.getSplRangeDb();
+        final double dbPerColor = lookupTable.getSplRangeDb() / JetPalette.NUMBER_OF_COLORS;
+        for ( int colorIndex = 0; colorIndex < JetPalette.NUMBER_OF_COLORS; colorIndex++ ) {
+            final double bandCenterDb = floorDb + ( ( colorIndex + 0.5d ) * dbPerColor );
+            bandCenterCodes[ colorIndex ] = ( float ) ( ( bandCenterDb - indexBuffer.getBaseDb() )
+                    / indexBuffer.getStepDb() );
+        }
+
+        // As rows complete in order and each task holds at most one row, at
+        // most one row per task is in flight, so the error buffers can be a
+        // small ring of padded rows rather than a full-size image.
+        final int numberOfTasks = Math.max( 1, Math.min( forkJoinPool.getParallelism(),
+                                                         numberOfRows ) );
+        final int numberOfSlots = numberOfTasks + 2;
+        if ( ( errorRows.length != numberOfSlots )
+                || ( errorRows[ 0 ].length != ( numberOfColumns + 2 ) ) ) {
+            errorRows = new float[ numberOfSlots ][ numberOfColumns + 2 ];
+        }
+        if ( rowProgress.length() != numberOfRows ) {
+            rowProgress = new AtomicIntegerArray( numberOfRows );
+        }
+        else {
+            for ( int row = 0; row < numberOfRows; row++ ) {
+                rowProgress.set( row, 0 );
+            }
+        }
+        Arrays.fill( errorRows[ 0 ], 0.0f );
+
+        final AtomicInteger nextRow = new AtomicInteger( 0 );
+        final List< RecursiveAction > rowTasks = new ArrayList<>( numberOfTasks );
+        for ( int i = 0; i < numberOfTasks; i++ ) {
+            rowTasks.add( new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    for ( int row = nextRow.getAndIncrement(); row < numberOfRows; row = nextRow
+                            .getAndIncrement() ) {
+                        // Once cancelled, rows are just marked as done, as the
+                        // rows below them would otherwise wait forever.
+                        if ( cancellation.isCancelled() ) {
+                            rowProgress.set( row, Integer.MAX_VALUE );
+                            continue;
+                        }
+
+                        diffuseRow( indexBuffer,
+                                    lookupTable,
+                                    argbPixels,
+                                    row,
+                                    strength,
+                                    codesPerColor );
+                    }
+                }
+            } );
+        }
+
+        forkJoinPool.invoke( new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                invokeAll( rowTasks );
+            }
+        } );
+    }
+
+    private void ditherOrdered( final SplIndexBuffer indexBuffer,
+                                final SplColorLookupTable lookupTable,
+                                final int[] argbPixels,
+                                final double thresholdScale,
+                                final RenderCancellation cancellation ) {
+        // Convert each Bayer matrix entry to a signed code offset, once.
+        for ( int i = 0; i < BAYER_MATRIX.length; i++ ) {
+            final double threshold = ( ( BAYER_MATRIX[ i ] + 0.5d ) / BAYER_MATRIX.length ) - 0.5d;
+            bayerOffsets[ i ] = ( int ) Math.floor( ( threshold * thresholdScale ) + 0.5d );
+        }
+
+        final short[] codes = indexBuffer.getCodes();
+        final int[] argbColors = lookupTable.getArgbColors();
+        final int numberOfColumns = indexBuffer.getNumberOfColumns();
+        forkJoinPool.invoke( new RowBandAction( ( firstRow, lastRow ) -> {
+            for ( int row = firstRow; row < lastRow; row++ ) {
+                final int rowOffset = row * numberOfColumns;
+                final int matrixRowOffset = ( row & 7 ) << 3;
+                for ( int column = 0; column < numberOfColumns; column++ ) {
+                    final int offset = bayerOffsets[ matrixRowOffset | ( column & 7 ) ];
+                    argbPixels[ rowOffset + column ] = argbColors[ getDitheredCode( codes[ rowOffset
+                            + column ], offset ) ];
+                }
+            }
+        },
+                                                0,
+                                                indexBuffer.getNumberOfRows(),
+                                                RowBandAction.getRowsPerBand( numberOfColumns,
+                                                                              PIXELS_PER_BAND ),
+                                                cancellation ) );
+    }
+
+    // Diffuse the banding error of one row, trailing the row above it.
+    private void diffuseRow( final SplIndexBuffer indexBuffer,
+                             final SplColorLookupTable lookupTable,
+                             final int[] argbPixels,
+                             final int row,
+                             final float strength,
+                             final float codesPerColor ) {
+        final short[] codes = indexBuffer.getCodes();
+        final int[] argbColors = lookupTable.getArgbColors();
+        final byte[] colorIndices = lookupTable.getColorIndices();
+        final int numberOfColumns = indexBuffer.getNumberOfColumns();
+        final int numberOfSlots = errorRows.length;
+
+        // The error rows are padded by one cell on each side, so that the
+        // diffusion never needs a bounds check.
+        final float[] rowErrors = errorRows[ row % numberOfSlots ];
+        final float[] nextRowErrors = errorRows[ ( row + 1 ) % numberOfSlots ];
+
+        // This row is the first to write to the next row, so clear it before
+        // publishing any progress that would let the next row start.
+        Arrays.fill( nextRowErrors, 0.0f );
+
+        int availableColumns = ( row == 0 ) ? Integer.MAX_VALUE : 0;
+        final int rowOffset = row * numberOfColumns;
+        for ( int column = 0; column < numberOfColumns; column++ ) {
+            while ( availableColumns < ( column + WAVEFRONT_LAG ) ) {
+                availableColumns = rowProgress.get( row - 1 );
+                if ( availableColumns < ( column + WAVEFRONT_LAG ) ) {
+                    Thread.yield();
+                }
+            }
+
+            final int code = codes[ rowOffset + column ];
+            if ( code == SplIndexBuffer.NO_DATA_CODE ) {
+                // Masked cells neither receive nor diffuse any error.
+                argbPixels[ rowOffset + column ] = argbColors[ code ];
+            }
+            else {
+                final float value = code + rowErrors[ column + 1 ];
+                final int ditheredCode = Math.max( 0,
+                                                   Math.min( SplIndexBuffer.MAXIMUM_DATA_CODE,
+                                                             ( int ) Math.floor( value + 0.5f ) ) );
+                argbPixels[ rowOffset + column ] = argbColors[ ditheredCode ];
+
+                // Limit the error to one band, so that cells that are clamped
+                // to the ends of the palette do not accumulate runaway error.
+                final int colorIndex = colorIndices[ ditheredCode ] & 0xFF;
+                final float bandError = value - bandCenterCodes[ colorIndex ];
+                final float error = strength
+                        * Math.max( -codesPerColor, Math.min( codesPerColor, bandError ) );
+                rowErrors[ column + 2 ] += RIGHT_WEIGHT * error;
+                nextRowErrors[ column ] += BELOW_LEFT_WEIGHT * error;
+                nextRowErrors[ column + 1 ] += BELOW_WEIGHT * error;
+                nextRowErrors[ column + 2 ] += BELOW_RIGHT_WEIGHT * error;
+            }
+
+            if ( ( column & PROGRESS_MASK ) == PROGRESS_MASK ) {
+                rowProgress.lazySet( row, column + 1 );
+            }
+        }
+
+        rowProgress.set( row, Integer.MAX_VALUE );
+    }
+
+    private static int getDitheredCode( final int code, final int offset ) {
+        // Masked cells keep their no-data code, and thus their transparency.
+        if ( code == SplIndexBuffer.NO_DATA_CODE ) {
+            return code;
+        }
+
+        return Math.max( 0, Math.min( SplIndexBuffer.MAXIMUM_DATA_CODE, code + offset ) );
+    }
+
+    public BlueNoiseTexture getBlueNoiseTexture() {
+        // Defer loading (or generating) the texture until it is first needed.
+        if ( blueNoiseTexture == null ) {
+            blueNoiseTexture = BlueNoiseTexture.getDefault();
+        }
+        return blueNoiseTexture;
+    }
+
+    public double getDitheringAmount() {
+        return ditheringAmount;
+    }
+
+    public DitheringMode getDitheringMode() {
+        return ditheringMode;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    public long getSettingsRevision() {
+        return settingsRevision.get();
+    }
+
+    public boolean isDitheringEnabled() {
+        return useDithering && ( ditheringAmount > 0.0d );
+    }
+
+    public boolean isUseDithering() {
+        return useDithering;
+    }
+
+    public void setBlueNoiseTexture( final BlueNoiseTexture pBlueNoiseTexture ) {
+        blueNoiseTexture = pBlueNoiseTexture;
+        settingsRevision.incrementAndGet();
+    }
+
+    public void setDitheringAmount( final double pDitheringAmount ) {
+        ditheringAmount = pDitheringAmount;
+        settingsRevision.incrementAndGet();
+    }
+
+    public void setDitheringMode( final DitheringMode pDitheringMode ) {
+        ditheringMode = pDitheringMode;
+        settingsRevision.incrementAndGet();
+    }
+
+    public void setUseDithering( final boolean pUseDithering ) {
+        useDithering = pUseDithering;
+    }
+
+    public void updateDithering( final boolean pUseDithering, final double pDitheringAmount ) {
+        useDithering = pUseDithering;
+        if ( Double.compare( ditheringAmount, pDitheringAmount ) != 0 ) {
+            ditheringAmount = pDitheringAmount;
+            settingsRevision.incrementAndGet();
+        }
+    }
+}
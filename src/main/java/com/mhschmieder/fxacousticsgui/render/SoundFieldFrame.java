@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+/**
+ * {@code SoundFieldFrame} is a rendered Sound Field image, held as a packed
+ * ARGB pixel buffer in row-major order.
+ * <p>
+ * The image may be smaller than the frame, such as for a reduced-resolution
+ * preview, in which case it is packed at the start of the buffer, and is
+ * meant to be scaled up by the view that displays it.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldFrame {
+
+    // Declare the dimensions of the frame, in pixels.
+    private final int   numberOfColumns;
+    private final int   numberOfRows;
+
+    // Declare the dimensions of the image held by the frame, in pixels.
+    private int         imageColumns;
+    private int         imageRows;
+
+    // Declare the packed ARGB pixels, in row-major order.
+    private final int[] argbPixels;
+
+    // Declare the revision of the rendered content held by this frame, so
+    // that unchanged content need not be copied into it again.
+    private long        contentRevision;
+
+    public SoundFieldFrame( final int pNumberOfColumns, final int pNumberOfRows ) {
+        this( pNumberOfColumns,
+              pNumberOfRows,
+              new int[ pNumberOfColumns * pNumberOfRows ] );
+    }
+
+    public SoundFieldFrame( final int pNumberOfColumns,
+                            final int pNumberOfRows,
+                            final int[] pArgbPixels ) {
+        numberOfColumns = pNumberOfColumns;
+        numberOfRows = pNumberOfRows;
+        argbPixels = pArgbPixels;
+        imageColumns = pNumberOfColumns;
+        imageRows = pNumberOfRows;
+        contentRevision = -1L;
+    }
+
+    public int[] getArgbPixels() {
+        return argbPixels;
+    }
+
+    public long getContentRevision() {
+        return contentRevision;
+    }
+
+    public int getImageColumns() {
+        return imageColumns;
+    }
+
+    public int getImageRows() {
+        return imageRows;
+    }
+
+    public boolean isFullImage() {
+        return ( imageColumns == numberOfColumns ) && ( imageRows == numberOfRows );
+    }
+
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    public void setContentRevision( final long pContentRevision ) {
+        contentRevision = pContentRevision;
+    }
+
+    // Set the dimensions of the image held by the frame, which must not exceed
+    // the dimensions of the frame.
+    public void setImageSize( final int pImageColumns, final int pImageRows ) {
+        if ( ( pImageColumns > numberOfColumns ) || ( pImageRows > numberOfRows ) ) {
+            throw new IllegalArgumentException( "Image is larger than the frame" ); //$NON-NLS-1$
+        }
+
+        imageColumns = pImageColumns;
+        imageRows = pImageRows;
+    }
+}
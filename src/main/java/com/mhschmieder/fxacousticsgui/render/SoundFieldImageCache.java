@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code SoundFieldImageCache} is a bounded cache of rendered Sound Field
+ * images, keyed by {@link SoundFieldImageKey}, which evicts the least
+ * recently used images once the total size exceeds a byte budget.
+ * <p>
+ * Switching back to a recently displayed combination of SPL grid and display
+ * settings then costs no more than a copy of the cached image. The cache
+ * shares the pixel buffers it is given rather than copying them, so they must
+ * never be modified once cached, and it is meant to hold only settled images,
+ * as images that are superseded right away would only evict the ones that
+ * are worth keeping.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldImageCache {
+
+    // Declare the default byte budget, which holds about four 4K images.
+    public static final long                                       BYTE_BUDGET_DEFAULT = 128L << 20;
+
+    // Declare the byte budget for the cached images.
+    private final long                                             byteBudget;
+
+    // Declare the cached images, in order of access from least recent.
+    private final LinkedHashMap< SoundFieldImageKey, SoundFieldFrame > frames;
+
+    // Declare the total size of the cached images, in bytes.
+    private long                                                   numberOfBytes;
+
+    // Count the lookups and evictions, for diagnostics.
+    private long                                                   numberOfHits;
+    private long                                                   numberOfMisses;
+    private long                                                   numberOfEvictions;
+
+    public SoundFieldImageCache() {
+        this( BYTE_BUDGET_DEFAULT );
+    }
+
+    public SoundFieldImageCache( final long pByteBudget ) {
+        byteBudget = pByteBudget;
+
+        frames = new LinkedHashMap<>( 16, 0.75f, true );
+
+        numberOfBytes = 0L;
+
+        numberOfHits = 0L;
+        numberOfMisses = 0L;
+        numberOfEvictions = 0L;
+    }
+
+    /**
+     * Drops every cached image, such as when the model has changed in a way
+     * that its revision does not capture.
+     */
+    public synchronized void clear() {
+        frames.clear();
+        numberOfBytes = 0L;
+    }
+
+    public synchronized boolean contains( final SoundFieldImageKey key ) {
+        return frames.containsKey( key );
+    }
+
+    /**
+     * Returns the cached image for the given key, marking it as the most
+     * recently used, and counts the lookup as a hit or a miss.
+     *
+     * @param key
+     *            The key of the image
+     * @return The cached image, which must not be modified, or {@code null}
+     *         if it is not cached
+     */
+    public synchronized SoundFieldFrame get( final SoundFieldImageKey key ) {
+        final SoundFieldFrame frame = frames.get( key );
+        if ( frame != null ) {
+            numberOfHits++;
+        }
+        else {
+            numberOfMisses++;
+        }
+        return frame;
+    }
+
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    public synchronized long getNumberOfBytes() {
+        return numberOfBytes;
+    }
+
+    public synchronized int getNumberOfEntries() {
+        return frames.size();
+    }
+
+    public synchronized long getNumberOfEvictions() {
+        return numberOfEvictions;
+    }
+
+    public synchronized long getNumberOfHits() {
+        return numberOfHits;
+    }
+
+    public synchronized long getNumberOfMisses() {
+        return numberOfMisses;
+    }
+
+    /**
+     * Caches the given image without copying it, evicting the least recently
+     * used images as needed to stay within the byte budget. Images that are
+     * larger than the whole budget are not cached.
+     *
+     * @param key
+     *            The key of the image
+     * @param numberOfColumns
+     *            The width of the image, in pixels
+     * @param numberOfRows
+     *            The height of the image, in pixels
+     * @param argbPixels
+     *            The packed ARGB pixels of the image, in row-major order,
+     *            which are shared with the cache and must never be modified
+     *            once cached
+     * @param contentRevision
+     *            The revision of the image content
+     * @return {@code true} if the image was cached, and its pixels are now
+     *         shared with the cache
+     */
+    public synchronized boolean put( final SoundFieldImageKey key,
+                                     final int numberOfColumns,
+                                     final int numberOfRows,
+                                     final int[] argbPixels,
+                                     final long contentRevision ) {
+        final long frameBytes = 4L * argbPixels.length;
+        if ( frameBytes > byteBudget ) {
+            return false;
+        }
+
+        final SoundFieldFrame replacedFrame = frames.remove( key );
+        if ( replacedFrame != null ) {
+            numberOfBytes -= 4L * replacedFrame.getArgbPixels().length;
+        }
+
+        while ( ( numberOfBytes + frameBytes ) > byteBudget ) {
+            final Iterator< Map.Entry< SoundFieldImageKey, SoundFieldFrame > > iterator = frames
+                    .entrySet().iterator();
+            final SoundFieldFrame evictedFrame = iterator.next().getValue();
+            iterator.remove();
+            numberOfBytes -= 4L * evictedFrame.getArgbPixels().length;
+            numberOfEvictions++;
+        }
+
+        final SoundFieldFrame frame = new SoundFieldFrame( numberOfColumns,
+                                                           numberOfRows,
+                                                           argbPixels );
+        frame.setContentRevision( contentRevision );
+
+        frames.put( key, frame );
+        numberOfBytes += frameBytes;
+        return true;
+    }
+
+    public synchronized void resetStatistics() {
+        numberOfHits = 0L;
+        numberOfMisses = 0L;
+        numberOfEvictions = 0L;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+/**
+ * {@code SoundFieldImageKey} identifies a rendered Sound Field image by the
+ * SPL grid it was rendered from and the display settings it was rendered with.
+ * <p>
+ * The Dithering Amount and Dithering Mode only take part in the key when
+ * dithering is enabled, so that toggling Use Dithering off always yields the
+ * same undithered image regardless of them.
+ * <p>
+ * SPL grids that come from a model are identified by its revision and the
+ * frequency band, whereas anonymous SPL grids are identified by a token object
+ * of their own, so that they never collide with each other or with any model.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldImageKey {
+
+    // Declare the identity of the SPL grid, which is either its identity
+    // token, or its model revision and frequency band if it has no token.
+    private final Object  splGridToken;
+    private final long    modelRevision;
+    private final int     frequencyBandIndex;
+
+    // Declare the SPL Range settings.
+    private final int     splRangeDb;
+    private final boolean autoRangeSpl;
+
+    // Declare the effective Dithering settings.
+    private final boolean ditheringEnabled;
+    private final double  ditheringAmount;
+    private final long    ditheringRevision;
+
+    // Cache the hash code, as keys are looked up on every render.
+    private final int     hashCode;
+
+    public SoundFieldImageKey( final long pModelRevision,
+                               final int pFrequencyBandIndex,
+                               final SoundFieldDisplaySettings settings,
+                               final long pDitheringRevision ) {
+        this( null, pModelRevision, pFrequencyBandIndex, settings, pDitheringRevision );
+    }
+
+    public SoundFieldImageKey( final Object pSplGridToken,
+                               final SoundFieldDisplaySettings settings,
+                               final long pDitheringRevision ) {
+        this( pSplGridToken, -1L, -1, settings, pDitheringRevision );
+    }
+
+    private SoundFieldImageKey( final Object pSplGridToken,
+                                final long pModelRevision,
+                                final int pFrequencyBandIndex,
+                                final SoundFieldDisplaySettings settings,
+                                final long pDitheringRevision ) {
+        splGridToken = pSplGridToken;
+        modelRevision = pModelRevision;
+        frequencyBandIndex = pFrequencyBandIndex;
+        splRangeDb = settings.getSplRangeDb();
+        autoRangeSpl = settings.isAutoRangeSpl();
+        ditheringEnabled = settings.isDitheringEnabled();
+        ditheringAmount = ditheringEnabled ? settings.getDitheringAmount() : 0.0d;
+        ditheringRevision = ditheringEnabled ? pDitheringRevision : 0L;
+
+        int hash = System.identityHashCode( splGridToken );
+        hash = ( 31 * hash ) + Long.hashCode( modelRevision );
+        hash = ( 31 * hash ) + frequencyBandIndex;
+        hash = ( 31 * hash ) + splRangeDb;
+        hash = ( 31 * hash ) + ( autoRangeSpl ? 1 : 0 );
+        hash = ( 31 * hash ) + ( ditheringEnabled ? 1 : 0 );
+        hash = ( 31 * hash ) + Double.hashCode( ditheringAmount );
+        hash = ( 31 * hash ) + Long.hashCode( ditheringRevision );
+        hashCode = hash;
+    }
+
+    @Override
+    public boolean equals( final Object other ) {
+        if ( this == other ) {
+            return true;
+        }
+        if ( !( other instanceof SoundFieldImageKey ) ) {
+            return false;
+        }
+
+        final SoundFieldImageKey key = ( SoundFieldImageKey ) other;
+        return ( hashCode == key.hashCode ) && ( splGridToken == key.splGridToken )
+                && ( modelRevision == key.modelRevision )
+                && ( frequencyBandIndex == key.frequencyBandIndex )
+                && ( splRangeDb == key.splRangeDb ) && ( autoRangeSpl == key.autoRangeSpl )
+                && ( ditheringEnabled == key.ditheringEnabled )
+                && ( Double.compare( ditheringAmount, key.ditheringAmount ) == 0 )
+                && ( ditheringRevision == key.ditheringRevision );
+    }
+
+    public int getFrequencyBandIndex() {
+        return frequencyBandIndex;
+    }
+
+    public long getModelRevision() {
+        return modelRevision;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.nio.IntBuffer;
+
+/**
+ * This is a utilities class for transferring rendered Sound Field image
+ * buffers to JavaFX images.
+ */
+public final class SoundFieldImageUtilities {
+
+    /**
+     * The default constructor is disabled, as this is a static utilities
+     * class.
+     */
+    private SoundFieldImageUtilities() {}
+
+    public static WritableImage makeImage( final int numberOfColumns,
+                                           final int numberOfRows ) {
+        return new WritableImage( numberOfColumns, numberOfRows );
+    }
+
+    // Write a packed ARGB image buffer to a JavaFX image of the same size.
+    // NOTE: The Sound Field palette only has opaque or fully transparent
+    //  colors, so the pixels are already in the premultiplied native format,
+    //  which avoids a per-pixel conversion during the transfer.
+    // NOTE: This method must be invoked on the JavaFX Application Thread if
+    //  the image is attached to a live Scene.
+    public static void writeImage( final WritableImage image,
+                                   final int[] argbPixels,
+                                   final int numberOfColumns,
+                                   final int numberOfRows ) {
+        final PixelFormat< IntBuffer > pixelFormat = PixelFormat.getIntArgbPreInstance();
+        image.getPixelWriter().setPixels( 0,
+                                          0,
+                                          numberOfColumns,
+                                          numberOfRows,
+                                          pixelFormat,
+                                          argbPixels,
+                                          0,
+                                          numberOfColumns );
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * {@code SoundFieldImageViewPublisher} publishes rendered Sound Field frames
+ * to an image view, including reduced-resolution previews, which are written
+ * to images of their own size and scaled up by the view, so that a preview
+ * never costs a full-resolution write.
+ * <p>
+ * The view is fitted to the full image size the first time a preview is
+ * shown, unless it was already fitted to some other size by its layout.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldImageViewPublisher implements Consumer< SoundFieldFrame > {
+
+    // Declare the view that displays the Sound Field.
+    private final ImageView             imageView;
+
+    // Declare the images that frames are written to, one per image size, of
+    // which there are only as many as there are preview levels plus one.
+    private final List< WritableImage > images;
+
+    public SoundFieldImageViewPublisher( final ImageView pImageView ) {
+        imageView = pImageView;
+        images = new ArrayList<>();
+    }
+
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    @Override
+    public void accept( final SoundFieldFrame frame ) {
+        final int imageColumns = frame.getImageColumns();
+        final int imageRows = frame.getImageRows();
+        final WritableImage image = getImage( imageColumns, imageRows );
+        SoundFieldImageUtilities.writeImage( image,
+                                             frame.getArgbPixels(),
+                                             imageColumns,
+                                             imageRows );
+
+        if ( imageView.getImage() != image ) {
+            if ( !frame.isFullImage() && ( imageView.getFitWidth() <= 0.0d )
+                    && ( imageView.getFitHeight() <= 0.0d ) ) {
+                imageView.setFitWidth( frame.getNumberOfColumns() );
+                imageView.setFitHeight( frame.getNumberOfRows() );
+            }
+            imageView.setImage( image );
+        }
+    }
+
+    public ImageView getImageView() {
+        return imageView;
+    }
+
+    private WritableImage getImage( final int imageColumns, final int imageRows ) {
+        for ( final WritableImage image : images ) {
+            if ( ( ( int ) image.getWidth() == imageColumns )
+                    && ( ( int ) image.getHeight() == imageRows ) ) {
+                return image;
+            }
+        }
+
+        final WritableImage image = SoundFieldImageUtilities.makeImage( imageColumns, imageRows );
+        images.add( image );
+        return image;
+    }
+}
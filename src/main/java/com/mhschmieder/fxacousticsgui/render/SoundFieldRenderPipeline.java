@@ -0,0 +1,725 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import com.mhschmieder.fxacousticsgui.soundfield.SplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@code SoundFieldRenderPipeline} renders a Sound Field image as an explicit
+ * sequence of {@link SoundFieldRenderStage}s, caching the output of each stage
+ * along with the revisions of the inputs it was computed from.
+ * <p>
+ * A render only re-runs the stages whose inputs have changed since their
+ * cached output was computed, so that a Dithering change re-runs dithering
+ * and display, an SPL Range change re-runs normalization onward, and only a
+ * new SPL grid re-runs every stage. The colormapped and dithered images are
+ * cached separately, so toggling Use Dithering back and forth costs no more
+ * than a display transfer once both have been rendered.
+ * <p>
+ * Renders must not overlap, and are normally run on the render thread of a
+ * {@link SoundFieldRenderScheduler}, whereas new SPL grids and settings may be
+ * posted from any thread at any time. The SPL Range and Dithering settings
+ * come from an immutable {@link SoundFieldDisplaySettings} snapshot, and only
+ * the Dithering Mode is read from the ditherer itself.
+ * <p>
+ * When progressive rendering is enabled and a large image has to be rendered
+ * anew with error diffusion dithering, which is sequential and therefore far
+ * slower than a colormap blit, the pipeline first renders undithered previews
+ * from an {@link SplMipPyramid} at 1/8 and then 1/4 of the full resolution,
+ * before the final full-resolution pass. Each preview is a complete frame at
+ * its own reduced size, for the image view to scale up. Cheaper final passes
+ * are rendered directly, as previews would only delay them.
+ * <p>
+ * Settled images are also kept in a {@link SoundFieldImageCache}, keyed by
+ * the model revision and frequency band of the posted SPL grid (or by the
+ * identity token of an anonymous grid) along with the display settings, so
+ * that switching back to a recent combination skips every stage but the
+ * display transfer, and does not even quantize the grid. Only the image that
+ * rendering settles on is cached, and its buffer is handed to the cache rather
+ * than copied, so the next image of its kind is rendered to a new buffer.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldRenderPipeline implements
+        SoundFieldRenderer< SoundFieldDisplaySettings > {
+
+    // Declare the number of pixels from which rendering is progressive, as
+    // smaller images are rendered in full faster than previews pay off.
+    public static final int                        PROGRESSIVE_PIXELS_MINIMUM = 1 << 20;
+
+    // Declare the stages, in pipeline order, to avoid cloning them per render.
+    private static final SoundFieldRenderStage[]   STAGES                     = SoundFieldRenderStage
+            .values();
+
+    // Declare the colorizer that owns the index buffer and lookup table, and
+    // the optional ditherer.
+    private final SoundFieldColorizer              colorizer;
+    private final SoundFieldDitherer               ditherer;
+
+    // Declare the latest posted SPL grid, and the one that was quantized most
+    // recently, along with the colorizer's grid revision right after that.
+    private final AtomicReference< PostedSplGrid > postedSplGrid;
+    private PostedSplGrid                          quantizedSplGrid;
+    private long                                   quantizedSplGridRevision;
+
+    // Count the SPL grids posted without a model revision of their own, to
+    // identify them to the isobar generator and SPL probe.
+    private final AtomicLong                       anonymousModelRevision;
+
+    // Declare the cache of finished images, or null for none.
+    private volatile SoundFieldImageCache          imageCache;
+
+    // Count the lookup table rebuilds, as the revision of its contents.
+    private long                                   lookupTableRevision;
+
+    // Declare the cached colormapped image, and the revisions it is for,
+    // along with whether the image cache shares its buffer.
+    private int[]                                  colormappedArgbPixels;
+    private boolean                                colormappedArgbPixelsShared;
+    private long                                   colormappedSplGridRevision;
+    private long                                   colormappedLookupTableRevision;
+    private long                                   colormappedContentRevision;
+
+    // Declare the cached dithered image, and the revisions it is for,
+    // along with whether the image cache shares its buffer.
+    private int[]                                  ditheredArgbPixels;
+    private boolean                                ditheredArgbPixelsShared;
+    private long                                   ditheredSplGridRevision;
+    private long                                   ditheredLookupTableRevision;
+    private long                                   ditheredSettingsRevision;
+    private double                                 ditheredAmount;
+    private long                                   ditheredContentRevision;
+
+    // Declare the next revision to assign to a newly rendered image.
+    private long                                   nextContentRevision;
+
+    // Declare the latest finished image that is not cached yet, along with
+    // its cache key and revision, to cache once rendering settles on it.
+    private SoundFieldImageKey                     unsettledImageKey;
+    private int[]                                  unsettledArgbPixels;
+    private long                                   unsettledContentRevision;
+
+    // Declare the preview pyramid, which is allocated when first needed, and
+    // the SPL grid revision it was built for.
+    private SplMipPyramid                          mipPyramid;
+    private long                                   mipPyramidSplGridRevision;
+
+    // Flag for whether large images are rendered progressively.
+    private volatile boolean                       progressive;
+
+    // Count the renders, and how often each stage was executed.
+    private final AtomicLong                       numberOfRenders;
+    private final AtomicLongArray                  stageExecutionCounts;
+
+    // Declare the stages executed by the latest render, as a bit mask.
+    private volatile int                           lastExecutedStageMask;
+
+    public SoundFieldRenderPipeline( final SoundFieldColorizer pColorizer ) {
+        this( pColorizer, null );
+    }
+
+    public SoundFieldRenderPipeline( final SoundFieldColorizer pColorizer,
+                                     final SoundFieldDitherer pDitherer ) {
+        colorizer = pColorizer;
+        ditherer = pDitherer;
+
+        postedSplGrid = new AtomicReference<>( null );
+        quantizedSplGrid = null;
+        quantizedSplGridRevision = -1L;
+        anonymousModelRevision = new AtomicLong( 0L );
+        imageCache = new SoundFieldImageCache();
+
+        lookupTableRevision = 0L;
+
+        colormappedArgbPixels = null;
+        colormappedArgbPixelsShared = false;
+        colormappedSplGridRevision = -1L;
+        colormappedLookupTableRevision = -1L;
+        colormappedContentRevision = -1L;
+
+        ditheredArgbPixels = null;
+        ditheredArgbPixelsShared = false;
+        ditheredSplGridRevision = -1L;
+        ditheredLookupTableRevision = -1L;
+        ditheredSettingsRevision = -1L;
+        ditheredAmount = Double.NaN;
+        ditheredContentRevision = -1L;
+
+        nextContentRevision = 0L;
+
+        unsettledImageKey = null;
+        unsettledArgbPixels = null;
+        unsettledContentRevision = -1L;
+
+        mipPyramid = null;
+        mipPyramidSplGridRevision = -1L;
+        progressive = true;
+
+        numberOfRenders = new AtomicLong( 0L );
+        stageExecutionCounts = new AtomicLongArray( STAGES.length );
+        lastExecutedStageMask = 0;
+    }
+
+    /**
+     * Contours the latest posted SPL grid into isobars at every multiple of
+     * the SPL step within the given SPL Range below its ceiling, reusing any
+     * levels that the generator has already cached for its revision and band.
+     *
+     * @param isobarGenerator
+     *            The generator to contour the SPL grid with
+     * @param splRangeDb
+     *            The SPL Range below the ceiling to contour
+     * @param stepDb
+     *            The SPL step between isobars
+     * @return The isobars, from the lowest level to the highest, which are
+     *         empty if no SPL grid has been posted
+     */
+    public List< SplIsobar > contourSplGrid( final SplIsobarGenerator isobarGenerator,
+                                             final double splRangeDb,
+                                             final double stepDb ) {
+        final PostedSplGrid splGrid = postedSplGrid.get();
+        if ( splGrid == null ) {
+            return Collections.emptyList();
+        }
+
+        return splGrid.contour( isobarGenerator, splRangeDb, stepDb );
+    }
+
+    public SoundFieldColorizer getColorizer() {
+        return colorizer;
+    }
+
+    public SoundFieldDitherer getDitherer() {
+        return ditherer;
+    }
+
+    public long getExecutionCount( final SoundFieldRenderStage stage ) {
+        return stageExecutionCounts.get( stage.ordinal() );
+    }
+
+    public SoundFieldImageCache getImageCache() {
+        return imageCache;
+    }
+
+    public int getLastExecutedStageCount() {
+        return Integer.bitCount( lastExecutedStageMask );
+    }
+
+    public EnumSet< SoundFieldRenderStage > getLastExecutedStages() {
+        final int executedStageMask = lastExecutedStageMask;
+        final EnumSet< SoundFieldRenderStage > executedStages = EnumSet
+                .noneOf( SoundFieldRenderStage.class );
+        for ( final SoundFieldRenderStage stage : STAGES ) {
+            if ( ( executedStageMask & getStageBit( stage ) ) != 0 ) {
+                executedStages.add( stage );
+            }
+        }
+        return executedStages;
+    }
+
+    @Override
+    public int getNumberOfPasses( final SoundFieldDisplaySettings settings ) {
+        // Only preview images that are large, slow to finish, and not
+        // already cached.
+        if ( !progressive || ( ( colorizer.getNumberOfColumns()
+                * colorizer.getNumberOfRows() ) < PROGRESSIVE_PIXELS_MINIMUM )
+                || !isFinalPassSlow( settings ) || isFinalImageCached( settings ) ) {
+            return 1;
+        }
+
+        return SplMipPyramid.NUMBER_OF_LEVELS + 1;
+    }
+
+    public long getNumberOfRenders() {
+        return numberOfRenders.get();
+    }
+
+    public boolean isProgressive() {
+        return progressive;
+    }
+
+    /**
+     * Quantizes the latest posted SPL grid into another colorizer of the same
+     * size, such as one that exports variants of the image, without touching
+     * this pipeline's own colorizer or its render thread.
+     *
+     * @param targetColorizer
+     *            The colorizer to quantize the SPL grid into
+     * @param splRangeDb
+     *            The widest SPL Range in dB that the colorizer will color for
+     * @return {@code true} if an SPL grid had been posted and was quantized
+     */
+    public boolean quantizeSplGrid( final SoundFieldColorizer targetColorizer,
+                                    final int splRangeDb ) {
+        final PostedSplGrid splGrid = postedSplGrid.get();
+        if ( splGrid == null ) {
+            return false;
+        }
+
+        splGrid.quantize( targetColorizer, splRangeDb );
+        return true;
+    }
+
+    /**
+     * Renders the Sound Field image for the given display settings into the
+     * given frame, re-running only the stages whose inputs have changed.
+     *
+     * @param settings
+     *            The display settings snapshot to render with
+     * @param frame
+     *            The frame to transfer the finished image to
+     * @param cancellation
+     *            The cancellation to poll at checkpoints
+     * @return {@code true} if the frame holds the complete image
+     */
+    @Override
+    public boolean render( final SoundFieldDisplaySettings settings,
+                           final SoundFieldFrame frame,
+                           final RenderCancellation cancellation ) {
+        numberOfRenders.incrementAndGet();
+
+        // Snapshot the Dithering Mode revision before the mode itself, so
+        // that a concurrent change always invalidates.
+        final long settingsRevision = ( ditherer != null ) ? ditherer.getSettingsRevision() : 0L;
+
+        int executedStageMask = 0;
+        unsettledImageKey = null;
+        unsettledArgbPixels = null;
+
+        // Display a cached image right away, without even quantizing the grid.
+        final SoundFieldImageCache cache = imageCache;
+        final SoundFieldImageKey imageKey = makeImageKey( cache, settings, settingsRevision );
+        if ( imageKey != null ) {
+            final SoundFieldFrame cachedFrame = cache.get( imageKey );
+            if ( cachedFrame != null ) {
+                if ( frame.getContentRevision() != cachedFrame.getContentRevision() ) {
+                    System.arraycopy( cachedFrame.getArgbPixels(),
+                                      0,
+                                      frame.getArgbPixels(),
+                                      0,
+                                      cachedFrame.getArgbPixels().length );
+                    frame.setContentRevision( cachedFrame.getContentRevision() );
+                    frame.setImageSize( frame.getNumberOfColumns(), frame.getNumberOfRows() );
+                    executedStageMask |= getStageBit( SoundFieldRenderStage.DISPLAY );
+                }
+                return finishRender( executedStageMask, true );
+            }
+        }
+
+        executedStageMask |= quantizeSplGrid( settings );
+        final long splGridRevision = colorizer.getSplGridRevision();
+
+        // Normalize the codes to palette bands, which the lookup table skips
+        // when its quantization and SPL Range are unchanged.
+        final SplIndexBuffer indexBuffer = colorizer.getIndexBuffer();
+        final SplColorLookupTable lookupTable = colorizer.getLookupTable();
+        if ( lookupTable.update( indexBuffer, colorizer.getCeilingDb(), settings.getSplRangeDb() ) ) {
+            lookupTableRevision++;
+            executedStageMask |= getStageBit( SoundFieldRenderStage.RANGE_NORMALIZATION );
+        }
+        if ( cancellation.isCancelled() ) {
+            return finishRender( executedStageMask, false );
+        }
+
+        final int numberOfPixels = colorizer.getNumberOfColumns() * colorizer.getNumberOfRows();
+        final int[] finishedArgbPixels;
+        final long contentRevision;
+        final double ditheringAmount = settings.getDitheringAmount();
+        if ( ( ditherer != null ) && settings.isDitheringEnabled() ) {
+            if ( ( ditheredSplGridRevision != splGridRevision )
+                    || ( ditheredLookupTableRevision != lookupTableRevision )
+                    || ( ditheredSettingsRevision != settingsRevision )
+                    || ( Double.compare( ditheredAmount, ditheringAmount ) != 0 ) ) {
+                if ( ( ditheredArgbPixels == null ) || ditheredArgbPixelsShared ) {
+                    ditheredArgbPixels = new int[ numberOfPixels ];
+                    ditheredArgbPixelsShared = false;
+                }
+
+                // Invalidate the cached image first, in case of cancellation.
+                ditheredSplGridRevision = -1L;
+                ditherer.dither( indexBuffer,
+                                 lookupTable,
+                                 ditheredArgbPixels,
+                                 ditheringAmount,
+                                 cancellation );
+                executedStageMask |= getStageBit( SoundFieldRenderStage.DITHERING );
+                if ( cancellation.isCancelled() ) {
+                    return finishRender( executedStageMask, false );
+                }
+
+                ditheredSplGridRevision = splGridRevision;
+                ditheredLookupTableRevision = lookupTableRevision;
+                ditheredSettingsRevision = settingsRevision;
+                ditheredAmount = ditheringAmount;
+                ditheredContentRevision = nextContentRevision++;
+            }
+
+            finishedArgbPixels = ditheredArgbPixels;
+            contentRevision = ditheredContentRevision;
+        }
+        else {
+            if ( ( colormappedSplGridRevision != splGridRevision )
+                    || ( colormappedLookupTableRevision != lookupTableRevision ) ) {
+                if ( ( colormappedArgbPixels == null ) || colormappedArgbPixelsShared ) {
+                    colormappedArgbPixels = new int[ numberOfPixels ];
+                    colormappedArgbPixelsShared = false;
+                }
+
+                // Invalidate the cached image first, in case of cancellation.
+                colormappedSplGridRevision = -1L;
+                colorizer.blit( lookupTable.getArgbColors(), colormappedArgbPixels, cancellation );
+                executedStageMask |= getStageBit( SoundFieldRenderStage.COLORMAP );
+                if ( cancellation.isCancelled() ) {
+                    return finishRender( executedStageMask, false );
+                }
+
+                colormappedSplGridRevision = splGridRevision;
+                colormappedLookupTableRevision = lookupTableRevision;
+                colormappedContentRevision = nextContentRevision++;
+            }
+
+            finishedArgbPixels = colormappedArgbPixels;
+            contentRevision = colormappedContentRevision;
+        }
+
+        // Transfer the finished image, unless the frame already holds it.
+        if ( frame.getContentRevision() != contentRevision ) {
+            System.arraycopy( finishedArgbPixels,
+                              0,
+                              frame.getArgbPixels(),
+                              0,
+                              numberOfPixels );
+            frame.setContentRevision( contentRevision );
+            frame.setImageSize( frame.getNumberOfColumns(), frame.getNumberOfRows() );
+            executedStageMask |= getStageBit( SoundFieldRenderStage.DISPLAY );
+        }
+
+        // Only cache the image once rendering settles on it, as caching every
+        // image that is superseded right away, such as while scrubbing, would
+        // evict the images that are worth keeping.
+        if ( imageKey != null ) {
+            unsettledImageKey = imageKey;
+            unsettledArgbPixels = finishedArgbPixels;
+            unsettledContentRevision = contentRevision;
+        }
+
+        return finishRender( executedStageMask, true );
+    }
+
+    /**
+     * Renders one pass of a progressive render into the given frame, which is
+     * an undithered preview from the mip pyramid for all but the last pass,
+     * at the reduced size of its pyramid level.
+     *
+     * @param settings
+     *            The display settings snapshot to render with
+     * @param pass
+     *            The pass to render, from the coarsest preview onward
+     * @param frame
+     *            The frame to render into
+     * @param cancellation
+     *            The cancellation to poll at checkpoints
+     * @return {@code true} if the frame holds the complete pass
+     */
+    @Override
+    public boolean renderPass( final SoundFieldDisplaySettings settings,
+                               final int pass,
+                               final SoundFieldFrame frame,
+                               final RenderCancellation cancellation ) {
+        if ( pass >= SplMipPyramid.NUMBER_OF_LEVELS ) {
+            return render( settings, frame, cancellation );
+        }
+
+        numberOfRenders.incrementAndGet();
+
+        int executedStageMask = 0;
+
+        executedStageMask |= quantizeSplGrid( settings );
+        final long splGridRevision = colorizer.getSplGridRevision();
+
+        final SplIndexBuffer indexBuffer = colorizer.getIndexBuffer();
+        final SplColorLookupTable lookupTable = colorizer.getLookupTable();
+        if ( lookupTable.update( indexBuffer, colorizer.getCeilingDb(), settings.getSplRangeDb() ) ) {
+            lookupTableRevision++;
+            executedStageMask |= getStageBit( SoundFieldRenderStage.RANGE_NORMALIZATION );
+        }
+        if ( cancellation.isCancelled() ) {
+            return finishRender( executedStageMask, false );
+        }
+
+        // Reduce the SPL grid once per grid, as part of the SPL grid stage.
+        if ( mipPyramidSplGridRevision != splGridRevision ) {
+            if ( mipPyramid == null ) {
+                mipPyramid = new SplMipPyramid( colorizer.getNumberOfColumns(),
+                                                colorizer.getNumberOfRows() );
+            }
+            mipPyramid.build( colorizer.getForkJoinPool(), indexBuffer );
+            mipPyramidSplGridRevision = splGridRevision;
+            executedStageMask |= getStageBit( SoundFieldRenderStage.SPL_GRID );
+        }
+
+        // Previews are colormapped straight into the frame at their own size,
+        // so the frame no longer holds any cached image.
+        frame.setContentRevision( -1L );
+        frame.setImageSize( mipPyramid.getLevelColumns( pass ), mipPyramid.getLevelRows( pass ) );
+        mipPyramid.blit( colorizer.getForkJoinPool(),
+                         pass,
+                         lookupTable.getArgbColors(),
+                         frame.getArgbPixels(),
+                         cancellation );
+        executedStageMask |= getStageBit( SoundFieldRenderStage.COLORMAP );
+
+        return finishRender( executedStageMask, !cancellation.isCancelled() );
+    }
+
+    /**
+     * Caches the image that rendering has settled on, if it is not cached
+     * yet, by handing its buffer to the image cache rather than copying it.
+     */
+    @Override
+    public void settle() {
+        final SoundFieldImageCache cache = imageCache;
+        final SoundFieldImageKey imageKey = unsettledImageKey;
+        final int[] argbPixels = unsettledArgbPixels;
+        unsettledImageKey = null;
+        unsettledArgbPixels = null;
+        if ( ( cache == null ) || ( imageKey == null ) || cache.contains( imageKey ) ) {
+            return;
+        }
+
+        if ( cache.put( imageKey,
+                        colorizer.getNumberOfColumns(),
+                        colorizer.getNumberOfRows(),
+                        argbPixels,
+                        unsettledContentRevision ) ) {
+            if ( argbPixels == colormappedArgbPixels ) {
+                colormappedArgbPixelsShared = true;
+            }
+            if ( argbPixels == ditheredArgbPixels ) {
+                ditheredArgbPixelsShared = true;
+            }
+        }
+    }
+
+    public void setImageCache( final SoundFieldImageCache pImageCache ) {
+        imageCache = pImageCache;
+    }
+
+    public void setProgressive( final boolean pProgressive ) {
+        progressive = pProgressive;
+    }
+
+    /**
+     * Posts a new SPL grid, which the next render quantizes before anything
+     * else, superseding any grid that has not been picked up yet. Its images
+     * are cached under an identity token of its own.
+     *
+     * @param splGrid
+     *            The SPL grid, in any storage
+     * @param splRange
+     *            The SPL statistics of the grid
+     */
+    public void setSplGrid( final SplGrid splGrid, final SplRange splRange ) {
+        postedSplGrid.set( new PostedSplGrid( splGrid,
+                                              splRange,
+                                              anonymousModelRevision.incrementAndGet(),
+                                              -1,
+                                              new Object() ) );
+    }
+
+    /**
+     * Posts a new SPL grid, which the next render that misses the image cache
+     * quantizes before anything else, superseding any grid that has not been
+     * picked up yet.
+     *
+     * @param splGrid
+     *            The SPL grid, in any storage, which must not be modified
+     *            while the model revision stays the same
+     * @param splRange
+     *            The SPL statistics of the grid
+     * @param modelRevision
+     *            The revision of the model that the grid was predicted from
+     * @param frequencyBandIndex
+     *            The index of the frequency band of the grid
+     */
+    public void setSplGrid( final SplGrid splGrid,
+                            final SplRange splRange,
+                            final long modelRevision,
+                            final int frequencyBandIndex ) {
+        postedSplGrid.set( new PostedSplGrid( splGrid,
+                                              splRange,
+                                              modelRevision,
+                                              frequencyBandIndex,
+                                              null ) );
+    }
+
+    // Check whether the final image for the given settings is still cached,
+    // in which case rendering it costs no more than a display transfer.
+    private boolean isFinalImageCached( final SoundFieldDisplaySettings settings ) {
+        final SoundFieldImageCache cache = imageCache;
+        final long settingsRevision = ( ditherer != null ) ? ditherer.getSettingsRevision() : 0L;
+        final SoundFieldImageKey imageKey = makeImageKey( cache, settings, settingsRevision );
+        if ( ( imageKey != null ) && cache.contains( imageKey ) ) {
+            return true;
+        }
+
+        final SplColorLookupTable lookupTable = colorizer.getLookupTable();
+        final long splGridRevision = colorizer.getSplGridRevision();
+        if ( ( postedSplGrid.get() != quantizedSplGrid )
+                || ( Double.compare( lookupTable.getCeilingDb(), colorizer.getCeilingDb() ) != 0 )
+                || ( Double.compare( lookupTable.getSplRangeDb(), settings.getSplRangeDb() ) != 0 ) ) {
+            return false;
+        }
+
+        if ( ( ditherer != null ) && settings.isDitheringEnabled() ) {
+            return ( ditheredSplGridRevision == splGridRevision )
+                    && ( ditheredLookupTableRevision == lookupTableRevision )
+                    && ( ditheredSettingsRevision == settingsRevision )
+                    && ( Double.compare( ditheredAmount, settings.getDitheringAmount() ) == 0 );
+        }
+
+        return ( colormappedSplGridRevision == splGridRevision )
+                && ( colormappedLookupTableRevision == lookupTableRevision );
+    }
+
+    // Check whether the final pass for the given settings is slow enough for
+    // previews to pay off, which is only the case for error diffusion, as
+    // every other final pass is a parallel blit that costs about as much as
+    // a preview.
+    private boolean isFinalPassSlow( final SoundFieldDisplaySettings settings ) {
+        return ( ditherer != null ) && settings.isDitheringEnabled()
+                && ( ditherer.getDitheringMode() == DitheringMode.ERROR_DIFFUSION );
+    }
+
+    private boolean finishRender( final int executedStageMask, final boolean completed ) {
+        for ( final SoundFieldRenderStage stage : STAGES ) {
+            if ( ( executedStageMask & getStageBit( stage ) ) != 0 ) {
+                stageExecutionCounts.incrementAndGet( stage.ordinal() );
+            }
+        }
+        lastExecutedStageMask = executedStageMask;
+
+        return completed;
+    }
+
+    // Make the image cache key for the latest posted SPL grid, or return null
+    // if there is no cache, no posted grid, or the colorizer was given a grid
+    // directly, which the cache cannot identify.
+    private SoundFieldImageKey makeImageKey( final SoundFieldImageCache cache,
+                                             final SoundFieldDisplaySettings settings,
+                                             final long settingsRevision ) {
+        final PostedSplGrid splGrid = postedSplGrid.get();
+        if ( ( cache == null ) || ( splGrid == null ) || ( ( splGrid == quantizedSplGrid )
+                && ( colorizer.getSplGridRevision() != quantizedSplGridRevision ) ) ) {
+            return null;
+        }
+
+        if ( splGrid.splGridToken != null ) {
+            return new SoundFieldImageKey( splGrid.splGridToken, settings, settingsRevision );
+        }
+
+        return new SoundFieldImageKey( splGrid.modelRevision,
+                                       splGrid.frequencyBandIndex,
+                                       settings,
+                                       settingsRevision );
+    }
+
+    // Quantize the latest posted SPL grid, unless it already was, for a span
+    // that resolves the palette of the SPL Range. This is never cancelled
+    // part-way, as the index buffer would be inconsistent.
+    // NOTE: A grid that is already quantized is only quantized again if a
+    //  wider manual SPL Range reaches below its span, and only if the
+    //  colorizer was not given another grid directly since.
+    private int quantizeSplGrid( final SoundFieldDisplaySettings settings ) {
+        final PostedSplGrid splGrid = postedSplGrid.get();
+        final int splRangeDb = settings.getSplRangeDb();
+        if ( ( splGrid == null ) || ( ( splGrid == quantizedSplGrid )
+                && ( ( colorizer.getSplGridRevision() != quantizedSplGridRevision )
+                        || colorizer.isSpanning( splRangeDb ) ) ) ) {
+            return 0;
+        }
+
+        splGrid.quantize( colorizer, splRangeDb );
+        quantizedSplGrid = splGrid;
+        quantizedSplGridRevision = colorizer.getSplGridRevision();
+        return getStageBit( SoundFieldRenderStage.SPL_GRID );
+    }
+
+    private static int getStageBit( final SoundFieldRenderStage stage ) {
+        return 1 << stage.ordinal();
+    }
+
+    // Hold a posted SPL grid, of any storage, along with its identity, which
+    // for anonymous grids includes a token of their own for the image cache.
+    private static final class PostedSplGrid {
+
+        private final SplGrid  splGrid;
+        private final SplRange splRange;
+        private final long     modelRevision;
+        private final int      frequencyBandIndex;
+        private final Object   splGridToken;
+
+        PostedSplGrid( final SplGrid pSplGrid,
+                       final SplRange pSplRange,
+                       final long pModelRevision,
+                       final int pFrequencyBandIndex,
+                       final Object pSplGridToken ) {
+            splGrid = pSplGrid;
+            splRange = pSplRange;
+            modelRevision = pModelRevision;
+            frequencyBandIndex = pFrequencyBandIndex;
+            splGridToken = pSplGridToken;
+        }
+
+        List< SplIsobar > contour( final SplIsobarGenerator isobarGenerator,
+                                   final double splRangeDb,
+                                   final double stepDb ) {
+            return isobarGenerator.getIsobars( splGrid,
+                                               modelRevision,
+                                               frequencyBandIndex,
+                                               splRange.getCeilingDb(),
+                                               splRangeDb,
+                                               stepDb );
+        }
+
+        void quantize( final SoundFieldColorizer colorizer, final int splRangeDb ) {
+            colorizer.setSplGrid( splGrid, splRange, splRangeDb );
+        }
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * {@code SoundFieldRenderScheduler} coalesces bursts of display setting
+ * changes (such as from scrubbing the SPL Range or Dithering Amount spinners)
+ * into renders of just the latest settings, off the JavaFX Application Thread.
+ * <p>
+ * At most one render is in flight at a time. A newer request cancels it at its
+ * next checkpoint, unless the displayed frame is already older than the
+ * maximum frame latency, in which case the superseded render is allowed to
+ * finish, so that a frame is still shown while the user keeps spinning.
+ * Finished frames are published on the JavaFX Application Thread by an
+ * {@link AnimationTimer}, at most one per pulse, and only while work remains.
+ * <p>
+ * Frames are triple-buffered, so the render thread never writes to a frame
+ * that is waiting for, or in the middle of, publication.
+ * <p>
+ * Progressive renderers yield one frame per pass, each of which is published
+ * as soon as it is ready, and the time from a request to its first frame is
+ * tracked separately from the time to its final frame.
+ * <p>
+ * Once the latest request has been rendered in full and no newer request is
+ * pending, the renderer is told that rendering has settled, so that it can
+ * keep the settled frame without also keeping every frame that was superseded
+ * along the way.
+ *
+ * @param <S>
+ *            The type of the display settings to render with
+ *
+ * @version 1.0
+ */
+public final class SoundFieldRenderScheduler< S > {
+
+    // Declare the default bound on how stale the displayed frame may become
+    // before superseded renders are no longer cancelled.
+    public static final long                         MAXIMUM_FRAME_LATENCY_MILLIS_DEFAULT = 100L;
+
+    // Declare the number of frame buffers: rendering, ready and publishing.
+    private static final int                         NUMBER_OF_FRAMES                     = 3;
+
+    // Declare the dimensions of the rendered frames, in pixels.
+    private final int                                frameColumns;
+    private final int                                frameRows;
+
+    // Declare the renderer, and the JavaFX consumer of finished frames.
+    private final SoundFieldRenderer< S >            renderer;
+    private final Consumer< SoundFieldFrame >        publisher;
+
+    // Declare the bound on frame staleness, in nanoseconds.
+    private final long                               maximumFrameLatencyNanos;
+
+    // Declare the single render thread, as renders never overlap anyway.
+    private final ExecutorService                    renderExecutor;
+
+    // Declare the latest request, with its settings and generation published
+    // together, so that a render knows when it has been superseded.
+    private final RenderRequestSlot< S >             requestSlot;
+
+    // Flag for whether the render thread is busy with (or about to start) a
+    // render, so that only one render loop is ever scheduled.
+    private final AtomicBoolean                      renderInFlight;
+
+    // Declare the frame that is ready to publish, and the free frames.
+    private final AtomicReference< SoundFieldFrame > readyFrame;
+    private final Queue< SoundFieldFrame >           freeFrames;
+
+    // Declare the time that the latest frame was published or rendered.
+    private volatile long                            lastFrameNanos;
+
+    // Declare the time of the latest request, and how long it took the
+    // latest rendered request to yield its first and final frames.
+    private volatile long                            lastRequestNanos;
+    private volatile long                            timeToFirstFrameNanos;
+    private volatile long                            timeToFinalFrameNanos;
+
+    // Declare the pulse-driven publisher, and whether it is running.
+    private final AnimationTimer                     publishTimer;
+    private final AtomicBoolean                      publishTimerRunning;
+
+    // Count the renders, for diagnostics.
+    private final AtomicLong                         numberOfRequests;
+    private final AtomicLong                         numberOfRenders;
+    private final AtomicLong                         numberOfCancelledRenders;
+    private final AtomicLong                         numberOfPublishedFrames;
+
+    public SoundFieldRenderScheduler( final int numberOfColumns,
+                                      final int numberOfRows,
+                                      final SoundFieldRenderer< S > pRenderer,
+                                      final Consumer< SoundFieldFrame > pPublisher ) {
+        this( numberOfColumns,
+              numberOfRows,
+              pRenderer,
+              pPublisher,
+              MAXIMUM_FRAME_LATENCY_MILLIS_DEFAULT );
+    }
+
+    public SoundFieldRenderScheduler( final int numberOfColumns,
+                                      final int numberOfRows,
+                                      final SoundFieldRenderer< S > pRenderer,
+                                      final Consumer< SoundFieldFrame > pPublisher,
+                                      final long maximumFrameLatencyMillis ) {
+        frameColumns = numberOfColumns;
+        frameRows = numberOfRows;
+        renderer = pRenderer;
+        publisher = pPublisher;
+        maximumFrameLatencyNanos = TimeUnit.MILLISECONDS.toNanos( maximumFrameLatencyMillis );
+
+        renderExecutor = Executors.newSingleThreadExecutor( runnable -> {
+            final Thread thread = new Thread( runnable, "Sound Field Renderer" ); //$NON-NLS-1$
+            thread.setDaemon( true );
+            return thread;
+        } );
+
+        requestSlot = new RenderRequestSlot<>();
+        renderInFlight = new AtomicBoolean( false );
+
+        readyFrame = new AtomicReference<>( null );
+        freeFrames = new ConcurrentLinkedQueue<>();
+        for ( int i = 0; i < NUMBER_OF_FRAMES; i++ ) {
+            freeFrames.add( new SoundFieldFrame( frameColumns, frameRows ) );
+        }
+
+        lastFrameNanos = System.nanoTime();
+        lastRequestNanos = lastFrameNanos;
+        timeToFirstFrameNanos = -1L;
+        timeToFinalFrameNanos = -1L;
+
+        publishTimer = new AnimationTimer() {
+            @Override
+            public void handle( final long now ) {
+                publishReadyFrame();
+            }
+        };
+        publishTimerRunning = new AtomicBoolean( false );
+
+        numberOfRequests = new AtomicLong( 0L );
+        numberOfRenders = new AtomicLong( 0L );
+        numberOfCancelledRenders = new AtomicLong( 0L );
+        numberOfPublishedFrames = new AtomicLong( 0L );
+    }
+
+    public long getNumberOfCancelledRenders() {
+        return numberOfCancelledRenders.get();
+    }
+
+    public long getNumberOfPublishedFrames() {
+        return numberOfPublishedFrames.get();
+    }
+
+    public long getNumberOfRenders() {
+        return numberOfRenders.get();
+    }
+
+    public long getNumberOfRequests() {
+        return numberOfRequests.get();
+    }
+
+    // Returns the time from the latest rendered request to its final frame,
+    // or -1 if no request has been rendered to completion yet.
+    public long getTimeToFinalFrameNanos() {
+        return timeToFinalFrameNanos;
+    }
+
+    // Returns the time from the latest rendered request to its first frame,
+    // which is the coarsest preview of a progressive render, or -1 if no
+    // request has yielded a frame yet.
+    public long getTimeToFirstFrameNanos() {
+        return timeToFirstFrameNanos;
+    }
+
+    /**
+     * Requests a render with the given settings, superseding any earlier
+     * request that has not been published yet. This may be called from any
+     * thread, at any rate.
+     *
+     * @param settings
+     *            The display settings to render with
+     */
+    public void requestRender( final S settings ) {
+        numberOfRequests.incrementAndGet();
+
+        lastRequestNanos = System.nanoTime();
+        requestSlot.post( settings );
+
+        if ( renderInFlight.compareAndSet( false, true ) ) {
+            renderExecutor.execute( this::renderPendingSettings );
+        }
+
+        startPublishTimer();
+    }
+
+    /**
+     * Stops the render thread, after which no further renders take place.
+     */
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+        if ( Platform.isFxApplicationThread() ) {
+            publishTimer.stop();
+        }
+        else {
+            Platform.runLater( publishTimer::stop );
+        }
+    }
+
+    private boolean isRenderCancelled( final long generation ) {
+        // Never cancel once the displayed frame is too stale, as continuous
+        // requests could otherwise starve the display indefinitely.
+        return requestSlot.isSuperseded( generation )
+                && ( ( System.nanoTime() - lastFrameNanos ) < maximumFrameLatencyNanos );
+    }
+
+    // Publish the ready frame, if any, on a JavaFX pulse, and stop the timer
+    // once there is nothing left to publish.
+    private void publishReadyFrame() {
+        final SoundFieldFrame frame = readyFrame.getAndSet( null );
+        if ( frame != null ) {
+            try {
+                publisher.accept( frame );
+                numberOfPublishedFrames.incrementAndGet();
+            }
+            finally {
+                freeFrames.offer( frame );
+            }
+        }
+
+        if ( !renderInFlight.get() && ( readyFrame.get() == null ) ) {
+            publishTimer.stop();
+            publishTimerRunning.set( false );
+
+            // Restart if a frame or request slipped in while stopping.
+            if ( ( renderInFlight.get() || ( readyFrame.get() != null ) )
+                    && publishTimerRunning.compareAndSet( false, true ) ) {
+                publishTimer.start();
+            }
+        }
+    }
+
+    // Render the latest pending settings until no more are pending.
+    private void renderPendingSettings() {
+        boolean renderCompleted = false;
+        while ( true ) {
+            final RenderRequestSlot.Request< S > request = requestSlot.take();
+            if ( request == null ) {
+                // Settle while still flagged as in flight, so that no other
+                // render loop can start in the meantime.
+                if ( renderCompleted ) {
+                    renderCompleted = false;
+                    try {
+                        renderer.settle();
+                    }
+                    catch ( final RuntimeException re ) {
+                        re.printStackTrace();
+                    }
+                }
+
+                renderInFlight.set( false );
+
+                // Pick up a request that arrived after the check above but
+                // was unable to schedule a render loop of its own.
+                if ( requestSlot.hasPendingRequest() && renderInFlight.compareAndSet( false, true ) ) {
+                    continue;
+                }
+                startPublishTimer();
+                return;
+            }
+
+            final S settings = request.getSettings();
+            final long generation = request.getGeneration();
+            final long requestNanos = lastRequestNanos;
+            numberOfRenders.incrementAndGet();
+
+            final int numberOfPasses = Math.max( 1, renderer.getNumberOfPasses( settings ) );
+            renderCompleted = false;
+            for ( int pass = 0; pass < numberOfPasses; pass++ ) {
+                if ( !renderPass( settings, pass, generation ) ) {
+                    numberOfCancelledRenders.incrementAndGet();
+                    break;
+                }
+
+                if ( pass == 0 ) {
+                    timeToFirstFrameNanos = lastFrameNanos - requestNanos;
+                }
+                if ( pass == ( numberOfPasses - 1 ) ) {
+                    timeToFinalFrameNanos = lastFrameNanos - requestNanos;
+                    renderCompleted = true;
+                }
+            }
+        }
+    }
+
+    // Render one pass into a free frame, and make it the ready frame unless
+    // the pass was cancelled.
+    private boolean renderPass( final S settings, final int pass, final long generation ) {
+        SoundFieldFrame frame = freeFrames.poll();
+        if ( frame == null ) {
+            // This should not happen with triple buffering, but a spare
+            // frame is better than blocking the render thread.
+            frame = new SoundFieldFrame( frameColumns, frameRows );
+        }
+
+        // Latch the cancellation, so that a render that skipped work is never
+        // mistaken for complete once the latency bound is exceeded.
+        final AtomicBoolean cancelled = new AtomicBoolean( false );
+        boolean completed = false;
+        try {
+            completed = renderer.renderPass( settings, pass, frame, () -> {
+                if ( !cancelled.get() && isRenderCancelled( generation ) ) {
+                    cancelled.set( true );
+                }
+                return cancelled.get();
+            } ) && !cancelled.get();
+        }
+        catch ( final RuntimeException re ) {
+            re.printStackTrace();
+        }
+
+        if ( !completed ) {
+            freeFrames.offer( frame );
+            return false;
+        }
+
+        lastFrameNanos = System.nanoTime();
+        final SoundFieldFrame staleFrame = readyFrame.getAndSet( frame );
+        if ( staleFrame != null ) {
+            freeFrames.offer( staleFrame );
+        }
+        return true;
+    }
+
+    private void startPublishTimer() {
+        if ( publishTimerRunning.compareAndSet( false, true ) ) {
+            if ( Platform.isFxApplicationThread() ) {
+                publishTimer.start();
+            }
+            else {
+                Platform.runLater( publishTimer::start );
+            }
+        }
+    }
+}
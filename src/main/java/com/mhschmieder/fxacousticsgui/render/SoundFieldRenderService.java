@@ -0,0 +1,316 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import com.mhschmieder.fxacousticsgui.soundfield.MultiBandSplRangeService;
+import com.mhschmieder.fxacousticsgui.soundfield.SplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplProbe;
+import com.mhschmieder.fxacousticsgui.soundfield.SplProbeReading;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * {@code SoundFieldRenderService} owns everything that is derived from the
+ * latest posted SPL grid of a displayed Sound Field: its staged render
+ * pipeline and render scheduler, its isobar contours, its cursor SPL probe,
+ * and its copies for export, so that a display only has to forward its
+ * settings.
+ * <p>
+ * Nothing is rendered until a colorizer and a frame publisher are bound, and
+ * binding new ones shuts down the renderer of the previous ones.
+ *
+ * @version 1.0
+ */
+public final class SoundFieldRenderService {
+
+    // Declare the isobar generator for the SPL contour overlay, which caches
+    // its contours per SPL grid revision, band and level.
+    private final SplIsobarGenerator                               splIsobarGenerator;
+
+    // Declare the cursor SPL probe, which reads the latest posted SPL grid.
+    private final SplProbe                                         splProbe;
+
+    // Declare the bound Sound Field colorizer and ditherer.
+    private SoundFieldColorizer                                    soundFieldColorizer;
+    private SoundFieldDitherer                                     soundFieldDitherer;
+
+    // Declare the staged pipeline that re-renders only what changed, and the
+    // scheduler that coalesces Sound Field re-renders, so that scrubbing the
+    // SPL Range never queues up stale renders.
+    private SoundFieldRenderPipeline                               soundFieldRenderPipeline;
+    private SoundFieldRenderScheduler< SoundFieldDisplaySettings > soundFieldRenderScheduler;
+
+    public SoundFieldRenderService( final ForkJoinPool forkJoinPool ) {
+        splIsobarGenerator = new SplIsobarGenerator( forkJoinPool );
+        splProbe = new SplProbe();
+    }
+
+    /**
+     * Binds a colorizer and a frame publisher, and starts a renderer for them,
+     * after shutting down the renderer of any previously bound ones.
+     *
+     * @param colorizer
+     *            The colorizer to quantize posted SPL grids into
+     * @param ditherer
+     *            The ditherer to apply, or {@code null} for none
+     * @param publisher
+     *            The consumer that displays each finished frame, on the
+     *            JavaFX Application Thread
+     * @param progressive
+     *            Flag for whether slow renders are previewed at reduced sizes
+     */
+    public void bind( final SoundFieldColorizer colorizer,
+                      final SoundFieldDitherer ditherer,
+                      final Consumer< SoundFieldFrame > publisher,
+                      final boolean progressive ) {
+        if ( soundFieldRenderScheduler != null ) {
+            soundFieldRenderScheduler.shutdown();
+        }
+
+        soundFieldColorizer = colorizer;
+        soundFieldDitherer = ditherer;
+
+        // Render into the scheduler's frames via the staged pipeline, and
+        // publish each frame on the next pulse.
+        soundFieldRenderPipeline = new SoundFieldRenderPipeline( colorizer, ditherer );
+        soundFieldRenderPipeline.setProgressive( progressive );
+        soundFieldRenderScheduler = new SoundFieldRenderScheduler<>(
+                colorizer.getNumberOfColumns(),
+                colorizer.getNumberOfRows(),
+                soundFieldRenderPipeline,
+                publisher );
+    }
+
+    /**
+     * Contours the latest posted SPL grid into isobars at every multiple of
+     * the given SPL step within the given SPL Range below its ceiling, on the
+     * pool of the isobar generator.
+     *
+     * @param splRangeDb
+     *            The SPL Range below the ceiling to contour
+     * @param stepDb
+     *            The SPL step between isobars
+     * @return The isobars, from the lowest level to the highest, which are
+     *         empty if nothing is bound
+     */
+    public CompletableFuture< List< SplIsobar > > computeIsobars( final double splRangeDb,
+                                                                  final double stepDb ) {
+        final SoundFieldRenderPipeline renderPipeline = soundFieldRenderPipeline;
+        if ( renderPipeline == null ) {
+            return CompletableFuture.completedFuture( Collections.emptyList() );
+        }
+
+        return CompletableFuture.supplyAsync(
+                () -> renderPipeline.contourSplGrid( splIsobarGenerator, splRangeDb, stepDb ),
+                splIsobarGenerator.getForkJoinPool() );
+    }
+
+    /**
+     * Returns the Dithering Mode of the bound ditherer, or the default mode if
+     * there is none, such as for exporting variants of the image.
+     *
+     * @return The Dithering Mode of the bound ditherer
+     */
+    public DitheringMode getDitheringMode() {
+        return ( soundFieldDitherer != null )
+            ? soundFieldDitherer.getDitheringMode()
+            : DitheringMode.defaultValue();
+    }
+
+    public SoundFieldColorizer getSoundFieldColorizer() {
+        return soundFieldColorizer;
+    }
+
+    public SoundFieldDitherer getSoundFieldDitherer() {
+        return soundFieldDitherer;
+    }
+
+    public SoundFieldRenderPipeline getSoundFieldRenderPipeline() {
+        return soundFieldRenderPipeline;
+    }
+
+    public SoundFieldRenderScheduler< SoundFieldDisplaySettings > getSoundFieldRenderScheduler() {
+        return soundFieldRenderScheduler;
+    }
+
+    public SplIsobarGenerator getSplIsobarGenerator() {
+        return splIsobarGenerator;
+    }
+
+    public SplProbe getSplProbe() {
+        return splProbe;
+    }
+
+    public boolean isBound() {
+        return soundFieldRenderPipeline != null;
+    }
+
+    /**
+     * Posts a new SPL grid, which is quantized on the render thread before
+     * the image is re-rendered from it, and whose images are cached under an
+     * identity token of its own.
+     *
+     * @param splGrid
+     *            The SPL grid, in any storage
+     * @param splRange
+     *            The SPL statistics of the grid
+     * @return {@code true} if the grid was posted, as a renderer is bound
+     */
+    public boolean postSplGrid( final SplGrid splGrid, final SplRange splRange ) {
+        if ( soundFieldRenderPipeline == null ) {
+            return false;
+        }
+
+        soundFieldRenderPipeline.setSplGrid( splGrid, splRange );
+        splProbe.setSplGrid( splGrid,
+                             MultiBandSplRangeService.MODEL_REVISION_NONE,
+                             -1,
+                             splRange.getCeilingDb() );
+        return true;
+    }
+
+    /**
+     * Posts a new SPL grid, identified by the model revision and frequency
+     * band that it was predicted for, so that images rendered from it are
+     * cached for when they are displayed again.
+     *
+     * @param splGrid
+     *            The SPL grid, in any storage, which must not be modified
+     *            while the model revision stays the same
+     * @param splRange
+     *            The SPL statistics of the grid
+     * @param modelRevision
+     *            The revision of the model that the grid was predicted from
+     * @param frequencyBandIndex
+     *            The index of the frequency band of the grid
+     * @return {@code true} if the grid was posted, as a renderer is bound
+     */
+    public boolean postSplGrid( final SplGrid splGrid,
+                                final SplRange splRange,
+                                final long modelRevision,
+                                final int frequencyBandIndex ) {
+        if ( soundFieldRenderPipeline == null ) {
+            return false;
+        }
+
+        soundFieldRenderPipeline.setSplGrid( splGrid, splRange, modelRevision, frequencyBandIndex );
+        splProbe.setSplGrid( splGrid, modelRevision, frequencyBandIndex, splRange.getCeilingDb() );
+        return true;
+    }
+
+    /**
+     * Reads the Sound Field SPL under a screen position, in the screen space
+     * of the probe's screen mapping.
+     * <p>
+     * The probe is pointed at each SPL grid as it is posted, and at each SPL
+     * Range as it is set, so this only reads its published state, and is
+     * cheap enough to call for every mouse move.
+     *
+     * @param screenX
+     *            The horizontal screen position
+     * @param screenY
+     *            The vertical screen position
+     * @param reading
+     *            The reading to fill in
+     * @return {@code true} if the reading holds an SPL
+     */
+    public boolean probe( final double screenX,
+                          final double screenY,
+                          final SplProbeReading reading ) {
+        return splProbe.probe( screenX, screenY, reading );
+    }
+
+    /**
+     * Quantizes the latest posted SPL grid into a colorizer of its own, of the
+     * size of the bound colorizer, such as for exporting variants of the
+     * image, so the displayed image keeps rendering.
+     *
+     * @param splRangeDb
+     *            The widest SPL Range in dB that the copy will color for
+     * @return The new colorizer, or {@code null} if nothing is bound or no
+     *         SPL grid has been posted
+     */
+    public CompletableFuture< SoundFieldColorizer > quantizeSplGridCopy( final int splRangeDb ) {
+        final SoundFieldRenderPipeline renderPipeline = soundFieldRenderPipeline;
+        if ( renderPipeline == null ) {
+            return CompletableFuture.completedFuture( null );
+        }
+
+        final SoundFieldColorizer colorizerCopy = new SoundFieldColorizer(
+                soundFieldColorizer.getForkJoinPool(),
+                soundFieldColorizer.getNumberOfColumns(),
+                soundFieldColorizer.getNumberOfRows() );
+        return CompletableFuture
+                .supplyAsync( () -> renderPipeline.quantizeSplGrid( colorizerCopy, splRangeDb )
+                    ? colorizerCopy
+                    : null, colorizerCopy.getForkJoinPool() );
+    }
+
+    /**
+     * Requests a render of the bound Sound Field image for the given display
+     * settings, superseding any render not yet displayed.
+     *
+     * @param settings
+     *            The display settings to render
+     */
+    public void requestRender( final SoundFieldDisplaySettings settings ) {
+        if ( soundFieldRenderScheduler == null ) {
+            return;
+        }
+
+        soundFieldRenderScheduler.requestRender( settings );
+    }
+
+    /**
+     * Sets the displayed SPL Range below the ceiling, which positions probed
+     * SPL values on the colormap the same way the image is colored.
+     *
+     * @param splRangeDb
+     *            The displayed SPL Range below the ceiling
+     */
+    public void setSplRangeDb( final double splRangeDb ) {
+        splProbe.setSplRangeDb( splRangeDb );
+    }
+
+    /**
+     * Shuts down the renderer of the bound colorizer, if any.
+     */
+    public void shutdown() {
+        if ( soundFieldRenderScheduler != null ) {
+            soundFieldRenderScheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+/**
+ * {@code SoundFieldRenderStage} enumerates the stages of rendering a Sound
+ * Field image, in pipeline order, each of which only needs to re-run when its
+ * own inputs or the output of an upstream stage have changed.
+ *
+ * @version 1.0
+ */
+public enum SoundFieldRenderStage {
+    /**
+     * Quantization of a new SPL grid to the codes of an index buffer.
+     */
+    SPL_GRID,
+
+    /**
+     * Normalization of each code to a palette band, for the SPL Range.
+     */
+    RANGE_NORMALIZATION,
+
+    /**
+     * Colormapping of each pixel from the color lookup table.
+     */
+    COLORMAP,
+
+    /**
+     * Dithering of each pixel across palette bands.
+     */
+    DITHERING,
+
+    /**
+     * Transfer of the finished image to the displayed frame.
+     */
+    DISPLAY;
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+/**
+ * {@code SoundFieldRenderer} renders a Sound Field frame for a given set of
+ * display settings, polling for cancellation at its own checkpoints.
+ * <p>
+ * A progressive renderer renders the same settings in several passes, each of
+ * which yields a complete frame that refines the previous one, so that a
+ * coarse preview can be displayed before the final frame is ready.
+ *
+ * @param <S>
+ *            The type of the display settings to render with
+ *
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface SoundFieldRenderer< S > {
+
+    /**
+     * Renders the Sound Field into the given frame.
+     *
+     * @param settings
+     *            The display settings to render with
+     * @param frame
+     *            The frame to render into
+     * @param cancellation
+     *            The cancellation to poll at checkpoints
+     * @return {@code true} if the frame was completely rendered, or
+     *         {@code false} if the render was cancelled
+     */
+    boolean render( final S settings,
+                    final SoundFieldFrame frame,
+                    final RenderCancellation cancellation );
+
+    /**
+     * Returns the number of passes to render the given settings in, the last
+     * of which yields the final frame.
+     *
+     * @param settings
+     *            The display settings to render with
+     * @return The number of passes, which is one unless rendering progressively
+     */
+    default int getNumberOfPasses( final S settings ) {
+        return 1;
+    }
+
+    /**
+     * Renders one pass of a progressive render into the given frame.
+     *
+     * @param settings
+     *            The display settings to render with
+     * @param pass
+     *            The pass to render, where the last pass yields the final frame
+     * @param frame
+     *            The frame to render into
+     * @param cancellation
+     *            The cancellation to poll at checkpoints
+     * @return {@code true} if the frame was completely rendered, or
+     *         {@code false} if the render was cancelled
+     */
+    default boolean renderPass( final S settings,
+                                final int pass,
+                                final SoundFieldFrame frame,
+                                final RenderCancellation cancellation ) {
+        return render( settings, frame, cancellation );
+    }
+
+    /**
+     * Notifies the renderer that its latest frame was rendered in full and
+     * that no newer request is pending, so that the frame is the one that
+     * stays on display. This is called on the render thread, between renders.
+     */
+    default void settle() {}
+}
@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+/**
+ * {@code SplColorLookupTable} maps the codes of an {@link SplIndexBuffer} to
+ * packed ARGB colors of the {@link JetPalette}, for a given SPL Range.
+ * <p>
+ * A change of SPL Range only rebuilds this table, which has one entry per
+ * code, after which the image is re-blitted from the table with one array
+ * lookup per cell and no floating-point math or allocation.
+ *
+ * @version 1.0
+ */
+public final class SplColorLookupTable {
+
+    // Declare the packed ARGB color of each code.
+    private final int[]  argbColors;
+
+    // Declare the palette index of each code, for dithering across bands.
+    private final byte[] colorIndices;
+
+    // Cache the parameters the table was last built for, to skip rebuilds.
+    private double       baseDb;
+    private double       stepDb;
+    private double       ceilingDb;
+    private double       splRangeDb;
+
+    public SplColorLookupTable() {
+        argbColors = new int[ SplIndexBuffer.NUMBER_OF_CODES ];
+        colorIndices = new byte[ SplIndexBuffer.NUMBER_OF_CODES ];
+
+        baseDb = Double.NaN;
+        stepDb = Double.NaN;
+        ceilingDb = Double.NaN;
+        splRangeDb = Double.NaN;
+    }
+
+    public int[] getArgbColors() {
+        return argbColors;
+    }
+
+    public byte[] getColorIndices() {
+        return colorIndices;
+    }
+
+    public double getCeilingDb() {
+        return ceilingDb;
+    }
+
+    public double getSplRangeDb() {
+        return splRangeDb;
+    }
+
+    /**
+     * Rebuilds the table for the given SPL Range, unless it is already up to
+     * date for the same quantization and range.
+     *
+     * @param indexBuffer
+     *            The index buffer whose codes this table maps
+     * @param pCeilingDb
+     *            The SPL that maps to the top of the palette
+     * @param pSplRangeDb
+     *            The SPL Range below the ceiling that spans the palette
+     * @return {@code true} if the table was rebuilt
+     */
+    public boolean update( final SplIndexBuffer indexBuffer,
+                           final double pCeilingDb,
+                           final double pSplRangeDb ) {
+        if ( ( Double.compare( baseDb, indexBuffer.getBaseDb() ) == 0 )
+                && ( Double.compare( stepDb, indexBuffer.getStepDb() ) == 0 )
+                && ( Double.compare( ceilingDb, pCeilingDb ) == 0 )
+                && ( Double.compare( splRangeDb, pSplRangeDb ) == 0 ) ) {
+            return false;
+        }
+
+        baseDb = indexBuffer.getBaseDb();
+        stepDb = indexBuffer.getStepDb();
+        ceilingDb = pCeilingDb;
+        splRangeDb = pSplRangeDb;
+
+        final double floorDb = ceilingDb - splRangeDb;
+        final double inverseSplRangeDb = 1.0d / Math.max( Double.MIN_NORMAL, splRangeDb );
+        for ( int code = 0; code <= SplIndexBuffer.MAXIMUM_DATA_CODE; code++ ) {
+            final double normalizedValue = ( indexBuffer.getDb( code ) - floorDb )
+                    * inverseSplRangeDb;
+            final int colorIndex = JetPalette.getColorIndex( normalizedValue );
+            colorIndices[ code ] = ( byte ) colorIndex;
+            argbColors[ code ] = JetPalette.getArgb( colorIndex );
+        }
+
+        colorIndices[ SplIndexBuffer.NO_DATA_CODE ] = 0;
+        argbColors[ SplIndexBuffer.NO_DATA_CODE ] = JetPalette.NO_DATA_ARGB;
+
+        return true;
+    }
+}
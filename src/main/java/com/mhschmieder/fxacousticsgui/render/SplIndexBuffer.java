@@ -0,0 +1,317 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import com.mhschmieder.fxacousticsgui.soundfield.MappedSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.QuantizedSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@code SplIndexBuffer} holds a Sound Field SPL grid quantized into compact
+ * 12-bit codes, spanning the Auto-Range SPL floor and ceiling of the grid plus
+ * a margin, so that a few outliers do not coarsen the codes of the range that
+ * is actually displayed. Cells beyond the span are clamped to the end codes.
+ * <p>
+ * A manual SPL Range whose palette floor lies below the span would show the
+ * clamped cells in the wrong color, so the span also reaches down to any such
+ * floor that is requested, and {@link #isSpanning} tells when a new SPL Range
+ * needs the grid to be quantized again.
+ * <p>
+ * The grid is quantized once per prediction, after which any change of SPL
+ * Range only needs a new {@link SplColorLookupTable} with one entry per code,
+ * rather than floating-point math on every cell of the grid. With 4095 data
+ * codes, a 60 dB span still has a resolution of about 0.015 dB per code.
+ *
+ * @version 1.0
+ */
+public final class SplIndexBuffer {
+
+    // Declare the number of codes, including the reserved no-data code.
+    public static final int    NUMBER_OF_CODES   = 4096;
+
+    // Declare the code for cells with no valid SPL, such as masked cells.
+    public static final int    NO_DATA_CODE      = NUMBER_OF_CODES - 1;
+
+    // Declare the highest code that represents a valid SPL.
+    public static final int    MAXIMUM_DATA_CODE = NO_DATA_CODE - 1;
+
+    // Declare the margin that the span extends beyond the floor and ceiling,
+    // which covers SPL Ranges that are set somewhat wider than the Auto-Range
+    // SPL without quantizing the grid again.
+    public static final double SPAN_MARGIN_DB    = 20.0d;
+
+    // Declare the target number of cells per parallel quantization task.
+    private static final int   CELLS_PER_BAND    = 1 << 15;
+
+    // Declare the dimensions of the quantized grid.
+    private final int          numberOfColumns;
+    private final int          numberOfRows;
+
+    // Declare the quantized codes, in row-major order.
+    private final short[]      codes;
+
+    // Declare the SPL of code zero, and the SPL increment per code.
+    private double             baseDb;
+    private double             stepDb;
+
+    // Declare the SPL below which valid cells were clamped to code zero, which
+    // is negative infinity if no cell lies below the span.
+    private double             clampDb;
+
+    public SplIndexBuffer( final int pNumberOfColumns, final int pNumberOfRows ) {
+        numberOfColumns = pNumberOfColumns;
+        numberOfRows = pNumberOfRows;
+
+        codes = new short[ numberOfColumns * numberOfRows ];
+
+        baseDb = 0.0d;
+        stepDb = 1.0d;
+        clampDb = Double.NEGATIVE_INFINITY;
+    }
+
+    public double getBaseDb() {
+        return baseDb;
+    }
+
+    public short[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * Returns the SPL that the given data code represents.
+     *
+     * @param code
+     *            The data code, from 0 to {@link #MAXIMUM_DATA_CODE}
+     * @return The SPL at the center of the code's quantization step
+     */
+    public double getDb( final int code ) {
+        return baseDb + ( code * stepDb );
+    }
+
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    public double getStepDb() {
+        return stepDb;
+    }
+
+    /**
+     * Returns whether every cell at or above the given SPL, such as the floor
+     * of the palette for an SPL Range, has a code of its own rather than being
+     * clamped to code zero.
+     *
+     * @param splDb
+     *            The lowest SPL that must be resolved
+     * @return {@code true} if no cell at or above the SPL was clamped
+     */
+    public boolean isSpanning( final double splDb ) {
+        return splDb >= clampDb;
+    }
+
+    /**
+     * Quantizes the given SPL grid over the span of its SPL statistics, in
+     * parallel on the given fork-join pool.
+     *
+     * @param forkJoinPool
+     *            The pool to quantize the grid on
+     * @param splGrid
+     *            The SPL grid, matching the buffer dimensions
+     * @param splRange
+     *            The SPL statistics of the grid, whose floor and ceiling the
+     *            codes span, plus the margin, within the extrema
+     */
+    public void quantize( final ForkJoinPool forkJoinPool,
+                          final SplGrid splGrid,
+                          final SplRange splRange ) {
+        quantize( forkJoinPool, splGrid, splRange, Double.POSITIVE_INFINITY );
+    }
+
+    /**
+     * Quantizes the given SPL grid over the span of its SPL statistics, and
+     * down to the given palette floor if that is lower, in parallel on the
+     * given fork-join pool.
+     * <p>
+     * Each task copies its rows one at a time, so a large grid is never copied
+     * to the heap as a whole. A {@link MappedSplGrid} is instead read a tile
+     * at a time, straight from its zero-copy tile views, so each task touches
+     * whole tiles of the mapping rather than one row of every tile. A
+     * {@link QuantizedSplGrid} is re-quantized through a table with one entry
+     * per grid code, which needs just one lookup per cell.
+     *
+     * @param forkJoinPool
+     *            The pool to quantize the grid on
+     * @param splGrid
+     *            The SPL grid, matching the buffer dimensions
+     * @param splRange
+     *            The SPL statistics of the grid, whose floor and ceiling the
+     *            codes span, plus the margin, within the extrema
+     * @param paletteFloorDb
+     *            The lowest SPL that the palette resolves, such as the ceiling
+     *            less a manual SPL Range, which the codes also span
+     */
+    public void quantize( final ForkJoinPool forkJoinPool,
+                          final SplGrid splGrid,
+                          final SplRange splRange,
+                          final double paletteFloorDb ) {
+        if ( ( splGrid.getNumberOfColumns() != numberOfColumns )
+                || ( splGrid.getNumberOfRows() != numberOfRows ) ) {
+            throw new IllegalArgumentException( "SPL grid dimensions do not match" ); //$NON-NLS-1$
+        }
+
+        setSpan( splRange, paletteFloorDb );
+
+        if ( splGrid instanceof QuantizedSplGrid ) {
+            quantizeCodes( forkJoinPool, ( QuantizedSplGrid ) splGrid );
+            return;
+        }
+        if ( splGrid instanceof MappedSplGrid ) {
+            quantizeTiles( forkJoinPool, ( MappedSplGrid ) splGrid );
+            return;
+        }
+
+        final double inverseStepDb = 1.0d / stepDb;
+        forkJoinPool.invoke( new RowBandAction( ( firstRow, lastRow ) -> {
+            final double[] rowSplDb = new double[ numberOfColumns ];
+            for ( int row = firstRow; row < lastRow; row++ ) {
+                final int rowIndex = row * numberOfColumns;
+                splGrid.copySplDb( rowIndex, rowIndex + numberOfColumns, rowSplDb, 0 );
+                for ( int column = 0; column < numberOfColumns; column++ ) {
+                    codes[ rowIndex + column ] = ( short ) getCode( rowSplDb[ column ],
+                                                                    inverseStepDb );
+                }
+            }
+        }, 0, numberOfRows, RowBandAction.getRowsPerBand( numberOfColumns, CELLS_PER_BAND ) ) );
+    }
+
+    // Re-quantizes a quantized grid, as each grid code maps to one buffer code.
+    private void quantizeCodes( final ForkJoinPool forkJoinPool, final QuantizedSplGrid splGrid ) {
+        final double inverseStepDb = 1.0d / stepDb;
+        final int noDataCode = splGrid.getNoDataCode();
+        final short[] codeMap = new short[ noDataCode + 1 ];
+        final int numberOfLevels = splGrid.getNumberOfLevels();
+        for ( int gridCode = 0; gridCode < numberOfLevels; gridCode++ ) {
+            codeMap[ gridCode ] = ( short ) getCode( splGrid.getDb( gridCode ), inverseStepDb );
+        }
+        for ( int gridCode = numberOfLevels; gridCode <= noDataCode; gridCode++ ) {
+            codeMap[ gridCode ] = ( short ) NO_DATA_CODE;
+        }
+
+        final byte[] byteCodes = splGrid.getByteCodes();
+        final short[] shortCodes = splGrid.getShortCodes();
+        forkJoinPool.invoke( new RowBandAction( ( firstRow, lastRow ) -> {
+            final int lastIndex = lastRow * numberOfColumns;
+            if ( byteCodes != null ) {
+                for ( int i = firstRow * numberOfColumns; i < lastIndex; i++ ) {
+                    codes[ i ] = codeMap[ byteCodes[ i ] & 0xFF ];
+                }
+            }
+            else {
+                for ( int i = firstRow * numberOfColumns; i < lastIndex; i++ ) {
+                    codes[ i ] = codeMap[ shortCodes[ i ] & 0xFFFF ];
+                }
+            }
+        }, 0, numberOfRows, RowBandAction.getRowsPerBand( numberOfColumns, CELLS_PER_BAND ) ) );
+    }
+
+    // Quantizes a mapped grid in bands of whole tile rows, reading each tile
+    // from its view of the mapping.
+    private void quantizeTiles( final ForkJoinPool forkJoinPool, final MappedSplGrid splGrid ) {
+        final double inverseStepDb = 1.0d / stepDb;
+        final int tileSize = splGrid.getTileSize();
+        final int numberOfTileColumns = splGrid.getNumberOfTileColumns();
+        final int tileRowsPerBand = RowBandAction.getRowsPerBand( numberOfColumns * tileSize,
+                                                                  CELLS_PER_BAND );
+        final RowBandOperation operation = ( firstTileRow, lastTileRow ) -> {
+            for ( int tileRow = firstTileRow; tileRow < lastTileRow; tileRow++ ) {
+                final int tileRows = splGrid.getTileRows( tileRow );
+                for ( int tileColumn = 0; tileColumn < numberOfTileColumns; tileColumn++ ) {
+                    final FloatBuffer tile = splGrid.getTile( tileColumn, tileRow );
+                    final int tileColumns = splGrid.getTileColumns( tileColumn );
+                    final int firstIndex = ( tileRow * tileSize * numberOfColumns )
+                            + ( tileColumn * tileSize );
+                    for ( int row = 0; row < tileRows; row++ ) {
+                        final int rowIndex = firstIndex + ( row * numberOfColumns );
+                        final int tileRowOffset = row * tileSize;
+                        for ( int column = 0; column < tileColumns; column++ ) {
+                            codes[ rowIndex + column ] = ( short ) getCode( tile
+                                    .get( tileRowOffset + column ), inverseStepDb );
+                        }
+                    }
+                }
+            }
+        };
+        forkJoinPool.invoke( new RowBandAction( operation,
+                                                0,
+                                                splGrid.getNumberOfTileRows(),
+                                                tileRowsPerBand ) );
+    }
+
+    private int getCode( final double splDb, final double inverseStepDb ) {
+        // NOTE: This comparison is false for NaN as well as for infinity.
+        if ( !( Math.abs( splDb ) <= Double.MAX_VALUE ) ) {
+            return NO_DATA_CODE;
+        }
+
+        final int code = ( int ) ( ( ( splDb - baseDb ) * inverseStepDb ) + 0.5d );
+        return Math.max( 0, Math.min( MAXIMUM_DATA_CODE, code ) );
+    }
+
+    private void setSpan( final SplRange splRange, final double paletteFloorDb ) {
+        // Never span beyond the extrema, so that a grid that lies within the
+        // margin keeps the finest codes it can get.
+        // NOTE: The palette tops out at the ceiling, which the margin already
+        //  covers, so only its floor can widen the span.
+        final double lowerDb = Math.max( splRange.getMinimumDb(),
+                                         Math.min( splRange.getFloorDb() - SPAN_MARGIN_DB,
+                                                   paletteFloorDb ) );
+        final double upperDb = Math.min( splRange.getMaximumDb(),
+                                         splRange.getCeilingDb() + SPAN_MARGIN_DB );
+        clampDb = ( lowerDb > splRange.getMinimumDb() ) ? lowerDb : Double.NEGATIVE_INFINITY;
+        if ( upperDb > lowerDb ) {
+            baseDb = lowerDb;
+            stepDb = ( upperDb - lowerDb ) / MAXIMUM_DATA_CODE;
+            return;
+        }
+
+        // Flat (or empty) grids have no span, so all valid cells get code 0.
+        baseDb = ( Math.abs( lowerDb ) <= Double.MAX_VALUE ) ? lowerDb : 0.0d;
+        stepDb = 1.0d;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+/**
+ * {@code SplIsobar} is an immutable set of contour lines of a Sound Field at
+ * one SPL level, as produced by the {@link SplIsobarGenerator}.
+ * <p>
+ * Each polyline is a packed array of {@code x, y} pairs in grid coordinates,
+ * where integer coordinates fall on the SPL grid cells. A closed polyline
+ * implicitly connects its last point back to its first. An open polyline ends
+ * at the edge of the grid, or next to masked cells.
+ *
+ * @version 1.0
+ */
+public final class SplIsobar {
+
+    // Declare the SPL level of the isobar.
+    private final double    levelDb;
+
+    // Declare the polylines, and whether each of them is closed.
+    private final float[][] polylines;
+    private final boolean[] closed;
+
+    public SplIsobar( final double pLevelDb,
+                      final float[][] pPolylines,
+                      final boolean[] pClosed ) {
+        levelDb = pLevelDb;
+        polylines = pPolylines;
+        closed = pClosed;
+    }
+
+    public double getLevelDb() {
+        return levelDb;
+    }
+
+    public int getNumberOfPoints() {
+        int numberOfPoints = 0;
+        for ( final float[] polyline : polylines ) {
+            numberOfPoints += polyline.length >> 1;
+        }
+        return numberOfPoints;
+    }
+
+    public int getNumberOfPolylines() {
+        return polylines.length;
+    }
+
+    /**
+     * Returns a polyline of this isobar, which must not be modified.
+     *
+     * @param polylineIndex
+     *            The index of the polyline
+     * @return The packed {@code x, y} pairs of the polyline, in grid
+     *         coordinates
+     */
+    public float[] getPolyline( final int polylineIndex ) {
+        return polylines[ polylineIndex ];
+    }
+
+    public boolean isClosed( final int polylineIndex ) {
+        return closed[ polylineIndex ];
+    }
+
+    public boolean isEmpty() {
+        return polylines.length == 0;
+    }
+}
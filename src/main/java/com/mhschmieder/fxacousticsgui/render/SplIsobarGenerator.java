@@ -0,0 +1,838 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import com.mhschmieder.fxacousticsgui.soundfield.SplGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@code SplIsobarGenerator} contours a Sound Field SPL grid into isobars at
+ * every multiple of an SPL step within the displayed SPL Range, using
+ * marching squares.
+ * <p>
+ * The grid is split into square tiles that are contoured in parallel on a
+ * fork-join pool, with all of the missing levels contoured in the same pass
+ * over each tile. Within a tile, segments are chained through arrays indexed
+ * by tile edge. The resulting fragments only remain open where they cross a
+ * tile edge (or the grid edge, or masked cells), and are then stitched across
+ * tiles by the global ids of the grid edges their ends lie on.
+ * <p>
+ * Isobars are cached per model revision, frequency band and level. As the
+ * levels are multiples of the step, rather than offsets from the ceiling, a
+ * change of SPL Range or step only contours the levels that were not already
+ * cached, and returning to an earlier setting contours nothing at all.
+ *
+ * @version 1.0
+ */
+public final class SplIsobarGenerator {
+
+    // Declare the default number of grid squares per tile side.
+    public static final int                        TILE_SIZE_DEFAULT      = 128;
+
+    // Declare the default number of cached isobars (one per level).
+    public static final int                        CACHE_CAPACITY_DEFAULT = 512;
+
+    // Declare the two edges that the isobar crosses for each marching squares
+    // case, with edges numbered clockwise from the top, and with the corners
+    // that are at or above the level as bits, clockwise from the top left.
+    // NOTE: The saddle cases 5 and 10 are resolved from the center value.
+    private static final int[]                     CASE_FIRST_EDGE        = {
+                                                                              -1, 3, 0, 3, 1, -1, 0, 2,
+                                                                              2, 0, -1, 1, 3, 0, 3, -1 };
+    private static final int[]                     CASE_SECOND_EDGE       = {
+                                                                              -1, 0, 1, 1, 2, -1, 2, 3,
+                                                                              3, 2, -1, 2, 1, 1, 0, -1 };
+
+    // Declare the pool that the tiles are contoured on.
+    private final ForkJoinPool                     forkJoinPool;
+
+    // Declare the number of grid squares per tile side.
+    private final int                              tileSize;
+
+    // Declare the cached isobars, in order of access from least recent.
+    private final int                              cacheCapacity;
+    private final Map< IsobarKey, SplIsobar >      isobars;
+
+    // Declare the per-thread scratch buffers for contouring a tile.
+    private final ThreadLocal< TileScratch >       tileScratches;
+
+    // Count the levels that had to be contoured, for diagnostics.
+    private long                                   numberOfContouredLevels;
+
+    public SplIsobarGenerator( final ForkJoinPool pForkJoinPool ) {
+        this( pForkJoinPool, TILE_SIZE_DEFAULT, CACHE_CAPACITY_DEFAULT );
+    }
+
+    public SplIsobarGenerator( final ForkJoinPool pForkJoinPool,
+                               final int pTileSize,
+                               final int pCacheCapacity ) {
+        if ( pTileSize < 1 ) {
+            throw new IllegalArgumentException( "Tile size must be positive" ); //$NON-NLS-1$
+        }
+
+        forkJoinPool = pForkJoinPool;
+        tileSize = pTileSize;
+        cacheCapacity = pCacheCapacity;
+
+        isobars = new LinkedHashMap<>( 16, 0.75f, true );
+        tileScratches = ThreadLocal.withInitial( () -> new TileScratch( tileSize ) );
+        numberOfContouredLevels = 0L;
+    }
+
+    /**
+     * Drops every cached isobar, such as when the model has changed in a way
+     * that its revision does not capture.
+     */
+    public synchronized void clear() {
+        isobars.clear();
+    }
+
+    private SplIsobar[] contour( final SplGrid splGrid,
+                                 final int numberOfColumns,
+                                 final int numberOfRows,
+                                 final double[] levelsDb ) {
+        final int squareColumns = numberOfColumns - 1;
+        final int squareRows = numberOfRows - 1;
+        final int tileColumns = Math.max( 0, ( squareColumns + tileSize - 1 ) / tileSize );
+        final int tileRows = Math.max( 0, ( squareRows + tileSize - 1 ) / tileSize );
+
+        // Contour every tile at every level, into fragments per tile and level.
+        final Fragment[][][] tileFragments = new Fragment[ tileColumns * tileRows ][][];
+        if ( tileFragments.length > 0 ) {
+            forkJoinPool.invoke( new TileContourAction( this,
+                                                        splGrid,
+                                                        numberOfColumns,
+                                                        numberOfRows,
+                                                        tileColumns,
+                                                        levelsDb,
+                                                        tileFragments,
+                                                        0,
+                                                        tileFragments.length ) );
+        }
+
+        final SplIsobar[] levelIsobars = new SplIsobar[ levelsDb.length ];
+        for ( int levelIndex = 0; levelIndex < levelsDb.length; levelIndex++ ) {
+            final List< Fragment > fragments = new ArrayList<>();
+            for ( final Fragment[][] levelFragments : tileFragments ) {
+                fragments.addAll( Arrays.asList( levelFragments[ levelIndex ] ) );
+            }
+            levelIsobars[ levelIndex ] = stitch( levelsDb[ levelIndex ], fragments );
+        }
+        return levelIsobars;
+    }
+
+    private Fragment[][] contourTile( final SplGrid splGrid,
+                                      final int numberOfColumns,
+                                      final int numberOfRows,
+                                      final int tileColumns,
+                                      final int tileIndex,
+                                      final double[] levelsDb ) {
+        final TileScratch scratch = tileScratches.get();
+        final int firstColumn = ( tileIndex % tileColumns ) * tileSize;
+        final int firstRow = ( tileIndex / tileColumns ) * tileSize;
+        final int squareColumns = Math.min( tileSize, numberOfColumns - 1 - firstColumn );
+        final int squareRows = Math.min( tileSize, numberOfRows - 1 - firstRow );
+        final int sampleColumns = squareColumns + 1;
+
+        // Copy the samples of the tile, including the shared last row and
+        // column, so that each one is only read from the grid once.
+        final double[] samples = scratch.samples;
+        for ( int row = 0; row <= squareRows; row++ ) {
+            final int gridIndex = ( ( firstRow + row ) * numberOfColumns ) + firstColumn;
+            splGrid.copySplDb( gridIndex, gridIndex + sampleColumns, samples, row * sampleColumns );
+        }
+
+        // Find the SPL span of each square, which is NaN if it is masked, so
+        // that each level only visits the squares it crosses.
+        final double[] minimumDb = scratch.minimumDb;
+        final double[] maximumDb = scratch.maximumDb;
+        for ( int row = 0; row < squareRows; row++ ) {
+            for ( int column = 0; column < squareColumns; column++ ) {
+                final int sampleIndex = ( row * sampleColumns ) + column;
+                final double topLeftDb = samples[ sampleIndex ];
+                final double topRightDb = samples[ sampleIndex + 1 ];
+                final double bottomLeftDb = samples[ sampleIndex + sampleColumns ];
+                final double bottomRightDb = samples[ sampleIndex + sampleColumns + 1 ];
+                final int squareIndex = ( row * squareColumns ) + column;
+                minimumDb[ squareIndex ] = Math.min( Math.min( topLeftDb, topRightDb ),
+                                                     Math.min( bottomLeftDb, bottomRightDb ) );
+                maximumDb[ squareIndex ] = Math.max( Math.max( topLeftDb, topRightDb ),
+                                                     Math.max( bottomLeftDb, bottomRightDb ) );
+            }
+        }
+
+        final Fragment[][] levelFragments = new Fragment[ levelsDb.length ][];
+        for ( int levelIndex = 0; levelIndex < levelsDb.length; levelIndex++ ) {
+            final double levelDb = levelsDb[ levelIndex ];
+            scratch.reset();
+            for ( int row = 0; row < squareRows; row++ ) {
+                for ( int column = 0; column < squareColumns; column++ ) {
+                    final int squareIndex = ( row * squareColumns ) + column;
+
+                    // NOTE: These comparisons are false for masked squares.
+                    if ( !( ( minimumDb[ squareIndex ] < levelDb )
+                            && ( levelDb <= maximumDb[ squareIndex ] ) ) ) {
+                        continue;
+                    }
+
+                    final int sampleIndex = ( row * sampleColumns ) + column;
+                    final double topLeftDb = samples[ sampleIndex ];
+                    final double topRightDb = samples[ sampleIndex + 1 ];
+                    final double bottomRightDb = samples[ sampleIndex + sampleColumns + 1 ];
+                    final double bottomLeftDb = samples[ sampleIndex + sampleColumns ];
+                    final int caseIndex = ( ( topLeftDb >= levelDb ) ? 1 : 0 )
+                            | ( ( topRightDb >= levelDb ) ? 2 : 0 )
+                            | ( ( bottomRightDb >= levelDb ) ? 4 : 0 )
+                            | ( ( bottomLeftDb >= levelDb ) ? 8 : 0 );
+
+                    if ( ( caseIndex == 5 ) || ( caseIndex == 10 ) ) {
+                        // Keep the corners on the same side as the center
+                        // connected, and cut off the other two.
+                        final boolean centerAbove = ( 0.25d * ( topLeftDb + topRightDb
+                                + bottomRightDb + bottomLeftDb ) ) >= levelDb;
+                        if ( centerAbove == ( caseIndex == 5 ) ) {
+                            scratch.addSegment( row, column, 0, 1, sampleColumns, levelDb );
+                            scratch.addSegment( row, column, 2, 3, sampleColumns, levelDb );
+                        }
+                        else {
+                            scratch.addSegment( row, column, 3, 0, sampleColumns, levelDb );
+                            scratch.addSegment( row, column, 1, 2, sampleColumns, levelDb );
+                        }
+                    }
+                    else {
+                        scratch.addSegment( row,
+                                            column,
+                                            CASE_FIRST_EDGE[ caseIndex ],
+                                            CASE_SECOND_EDGE[ caseIndex ],
+                                            sampleColumns,
+                                            levelDb );
+                    }
+                }
+            }
+
+            levelFragments[ levelIndex ] = scratch.chainSegments( firstColumn,
+                                                                  firstRow,
+                                                                  sampleColumns,
+                                                                  numberOfColumns );
+        }
+
+        return levelFragments;
+    }
+
+    public int getCacheCapacity() {
+        return cacheCapacity;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    /**
+     * Returns the isobars of an SPL grid of any storage, contouring only the
+     * levels that are not already cached for its model revision and band.
+     *
+     * @param splGrid
+     *            The SPL grid, which must not be modified while the model
+     *            revision stays the same
+     * @param modelRevision
+     *            The revision of the model that the grid was predicted from
+     * @param frequencyBandIndex
+     *            The index of the frequency band of the grid
+     * @param ceilingDb
+     *            The SPL at the top of the SPL Range
+     * @param splRangeDb
+     *            The SPL Range below the ceiling to contour
+     * @param stepDb
+     *            The SPL step between isobars
+     * @return The isobars, from the lowest level to the highest
+     */
+    public List< SplIsobar > getIsobars( final SplGrid splGrid,
+                                         final long modelRevision,
+                                         final int frequencyBandIndex,
+                                         final double ceilingDb,
+                                         final double splRangeDb,
+                                         final double stepDb ) {
+        final double[] levelsDb = getLevelsDb( ceilingDb, splRangeDb, stepDb );
+        final SplIsobar[] levelIsobars = new SplIsobar[ levelsDb.length ];
+
+        // Look up every level first, and contour all of the missing ones in a
+        // single pass over the grid.
+        final double[] missingLevelsDb = new double[ levelsDb.length ];
+        final int[] missingLevelIndices = new int[ levelsDb.length ];
+        int numberOfMissingLevels = 0;
+        synchronized ( this ) {
+            for ( int levelIndex = 0; levelIndex < levelsDb.length; levelIndex++ ) {
+                levelIsobars[ levelIndex ] = isobars.get( new IsobarKey( modelRevision,
+                                                                         frequencyBandIndex,
+                                                                         levelsDb[ levelIndex ] ) );
+                if ( levelIsobars[ levelIndex ] == null ) {
+                    missingLevelsDb[ numberOfMissingLevels ] = levelsDb[ levelIndex ];
+                    missingLevelIndices[ numberOfMissingLevels ] = levelIndex;
+                    numberOfMissingLevels++;
+                }
+            }
+        }
+
+        if ( numberOfMissingLevels > 0 ) {
+            final SplIsobar[] contouredIsobars = contour( splGrid,
+                                                          splGrid.getNumberOfColumns(),
+                                                          splGrid.getNumberOfRows(),
+                                                          Arrays.copyOf( missingLevelsDb,
+                                                                         numberOfMissingLevels ) );
+            synchronized ( this ) {
+                for ( int i = 0; i < numberOfMissingLevels; i++ ) {
+                    levelIsobars[ missingLevelIndices[ i ] ] = contouredIsobars[ i ];
+                    isobars.put( new IsobarKey( modelRevision,
+                                                frequencyBandIndex,
+                                                missingLevelsDb[ i ] ),
+                                 contouredIsobars[ i ] );
+                }
+                numberOfContouredLevels += numberOfMissingLevels;
+
+                final Iterator< SplIsobar > iterator = isobars.values().iterator();
+                while ( ( isobars.size() > cacheCapacity ) && iterator.hasNext() ) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+
+        return Collections.unmodifiableList( Arrays.asList( levelIsobars ) );
+    }
+
+    /**
+     * Returns the SPL levels to contour, which are the multiples of the step
+     * that lie within the SPL Range below the ceiling.
+     *
+     * @param ceilingDb
+     *            The SPL at the top of the SPL Range
+     * @param splRangeDb
+     *            The SPL Range below the ceiling
+     * @param stepDb
+     *            The SPL step between isobars
+     * @return The SPL levels, in increasing order
+     */
+    public static double[] getLevelsDb( final double ceilingDb,
+                                        final double splRangeDb,
+                                        final double stepDb ) {
+        if ( !( stepDb > 0.0d ) || !( splRangeDb >= 0.0d ) || Double.isNaN( ceilingDb )
+                || Double.isInfinite( ceilingDb ) ) {
+            return new double[ 0 ];
+        }
+
+        // Allow for rounding, so that a level on the ceiling or floor counts.
+        final double tolerance = 1.0e-9d * stepDb;
+        final long firstLevel = ( long ) Math.ceil( ( ( ceilingDb - splRangeDb ) / stepDb )
+                - tolerance );
+        final long lastLevel = ( long ) Math.floor( ( ceilingDb / stepDb ) + tolerance );
+        final double[] levelsDb = new double[ ( int ) Math.max( 0L, ( lastLevel - firstLevel ) + 1L ) ];
+        for ( int levelIndex = 0; levelIndex < levelsDb.length; levelIndex++ ) {
+            levelsDb[ levelIndex ] = ( firstLevel + levelIndex ) * stepDb;
+        }
+        return levelsDb;
+    }
+
+    public synchronized long getNumberOfContouredLevels() {
+        return numberOfContouredLevels;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    private static SplIsobar stitch( final double levelDb, final List< Fragment > fragments ) {
+        final List< float[] > polylines = new ArrayList<>();
+        final List< Boolean > closed = new ArrayList<>();
+
+        // Index the open ends by the grid edge they lie on, which is shared by
+        // at most one other end, across a tile edge.
+        final int numberOfFragments = fragments.size();
+        final Map< Long, int[] > ends = new HashMap<>();
+        for ( int fragmentIndex = 0; fragmentIndex < numberOfFragments; fragmentIndex++ ) {
+            final Fragment fragment = fragments.get( fragmentIndex );
+            if ( fragment.closed ) {
+                polylines.add( fragment.points );
+                closed.add( Boolean.TRUE );
+                continue;
+            }
+            addEnd( ends, fragment.firstEdgeId, fragmentIndex << 1 );
+            addEnd( ends, fragment.lastEdgeId, ( fragmentIndex << 1 ) | 1 );
+        }
+
+        // Chain the fragments from each unmatched end first, and then whatever
+        // is left, which can only be loops that span several tiles.
+        final boolean[] visited = new boolean[ numberOfFragments ];
+        final PointBuffer points = new PointBuffer();
+        for ( int pass = 0; pass < 2; pass++ ) {
+            for ( int fragmentIndex = 0; fragmentIndex < numberOfFragments; fragmentIndex++ ) {
+                final Fragment fragment = fragments.get( fragmentIndex );
+                if ( visited[ fragmentIndex ] || fragment.closed ) {
+                    continue;
+                }
+
+                int startEnd = fragmentIndex << 1;
+                if ( pass == 0 ) {
+                    if ( getPartnerEnd( ends, fragment.firstEdgeId, startEnd ) >= 0 ) {
+                        startEnd |= 1;
+                        if ( getPartnerEnd( ends, fragment.lastEdgeId, startEnd ) >= 0 ) {
+                            continue;
+                        }
+                    }
+                }
+
+                points.clear();
+                int end = startEnd;
+                boolean loop = false;
+                while ( true ) {
+                    final int index = end >> 1;
+                    final Fragment current = fragments.get( index );
+                    visited[ index ] = true;
+                    points.append( current.points, ( end & 1 ) != 0, points.size() > 0 );
+
+                    final int exitEnd = end ^ 1;
+                    final int nextEnd = getPartnerEnd( ends,
+                                                       ( ( exitEnd & 1 ) == 0 )
+                                                           ? current.firstEdgeId
+                                                           : current.lastEdgeId,
+                                                       exitEnd );
+                    if ( nextEnd < 0 ) {
+                        break;
+                    }
+                    if ( visited[ nextEnd >> 1 ] ) {
+                        loop = ( nextEnd == startEnd );
+                        break;
+                    }
+                    end = nextEnd;
+                }
+
+                // A loop ends on the point it started from, so drop it.
+                if ( loop ) {
+                    points.removeLast();
+                }
+                polylines.add( points.toArray() );
+                closed.add( loop );
+            }
+        }
+
+        final boolean[] closedArray = new boolean[ closed.size() ];
+        for ( int i = 0; i < closedArray.length; i++ ) {
+            closedArray[ i ] = closed.get( i );
+        }
+        return new SplIsobar( levelDb, polylines.toArray( new float[ polylines.size() ][] ), closedArray );
+    }
+
+    private static void addEnd( final Map< Long, int[] > ends, final long edgeId, final int end ) {
+        final int[] edgeEnds = ends.computeIfAbsent( edgeId, key -> new int[] { -1, -1 } );
+        edgeEnds[ ( edgeEnds[ 0 ] < 0 ) ? 0 : 1 ] = end;
+    }
+
+    private static int getPartnerEnd( final Map< Long, int[] > ends,
+                                      final long edgeId,
+                                      final int end ) {
+        final int[] edgeEnds = ends.get( edgeId );
+        return ( edgeEnds[ 0 ] == end ) ? edgeEnds[ 1 ] : edgeEnds[ 0 ];
+    }
+
+    /**
+     * Identifies a cached isobar by the SPL grid and the level it contours.
+     */
+    private static final class IsobarKey {
+        private final long   modelRevision;
+        private final int    frequencyBandIndex;
+        private final double levelDb;
+
+        IsobarKey( final long pModelRevision,
+                   final int pFrequencyBandIndex,
+                   final double pLevelDb ) {
+            modelRevision = pModelRevision;
+            frequencyBandIndex = pFrequencyBandIndex;
+            levelDb = pLevelDb;
+        }
+
+        @Override
+        public boolean equals( final Object other ) {
+            if ( this == other ) {
+                return true;
+            }
+            if ( !( other instanceof IsobarKey ) ) {
+                return false;
+            }
+
+            final IsobarKey key = ( IsobarKey ) other;
+            return ( modelRevision == key.modelRevision )
+                    && ( frequencyBandIndex == key.frequencyBandIndex )
+                    && ( Double.compare( levelDb, key.levelDb ) == 0 );
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Long.hashCode( modelRevision );
+            hash = ( 31 * hash ) + frequencyBandIndex;
+            hash = ( 31 * hash ) + Double.hashCode( levelDb );
+            return hash;
+        }
+    }
+
+    /**
+     * Holds a chain of isobar segments from one tile, whose open ends are
+     * identified by the global ids of the grid edges they lie on.
+     */
+    private static final class Fragment {
+        private final float[] points;
+        private final long    firstEdgeId;
+        private final long    lastEdgeId;
+        private final boolean closed;
+
+        Fragment( final float[] pPoints,
+                  final long pFirstEdgeId,
+                  final long pLastEdgeId,
+                  final boolean pClosed ) {
+            points = pPoints;
+            firstEdgeId = pFirstEdgeId;
+            lastEdgeId = pLastEdgeId;
+            closed = pClosed;
+        }
+    }
+
+    /**
+     * Accumulates the packed points of a polyline, without boxing.
+     */
+    private static final class PointBuffer {
+        private float[] coordinates;
+        private int     numberOfCoordinates;
+
+        PointBuffer() {
+            coordinates = new float[ 64 ];
+            numberOfCoordinates = 0;
+        }
+
+        void add( final float x, final float y ) {
+            if ( ( numberOfCoordinates + 2 ) > coordinates.length ) {
+                coordinates = Arrays.copyOf( coordinates, coordinates.length << 1 );
+            }
+            coordinates[ numberOfCoordinates++ ] = x;
+            coordinates[ numberOfCoordinates++ ] = y;
+        }
+
+        // Append the points of a fragment, in reverse if entered from its
+        // last end, skipping the first point if it joins the previous one.
+        void append( final float[] points, final boolean reverse, final boolean skipFirst ) {
+            final int numberOfPoints = points.length >> 1;
+            for ( int i = skipFirst ? 1 : 0; i < numberOfPoints; i++ ) {
+                final int pointIndex = reverse ? ( numberOfPoints - 1 - i ) : i;
+                add( points[ pointIndex << 1 ], points[ ( pointIndex << 1 ) + 1 ] );
+            }
+        }
+
+        void clear() {
+            numberOfCoordinates = 0;
+        }
+
+        void removeLast() {
+            numberOfCoordinates -= 2;
+        }
+
+        int size() {
+            return numberOfCoordinates >> 1;
+        }
+
+        float[] toArray() {
+            return Arrays.copyOf( coordinates, numberOfCoordinates );
+        }
+    }
+
+    /**
+     * Holds the per-thread buffers for contouring one tile at one level, with
+     * the tile's edges indexed locally as {@code 2 * sampleIndex} for the
+     * horizontal edge to the right of a sample, and one more for the vertical
+     * edge below it.
+     */
+    private static final class TileScratch {
+        private final double[]    samples;
+        private final double[]    minimumDb;
+        private final double[]    maximumDb;
+
+        // Declare the crossing point on each edge, and the (up to two)
+        // segments that end on it.
+        private final float[]     edgeX;
+        private final float[]     edgeY;
+        private final int[]       edgeFirstSegments;
+        private final int[]       edgeSecondSegments;
+
+        // Declare the edges touched at the current level, to reset them.
+        private final int[]       touchedEdges;
+        private int               numberOfTouchedEdges;
+
+        // Declare the segments of the current level, by their two edges.
+        private final int[]       segmentFirstEdges;
+        private final int[]       segmentSecondEdges;
+        private final boolean[]   segmentVisited;
+        private int               numberOfSegments;
+
+        private final PointBuffer points;
+
+        TileScratch( final int tileSize ) {
+            final int numberOfSamples = ( tileSize + 1 ) * ( tileSize + 1 );
+            final int numberOfSquares = tileSize * tileSize;
+            samples = new double[ numberOfSamples ];
+            minimumDb = new double[ numberOfSquares ];
+            maximumDb = new double[ numberOfSquares ];
+
+            edgeX = new float[ 2 * numberOfSamples ];
+            edgeY = new float[ 2 * numberOfSamples ];
+            edgeFirstSegments = new int[ 2 * numberOfSamples ];
+            edgeSecondSegments = new int[ 2 * numberOfSamples ];
+            Arrays.fill( edgeFirstSegments, -1 );
+            Arrays.fill( edgeSecondSegments, -1 );
+            touchedEdges = new int[ 2 * numberOfSamples ];
+            numberOfTouchedEdges = 0;
+
+            segmentFirstEdges = new int[ 2 * numberOfSquares ];
+            segmentSecondEdges = new int[ 2 * numberOfSquares ];
+            segmentVisited = new boolean[ 2 * numberOfSquares ];
+            numberOfSegments = 0;
+
+            points = new PointBuffer();
+        }
+
+        void addSegment( final int row,
+                         final int column,
+                         final int firstEdge,
+                         final int secondEdge,
+                         final int sampleColumns,
+                         final double levelDb ) {
+            final int segment = numberOfSegments++;
+            segmentFirstEdges[ segment ] = linkEdge( row, column, firstEdge, sampleColumns, levelDb, segment );
+            segmentSecondEdges[ segment ] = linkEdge( row, column, secondEdge, sampleColumns, levelDb, segment );
+            segmentVisited[ segment ] = false;
+        }
+
+        // Chain the segments of the current level into fragments, starting
+        // with the chains that have a loose end, after which only closed
+        // loops can remain.
+        Fragment[] chainSegments( final int firstColumn,
+                                  final int firstRow,
+                                  final int sampleColumns,
+                                  final int numberOfColumns ) {
+            final List< Fragment > fragments = new ArrayList<>();
+            for ( int i = 0; i < numberOfTouchedEdges; i++ ) {
+                final int edge = touchedEdges[ i ];
+                final int segment = edgeFirstSegments[ edge ];
+                if ( ( edgeSecondSegments[ edge ] < 0 ) && !segmentVisited[ segment ] ) {
+                    fragments.add( chainFrom( edge,
+                                              segment,
+                                              false,
+                                              firstColumn,
+                                              firstRow,
+                                              sampleColumns,
+                                              numberOfColumns ) );
+                }
+            }
+            for ( int segment = 0; segment < numberOfSegments; segment++ ) {
+                if ( !segmentVisited[ segment ] ) {
+                    fragments.add( chainFrom( segmentFirstEdges[ segment ],
+                                              segment,
+                                              true,
+                                              firstColumn,
+                                              firstRow,
+                                              sampleColumns,
+                                              numberOfColumns ) );
+                }
+            }
+            return fragments.toArray( new Fragment[ fragments.size() ] );
+        }
+
+        private Fragment chainFrom( final int startEdge,
+                                    final int startSegment,
+                                    final boolean loop,
+                                    final int firstColumn,
+                                    final int firstRow,
+                                    final int sampleColumns,
+                                    final int numberOfColumns ) {
+            // Offset the points from the tile to the grid as they are chained.
+            points.clear();
+            points.add( firstColumn + edgeX[ startEdge ], firstRow + edgeY[ startEdge ] );
+
+            int edge = startEdge;
+            int segment = startSegment;
+            while ( ( segment >= 0 ) && !segmentVisited[ segment ] ) {
+                segmentVisited[ segment ] = true;
+                edge = ( segmentFirstEdges[ segment ] == edge )
+                    ? segmentSecondEdges[ segment ]
+                    : segmentFirstEdges[ segment ];
+                points.add( firstColumn + edgeX[ edge ], firstRow + edgeY[ edge ] );
+                segment = ( edgeFirstSegments[ edge ] == segment )
+                    ? edgeSecondSegments[ edge ]
+                    : edgeFirstSegments[ edge ];
+            }
+
+            // A loop ends on the point it started from, so drop it.
+            if ( loop ) {
+                points.removeLast();
+            }
+            return new Fragment( points.toArray(),
+                                 getGlobalEdgeId( startEdge, firstColumn, firstRow, sampleColumns, numberOfColumns ),
+                                 getGlobalEdgeId( edge, firstColumn, firstRow, sampleColumns, numberOfColumns ),
+                                 loop );
+        }
+
+        private static long getGlobalEdgeId( final int edge,
+                                             final int firstColumn,
+                                             final int firstRow,
+                                             final int sampleColumns,
+                                             final int numberOfColumns ) {
+            final int sampleIndex = edge >> 1;
+            final long gridIndex = ( ( long ) ( firstRow + ( sampleIndex / sampleColumns ) )
+                    * numberOfColumns ) + firstColumn + ( sampleIndex % sampleColumns );
+            return ( gridIndex << 1 ) | ( edge & 1 );
+        }
+
+        // Find the local id of the given edge of a square, recording the
+        // crossing point the first time the edge is touched at this level.
+        private int linkEdge( final int row,
+                              final int column,
+                              final int squareEdge,
+                              final int sampleColumns,
+                              final double levelDb,
+                              final int segment ) {
+            final int sampleRow = ( squareEdge == 2 ) ? row + 1 : row;
+            final int sampleColumn = ( squareEdge == 1 ) ? column + 1 : column;
+            final boolean vertical = ( squareEdge & 1 ) != 0;
+            final int sampleIndex = ( sampleRow * sampleColumns ) + sampleColumn;
+            final int edge = ( sampleIndex << 1 ) | ( vertical ? 1 : 0 );
+
+            if ( edgeFirstSegments[ edge ] < 0 ) {
+                // Always interpolate from the same sample, so that both sides
+                // of the edge would agree on the crossing point.
+                final double startDb = samples[ sampleIndex ];
+                final double endDb = samples[ sampleIndex + ( vertical ? sampleColumns : 1 ) ];
+                final float fraction = ( float ) ( ( levelDb - startDb ) / ( endDb - startDb ) );
+                edgeX[ edge ] = vertical ? sampleColumn : sampleColumn + fraction;
+                edgeY[ edge ] = vertical ? sampleRow + fraction : sampleRow;
+                edgeFirstSegments[ edge ] = segment;
+                touchedEdges[ numberOfTouchedEdges++ ] = edge;
+            }
+            else {
+                edgeSecondSegments[ edge ] = segment;
+            }
+            return edge;
+        }
+
+        void reset() {
+            for ( int i = 0; i < numberOfTouchedEdges; i++ ) {
+                edgeFirstSegments[ touchedEdges[ i ] ] = -1;
+                edgeSecondSegments[ touchedEdges[ i ] ] = -1;
+            }
+            numberOfTouchedEdges = 0;
+            numberOfSegments = 0;
+        }
+    }
+
+    /**
+     * Contours a contiguous range of tiles at every requested level.
+     */
+    private static final class TileContourAction extends RecursiveAction {
+        private static final long serialVersionUID = -4519364063785297813L;
+
+        private final SplIsobarGenerator generator;
+        private final SplGrid            splGrid;
+        private final int                numberOfColumns;
+        private final int                numberOfRows;
+        private final int                tileColumns;
+        private final double[]           levelsDb;
+        private final Fragment[][][]     tileFragments;
+        private final int                fromTile;
+        private final int                toTile;
+
+        TileContourAction( final SplIsobarGenerator pGenerator,
+                           final SplGrid pSplGrid,
+                           final int pNumberOfColumns,
+                           final int pNumberOfRows,
+                           final int pTileColumns,
+                           final double[] pLevelsDb,
+                           final Fragment[][][] pTileFragments,
+                           final int pFromTile,
+                           final int pToTile ) {
+            generator = pGenerator;
+            splGrid = pSplGrid;
+            numberOfColumns = pNumberOfColumns;
+            numberOfRows = pNumberOfRows;
+            tileColumns = pTileColumns;
+            levelsDb = pLevelsDb;
+            tileFragments = pTileFragments;
+            fromTile = pFromTile;
+            toTile = pToTile;
+        }
+
+        @Override
+        protected void compute() {
+            if ( ( toTile - fromTile ) <= 1 ) {
+                tileFragments[ fromTile ] = generator.contourTile( splGrid,
+                                                                   numberOfColumns,
+                                                                   numberOfRows,
+                                                                   tileColumns,
+                                                                   fromTile,
+                                                                   levelsDb );
+                return;
+            }
+
+            final int middleTile = ( fromTile + toTile ) >>> 1;
+            invokeAll( new TileContourAction( generator,
+                                              splGrid,
+                                              numberOfColumns,
+                                              numberOfRows,
+                                              tileColumns,
+                                              levelsDb,
+                                              tileFragments,
+                                              fromTile,
+                                              middleTile ),
+                       new TileContourAction( generator,
+                                              splGrid,
+                                              numberOfColumns,
+                                              numberOfRows,
+                                              tileColumns,
+                                              levelsDb,
+                                              tileFragments,
+                                              middleTile,
+                                              toTile ) );
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@code SplMipPyramid} holds reduced-resolution copies of the codes of an
+ * {@link SplIndexBuffer}, at 1/8 and then 1/4 of the full resolution, for
+ * progressive previews of a Sound Field image. Previews are colormapped at
+ * the resolution of their level, and left to the image view to scale up.
+ * <p>
+ * Each cell of a level holds the mean of the data codes it covers, which is
+ * the mean SPL as the codes are linear in dB, or the no-data code if it only
+ * covers masked cells. The 1/4 level is built from the full-resolution codes,
+ * and the 1/8 level from the 1/4 level, so the pyramid costs a little more
+ * than one pass over the codes per SPL grid.
+ *
+ * @version 1.0
+ */
+public final class SplMipPyramid {
+
+    // Declare the resolution of each level as a power-of-two reduction, from
+    // the coarsest level to the finest.
+    private static final int[] LEVEL_SHIFTS     = { 3, 2 };
+
+    // Declare the number of levels, excluding the full resolution.
+    public static final int    NUMBER_OF_LEVELS = LEVEL_SHIFTS.length;
+
+    // Declare the target number of full-resolution cells per parallel task.
+    private static final int   CELLS_PER_BAND   = 1 << 16;
+
+    // Declare the full-resolution dimensions, in cells.
+    private final int          numberOfColumns;
+    private final int          numberOfRows;
+
+    // Declare the dimensions and row-major codes of each level.
+    private final int[]        levelColumns;
+    private final int[]        levelRows;
+    private final short[][]    levelCodes;
+
+    public SplMipPyramid( final int pNumberOfColumns, final int pNumberOfRows ) {
+        numberOfColumns = pNumberOfColumns;
+        numberOfRows = pNumberOfRows;
+
+        levelColumns = new int[ NUMBER_OF_LEVELS ];
+        levelRows = new int[ NUMBER_OF_LEVELS ];
+        levelCodes = new short[ NUMBER_OF_LEVELS ][];
+        for ( int level = 0; level < NUMBER_OF_LEVELS; level++ ) {
+            final int shift = LEVEL_SHIFTS[ level ];
+            final int blockSize = 1 << shift;
+            levelColumns[ level ] = ( numberOfColumns + blockSize - 1 ) >> shift;
+            levelRows[ level ] = ( numberOfRows + blockSize - 1 ) >> shift;
+            levelCodes[ level ] = new short[ levelColumns[ level ] * levelRows[ level ] ];
+        }
+    }
+
+    /**
+     * Blits the given level into an image buffer at the resolution of the
+     * level, which costs 1/64 or 1/16 of a full-resolution blit.
+     *
+     * @param forkJoinPool
+     *            The pool to blit on
+     * @param level
+     *            The level to blit, where zero is the coarsest
+     * @param argbColors
+     *            The packed ARGB color of each code
+     * @param argbPixels
+     *            The packed ARGB image buffer to write to, which must hold at
+     *            least the number of cells of the level
+     * @param cancellation
+     *            The cancellation to poll between row bands
+     */
+    public void blit( final ForkJoinPool forkJoinPool,
+                      final int level,
+                      final int[] argbColors,
+                      final int[] argbPixels,
+                      final RenderCancellation cancellation ) {
+        final int levelNumberOfColumns = levelColumns[ level ];
+        final short[] codes = levelCodes[ level ];
+        forkJoinPool.invoke( new RowBandAction( ( firstLevelRow, lastLevelRow ) -> {
+            final int firstIndex = firstLevelRow * levelNumberOfColumns;
+            final int lastIndex = lastLevelRow * levelNumberOfColumns;
+            for ( int index = firstIndex; index < lastIndex; index++ ) {
+                argbPixels[ index ] = argbColors[ codes[ index ] ];
+            }
+        },
+                                                0,
+                                                levelRows[ level ],
+                                                RowBandAction.getRowsPerBand( levelNumberOfColumns,
+                                                                              CELLS_PER_BAND ),
+                                                cancellation ) );
+    }
+
+    /**
+     * Rebuilds every level from the codes of the given index buffer, which
+     * must have the same dimensions as this pyramid.
+     *
+     * @param forkJoinPool
+     *            The pool to build on
+     * @param indexBuffer
+     *            The quantized SPL grid
+     */
+    public void build( final ForkJoinPool forkJoinPool, final SplIndexBuffer indexBuffer ) {
+        // Build from the finest level to the coarsest, each from the next
+        // finer one, starting from the full-resolution codes.
+        short[] sourceCodes = indexBuffer.getCodes();
+        int sourceColumns = numberOfColumns;
+        int sourceRows = numberOfRows;
+        int sourceShift = 0;
+        for ( int level = NUMBER_OF_LEVELS - 1; level >= 0; level-- ) {
+            final int shift = LEVEL_SHIFTS[ level ] - sourceShift;
+            final short[] targetCodes = levelCodes[ level ];
+            final int targetColumns = levelColumns[ level ];
+            final short[] codes = sourceCodes;
+            final int columns = sourceColumns;
+            final int rows = sourceRows;
+            forkJoinPool.invoke( new RowBandAction( ( firstTargetRow, lastTargetRow ) -> {
+                final int[] codeSums = new int[ targetColumns ];
+                final int[] codeCounts = new int[ targetColumns ];
+                for ( int targetRow = firstTargetRow; targetRow < lastTargetRow; targetRow++ ) {
+                    reduceRow( codes,
+                               columns,
+                               targetRow << shift,
+                               Math.min( rows, ( targetRow + 1 ) << shift ),
+                               shift,
+                               codeSums,
+                               codeCounts,
+                               targetCodes,
+                               targetRow * targetColumns );
+                }
+            },
+                                                    0,
+                                                    levelRows[ level ],
+                                                    RowBandAction.getRowsPerBand( columns << shift,
+                                                                                  CELLS_PER_BAND ) ) );
+
+            sourceCodes = targetCodes;
+            sourceColumns = targetColumns;
+            sourceRows = levelRows[ level ];
+            sourceShift = LEVEL_SHIFTS[ level ];
+        }
+    }
+
+    public short[] getLevelCodes( final int level ) {
+        return levelCodes[ level ];
+    }
+
+    public int getLevelColumns( final int level ) {
+        return levelColumns[ level ];
+    }
+
+    public int getLevelRows( final int level ) {
+        return levelRows[ level ];
+    }
+
+    public int getLevelShift( final int level ) {
+        return LEVEL_SHIFTS[ level ];
+    }
+
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    // Reduce a block of source rows to one target row, averaging the data
+    // codes of each block of cells.
+    private static void reduceRow( final short[] sourceCodes,
+                                   final int sourceColumns,
+                                   final int firstSourceRow,
+                                   final int lastSourceRow,
+                                   final int shift,
+                                   final int[] codeSums,
+                                   final int[] codeCounts,
+                                   final short[] targetCodes,
+                                   final int targetOffset ) {
+        final int targetColumns = codeSums.length;
+        for ( int targetColumn = 0; targetColumn < targetColumns; targetColumn++ ) {
+            codeSums[ targetColumn ] = 0;
+            codeCounts[ targetColumn ] = 0;
+        }
+
+        for ( int sourceRow = firstSourceRow; sourceRow < lastSourceRow; sourceRow++ ) {
+            final int sourceOffset = sourceRow * sourceColumns;
+            for ( int sourceColumn = 0; sourceColumn < sourceColumns; sourceColumn++ ) {
+                final int code = sourceCodes[ sourceOffset + sourceColumn ];
+                if ( code != SplIndexBuffer.NO_DATA_CODE ) {
+                    codeSums[ sourceColumn >> shift ] += code;
+                    codeCounts[ sourceColumn >> shift ]++;
+                }
+            }
+        }
+
+        for ( int targetColumn = 0; targetColumn < targetColumns; targetColumn++ ) {
+            final int codeCount = codeCounts[ targetColumn ];
+            targetCodes[ targetOffset + targetColumn ] = ( codeCount == 0 )
+                ? SplIndexBuffer.NO_DATA_CODE
+                : ( short ) ( ( codeSums[ targetColumn ] + ( codeCount >> 1 ) ) / codeCount );
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * {@code AutoRangeSplService} decides how the Auto-Range SPL of a Sound Field
+ * is computed, according to the {@link AutoRangeMode}, and runs the reductions
+ * on the pool of its {@link SplRangeEngine}, so that a display only has to
+ * apply the results.
+ * <p>
+ * The ranges of multi-band Sound Fields are cached per band by a
+ * {@link MultiBandSplRangeService}, which shares the engine.
+ *
+ * @version 1.0
+ */
+public final class AutoRangeSplService {
+
+    // Declare the engine that auto-ranges single-band Sound Fields.
+    private final SplRangeEngine           splRangeEngine;
+
+    // Declare the per-band Auto-Range SPL cache for multi-band Sound Fields,
+    // so that stepping through frequency bands never rescans the SPL grid.
+    private final MultiBandSplRangeService multiBandSplRangeService;
+
+    // Declare the Auto-Range SPL Mode, and the error bound of approximate
+    // ranges.
+    private volatile AutoRangeMode         autoRangeMode;
+    private volatile double                approximateErrorBoundDb;
+
+    public AutoRangeSplService() {
+        this( new SplRangeEngine() );
+    }
+
+    public AutoRangeSplService( final SplRangeEngine pSplRangeEngine ) {
+        splRangeEngine = pSplRangeEngine;
+        multiBandSplRangeService = new MultiBandSplRangeService( splRangeEngine );
+
+        autoRangeMode = AutoRangeMode.defaultValue();
+        approximateErrorBoundDb = SplRangeEngine.APPROXIMATE_ERROR_BOUND_DB_DEFAULT;
+    }
+
+    /**
+     * Computes the Auto-Range SPL of every band of a band-interleaved SPL grid
+     * in the background, in one parallel pass, and caches the ranges for the
+     * model revision.
+     *
+     * @param bandGrid
+     *            The band-interleaved SPL grid, with one column per frequency
+     *            band and one row per cell
+     * @param modelRevision
+     *            The model revision that the SPL grid was predicted for
+     * @return The Auto-Range SPL of each band, indexed by frequency band
+     */
+    public CompletableFuture< SplRange[] > computeBandRangesAsync( final SplGrid bandGrid,
+                                                                   final long modelRevision ) {
+        return multiBandSplRangeService.computeRangesAsync( bandGrid, modelRevision );
+    }
+
+    /**
+     * Computes the exact Auto-Range SPL of an SPL grid in the background.
+     * <p>
+     * In Approximate Mode, a range within the approximate error bound is
+     * computed first and handed to the given consumer, on a pool thread, just
+     * before the exact reduction starts. Quantized grids are always ranged
+     * exactly, as counting codes is cheaper than any histogram.
+     *
+     * @param splGrid
+     *            The SPL grid, which must not be modified until the result is
+     *            complete
+     * @param consumer
+     *            The consumer of the approximate range, if one is computed
+     * @return The exact SPL Range of the grid
+     */
+    public CompletableFuture< SplRange > computeRangeAsync( final SplGrid splGrid,
+                                                            final Consumer< SplRange > consumer ) {
+        if ( !AutoRangeMode.APPROXIMATE.equals( autoRangeMode )
+                || ( splGrid instanceof QuantizedSplGrid ) ) {
+            return splRangeEngine.computeRangeAsync( splGrid );
+        }
+
+        return splRangeEngine.computeApproximateRangeAsync( splGrid, approximateErrorBoundDb )
+                .thenCompose( approximateRange -> {
+                    consumer.accept( approximateRange );
+                    return splRangeEngine.computeRangeAsync( splGrid );
+                } );
+    }
+
+    public double getApproximateErrorBoundDb() {
+        return approximateErrorBoundDb;
+    }
+
+    public AutoRangeMode getAutoRangeMode() {
+        return autoRangeMode;
+    }
+
+    /**
+     * Returns the cached Auto-Range SPL of one band of the last multi-band
+     * Sound Field, without touching its SPL grid.
+     *
+     * @param frequencyBandIndex
+     *            The index of the frequency band
+     * @return The cached range of the band, or {@code null} if it has not been
+     *         auto-ranged
+     */
+    public SplRange getBandRange( final int frequencyBandIndex ) {
+        return multiBandSplRangeService.getRange( frequencyBandIndex );
+    }
+
+    public MultiBandSplRangeService getMultiBandSplRangeService() {
+        return multiBandSplRangeService;
+    }
+
+    public SplRangeEngine getSplRangeEngine() {
+        return splRangeEngine;
+    }
+
+    public void setApproximateErrorBoundDb( final double pApproximateErrorBoundDb ) {
+        if ( !( pApproximateErrorBoundDb > 0.0d ) ) {
+            throw new IllegalArgumentException( "Error bound must be positive" ); //$NON-NLS-1$
+        }
+
+        approximateErrorBoundDb = pApproximateErrorBoundDb;
+    }
+
+    public void setAutoRangeMode( final AutoRangeMode pAutoRangeMode ) {
+        autoRangeMode = pAutoRangeMode;
+    }
+
+}
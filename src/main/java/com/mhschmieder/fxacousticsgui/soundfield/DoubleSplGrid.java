@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+/**
+ * {@code DoubleSplGrid} wraps a row-major {@code double[]} SPL grid, such as the
+ * output of a prediction, as an {@link SplGrid}, without copying it.
+ * <p>
+ * The same wrapper also views a band-interleaved multi-band grid, with one
+ * column per frequency band and one row per cell.
+ *
+ * @version 1.0
+ */
+public final class DoubleSplGrid implements SplGrid {
+
+    // Declare the dimensions of the grid, in cells.
+    private final int      numberOfColumns;
+    private final int      numberOfRows;
+
+    // Declare the row-major SPL values, where masked cells are not finite.
+    private final double[] splDb;
+
+    public DoubleSplGrid( final double[] pSplDb,
+                          final int pNumberOfColumns,
+                          final int pNumberOfRows ) {
+        if ( ( pNumberOfColumns < 0 ) || ( pNumberOfRows < 0 )
+                || ( pSplDb.length != ( ( long ) pNumberOfColumns * pNumberOfRows ) ) ) {
+            throw new IllegalArgumentException( "SPL grid length must match its dimensions" ); //$NON-NLS-1$
+        }
+
+        splDb = pSplDb;
+        numberOfColumns = pNumberOfColumns;
+        numberOfRows = pNumberOfRows;
+    }
+
+    @Override
+    public void copySplDb( final int fromIndex,
+                           final int toIndex,
+                           final double[] pSplDb,
+                           final int offset ) {
+        System.arraycopy( splDb, fromIndex, pSplDb, offset, toIndex - fromIndex );
+    }
+
+    @Override
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    @Override
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    public double[] getSplDb() {
+        return splDb;
+    }
+
+    @Override
+    public double getSplDb( final int index ) {
+        return splDb[ index ];
+    }
+}
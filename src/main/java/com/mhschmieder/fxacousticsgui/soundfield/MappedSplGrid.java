@@ -0,0 +1,434 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * {@code MappedSplGrid} is an off-heap view of one frequency band of a
+ * multi-band SPL grid file, which is memory-mapped rather than read, so that
+ * prediction results larger than the heap stay on disk and are paged in by the
+ * operating system only as they are scanned.
+ * <p>
+ * Each band is stored as square tiles of {@code float} SPL values, with tiles
+ * in row-major order and cells in row-major order within each tile. Edge tiles
+ * are padded to full size, and the tile size is a multiple of 32, so that every
+ * tile starts on a page boundary and a tile never shares a page with another.
+ * Each row of tiles is mapped separately, which keeps every mapping well below
+ * the 2 GB limit of a single mapped buffer.
+ * <p>
+ * Each tile is exposed as a zero-copy {@link FloatBuffer} view of the mapping,
+ * which is how the Auto-Range SPL reduction and the quantization for display
+ * scan the grid a tile at a time, without ever materializing it as a Java
+ * array. Generic {@link SplGrid} callers copy runs of cells instead.
+ *
+ * @version 1.0
+ */
+public final class MappedSplGrid implements SplGrid, Closeable {
+
+    // Declare the default tile size, whose 16 KB tiles span four pages.
+    public static final int     TILE_SIZE_DEFAULT = 64;
+
+    // Declare the file header, which is padded to a full page.
+    private static final int    FILE_MAGIC        = 0x53504C47;
+    private static final int    FILE_VERSION      = 1;
+    private static final int    FILE_HEADER_SIZE  = 4096;
+
+    // Declare the number of bytes per cell.
+    private static final int    CELL_SIZE         = Float.BYTES;
+
+    // Declare the file channel, which is kept open while the grid is in use.
+    private final FileChannel   fileChannel;
+
+    // Declare the dimensions of the grid, in cells.
+    private final int           numberOfColumns;
+    private final int           numberOfRows;
+
+    // Declare the tile layout of the grid.
+    private final int           tileSize;
+    private final int           numberOfTileColumns;
+    private final int           numberOfTileRows;
+
+    // Declare the number of bands in the file, and the band of this view.
+    private final int           numberOfBands;
+    private final int           bandIndex;
+
+    // Declare the mapped cells of each row of tiles.
+    private final FloatBuffer[] tileRowBuffers;
+
+    private MappedSplGrid( final FileChannel pFileChannel,
+                           final int pNumberOfColumns,
+                           final int pNumberOfRows,
+                           final int pTileSize,
+                           final int pNumberOfBands,
+                           final int pBandIndex,
+                           final FileChannel.MapMode mapMode ) throws IOException {
+        fileChannel = pFileChannel;
+        numberOfColumns = pNumberOfColumns;
+        numberOfRows = pNumberOfRows;
+        tileSize = pTileSize;
+        numberOfTileColumns = ( numberOfColumns + tileSize - 1 ) / tileSize;
+        numberOfTileRows = ( numberOfRows + tileSize - 1 ) / tileSize;
+        numberOfBands = pNumberOfBands;
+        bandIndex = pBandIndex;
+
+        final long tileRowSize = getTileRowSize( numberOfColumns, tileSize );
+        final long bandOffset = FILE_HEADER_SIZE + ( bandIndex * numberOfTileRows * tileRowSize );
+        tileRowBuffers = new FloatBuffer[ numberOfTileRows ];
+        for ( int tileRow = 0; tileRow < numberOfTileRows; tileRow++ ) {
+            final MappedByteBuffer mappedBuffer = fileChannel
+                    .map( mapMode, bandOffset + ( tileRow * tileRowSize ), tileRowSize );
+            tileRowBuffers[ tileRow ] = mappedBuffer.order( ByteOrder.LITTLE_ENDIAN )
+                    .asFloatBuffer();
+        }
+    }
+
+    /**
+     * Creates a multi-band SPL grid file, with every cell of every band masked.
+     *
+     * @param path
+     *            The path of the file to create, which is replaced if it exists
+     * @param numberOfColumns
+     *            The number of columns of each band
+     * @param numberOfRows
+     *            The number of rows of each band
+     * @param numberOfBands
+     *            The number of frequency bands
+     * @param tileSize
+     *            The number of columns and rows per tile, as a multiple of 32
+     * @throws IOException
+     *             If the file cannot be created
+     */
+    public static void create( final Path path,
+                               final int numberOfColumns,
+                               final int numberOfRows,
+                               final int numberOfBands,
+                               final int tileSize ) throws IOException {
+        if ( ( tileSize < 32 ) || ( ( tileSize % 32 ) != 0 ) ) {
+            throw new IllegalArgumentException( "Tile size must be a multiple of 32" ); //$NON-NLS-1$
+        }
+        if ( getTileRowSize( numberOfColumns, tileSize ) > Integer.MAX_VALUE ) {
+            throw new IllegalArgumentException( "Grid is too wide for its tile size" ); //$NON-NLS-1$
+        }
+
+        try ( final FileChannel fileChannel = FileChannel.open( path,
+                                                                StandardOpenOption.CREATE,
+                                                                StandardOpenOption.TRUNCATE_EXISTING,
+                                                                StandardOpenOption.READ,
+                                                                StandardOpenOption.WRITE ) ) {
+            final ByteBuffer header = ByteBuffer.allocate( FILE_HEADER_SIZE );
+            header.putInt( FILE_MAGIC );
+            header.putInt( FILE_VERSION );
+            header.putInt( numberOfColumns );
+            header.putInt( numberOfRows );
+            header.putInt( tileSize );
+            header.putInt( numberOfBands );
+            header.clear();
+            while ( header.hasRemaining() ) {
+                fileChannel.write( header );
+            }
+
+            // Mask every cell, a tile at a time, so that the file is never
+            // resident as a whole.
+            final float[] maskedTile = new float[ tileSize * tileSize ];
+            Arrays.fill( maskedTile, Float.NaN );
+            for ( int band = 0; band < numberOfBands; band++ ) {
+                final MappedSplGrid splGrid = new MappedSplGrid( fileChannel,
+                                                                 numberOfColumns,
+                                                                 numberOfRows,
+                                                                 tileSize,
+                                                                 numberOfBands,
+                                                                 band,
+                                                                 FileChannel.MapMode.READ_WRITE );
+                for ( final FloatBuffer tileRowBuffer : splGrid.tileRowBuffers ) {
+                    final FloatBuffer maskedBuffer = tileRowBuffer.duplicate();
+                    while ( maskedBuffer.hasRemaining() ) {
+                        maskedBuffer.put( maskedTile );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps one frequency band of a multi-band SPL grid file.
+     *
+     * @param path
+     *            The path of the SPL grid file
+     * @param bandIndex
+     *            The index of the band to map
+     * @param writable
+     *            Flag for whether the band may be written to
+     * @return The mapped band, which must be closed when no longer in use
+     * @throws IOException
+     *             If the file cannot be opened, is not an SPL grid file, or
+     *             has an invalid or truncated header or body
+     */
+    public static MappedSplGrid open( final Path path,
+                                      final int bandIndex,
+                                      final boolean writable ) throws IOException {
+        final FileChannel fileChannel = writable
+            ? FileChannel.open( path, StandardOpenOption.READ, StandardOpenOption.WRITE )
+            : FileChannel.open( path, StandardOpenOption.READ );
+        try {
+            final ByteBuffer header = ByteBuffer.allocate( 24 );
+            while ( header.hasRemaining() && ( fileChannel.read( header ) >= 0 ) ) {
+                continue;
+            }
+            header.flip();
+
+            if ( header.remaining() != header.capacity() ) {
+                throw new IOException( "SPL grid file header is truncated: " + path ); //$NON-NLS-1$
+            }
+            final int magic = header.getInt();
+            if ( magic != FILE_MAGIC ) {
+                throw new IOException( "Not an SPL grid file: " + path ); //$NON-NLS-1$
+            }
+            final int version = header.getInt();
+            if ( version != FILE_VERSION ) {
+                throw new IOException( "Unsupported SPL grid file version " + version + ": " //$NON-NLS-1$ //$NON-NLS-2$
+                        + path );
+            }
+            final int numberOfColumns = header.getInt();
+            final int numberOfRows = header.getInt();
+            final int tileSize = header.getInt();
+            final int numberOfBands = header.getInt();
+            if ( ( numberOfColumns < 1 ) || ( numberOfRows < 1 ) || ( numberOfBands < 1 ) ) {
+                throw new IOException( "SPL grid file has invalid dimensions " + numberOfColumns //$NON-NLS-1$
+                        + " x " + numberOfRows + " x " + numberOfBands + ": " + path ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+            if ( ( tileSize < 32 ) || ( ( tileSize % 32 ) != 0 ) ) {
+                throw new IOException( "SPL grid file has invalid tile size " + tileSize + ": " //$NON-NLS-1$ //$NON-NLS-2$
+                        + path );
+            }
+
+            // Check that every band is present, including the padding of its
+            // edge tiles, before anything is mapped.
+            // NOTE: Corrupt dimensions can overflow even a long, so the sizes
+            //  are computed with overflow checks.
+            final long fileSize;
+            try {
+                final long numberOfTileColumns = ( ( ( long ) numberOfColumns + tileSize ) - 1L ) / tileSize;
+                final long numberOfTileRows = ( ( ( long ) numberOfRows + tileSize ) - 1L ) / tileSize;
+                final long tileRowSize = Math.multiplyExact( Math.multiplyExact( numberOfTileColumns,
+                                                                                 ( long ) tileSize
+                                                                                         * tileSize ),
+                                                             CELL_SIZE );
+                if ( tileRowSize > Integer.MAX_VALUE ) {
+                    throw new IOException( "SPL grid file is too wide for its tile size: " + path ); //$NON-NLS-1$
+                }
+                fileSize = Math.addExact( FILE_HEADER_SIZE,
+                                          Math.multiplyExact( Math.multiplyExact( numberOfBands,
+                                                                                  numberOfTileRows ),
+                                                              tileRowSize ) );
+            }
+            catch ( final ArithmeticException ex ) {
+                throw new IOException( "SPL grid file has impossible dimensions: " + path, ex ); //$NON-NLS-1$
+            }
+            if ( fileChannel.size() < fileSize ) {
+                throw new IOException( "SPL grid file is truncated to " + fileChannel.size() //$NON-NLS-1$
+                        + " of " + fileSize + " bytes: " + path ); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+
+            if ( ( bandIndex < 0 ) || ( bandIndex >= numberOfBands ) ) {
+                throw new IndexOutOfBoundsException( "No such band: " + bandIndex ); //$NON-NLS-1$
+            }
+
+            return new MappedSplGrid( fileChannel,
+                                      numberOfColumns,
+                                      numberOfRows,
+                                      tileSize,
+                                      numberOfBands,
+                                      bandIndex,
+                                      writable
+                                          ? FileChannel.MapMode.READ_WRITE
+                                          : FileChannel.MapMode.READ_ONLY );
+        }
+        catch ( final IOException | RuntimeException ex ) {
+            fileChannel.close();
+            throw ex;
+        }
+    }
+
+    private static long getTileRowSize( final int numberOfColumns, final int tileSize ) {
+        final long numberOfTileColumns = ( numberOfColumns + tileSize - 1 ) / tileSize;
+        return numberOfTileColumns * tileSize * tileSize * CELL_SIZE;
+    }
+
+    /**
+     * Closes the file channel. The mappings stay valid until they are garbage
+     * collected, but must no longer be used.
+     *
+     * @throws IOException
+     *             If the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    @Override
+    public void copySplDb( final int fromIndex,
+                           final int toIndex,
+                           final double[] splDb,
+                           final int offset ) {
+        int index = fromIndex;
+        while ( index < toIndex ) {
+            // Copy up to the end of the tile, the row, or the run.
+            final int column = index % numberOfColumns;
+            final int row = index / numberOfColumns;
+            final int runLength = Math.min( toIndex - index,
+                                            Math.min( tileSize - ( column % tileSize ),
+                                                      numberOfColumns - column ) );
+            final FloatBuffer tileRowBuffer = tileRowBuffers[ row / tileSize ];
+            final int tileRowOffset = getTileRowOffset( column, row );
+            final int runOffset = offset + ( index - fromIndex );
+            for ( int i = 0; i < runLength; i++ ) {
+                splDb[ runOffset + i ] = tileRowBuffer.get( tileRowOffset + i );
+            }
+            index += runLength;
+        }
+    }
+
+    public int getBandIndex() {
+        return bandIndex;
+    }
+
+    public int getNumberOfBands() {
+        return numberOfBands;
+    }
+
+    @Override
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    @Override
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    public int getNumberOfTileColumns() {
+        return numberOfTileColumns;
+    }
+
+    public int getNumberOfTileRows() {
+        return numberOfTileRows;
+    }
+
+    public int getNumberOfTiles() {
+        return numberOfTileColumns * numberOfTileRows;
+    }
+
+    @Override
+    public double getSplDb( final int index ) {
+        return getSplDb( index % numberOfColumns, index / numberOfColumns );
+    }
+
+    @Override
+    public double getSplDb( final int column, final int row ) {
+        return tileRowBuffers[ row / tileSize ].get( getTileRowOffset( column, row ) );
+    }
+
+    /**
+     * Returns a zero-copy view of the cells of the given tile, in row-major
+     * order with a row stride of the tile size, including the padding of edge
+     * tiles.
+     *
+     * @param tileColumn
+     *            The column of the tile
+     * @param tileRow
+     *            The row of the tile
+     * @return The view of the tile cells, which shares the mapped memory
+     */
+    public FloatBuffer getTile( final int tileColumn, final int tileRow ) {
+        final int tileCells = tileSize * tileSize;
+        final FloatBuffer tileBuffer = tileRowBuffers[ tileRow ].duplicate();
+        tileBuffer.position( tileColumn * tileCells );
+        tileBuffer.limit( ( tileColumn + 1 ) * tileCells );
+        return tileBuffer.slice();
+    }
+
+    // Returns the number of unpadded columns of the given column of tiles.
+    public int getTileColumns( final int tileColumn ) {
+        return Math.min( tileSize, numberOfColumns - ( tileColumn * tileSize ) );
+    }
+
+    // Returns the number of unpadded rows of the given row of tiles.
+    public int getTileRows( final int tileRow ) {
+        return Math.min( tileSize, numberOfRows - ( tileRow * tileSize ) );
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    private int getTileRowOffset( final int column, final int row ) {
+        final int tileColumn = column / tileSize;
+        return ( ( ( tileColumn * tileSize ) + ( row % tileSize ) ) * tileSize )
+                + ( column - ( tileColumn * tileSize ) );
+    }
+
+    public void setSplDb( final int column, final int row, final double splDb ) {
+        tileRowBuffers[ row / tileSize ].put( getTileRowOffset( column, row ), ( float ) splDb );
+    }
+
+    /**
+     * Writes a whole SPL grid to this band, which must be writable.
+     *
+     * @param splGrid
+     *            The SPL grid, matching the grid dimensions
+     */
+    public void write( final SplGrid splGrid ) {
+        if ( ( splGrid.getNumberOfColumns() != numberOfColumns )
+                || ( splGrid.getNumberOfRows() != numberOfRows ) ) {
+            throw new IllegalArgumentException( "SPL grid dimensions do not match" ); //$NON-NLS-1$
+        }
+
+        final double[] rowSplDb = new double[ numberOfColumns ];
+        for ( int row = 0; row < numberOfRows; row++ ) {
+            final FloatBuffer tileRowBuffer = tileRowBuffers[ row / tileSize ];
+            splGrid.copySplDb( row * numberOfColumns, ( row + 1 ) * numberOfColumns, rowSplDb, 0 );
+            for ( int column = 0; column < numberOfColumns; column++ ) {
+                tileRowBuffer.put( getTileRowOffset( column, row ), ( float ) rowSplDb[ column ] );
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * {@code MultiBandSplRangeService} computes the Auto-Range SPL statistics of
+ * every frequency band of a multi-band Sound Field at once, and caches them
+ * per band, so that stepping from one band to the next never rescans the grid.
+ * <p>
+ * The SPL grid is band-interleaved, with all of the bands of a cell stored
+ * next to each other, and is viewed as an {@link SplGrid} with one column per
+ * band and one row per cell, so that the value for a band of a cell is found
+ * at {@code cellIndex * numberOfBands + bandIndex}. The grid is recursively
+ * split into contiguous runs of cells on the fork-join pool of the
+ * {@link SplRangeEngine}, each of which reduces its cells to one
+ * {@link SplHistogram} per band. A task copies its cells in short runs, each
+ * of which is reduced for all of the bands while it is still in the processor
+ * cache, so that the grid is only read from memory once for all of the bands.
+ * <p>
+ * As every task allocates and merges a histogram per band, tasks are never
+ * made smaller than a fixed number of cells, regardless of the number of
+ * bands, so that the histograms stay cheap relative to the scan.
+ * <p>
+ * The cached ranges are keyed by model revision, and are only replaced once a
+ * newer revision has been fully reduced, so that they may be read from any
+ * thread.
+ *
+ * @version 1.0
+ */
+public final class MultiBandSplRangeService {
+
+    // Flag a model revision that has not been auto-ranged.
+    public static final long     MODEL_REVISION_NONE    = Long.MIN_VALUE;
+
+    // Declare the minimum number of cells per parallel task.
+    private static final int     MINIMUM_CELLS_PER_TASK = 1 << 16;
+
+    // Declare the number of parallel tasks per worker thread, which balances
+    // the load without multiplying the histograms to merge.
+    private static final int     TASKS_PER_THREAD       = 4;
+
+    // Declare the engine whose pool, tile size and percentiles are shared.
+    private final SplRangeEngine splRangeEngine;
+
+    // Declare the model revision that the cached ranges were computed for.
+    private long                 modelRevision;
+
+    // Declare the cached ranges, indexed by frequency band.
+    private SplRange[]           bandRanges;
+
+    public MultiBandSplRangeService( final SplRangeEngine pSplRangeEngine ) {
+        splRangeEngine = pSplRangeEngine;
+
+        modelRevision = MODEL_REVISION_NONE;
+        bandRanges = new SplRange[ 0 ];
+    }
+
+    public synchronized void clear() {
+        modelRevision = MODEL_REVISION_NONE;
+        bandRanges = new SplRange[ 0 ];
+    }
+
+    /**
+     * Returns the Auto-Range SPL of every band of a band-interleaved SPL grid,
+     * reusing the cached ranges if they were computed for the same revision.
+     *
+     * @param bandGrid
+     *            The band-interleaved SPL grid, with one column per frequency
+     *            band and one row per cell
+     * @param pModelRevision
+     *            The model revision that the SPL grid was predicted for
+     * @return The Auto-Range SPL of each band, indexed by frequency band
+     */
+    public SplRange[] computeRanges( final SplGrid bandGrid, final long pModelRevision ) {
+        final int numberOfBands = bandGrid.getNumberOfColumns();
+        if ( numberOfBands < 1 ) {
+            throw new IllegalArgumentException( "Number of bands must be positive" ); //$NON-NLS-1$
+        }
+
+        final SplRange[] cachedRanges = getRanges( numberOfBands, pModelRevision );
+        if ( cachedRanges != null ) {
+            return cachedRanges;
+        }
+
+        final int numberOfCells = bandGrid.getNumberOfRows();
+        final SplHistogram[] histograms = splRangeEngine.getForkJoinPool()
+                .invoke( new InterleavedHistogramTask( bandGrid,
+                                                       0,
+                                                       numberOfCells,
+                                                       getCellsPerTask( numberOfCells ),
+                                                       getCellsPerRun( numberOfBands ) ) );
+        return setRanges( histograms, pModelRevision );
+    }
+
+    public CompletableFuture< SplRange[] > computeRangesAsync( final SplGrid bandGrid,
+                                                               final long pModelRevision ) {
+        return CompletableFuture.supplyAsync( () -> computeRanges( bandGrid, pModelRevision ),
+                                              splRangeEngine.getForkJoinPool() );
+    }
+
+    private int getCellsPerRun( final int numberOfBands ) {
+        // Keep each run of cells to about one tile of SPL values, so that all
+        // of its bands are reduced before it is evicted from the cache.
+        return Math.max( 1, splRangeEngine.getTileSize() / numberOfBands );
+    }
+
+    private int getCellsPerTask( final int numberOfCells ) {
+        final int numberOfTasks = TASKS_PER_THREAD
+                * splRangeEngine.getForkJoinPool().getParallelism();
+        return Math.max( MINIMUM_CELLS_PER_TASK, numberOfCells / numberOfTasks );
+    }
+
+    public synchronized long getModelRevision() {
+        return modelRevision;
+    }
+
+    public synchronized int getNumberOfBands() {
+        return bandRanges.length;
+    }
+
+    /**
+     * Returns the cached Auto-Range SPL of one frequency band, without
+     * touching the SPL grid.
+     *
+     * @param bandIndex
+     *            The index of the frequency band
+     * @return The cached Auto-Range SPL of the band, or {@code null} if it has
+     *         not been computed
+     */
+    public synchronized SplRange getRange( final int bandIndex ) {
+        if ( ( bandIndex < 0 ) || ( bandIndex >= bandRanges.length ) ) {
+            return null;
+        }
+
+        return bandRanges[ bandIndex ];
+    }
+
+    private synchronized SplRange[] getRanges( final int numberOfBands,
+                                               final long pModelRevision ) {
+        if ( ( modelRevision == MODEL_REVISION_NONE ) || ( modelRevision != pModelRevision )
+                || ( bandRanges.length != numberOfBands ) ) {
+            return null;
+        }
+
+        return bandRanges.clone();
+    }
+
+    private static SplHistogram[] makeHistograms( final int numberOfBands ) {
+        final SplHistogram[] histograms = new SplHistogram[ numberOfBands ];
+        for ( int bandIndex = 0; bandIndex < numberOfBands; bandIndex++ ) {
+            histograms[ bandIndex ] = new SplHistogram();
+        }
+        return histograms;
+    }
+
+    private SplRange[] setRanges( final SplHistogram[] histograms, final long pModelRevision ) {
+        final SplRange[] splRanges = new SplRange[ histograms.length ];
+        for ( int bandIndex = 0; bandIndex < histograms.length; bandIndex++ ) {
+            splRanges[ bandIndex ] = splRangeEngine.makeRange( histograms[ bandIndex ] );
+        }
+
+        // Never let a slow reduction of an older revision replace the ranges
+        // of a newer one.
+        synchronized ( this ) {
+            if ( ( modelRevision == MODEL_REVISION_NONE ) || ( pModelRevision >= modelRevision ) ) {
+                modelRevision = pModelRevision;
+                bandRanges = splRanges;
+            }
+        }
+
+        return splRanges.clone();
+    }
+
+    /**
+     * Reduces a contiguous run of cells of a band-interleaved SPL grid to one
+     * histogram per band.
+     */
+    private static final class InterleavedHistogramTask extends RecursiveTask< SplHistogram[] > {
+        private static final long serialVersionUID = 3871466129754045370L;
+
+        private final SplGrid     bandGrid;
+        private final int         fromCell;
+        private final int         toCell;
+        private final int         cellsPerTask;
+        private final int         cellsPerRun;
+
+        InterleavedHistogramTask( final SplGrid pBandGrid,
+                                  final int pFromCell,
+                                  final int pToCell,
+                                  final int pCellsPerTask,
+                                  final int pCellsPerRun ) {
+            bandGrid = pBandGrid;
+            fromCell = pFromCell;
+            toCell = pToCell;
+            cellsPerTask = pCellsPerTask;
+            cellsPerRun = pCellsPerRun;
+        }
+
+        @Override
+        protected SplHistogram[] compute() {
+            final int numberOfBands = bandGrid.getNumberOfColumns();
+            if ( ( toCell - fromCell ) <= cellsPerTask ) {
+                final SplHistogram[] histograms = makeHistograms( numberOfBands );
+                final double[] runSplDb = new double[ cellsPerRun * numberOfBands ];
+                for ( int fromRunCell = fromCell; fromRunCell < toCell; fromRunCell += cellsPerRun ) {
+                    final int runLength = ( Math.min( toCell, fromRunCell + cellsPerRun ) - fromRunCell )
+                            * numberOfBands;
+                    final int fromIndex = fromRunCell * numberOfBands;
+                    bandGrid.copySplDb( fromIndex, fromIndex + runLength, runSplDb, 0 );
+                    for ( int bandIndex = 0; bandIndex < numberOfBands; bandIndex++ ) {
+                        histograms[ bandIndex ].addAll( runSplDb, bandIndex, runLength, numberOfBands );
+                    }
+                }
+                return histograms;
+            }
+
+            final int middleCell = ( fromCell + toCell ) >>> 1;
+            final InterleavedHistogramTask lowerTask = new InterleavedHistogramTask( bandGrid,
+                                                                                     fromCell,
+                                                                                     middleCell,
+                                                                                     cellsPerTask,
+                                                                                     cellsPerRun );
+            final InterleavedHistogramTask upperTask = new InterleavedHistogramTask( bandGrid,
+                                                                                     middleCell,
+                                                                                     toCell,
+                                                                                     cellsPerTask,
+                                                                                     cellsPerRun );
+            lowerTask.fork();
+            final SplHistogram[] histograms = upperTask.compute();
+            final SplHistogram[] lowerHistograms = lowerTask.join();
+            for ( int bandIndex = 0; bandIndex < numberOfBands; bandIndex++ ) {
+                histograms[ bandIndex ].merge( lowerHistograms[ bandIndex ] );
+            }
+            return histograms;
+        }
+    }
+}
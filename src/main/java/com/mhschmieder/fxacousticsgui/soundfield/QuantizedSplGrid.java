@@ -0,0 +1,292 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+/**
+ * {@code QuantizedSplGrid} stores a Sound Field SPL grid as unsigned integer
+ * codes at a fixed dB resolution above an offset, which takes a quarter (or
+ * an eighth) of the memory of a {@code double[]} grid, so that many frequency
+ * bands of a large venue can be held in memory at once.
+ * <p>
+ * The SPL Range can only be selected in whole dB, so a resolution of 0.1 dB
+ * (or even 0.5 dB) loses nothing that the display can show. Grids whose span
+ * fits in 255 codes at the requested resolution are stored as bytes, and all
+ * others as shorts. The largest code of each width marks masked cells.
+ * <p>
+ * Range queries and colormapping work directly on the codes, via per-code
+ * counts and per-code lookup tables, rather than on floating-point SPL values.
+ *
+ * @version 1.0
+ */
+public final class QuantizedSplGrid implements SplGrid {
+
+    // Declare the default and coarsest resolutions, in dB per code.
+    public static final double RESOLUTION_DB_DEFAULT = 0.1d;
+    public static final double RESOLUTION_DB_COARSE  = 0.5d;
+
+    // Declare the codes that mark masked cells, for each code width.
+    public static final int    BYTE_NO_DATA_CODE     = 0xFF;
+    public static final int    SHORT_NO_DATA_CODE    = 0xFFFF;
+
+    // Declare the dimensions of the grid, in cells.
+    private final int          numberOfColumns;
+    private final int          numberOfRows;
+
+    // Declare the SPL of code zero, and the SPL step from one code to the next.
+    private final double       offsetDb;
+    private final double       resolutionDb;
+
+    // Declare the number of data codes, which excludes the no-data code.
+    private final int          numberOfLevels;
+
+    // Declare the row-major codes, only one of which is used.
+    private final byte[]       byteCodes;
+    private final short[]      shortCodes;
+
+    private QuantizedSplGrid( final int pNumberOfColumns,
+                              final int pNumberOfRows,
+                              final double pOffsetDb,
+                              final double pResolutionDb,
+                              final int pNumberOfLevels ) {
+        numberOfColumns = pNumberOfColumns;
+        numberOfRows = pNumberOfRows;
+        offsetDb = pOffsetDb;
+        resolutionDb = pResolutionDb;
+        numberOfLevels = pNumberOfLevels;
+
+        final int numberOfCells = numberOfColumns * numberOfRows;
+        if ( numberOfLevels < BYTE_NO_DATA_CODE ) {
+            byteCodes = new byte[ numberOfCells ];
+            shortCodes = null;
+        }
+        else {
+            byteCodes = null;
+            shortCodes = new short[ numberOfCells ];
+        }
+    }
+
+    /**
+     * Quantizes the given SPL grid at the given resolution.
+     *
+     * @param splGrid
+     *            The SPL grid, whose masked cells stay masked
+     * @param resolutionDb
+     *            The SPL step from one code to the next, which is also twice
+     *            the maximum quantization error
+     * @return The quantized SPL grid
+     */
+    public static QuantizedSplGrid quantize( final SplGrid splGrid, final double resolutionDb ) {
+        final int numberOfColumns = splGrid.getNumberOfColumns();
+        final int numberOfRows = splGrid.getNumberOfRows();
+        final double[] rowSplDb = new double[ numberOfColumns ];
+        double minimumDb = Double.POSITIVE_INFINITY;
+        double maximumDb = Double.NEGATIVE_INFINITY;
+        for ( int row = 0; row < numberOfRows; row++ ) {
+            final int rowIndex = row * numberOfColumns;
+            splGrid.copySplDb( rowIndex, rowIndex + numberOfColumns, rowSplDb, 0 );
+            for ( final double splDbValue : rowSplDb ) {
+                // NOTE: This comparison is false for NaN as well as for infinity.
+                if ( Math.abs( splDbValue ) <= Double.MAX_VALUE ) {
+                    minimumDb = Math.min( minimumDb, splDbValue );
+                    maximumDb = Math.max( maximumDb, splDbValue );
+                }
+            }
+        }
+
+        final QuantizedSplGrid grid = makeGrid( numberOfColumns,
+                                                numberOfRows,
+                                                minimumDb,
+                                                maximumDb,
+                                                resolutionDb );
+        final double inverseResolutionDb = 1.0d / resolutionDb;
+        for ( int row = 0; row < numberOfRows; row++ ) {
+            final int rowIndex = row * numberOfColumns;
+            splGrid.copySplDb( rowIndex, rowIndex + numberOfColumns, rowSplDb, 0 );
+            for ( int column = 0; column < numberOfColumns; column++ ) {
+                grid.setCode( rowIndex + column,
+                              grid.getCode( rowSplDb[ column ], inverseResolutionDb ) );
+            }
+        }
+
+        return grid;
+    }
+
+    private static QuantizedSplGrid makeGrid( final int numberOfColumns,
+                                              final int numberOfRows,
+                                              final double minimumDb,
+                                              final double maximumDb,
+                                              final double resolutionDb ) {
+        if ( !( resolutionDb > 0.0d ) ) {
+            throw new IllegalArgumentException( "Resolution must be positive" ); //$NON-NLS-1$
+        }
+
+        // A fully masked grid still gets one level, to keep the math simple.
+        if ( minimumDb > maximumDb ) {
+            return new QuantizedSplGrid( numberOfColumns, numberOfRows, 0.0d, resolutionDb, 1 );
+        }
+
+        final long numberOfLevels = Math.round( ( maximumDb - minimumDb ) / resolutionDb ) + 1L;
+        if ( numberOfLevels >= SHORT_NO_DATA_CODE ) {
+            throw new IllegalArgumentException( "Resolution is too fine for the SPL span" ); //$NON-NLS-1$
+        }
+
+        return new QuantizedSplGrid( numberOfColumns,
+                                     numberOfRows,
+                                     minimumDb,
+                                     resolutionDb,
+                                     ( int ) numberOfLevels );
+    }
+
+    @Override
+    public void copySplDb( final int fromIndex,
+                           final int toIndex,
+                           final double[] splDb,
+                           final int offset ) {
+        final int noDataCode = getNoDataCode();
+        for ( int i = fromIndex; i < toIndex; i++ ) {
+            final int code = getCode( i );
+            splDb[ offset + ( i - fromIndex ) ] = ( code == noDataCode ) ? Double.NaN : getDb( code );
+        }
+    }
+
+    /**
+     * Adds the number of cells with each data code, within the given range of
+     * cell indices, to the given counts. Masked cells are not counted.
+     *
+     * @param fromIndex
+     *            The first row-major cell index, inclusive
+     * @param toIndex
+     *            The last row-major cell index, exclusive
+     * @param codeCounts
+     *            The count of each data code, of at least
+     *            {@link #getNumberOfLevels()} entries
+     */
+    public void countCodes( final int fromIndex, final int toIndex, final long[] codeCounts ) {
+        if ( byteCodes != null ) {
+            for ( int i = fromIndex; i < toIndex; i++ ) {
+                final int code = byteCodes[ i ] & 0xFF;
+                if ( code != BYTE_NO_DATA_CODE ) {
+                    codeCounts[ code ]++;
+                }
+            }
+        }
+        else {
+            for ( int i = fromIndex; i < toIndex; i++ ) {
+                final int code = shortCodes[ i ] & 0xFFFF;
+                if ( code != SHORT_NO_DATA_CODE ) {
+                    codeCounts[ code ]++;
+                }
+            }
+        }
+    }
+
+    public byte[] getByteCodes() {
+        return byteCodes;
+    }
+
+    public int getCode( final int index ) {
+        return ( byteCodes != null ) ? byteCodes[ index ] & 0xFF : shortCodes[ index ] & 0xFFFF;
+    }
+
+    private int getCode( final double splDb, final double inverseResolutionDb ) {
+        // NOTE: This comparison is false for NaN as well as for infinity.
+        if ( !( Math.abs( splDb ) <= Double.MAX_VALUE ) ) {
+            return getNoDataCode();
+        }
+
+        final long code = Math.round( ( splDb - offsetDb ) * inverseResolutionDb );
+        return ( int ) Math.max( 0L, Math.min( numberOfLevels - 1L, code ) );
+    }
+
+    /**
+     * Returns the SPL that the given data code represents.
+     *
+     * @param code
+     *            The data code, from zero to the number of levels minus one
+     * @return The SPL of the code, in dB
+     */
+    public double getDb( final int code ) {
+        return offsetDb + ( code * resolutionDb );
+    }
+
+    public int getNoDataCode() {
+        return ( byteCodes != null ) ? BYTE_NO_DATA_CODE : SHORT_NO_DATA_CODE;
+    }
+
+    @Override
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    public int getNumberOfLevels() {
+        return numberOfLevels;
+    }
+
+    @Override
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    public double getOffsetDb() {
+        return offsetDb;
+    }
+
+    public double getResolutionDb() {
+        return resolutionDb;
+    }
+
+    public short[] getShortCodes() {
+        return shortCodes;
+    }
+
+    public long getSizeInBytes() {
+        return ( byteCodes != null ) ? byteCodes.length : 2L * shortCodes.length;
+    }
+
+    @Override
+    public double getSplDb( final int index ) {
+        final int code = getCode( index );
+        return ( code == getNoDataCode() ) ? Double.NaN : getDb( code );
+    }
+
+    public boolean isByteCoded() {
+        return byteCodes != null;
+    }
+
+    private void setCode( final int index, final int code ) {
+        if ( byteCodes != null ) {
+            byteCodes[ index ] = ( byte ) code;
+        }
+        else {
+            shortCodes[ index ] = ( short ) code;
+        }
+    }
+}
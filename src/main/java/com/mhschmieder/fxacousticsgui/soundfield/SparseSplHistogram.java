@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+/**
+ * {@code SparseSplHistogram} is an immutable copy of the non-empty bins of an
+ * {@link SplHistogram}, along with its cell count and exact extrema.
+ * <p>
+ * An {@link SplRangeTracker} keeps one per tile, so that the memory of a tile
+ * grows with the spread of SPL within it rather than with the whole SPL
+ * domain, while its bins can still be subtracted from the grid-wide histogram
+ * exactly.
+ *
+ * @version 1.0
+ */
+final class SparseSplHistogram {
+
+    // Declare the bin width, which must match any histogram this is merged
+    // into or subtracted from.
+    private final double binWidthDb;
+
+    // Declare the indices of the non-empty bins, in ascending order, and the
+    // number of cells in each of them.
+    private final int[]  binIndices;
+    private final long[] binCounts;
+
+    // Declare the total number of cells, and their exact extrema.
+    private final long   count;
+    private final double minimumDb;
+    private final double maximumDb;
+
+    SparseSplHistogram( final double pBinWidthDb ) {
+        this( pBinWidthDb,
+              new int[ 0 ],
+              new long[ 0 ],
+              0L,
+              Double.POSITIVE_INFINITY,
+              Double.NEGATIVE_INFINITY );
+    }
+
+    SparseSplHistogram( final double pBinWidthDb,
+                        final int[] pBinIndices,
+                        final long[] pBinCounts,
+                        final long pCount,
+                        final double pMinimumDb,
+                        final double pMaximumDb ) {
+        binWidthDb = pBinWidthDb;
+        binIndices = pBinIndices;
+        binCounts = pBinCounts;
+        count = pCount;
+        minimumDb = pMinimumDb;
+        maximumDb = pMaximumDb;
+    }
+
+    long getBinCount( final int i ) {
+        return binCounts[ i ];
+    }
+
+    int getBinIndex( final int i ) {
+        return binIndices[ i ];
+    }
+
+    double getBinWidthDb() {
+        return binWidthDb;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    double getMaximumDb() {
+        return maximumDb;
+    }
+
+    double getMinimumDb() {
+        return minimumDb;
+    }
+
+    int getNumberOfBins() {
+        return binIndices.length;
+    }
+
+    // Expands this into a full histogram, such as for its percentiles.
+    SplHistogram toHistogram() {
+        final SplHistogram histogram = new SplHistogram( binWidthDb );
+        histogram.merge( this );
+        return histogram;
+    }
+}
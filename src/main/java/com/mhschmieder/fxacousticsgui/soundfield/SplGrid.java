@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+/**
+ * {@code SplGrid} is a row-major grid of Sound Field SPL values, regardless of
+ * how the values are stored, where masked cells have no SPL.
+ * <p>
+ * Plain arrays are wrapped as a {@link DoubleSplGrid} or a {@link FloatSplGrid},
+ * so that the range, quantization, contouring and probing algorithms accept
+ * any grid through this one interface.
+ *
+ * @version 1.0
+ */
+public interface SplGrid {
+
+    int getNumberOfColumns();
+
+    int getNumberOfRows();
+
+    default int getNumberOfCells() {
+        return getNumberOfColumns() * getNumberOfRows();
+    }
+
+    /**
+     * Returns the SPL of the given cell.
+     *
+     * @param index
+     *            The row-major index of the cell
+     * @return The SPL of the cell in dB, or {@link Double#NaN} if it is masked
+     */
+    double getSplDb( final int index );
+
+    /**
+     * Returns the SPL of the given cell.
+     *
+     * @param column
+     *            The column of the cell
+     * @param row
+     *            The row of the cell
+     * @return The SPL of the cell in dB, or {@link Double#NaN} if it is masked
+     */
+    default double getSplDb( final int column, final int row ) {
+        return getSplDb( ( row * getNumberOfColumns() ) + column );
+    }
+
+    /**
+     * Copies the SPL of a run of consecutive cells, in row-major order, which
+     * is how the algorithms that scan a whole grid read it, so that each of
+     * them is written once for every storage.
+     *
+     * @param fromIndex
+     *            The row-major index of the first cell, inclusive
+     * @param toIndex
+     *            The row-major index of the last cell, exclusive
+     * @param splDb
+     *            The array to copy the SPL of the cells to, where masked cells
+     *            are not finite
+     * @param offset
+     *            The index in the array of the first cell
+     */
+    default void copySplDb( final int fromIndex,
+                            final int toIndex,
+                            final double[] splDb,
+                            final int offset ) {
+        for ( int i = fromIndex; i < toIndex; i++ ) {
+            splDb[ offset + ( i - fromIndex ) ] = getSplDb( i );
+        }
+    }
+}
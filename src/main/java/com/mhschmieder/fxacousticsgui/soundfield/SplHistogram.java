@@ -0,0 +1,435 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * {@code SplHistogram} is a fixed-domain histogram of Sound Pressure Levels,
+ * which also tracks the exact minimum and maximum SPL that it has seen.
+ * <p>
+ * As the bin layout only depends on the bin width, any two histograms with the
+ * same bin width can be merged (or subtracted) bin-by-bin, regardless of the
+ * order or partitioning of the SPL grid cells that were accumulated. This is
+ * what allows SPL grid tiles to be reduced independently and in parallel.
+ * <p>
+ * Non-finite values are skipped, as they represent masked or invalid cells.
+ * Finite values outside the supported domain are clamped to the edge bins.
+ *
+ * @version 1.0
+ */
+public final class SplHistogram {
+
+    // Declare the supported SPL domain, which covers anything that is
+    // meaningful in a Sound Field prediction or measurement.
+    public static final double SPL_DB_MINIMUM       = -40.0d;
+    public static final double SPL_DB_MAXIMUM       = 200.0d;
+
+    // The default bin width is well below the 1 dB granularity of SPL Range.
+    public static final double BIN_WIDTH_DB_DEFAULT = 0.1d;
+
+    // Declare the number of grid cells that are copied at a time, which keeps
+    // each copy in the L1 cache.
+    private static final int                     BLOCK_SIZE   = 1 << 10;
+
+    // Declare a copy block per thread, as histograms are filled in parallel.
+    private static final ThreadLocal< double[] > BLOCK_SPL_DB = ThreadLocal
+            .withInitial( () -> new double[ BLOCK_SIZE ] );
+
+    // Cache the bin width and its inverse, to avoid division per cell.
+    private final double       binWidthDb;
+    private final double       inverseBinWidthDb;
+
+    // Declare the bin counts, and the total number of accumulated cells.
+    private final long[]       binCounts;
+    private long               count;
+
+    // Declare the exact extrema of the accumulated cells.
+    private double             minimumDb;
+    private double             maximumDb;
+
+    public SplHistogram() {
+        this( BIN_WIDTH_DB_DEFAULT );
+    }
+
+    public SplHistogram( final double pBinWidthDb ) {
+        if ( !( pBinWidthDb > 0.0d ) ) {
+            throw new IllegalArgumentException( "Bin width must be positive" ); //$NON-NLS-1$
+        }
+
+        binWidthDb = pBinWidthDb;
+        inverseBinWidthDb = 1.0d / pBinWidthDb;
+
+        final int numberOfBins = ( int ) Math
+                .ceil( ( SPL_DB_MAXIMUM - SPL_DB_MINIMUM ) * inverseBinWidthDb ) + 1;
+        binCounts = new long[ numberOfBins ];
+
+        reset();
+    }
+
+    public void reset() {
+        Arrays.fill( binCounts, 0L );
+        count = 0L;
+        minimumDb = Double.POSITIVE_INFINITY;
+        maximumDb = Double.NEGATIVE_INFINITY;
+    }
+
+    public void add( final double splDb ) {
+        // Skip NaN and infinite values, as they represent masked cells.
+        if ( Double.isNaN( splDb ) || Double.isInfinite( splDb ) ) {
+            return;
+        }
+
+        binCounts[ getBinIndex( splDb ) ]++;
+        count++;
+
+        if ( splDb < minimumDb ) {
+            minimumDb = splDb;
+        }
+        if ( splDb > maximumDb ) {
+            maximumDb = splDb;
+        }
+    }
+
+    public void add( final double splDb, final long cellCount ) {
+        // Skip NaN and infinite values, as they represent masked cells.
+        if ( Double.isNaN( splDb ) || Double.isInfinite( splDb ) || ( cellCount <= 0L ) ) {
+            return;
+        }
+
+        binCounts[ getBinIndex( splDb ) ] += cellCount;
+        count += cellCount;
+
+        if ( splDb < minimumDb ) {
+            minimumDb = splDb;
+        }
+        if ( splDb > maximumDb ) {
+            maximumDb = splDb;
+        }
+    }
+
+    public void addAll( final double[] splDb, final int fromIndex, final int toIndex ) {
+        addAll( splDb, fromIndex, toIndex, 1 );
+    }
+
+    /**
+     * Adds every {@code stride}-th element of an array, such as one frequency
+     * band of a band-interleaved SPL grid, without de-interleaving it first.
+     *
+     * @param splDb
+     *            The array of SPL values
+     * @param fromIndex
+     *            The index of the first element to add
+     * @param toIndex
+     *            The index past the last element that may be added
+     * @param stride
+     *            The number of array elements from one added value to the next
+     */
+    public void addAll( final double[] splDb,
+                        final int fromIndex,
+                        final int toIndex,
+                        final int stride ) {
+        // Keep the running statistics in locals, as this is the hot loop.
+        final long[] counts = binCounts;
+        final int lastBinIndex = counts.length - 1;
+        long tileCount = 0L;
+        double tileMinimumDb = minimumDb;
+        double tileMaximumDb = maximumDb;
+        for ( int i = fromIndex; i < toIndex; i += stride ) {
+            final double splDbValue = splDb[ i ];
+
+            // NOTE: This comparison is false for NaN as well as for infinity.
+            if ( !( Math.abs( splDbValue ) <= Double.MAX_VALUE ) ) {
+                continue;
+            }
+
+            final int binIndex = ( int ) ( ( splDbValue - SPL_DB_MINIMUM ) * inverseBinWidthDb );
+            counts[ Math.max( 0, Math.min( lastBinIndex, binIndex ) ) ]++;
+            tileCount++;
+            tileMinimumDb = Math.min( tileMinimumDb, splDbValue );
+            tileMaximumDb = Math.max( tileMaximumDb, splDbValue );
+        }
+
+        count += tileCount;
+        minimumDb = tileMinimumDb;
+        maximumDb = tileMaximumDb;
+    }
+
+    /**
+     * Adds a run of cells of an SPL grid, in row-major order, by copying them
+     * a block at a time, so that every grid storage shares the hot loop above.
+     *
+     * @param splGrid
+     *            The SPL grid
+     * @param fromIndex
+     *            The row-major index of the first cell to add
+     * @param toIndex
+     *            The row-major index past the last cell to add
+     */
+    public void addAll( final SplGrid splGrid, final int fromIndex, final int toIndex ) {
+        final double[] block = BLOCK_SPL_DB.get();
+        for ( int blockIndex = fromIndex; blockIndex < toIndex; blockIndex += block.length ) {
+            final int blockLength = Math.min( block.length, toIndex - blockIndex );
+            splGrid.copySplDb( blockIndex, blockIndex + blockLength, block, 0 );
+            addAll( block, 0, blockLength, 1 );
+        }
+    }
+
+    /**
+     * Adds a rectangle of cells straight from a buffer, such as part of a
+     * zero-copy tile view of a {@link MappedSplGrid}, without copying them.
+     *
+     * @param splDb
+     *            The buffer of SPL values, in row-major order
+     * @param offset
+     *            The buffer index of the first cell of the rectangle
+     * @param rowStride
+     *            The number of buffer elements from one row to the next
+     * @param columns
+     *            The number of columns of the rectangle
+     * @param rows
+     *            The number of rows of the rectangle
+     */
+    public void addAll( final FloatBuffer splDb,
+                        final int offset,
+                        final int rowStride,
+                        final int columns,
+                        final int rows ) {
+        // Keep the running statistics in locals, as this is the hot loop.
+        final long[] counts = binCounts;
+        final int lastBinIndex = counts.length - 1;
+        long tileCount = 0L;
+        double tileMinimumDb = minimumDb;
+        double tileMaximumDb = maximumDb;
+        for ( int row = 0; row < rows; row++ ) {
+            final int rowOffset = offset + ( row * rowStride );
+            for ( int i = rowOffset; i < rowOffset + columns; i++ ) {
+                final double splDbValue = splDb.get( i );
+
+                // NOTE: This comparison is false for NaN as well as for infinity.
+                if ( !( Math.abs( splDbValue ) <= Double.MAX_VALUE ) ) {
+                    continue;
+                }
+
+                final int binIndex = ( int ) ( ( splDbValue - SPL_DB_MINIMUM )
+                        * inverseBinWidthDb );
+                counts[ Math.max( 0, Math.min( lastBinIndex, binIndex ) ) ]++;
+                tileCount++;
+                tileMinimumDb = Math.min( tileMinimumDb, splDbValue );
+                tileMaximumDb = Math.max( tileMaximumDb, splDbValue );
+            }
+        }
+
+        count += tileCount;
+        minimumDb = tileMinimumDb;
+        maximumDb = tileMaximumDb;
+    }
+
+    /**
+     * Moves the non-empty bins into a new sparse histogram, leaving this one
+     * empty. Only the bins between the extrema can be non-empty, so only they
+     * are scanned and cleared.
+     *
+     * @return The sparse copy of this histogram
+     */
+    SparseSplHistogram drain() {
+        if ( count == 0L ) {
+            return new SparseSplHistogram( binWidthDb );
+        }
+
+        final int firstBinIndex = getBinIndex( minimumDb );
+        final int lastBinIndex = getBinIndex( maximumDb );
+        int numberOfBins = 0;
+        for ( int i = firstBinIndex; i <= lastBinIndex; i++ ) {
+            if ( binCounts[ i ] != 0L ) {
+                numberOfBins++;
+            }
+        }
+
+        final int[] sparseBinIndices = new int[ numberOfBins ];
+        final long[] sparseBinCounts = new long[ numberOfBins ];
+        int sparseIndex = 0;
+        for ( int i = firstBinIndex; i <= lastBinIndex; i++ ) {
+            if ( binCounts[ i ] != 0L ) {
+                sparseBinIndices[ sparseIndex ] = i;
+                sparseBinCounts[ sparseIndex ] = binCounts[ i ];
+                sparseIndex++;
+                binCounts[ i ] = 0L;
+            }
+        }
+
+        final SparseSplHistogram histogram = new SparseSplHistogram( binWidthDb,
+                                                                     sparseBinIndices,
+                                                                     sparseBinCounts,
+                                                                     count,
+                                                                     minimumDb,
+                                                                     maximumDb );
+        count = 0L;
+        minimumDb = Double.POSITIVE_INFINITY;
+        maximumDb = Double.NEGATIVE_INFINITY;
+
+        return histogram;
+    }
+
+    public void merge( final SplHistogram histogram ) {
+        verifyCompatibility( histogram );
+
+        final long[] otherBinCounts = histogram.binCounts;
+        for ( int i = 0; i < binCounts.length; i++ ) {
+            binCounts[ i ] += otherBinCounts[ i ];
+        }
+        count += histogram.count;
+
+        minimumDb = Math.min( minimumDb, histogram.minimumDb );
+        maximumDb = Math.max( maximumDb, histogram.maximumDb );
+    }
+
+    /**
+     * Removes the bin counts of a previously merged histogram.
+     * <p>
+     * Extrema cannot be un-merged, so they are left as they were; the caller
+     * is responsible for restoring them via {@link #setExtrema}.
+     *
+     * @param histogram
+     *            A histogram that was previously merged into this one
+     */
+    public void subtract( final SplHistogram histogram ) {
+        verifyCompatibility( histogram );
+
+        final long[] otherBinCounts = histogram.binCounts;
+        for ( int i = 0; i < binCounts.length; i++ ) {
+            binCounts[ i ] -= otherBinCounts[ i ];
+        }
+        count -= histogram.count;
+    }
+
+    void merge( final SparseSplHistogram histogram ) {
+        verifyCompatibility( histogram.getBinWidthDb() );
+
+        final int numberOfBins = histogram.getNumberOfBins();
+        for ( int i = 0; i < numberOfBins; i++ ) {
+            binCounts[ histogram.getBinIndex( i ) ] += histogram.getBinCount( i );
+        }
+        count += histogram.getCount();
+
+        minimumDb = Math.min( minimumDb, histogram.getMinimumDb() );
+        maximumDb = Math.max( maximumDb, histogram.getMaximumDb() );
+    }
+
+    // Removes the bin counts of a previously merged sparse histogram, leaving
+    // the extrema as they were, as for the dense overload.
+    void subtract( final SparseSplHistogram histogram ) {
+        verifyCompatibility( histogram.getBinWidthDb() );
+
+        final int numberOfBins = histogram.getNumberOfBins();
+        for ( int i = 0; i < numberOfBins; i++ ) {
+            binCounts[ histogram.getBinIndex( i ) ] -= histogram.getBinCount( i );
+        }
+        count -= histogram.getCount();
+    }
+
+    void setExtrema( final double pMinimumDb, final double pMaximumDb ) {
+        minimumDb = pMinimumDb;
+        maximumDb = pMaximumDb;
+    }
+
+    public int getBinIndex( final double splDb ) {
+        final int binIndex = ( int ) ( ( splDb - SPL_DB_MINIMUM ) * inverseBinWidthDb );
+        return Math.max( 0, Math.min( binCounts.length - 1, binIndex ) );
+    }
+
+    public double getBinWidthDb() {
+        return binWidthDb;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMaximumDb() {
+        return maximumDb;
+    }
+
+    public double getMinimumDb() {
+        return minimumDb;
+    }
+
+    /**
+     * Returns the SPL below which the given fraction of the accumulated cells
+     * lies, accurate to within the bin width and clamped to the exact extrema.
+     *
+     * @param fraction
+     *            The fraction of cells, from 0 to 1 inclusive
+     * @return The SPL at the requested percentile, or NaN if the histogram is
+     *         empty
+     */
+    public double getPercentileDb( final double fraction ) {
+        if ( count == 0L ) {
+            return Double.NaN;
+        }
+        if ( fraction <= 0.0d ) {
+            return minimumDb;
+        }
+        if ( fraction >= 1.0d ) {
+            return maximumDb;
+        }
+
+        // Find the first bin whose cumulative count reaches the target rank,
+        // and report its center as the representative SPL.
+        final long targetRank = Math.max( 1L, ( long ) Math.ceil( fraction * count ) );
+        long cumulativeCount = 0L;
+        int binIndex = 0;
+        for ( ; binIndex < binCounts.length; binIndex++ ) {
+            cumulativeCount += binCounts[ binIndex ];
+            if ( cumulativeCount >= targetRank ) {
+                break;
+            }
+        }
+
+        final double binCenterDb = SPL_DB_MINIMUM + ( binIndex + 0.5d ) * binWidthDb;
+        return Math.max( minimumDb, Math.min( maximumDb, binCenterDb ) );
+    }
+
+    public boolean isEmpty() {
+        return count == 0L;
+    }
+
+    private void verifyCompatibility( final SplHistogram histogram ) {
+        verifyCompatibility( histogram.binWidthDb );
+    }
+
+    private void verifyCompatibility( final double otherBinWidthDb ) {
+        if ( Double.compare( otherBinWidthDb, binWidthDb ) != 0 ) {
+            throw new IllegalArgumentException( "Histogram bin widths differ" ); //$NON-NLS-1$
+        }
+    }
+}
@@ -0,0 +1,533 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+/**
+ * {@code SplProbe} reads the Sound Field SPL under the cursor, bilinearly
+ * interpolated from an {@link SplGrid} in whichever form it is held: a plain
+ * array, a quantized grid, or a memory-mapped grid.
+ * <p>
+ * The mapping from screen pixels to grid cells and interpolation weights is
+ * precomputed per screen column and per screen row whenever the viewport or
+ * the grid size changes, so that a probe is a few table lookups and four
+ * samples, and allocates nothing. All of the probe's inputs are published
+ * together as one immutable state, so probes can run on any thread while
+ * the grid is replaced on another.
+ *
+ * @version 1.0
+ */
+public final class SplProbe {
+
+    // Declare the current grid, colormap range and screen mapping.
+    private volatile ProbeState state;
+
+    public SplProbe() {
+        state = ProbeState.EMPTY;
+    }
+
+    /**
+     * Drops the SPL grid, so that every probe reads nothing until the next one
+     * is set.
+     */
+    public synchronized void clearSplGrid() {
+        final ProbeState current = state;
+        if ( !current.hasSplGrid() ) {
+            return;
+        }
+
+        state = new ProbeState( null,
+                                MultiBandSplRangeService.MODEL_REVISION_NONE,
+                                -1,
+                                current,
+                                current.ceilingDb,
+                                current.splRangeDb );
+    }
+
+    public int getFrequencyBandIndex() {
+        return state.frequencyBandIndex;
+    }
+
+    public long getModelRevision() {
+        return state.modelRevision;
+    }
+
+    public int getNumberOfColumns() {
+        return state.numberOfColumns;
+    }
+
+    public int getNumberOfRows() {
+        return state.numberOfRows;
+    }
+
+    /**
+     * Reads the SPL under a screen position, to the nearest screen pixel.
+     *
+     * @param screenX
+     *            The horizontal screen position, in the same space as the
+     *            screen mapping
+     * @param screenY
+     *            The vertical screen position, in the same space as the
+     *            screen mapping
+     * @param reading
+     *            The reading to fill in, which is cleared if the position is
+     *            off the Sound Field or on a masked cell
+     * @return {@code true} if the reading holds an SPL
+     */
+    public boolean probe( final double screenX,
+                          final double screenY,
+                          final SplProbeReading reading ) {
+        final ProbeState probeState = state;
+        final int screenColumn = ( int ) Math.floor( screenX );
+        final int screenRow = ( int ) Math.floor( screenY );
+        if ( !probeState.hasSplGrid() || ( screenColumn < 0 )
+                || ( screenColumn >= probeState.columnIndices.length ) || ( screenRow < 0 )
+                || ( screenRow >= probeState.rowIndices.length ) ) {
+            reading.clear();
+            return false;
+        }
+
+        final int column = probeState.columnIndices[ screenColumn ];
+        final int row = probeState.rowIndices[ screenRow ];
+        if ( ( column < 0 ) || ( row < 0 ) ) {
+            reading.clear();
+            return false;
+        }
+
+        return interpolate( probeState,
+                            column,
+                            row,
+                            probeState.columnFractions[ screenColumn ],
+                            probeState.rowFractions[ screenRow ],
+                            reading );
+    }
+
+    /**
+     * Reads the SPL at a position in grid coordinates, where whole numbers
+     * are on cell centers, such as for a probe that is placed on the model.
+     *
+     * @param gridX
+     *            The horizontal grid position
+     * @param gridY
+     *            The vertical grid position
+     * @param reading
+     *            The reading to fill in, which is cleared if the position is
+     *            off the grid or on a masked cell
+     * @return {@code true} if the reading holds an SPL
+     */
+    public boolean probeGrid( final double gridX,
+                              final double gridY,
+                              final SplProbeReading reading ) {
+        final ProbeState probeState = state;
+        if ( !probeState.hasSplGrid() || !( gridX >= 0.0d ) || !( gridY >= 0.0d )
+                || ( gridX > ( probeState.numberOfColumns - 1 ) )
+                || ( gridY > ( probeState.numberOfRows - 1 ) ) ) {
+            reading.clear();
+            return false;
+        }
+
+        final int column = Math.min( ( int ) gridX, Math.max( 0, probeState.numberOfColumns - 2 ) );
+        final int row = Math.min( ( int ) gridY, Math.max( 0, probeState.numberOfRows - 2 ) );
+        return interpolate( probeState,
+                            column,
+                            row,
+                            ( float ) ( gridX - column ),
+                            ( float ) ( gridY - row ),
+                            reading );
+    }
+
+    private static boolean interpolate( final ProbeState probeState,
+                                        final int column,
+                                        final int row,
+                                        final float columnFraction,
+                                        final float rowFraction,
+                                        final SplProbeReading reading ) {
+        final int nextColumn = Math.min( column + 1, probeState.numberOfColumns - 1 );
+        final int nextRow = Math.min( row + 1, probeState.numberOfRows - 1 );
+
+        // The nearest cell decides whether the position is masked, so that the
+        // readout agrees with the image, which is not smoothed.
+        final int nearestColumn = ( columnFraction < 0.5f ) ? column : nextColumn;
+        final int nearestRow = ( rowFraction < 0.5f ) ? row : nextRow;
+        if ( Double.isNaN( probeState.getSplDb( nearestColumn, nearestRow ) ) ) {
+            reading.clear();
+            return false;
+        }
+
+        // Interpolate over the unmasked corners only, renormalizing their
+        // weights, so that the edges of masked regions do not read as NaN.
+        final double topLeftDb = probeState.getSplDb( column, row );
+        final double topRightDb = probeState.getSplDb( nextColumn, row );
+        final double bottomLeftDb = probeState.getSplDb( column, nextRow );
+        final double bottomRightDb = probeState.getSplDb( nextColumn, nextRow );
+        final double leftWeight = 1.0d - columnFraction;
+        final double topWeight = 1.0d - rowFraction;
+        double weightedSumDb = 0.0d;
+        double sumOfWeights = 0.0d;
+        if ( !Double.isNaN( topLeftDb ) ) {
+            weightedSumDb += leftWeight * topWeight * topLeftDb;
+            sumOfWeights += leftWeight * topWeight;
+        }
+        if ( !Double.isNaN( topRightDb ) ) {
+            weightedSumDb += columnFraction * topWeight * topRightDb;
+            sumOfWeights += columnFraction * topWeight;
+        }
+        if ( !Double.isNaN( bottomLeftDb ) ) {
+            weightedSumDb += leftWeight * rowFraction * bottomLeftDb;
+            sumOfWeights += leftWeight * rowFraction;
+        }
+        if ( !Double.isNaN( bottomRightDb ) ) {
+            weightedSumDb += columnFraction * rowFraction * bottomRightDb;
+            sumOfWeights += columnFraction * rowFraction;
+        }
+
+        final double splDb = weightedSumDb / sumOfWeights;
+        final double colormapPosition = Math.min( 1.0d,
+                                                  Math.max( 0.0d,
+                                                            ( splDb - probeState.floorDb )
+                                                                    * probeState.inverseSplRangeDb ) );
+        reading.set( splDb,
+                     column + columnFraction,
+                     row + rowFraction,
+                     nearestColumn,
+                     nearestRow,
+                     probeState.frequencyBandIndex,
+                     colormapPosition );
+        return true;
+    }
+
+    /**
+     * Sets the displayed SPL Range, which positions probed SPL values on the
+     * colormap the same way the Sound Field image is colored.
+     *
+     * @param ceilingDb
+     *            The SPL at the top of the colormap
+     * @param splRangeDb
+     *            The SPL Range below the ceiling that spans the colormap
+     * @return {@code true} if the range changed
+     */
+    public synchronized boolean setColormapRange( final double ceilingDb, final double splRangeDb ) {
+        final ProbeState current = state;
+        if ( ( Double.compare( current.ceilingDb, ceilingDb ) == 0 )
+                && ( Double.compare( current.splRangeDb, splRangeDb ) == 0 ) ) {
+            return false;
+        }
+
+        state = new ProbeState( current.splGrid,
+                                current.modelRevision,
+                                current.frequencyBandIndex,
+                                current,
+                                ceilingDb,
+                                splRangeDb );
+        return true;
+    }
+
+    /**
+     * Sets the screen position and size of the Sound Field image, and
+     * precomputes the grid cells and weights under every screen pixel.
+     *
+     * @param imageMinX
+     *            The left edge of the image on the screen
+     * @param imageMinY
+     *            The top edge of the image on the screen
+     * @param imageWidth
+     *            The width of the image on the screen
+     * @param imageHeight
+     *            The height of the image on the screen
+     * @param screenWidth
+     *            The number of screen pixels across that can be probed
+     * @param screenHeight
+     *            The number of screen pixels down that can be probed
+     */
+    public synchronized void setScreenMapping( final double imageMinX,
+                                               final double imageMinY,
+                                               final double imageWidth,
+                                               final double imageHeight,
+                                               final int screenWidth,
+                                               final int screenHeight ) {
+        final ProbeState current = state;
+        state = new ProbeState( current,
+                                new ScreenMapping( imageMinX,
+                                                   imageMinY,
+                                                   imageWidth,
+                                                   imageHeight,
+                                                   screenWidth,
+                                                   screenHeight ) );
+    }
+
+    /**
+     * Sets an SPL grid of any storage to probe, along with the ceiling of its
+     * SPL Range, unless it is the one that is already set.
+     * <p>
+     * This is meant to be called when a grid is posted, and not before every
+     * probe, so that probes never take the lock.
+     *
+     * @param splGrid
+     *            The SPL grid, which must not be modified while the model
+     *            revision stays the same
+     * @param modelRevision
+     *            The revision of the model that the grid was predicted from
+     * @param frequencyBandIndex
+     *            The index of the frequency band of the grid
+     * @param ceilingDb
+     *            The SPL at the top of the colormap for the grid
+     * @return {@code true} if the grid or its ceiling changed
+     */
+    public synchronized boolean setSplGrid( final SplGrid splGrid,
+                                            final long modelRevision,
+                                            final int frequencyBandIndex,
+                                            final double ceilingDb ) {
+        final ProbeState current = state;
+        if ( current.holds( splGrid, modelRevision, frequencyBandIndex )
+                && ( Double.compare( current.ceilingDb, ceilingDb ) == 0 ) ) {
+            return false;
+        }
+
+        state = new ProbeState( splGrid,
+                                modelRevision,
+                                frequencyBandIndex,
+                                current,
+                                ceilingDb,
+                                current.splRangeDb );
+        return true;
+    }
+
+    /**
+     * Sets the displayed SPL Range below the ceiling of the current grid,
+     * such as when the SPL Range spinner changes.
+     *
+     * @param splRangeDb
+     *            The SPL Range below the ceiling that spans the colormap
+     * @return {@code true} if the range changed
+     */
+    public synchronized boolean setSplRangeDb( final double splRangeDb ) {
+        final ProbeState current = state;
+        if ( Double.compare( current.splRangeDb, splRangeDb ) == 0 ) {
+            return false;
+        }
+
+        state = new ProbeState( current.splGrid,
+                                current.modelRevision,
+                                current.frequencyBandIndex,
+                                current,
+                                current.ceilingDb,
+                                splRangeDb );
+        return true;
+    }
+
+    /**
+     * Holds the position and size of the Sound Field image on the screen.
+     */
+    private static final class ScreenMapping {
+        private static final ScreenMapping NONE = new ScreenMapping( 0.0d, 0.0d, 0.0d, 0.0d, 0, 0 );
+
+        private final double               imageMinX;
+        private final double               imageMinY;
+        private final double               imageWidth;
+        private final double               imageHeight;
+        private final int                  screenWidth;
+        private final int                  screenHeight;
+
+        ScreenMapping( final double pImageMinX,
+                       final double pImageMinY,
+                       final double pImageWidth,
+                       final double pImageHeight,
+                       final int pScreenWidth,
+                       final int pScreenHeight ) {
+            imageMinX = pImageMinX;
+            imageMinY = pImageMinY;
+            imageWidth = pImageWidth;
+            imageHeight = pImageHeight;
+            screenWidth = Math.max( 0, pScreenWidth );
+            screenHeight = Math.max( 0, pScreenHeight );
+        }
+    }
+
+    /**
+     * Holds everything a probe reads, so that it is published atomically.
+     */
+    private static final class ProbeState {
+        private static final ProbeState EMPTY = new ProbeState();
+
+        private final SplGrid           splGrid;
+        private final int               numberOfColumns;
+        private final int               numberOfRows;
+        private final long              modelRevision;
+        private final int               frequencyBandIndex;
+
+        // Declare the displayed SPL Range, as set and as used for the
+        // colormap position.
+        private final double            ceilingDb;
+        private final double            splRangeDb;
+        private final double            floorDb;
+        private final double            inverseSplRangeDb;
+
+        // Declare the left (or top) grid cell under each screen column (or
+        // row), or -1 if it is off the image, and the interpolation fraction
+        // towards the next cell.
+        private final ScreenMapping     screenMapping;
+        private final int[]             columnIndices;
+        private final float[]           columnFractions;
+        private final int[]             rowIndices;
+        private final float[]           rowFractions;
+
+        private ProbeState() {
+            splGrid = null;
+            numberOfColumns = 0;
+            numberOfRows = 0;
+            modelRevision = MultiBandSplRangeService.MODEL_REVISION_NONE;
+            frequencyBandIndex = -1;
+
+            ceilingDb = Double.NaN;
+            splRangeDb = Double.NaN;
+            floorDb = Double.NaN;
+            inverseSplRangeDb = Double.NaN;
+
+            screenMapping = ScreenMapping.NONE;
+            columnIndices = new int[ 0 ];
+            columnFractions = new float[ 0 ];
+            rowIndices = new int[ 0 ];
+            rowFractions = new float[ 0 ];
+        }
+
+        // Derive a state with a new grid or colormap range, which reuses the
+        // screen tables unless the grid size changed.
+        ProbeState( final SplGrid pSplGrid,
+                    final long pModelRevision,
+                    final int pFrequencyBandIndex,
+                    final ProbeState previous,
+                    final double pCeilingDb,
+                    final double pSplRangeDb ) {
+            splGrid = pSplGrid;
+            numberOfColumns = ( splGrid != null ) ? splGrid.getNumberOfColumns() : 0;
+            numberOfRows = ( splGrid != null ) ? splGrid.getNumberOfRows() : 0;
+            modelRevision = pModelRevision;
+            frequencyBandIndex = pFrequencyBandIndex;
+
+            ceilingDb = pCeilingDb;
+            splRangeDb = pSplRangeDb;
+            floorDb = ceilingDb - splRangeDb;
+            inverseSplRangeDb = 1.0d / Math.max( Double.MIN_NORMAL, splRangeDb );
+
+            screenMapping = previous.screenMapping;
+            if ( ( numberOfColumns == previous.numberOfColumns )
+                    && ( numberOfRows == previous.numberOfRows ) ) {
+                columnIndices = previous.columnIndices;
+                columnFractions = previous.columnFractions;
+                rowIndices = previous.rowIndices;
+                rowFractions = previous.rowFractions;
+            }
+            else {
+                columnIndices = new int[ screenMapping.screenWidth ];
+                columnFractions = new float[ screenMapping.screenWidth ];
+                rowIndices = new int[ screenMapping.screenHeight ];
+                rowFractions = new float[ screenMapping.screenHeight ];
+                makeTables();
+            }
+        }
+
+        // Derive a state with a new screen mapping.
+        ProbeState( final ProbeState previous, final ScreenMapping pScreenMapping ) {
+            splGrid = previous.splGrid;
+            numberOfColumns = previous.numberOfColumns;
+            numberOfRows = previous.numberOfRows;
+            modelRevision = previous.modelRevision;
+            frequencyBandIndex = previous.frequencyBandIndex;
+
+            ceilingDb = previous.ceilingDb;
+            splRangeDb = previous.splRangeDb;
+            floorDb = previous.floorDb;
+            inverseSplRangeDb = previous.inverseSplRangeDb;
+
+            screenMapping = pScreenMapping;
+            columnIndices = new int[ screenMapping.screenWidth ];
+            columnFractions = new float[ screenMapping.screenWidth ];
+            rowIndices = new int[ screenMapping.screenHeight ];
+            rowFractions = new float[ screenMapping.screenHeight ];
+            makeTables();
+        }
+
+        double getSplDb( final int column, final int row ) {
+            return splGrid.getSplDb( column, row );
+        }
+
+        boolean hasSplGrid() {
+            return ( numberOfColumns > 0 ) && ( numberOfRows > 0 );
+        }
+
+        boolean holds( final SplGrid pSplGrid,
+                       final long pModelRevision,
+                       final int pFrequencyBandIndex ) {
+            return ( splGrid == pSplGrid ) && ( modelRevision == pModelRevision )
+                    && ( frequencyBandIndex == pFrequencyBandIndex );
+        }
+
+        private void makeTables() {
+            makeTable( screenMapping.imageMinX,
+                       screenMapping.imageWidth,
+                       numberOfColumns,
+                       columnIndices,
+                       columnFractions );
+            makeTable( screenMapping.imageMinY,
+                       screenMapping.imageHeight,
+                       numberOfRows,
+                       rowIndices,
+                       rowFractions );
+        }
+
+        // Map the center of each screen pixel to grid coordinates, where the
+        // image spans the grid cells edge to edge.
+        private static void makeTable( final double imageMin,
+                                       final double imageSize,
+                                       final int numberOfCells,
+                                       final int[] indices,
+                                       final float[] fractions ) {
+            final double cellsPerPixel = ( imageSize > 0.0d ) ? numberOfCells / imageSize : 0.0d;
+            final int lastIndex = Math.max( 0, numberOfCells - 2 );
+            for ( int pixel = 0; pixel < indices.length; pixel++ ) {
+                final double imageOffset = ( pixel + 0.5d ) - imageMin;
+                if ( ( numberOfCells == 0 ) || !( imageOffset >= 0.0d )
+                        || !( imageOffset < imageSize ) ) {
+                    indices[ pixel ] = -1;
+                    fractions[ pixel ] = 0.0f;
+                    continue;
+                }
+
+                final double gridPosition = Math.min( numberOfCells - 1,
+                                                      Math.max( 0.0d,
+                                                                ( imageOffset * cellsPerPixel )
+                                                                        - 0.5d ) );
+                final int index = Math.min( ( int ) gridPosition, lastIndex );
+                indices[ pixel ] = index;
+                fractions[ pixel ] = ( float ) ( gridPosition - index );
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+/**
+ * {@code SplProbeReading} holds the Sound Field SPL under a screen position,
+ * as probed by a {@link SplProbe}.
+ * <p>
+ * Unlike most readings, it is mutable, so that one instance can be reused for
+ * every mouse move without allocating.
+ *
+ * @version 1.0
+ */
+public final class SplProbeReading {
+
+    // Flag for whether the probed position is on an unmasked part of the
+    // Sound Field, without which the rest of the reading is meaningless.
+    private boolean valid;
+
+    // Declare the bilinearly interpolated SPL, in dB.
+    private double  splDb;
+
+    // Declare the probed position in grid coordinates, where whole numbers are
+    // on cell centers, and the cell that is nearest to it.
+    private double  gridX;
+    private double  gridY;
+    private int     column;
+    private int     row;
+
+    // Declare the index of the band within the grid that was probed, or -1 for
+    // an anonymous grid. This is an index into the posted Sound Field, not a
+    // band number of any Fractional Octave Band Index, so it is up to the
+    // caller to map it to a frequency.
+    private int     frequencyBandIndex;
+
+    // Declare the position of the SPL within the displayed SPL Range, from
+    // zero at the floor to one at the ceiling, which is where it falls on the
+    // colormap.
+    private double  colormapPosition;
+
+    public SplProbeReading() {
+        clear();
+    }
+
+    void clear() {
+        valid = false;
+        splDb = Double.NaN;
+        gridX = Double.NaN;
+        gridY = Double.NaN;
+        column = -1;
+        row = -1;
+        frequencyBandIndex = -1;
+        colormapPosition = Double.NaN;
+    }
+
+    public double getColormapPosition() {
+        return colormapPosition;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public int getFrequencyBandIndex() {
+        return frequencyBandIndex;
+    }
+
+    public double getGridX() {
+        return gridX;
+    }
+
+    public double getGridY() {
+        return gridY;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public double getSplDb() {
+        return splDb;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    void set( final double pSplDb,
+              final double pGridX,
+              final double pGridY,
+              final int pColumn,
+              final int pRow,
+              final int pFrequencyBandIndex,
+              final double pColormapPosition ) {
+        valid = true;
+        splDb = pSplDb;
+        gridX = pGridX;
+        gridY = pGridY;
+        column = pColumn;
+        row = pRow;
+        frequencyBandIndex = pFrequencyBandIndex;
+        colormapPosition = pColormapPosition;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+/**
+ * {@code SplRange} is an immutable summary of the SPL statistics of a Sound
+ * Field, from which the Auto-Range SPL Range is derived.
+ * <p>
+ * The floor and ceiling are percentiles of the SPL distribution, so that a
+ * handful of outlier cells (such as cells adjacent to a source, or in a deep
+ * interference null) do not dominate the displayed SPL Range.
+ *
+ * @version 1.0
+ */
+public final class SplRange {
+
+    // Declare the smallest SPL Range that is meaningful to display.
+    public static final int       SPL_RANGE_DB_MINIMUM = 1;
+
+    // Declare a shared instance for when there is no valid SPL data at all.
+    public static final SplRange  EMPTY                = new SplRange( Double.NaN,
+                                                                       Double.NaN,
+                                                                       Double.NaN,
+                                                                       Double.NaN,
+                                                                       0L,
+                                                                       false );
+
+    private final double          floorDb;
+    private final double          ceilingDb;
+    private final double          minimumDb;
+    private final double          maximumDb;
+    private final long            cellCount;
+
+    // Flag for whether this range was computed from coarse bins of the grid.
+    private final boolean         approximate;
+
+    public SplRange( final double pFloorDb,
+                     final double pCeilingDb,
+                     final double pMinimumDb,
+                     final double pMaximumDb,
+                     final long pCellCount ) {
+        this( pFloorDb, pCeilingDb, pMinimumDb, pMaximumDb, pCellCount, false );
+    }
+
+    public SplRange( final double pFloorDb,
+                     final double pCeilingDb,
+                     final double pMinimumDb,
+                     final double pMaximumDb,
+                     final long pCellCount,
+                     final boolean pApproximate ) {
+        floorDb = pFloorDb;
+        ceilingDb = pCeilingDb;
+        minimumDb = pMinimumDb;
+        maximumDb = pMaximumDb;
+        cellCount = pCellCount;
+        approximate = pApproximate;
+    }
+
+    /**
+     * Makes an SPL Range from the given histogram, using the supplied
+     * percentiles for the floor and ceiling.
+     *
+     * @param histogram
+     *            The SPL histogram of the Sound Field
+     * @param floorFraction
+     *            The fraction of cells that may lie below the floor
+     * @param ceilingFraction
+     *            The fraction of cells that must lie at or below the ceiling
+     * @return The SPL Range for the histogram, or {@link #EMPTY} if the
+     *         histogram has no valid cells
+     */
+    public static SplRange fromHistogram( final SplHistogram histogram,
+                                          final double floorFraction,
+                                          final double ceilingFraction ) {
+        if ( histogram.isEmpty() ) {
+            return EMPTY;
+        }
+
+        return new SplRange( histogram.getPercentileDb( floorFraction ),
+                             histogram.getPercentileDb( ceilingFraction ),
+                             histogram.getMinimumDb(),
+                             histogram.getMaximumDb(),
+                             histogram.getCount(),
+                             false );
+    }
+
+    public long getCellCount() {
+        return cellCount;
+    }
+
+    public double getCeilingDb() {
+        return ceilingDb;
+    }
+
+    public double getFloorDb() {
+        return floorDb;
+    }
+
+    public double getMaximumDb() {
+        return maximumDb;
+    }
+
+    public double getMinimumDb() {
+        return minimumDb;
+    }
+
+    /**
+     * Returns the SPL Range in whole dB, rounded up so that the displayed range
+     * always covers the span from the floor to the ceiling.
+     *
+     * @return The SPL Range in dB, or the minimum SPL Range if empty
+     */
+    public int getSplRangeDb() {
+        if ( isEmpty() ) {
+            return SPL_RANGE_DB_MINIMUM;
+        }
+
+        final int splRangeDb = ( int ) Math.ceil( ceilingDb - floorDb );
+        return Math.max( SPL_RANGE_DB_MINIMUM, splRangeDb );
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public boolean isEmpty() {
+        return cellCount == 0L;
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    public String toString() {
+        return "SplRange [floorDb=" + floorDb + ", ceilingDb=" + ceilingDb + ", minimumDb="
+                + minimumDb + ", maximumDb=" + maximumDb + ", cellCount=" + cellCount + ", approximate=" + approximate + "]";
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * {@code SplRangeEngine} computes the Auto-Range SPL statistics of a Sound
+ * Field, as a parallel min/max/percentile reduction over any {@link SplGrid}.
+ * <p>
+ * The grid is recursively split into contiguous tiles on a fork-join pool, and
+ * each tile is reduced to an {@link SplHistogram}, which is then merged with
+ * its sibling. As the histogram has a fixed domain, this is a single pass over
+ * the grid, with no sorting and no boxing of SPL values.
+ * <p>
+ * A {@link QuantizedSplGrid} is instead reduced to per-code counts, with no
+ * floating-point math per cell, which are only converted to a histogram once.
+ * A {@link MappedSplGrid} is split along its own tiles, each of which is read
+ * straight from its zero-copy view of the mapping, so it is never materialized
+ * on the heap. Every other grid is copied a block at a time into each tile
+ * histogram.
+ *
+ * @version 1.0
+ */
+public final class SplRangeEngine {
+
+    // Tiles smaller than this are reduced sequentially, as the cost of a
+    // histogram merge would otherwise dominate the cost of the scan.
+    public static final int    TILE_SIZE_DEFAULT                  = 1 << 16;
+
+    // Ignore the bottom 1% and the top 0.1% of the cells, as these are
+    // typically interference nulls and the near field of the sources.
+    public static final double FLOOR_FRACTION_DEFAULT             = 0.01d;
+    public static final double CEILING_FRACTION_DEFAULT           = 0.999d;
+
+    // Declare the default error bound of approximate ranges, which matches
+    // the 1 dB granularity of SPL Range.
+    public static final double APPROXIMATE_ERROR_BOUND_DB_DEFAULT = 1.0d;
+
+    // Declare the pool that the reduction tasks run on.
+    private final ForkJoinPool forkJoinPool;
+
+    // Declare the number of SPL grid cells per sequentially reduced tile.
+    private final int          tileSize;
+
+    // Declare the percentiles used for the floor and ceiling of the range.
+    private final double       floorFraction;
+    private final double       ceilingFraction;
+
+    public SplRangeEngine() {
+        this( ForkJoinPool.commonPool(),
+              TILE_SIZE_DEFAULT,
+              FLOOR_FRACTION_DEFAULT,
+              CEILING_FRACTION_DEFAULT );
+    }
+
+    public SplRangeEngine( final ForkJoinPool pForkJoinPool,
+                           final int pTileSize,
+                           final double pFloorFraction,
+                           final double pCeilingFraction ) {
+        if ( pTileSize < 1 ) {
+            throw new IllegalArgumentException( "Tile size must be positive" ); //$NON-NLS-1$
+        }
+
+        forkJoinPool = pForkJoinPool;
+        tileSize = pTileSize;
+        floorFraction = pFloorFraction;
+        ceilingFraction = pCeilingFraction;
+    }
+
+    /**
+     * Computes the Auto-Range SPL of an SPL grid from bins as wide as the given
+     * error bound, which is cheaper than {@link #computeRange} as there are
+     * far fewer bins to clear and merge per tile.
+     * <p>
+     * Every cell is still reduced, so the minimum and maximum are exact, and
+     * the floor and ceiling are bin centers clamped to those extrema. As the
+     * cell at each percentile lies in the reported bin, the floor and ceiling
+     * lie within half a bin of the exact percentiles of the cells, and hence
+     * within the error bound.
+     *
+     * @param splGrid
+     *            The SPL grid to compute the range of
+     * @param errorBoundDb
+     *            The maximum error of the floor and ceiling, in dB
+     * @return The SPL Range, flagged as approximate
+     */
+    public SplRange computeApproximateRange( final SplGrid splGrid, final double errorBoundDb ) {
+        return makeApproximateRange( computeHistogram( splGrid, errorBoundDb ) );
+    }
+
+    public CompletableFuture< SplRange > computeApproximateRangeAsync( final SplGrid splGrid,
+                                                                       final double errorBoundDb ) {
+        return CompletableFuture.supplyAsync( () -> computeApproximateRange( splGrid,
+                                                                             errorBoundDb ),
+                                              forkJoinPool );
+    }
+
+    public SplHistogram computeHistogram( final SplGrid splGrid ) {
+        if ( splGrid instanceof QuantizedSplGrid ) {
+            return computeCodeHistogram( ( QuantizedSplGrid ) splGrid );
+        }
+
+        return computeHistogram( splGrid, SplHistogram.BIN_WIDTH_DB_DEFAULT );
+    }
+
+    private SplHistogram computeHistogram( final SplGrid splGrid, final double binWidthDb ) {
+        if ( splGrid instanceof MappedSplGrid ) {
+            final MappedSplGrid mappedSplGrid = ( MappedSplGrid ) splGrid;
+            final int numberOfTiles = mappedSplGrid.getNumberOfTiles();
+            return forkJoinPool.invoke( new MappedTileHistogramTask( mappedSplGrid,
+                                                                     binWidthDb,
+                                                                     0,
+                                                                     numberOfTiles,
+                                                                     tileSize ) );
+        }
+
+        return forkJoinPool.invoke( new GridHistogramTask( splGrid,
+                                                           binWidthDb,
+                                                           0,
+                                                           splGrid.getNumberOfCells(),
+                                                           tileSize ) );
+    }
+
+    // Counts the codes of a quantized grid, with no floating-point math per
+    // cell, and only then converts the counts to a histogram.
+    private SplHistogram computeCodeHistogram( final QuantizedSplGrid splGrid ) {
+        final long[] codeCounts = forkJoinPool.invoke( new CodeCountTask( splGrid,
+                                                                          0,
+                                                                          splGrid.getNumberOfCells(),
+                                                                          tileSize ) );
+
+        final SplHistogram histogram = new SplHistogram();
+        final int numberOfLevels = splGrid.getNumberOfLevels();
+        for ( int code = 0; code < numberOfLevels; code++ ) {
+            histogram.add( splGrid.getDb( code ), codeCounts[ code ] );
+        }
+        return histogram;
+    }
+
+    public SplRange computeRange( final SplGrid splGrid ) {
+        return makeRange( computeHistogram( splGrid ) );
+    }
+
+    public CompletableFuture< SplRange > computeRangeAsync( final SplGrid splGrid ) {
+        return CompletableFuture.supplyAsync( () -> computeRange( splGrid ), forkJoinPool );
+    }
+
+    public double getCeilingFraction() {
+        return ceilingFraction;
+    }
+
+    public double getFloorFraction() {
+        return floorFraction;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    private SplRange makeApproximateRange( final SplHistogram histogram ) {
+        final SplRange splRange = makeRange( histogram );
+        if ( splRange.isEmpty() ) {
+            return splRange;
+        }
+
+        return new SplRange( splRange.getFloorDb(),
+                             splRange.getCeilingDb(),
+                             splRange.getMinimumDb(),
+                             splRange.getMaximumDb(),
+                             splRange.getCellCount(),
+                             true );
+    }
+
+    public SplRange makeRange( final SplHistogram histogram ) {
+        return SplRange.fromHistogram( histogram, floorFraction, ceilingFraction );
+    }
+
+    /**
+     * Reduces a contiguous range of the cells of an SPL grid to a histogram.
+     */
+    private static final class GridHistogramTask extends RecursiveTask< SplHistogram > {
+        private static final long serialVersionUID = -2203949236389318227L;
+
+        private final SplGrid     splGrid;
+        private final double      binWidthDb;
+        private final int         fromIndex;
+        private final int         toIndex;
+        private final int         tileSize;
+
+        GridHistogramTask( final SplGrid pSplGrid,
+                           final double pBinWidthDb,
+                           final int pFromIndex,
+                           final int pToIndex,
+                           final int pTileSize ) {
+            splGrid = pSplGrid;
+            binWidthDb = pBinWidthDb;
+            fromIndex = pFromIndex;
+            toIndex = pToIndex;
+            tileSize = pTileSize;
+        }
+
+        @Override
+        protected SplHistogram compute() {
+            if ( ( toIndex - fromIndex ) <= tileSize ) {
+                final SplHistogram histogram = new SplHistogram( binWidthDb );
+                histogram.addAll( splGrid, fromIndex, toIndex );
+                return histogram;
+            }
+
+            final int middleIndex = ( fromIndex + toIndex ) >>> 1;
+            final GridHistogramTask lowerTask = new GridHistogramTask( splGrid,
+                                                                       binWidthDb,
+                                                                       fromIndex,
+                                                                       middleIndex,
+                                                                       tileSize );
+            final GridHistogramTask upperTask = new GridHistogramTask( splGrid,
+                                                                       binWidthDb,
+                                                                       middleIndex,
+                                                                       toIndex,
+                                                                       tileSize );
+            lowerTask.fork();
+            final SplHistogram histogram = upperTask.compute();
+            histogram.merge( lowerTask.join() );
+            return histogram;
+        }
+    }
+
+    /**
+     * Reduces a contiguous range of the tiles of a mapped SPL grid to a
+     * histogram, reading each tile from its zero-copy view.
+     */
+    private static final class MappedTileHistogramTask extends RecursiveTask< SplHistogram > {
+        private static final long   serialVersionUID = 8310236548406193347L;
+
+        private final MappedSplGrid splGrid;
+        private final double        binWidthDb;
+        private final int           fromTileIndex;
+        private final int           toTileIndex;
+        private final int           tileSize;
+
+        MappedTileHistogramTask( final MappedSplGrid pSplGrid,
+                                 final double pBinWidthDb,
+                                 final int pFromTileIndex,
+                                 final int pToTileIndex,
+                                 final int pTileSize ) {
+            splGrid = pSplGrid;
+            binWidthDb = pBinWidthDb;
+            fromTileIndex = pFromTileIndex;
+            toTileIndex = pToTileIndex;
+            tileSize = pTileSize;
+        }
+
+        @Override
+        protected SplHistogram compute() {
+            // Never split a grid tile, however small the task tile size is.
+            final int gridTileSize = splGrid.getTileSize();
+            final int numberOfTiles = toTileIndex - fromTileIndex;
+            if ( ( numberOfTiles <= 1 )
+                    || ( ( ( long ) numberOfTiles * gridTileSize * gridTileSize ) <= tileSize ) ) {
+                final SplHistogram histogram = new SplHistogram( binWidthDb );
+                final int numberOfTileColumns = splGrid.getNumberOfTileColumns();
+                for ( int tileIndex = fromTileIndex; tileIndex < toTileIndex; tileIndex++ ) {
+                    final int tileColumn = tileIndex % numberOfTileColumns;
+                    final int tileRow = tileIndex / numberOfTileColumns;
+                    histogram.addAll( splGrid.getTile( tileColumn, tileRow ),
+                                      0,
+                                      gridTileSize,
+                                      splGrid.getTileColumns( tileColumn ),
+                                      splGrid.getTileRows( tileRow ) );
+                }
+                return histogram;
+            }
+
+            final int middleTileIndex = ( fromTileIndex + toTileIndex ) >>> 1;
+            final MappedTileHistogramTask lowerTask = new MappedTileHistogramTask( splGrid,
+                                                                                   binWidthDb,
+                                                                                   fromTileIndex,
+                                                                                   middleTileIndex,
+                                                                                   tileSize );
+            final MappedTileHistogramTask upperTask = new MappedTileHistogramTask( splGrid,
+                                                                                   binWidthDb,
+                                                                                   middleTileIndex,
+                                                                                   toTileIndex,
+                                                                                   tileSize );
+            lowerTask.fork();
+            final SplHistogram histogram = upperTask.compute();
+            histogram.merge( lowerTask.join() );
+            return histogram;
+        }
+    }
+
+    /**
+     * Reduces a contiguous range of a quantized SPL grid to per-code counts.
+     */
+    private static final class CodeCountTask extends RecursiveTask< long[] > {
+        private static final long serialVersionUID = 4630471530858921957L;
+
+        private final QuantizedSplGrid splGrid;
+        private final int              fromIndex;
+        private final int              toIndex;
+        private final int              tileSize;
+
+        CodeCountTask( final QuantizedSplGrid pSplGrid,
+                       final int pFromIndex,
+                       final int pToIndex,
+                       final int pTileSize ) {
+            splGrid = pSplGrid;
+            fromIndex = pFromIndex;
+            toIndex = pToIndex;
+            tileSize = pTileSize;
+        }
+
+        @Override
+        protected long[] compute() {
+            // Use larger tiles when there are many codes, so that merging the
+            // counts never costs more than counting them.
+            final int numberOfCodes = splGrid.getNumberOfLevels();
+            if ( ( toIndex - fromIndex ) <= Math.max( tileSize, numberOfCodes ) ) {
+                final long[] codeCounts = new long[ numberOfCodes ];
+                splGrid.countCodes( fromIndex, toIndex, codeCounts );
+                return codeCounts;
+            }
+
+            final int middleIndex = ( fromIndex + toIndex ) >>> 1;
+            final CodeCountTask lowerTask = new CodeCountTask( splGrid,
+                                                               fromIndex,
+                                                               middleIndex,
+                                                               tileSize );
+            final CodeCountTask upperTask = new CodeCountTask( splGrid,
+                                                               middleIndex,
+                                                               toIndex,
+                                                               tileSize );
+            lowerTask.fork();
+            final long[] codeCounts = upperTask.compute();
+            final long[] lowerCodeCounts = lowerTask.join();
+            for ( int code = 0; code < numberOfCodes; code++ ) {
+                codeCounts[ code ] += lowerCodeCounts[ code ];
+            }
+            return codeCounts;
+        }
+    }
+}
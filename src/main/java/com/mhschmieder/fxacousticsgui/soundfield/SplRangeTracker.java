@@ -0,0 +1,288 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import java.util.Arrays;
+
+/**
+ * {@code SplRangeTracker} incrementally maintains the Auto-Range SPL
+ * statistics of a tiled Sound Field, so that recomputing part of the field
+ * (such as after moving one loudspeaker) does not require a rescan of the
+ * whole SPL grid.
+ * <p>
+ * Each tile keeps only the non-empty bins of its histogram, along with its
+ * exact extrema, and the grid-wide histogram is the merge of all of them.
+ * Replacing a tile subtracts its old bins and merges its new ones, which costs
+ * time proportional to the tile. The grid-wide extrema only need a pass over
+ * the per-tile extrema when the replaced tile held one of them and no longer
+ * reaches it.
+ * <p>
+ * Tiles may be reported from the worker threads that recompute them. Each
+ * tile is reduced into a histogram of the reporting thread without locking,
+ * so only the subtract and merge into the grid-wide histogram are serialized.
+ * Tiles of a {@link MappedSplGrid} are read straight from the zero-copy views
+ * of the grid tiles that they overlap.
+ *
+ * @version 1.0
+ */
+public final class SplRangeTracker {
+
+    // Declare the dimensions of the SPL grid, in cells.
+    private final int                         numberOfColumns;
+    private final int                         numberOfRows;
+
+    // Declare the dimensions of a (full) tile, in cells.
+    private final int                         tileColumns;
+    private final int                         tileRows;
+
+    // Declare the dimensions of the SPL grid, in tiles.
+    private final int                         numberOfTileColumns;
+    private final int                         numberOfTileRows;
+
+    // Declare the percentiles used for the floor and ceiling of the range.
+    private final double                      floorFraction;
+    private final double                      ceilingFraction;
+
+    // Declare the sparse per-tile histograms, the empty one that every tile
+    // starts out with, and the merge of all of them.
+    private final SparseSplHistogram[]        tileHistograms;
+    private final SparseSplHistogram          emptyTileHistogram;
+    private final SplHistogram                gridHistogram;
+
+    // Declare a scratch histogram per reporting thread to reduce new tile
+    // contents into, which is drained into the tile's sparse histogram.
+    private final ThreadLocal< SplHistogram > scratchHistogram;
+
+    public SplRangeTracker( final int pNumberOfColumns,
+                            final int pNumberOfRows,
+                            final int pTileColumns,
+                            final int pTileRows ) {
+        this( pNumberOfColumns,
+              pNumberOfRows,
+              pTileColumns,
+              pTileRows,
+              SplRangeEngine.FLOOR_FRACTION_DEFAULT,
+              SplRangeEngine.CEILING_FRACTION_DEFAULT );
+    }
+
+    public SplRangeTracker( final int pNumberOfColumns,
+                            final int pNumberOfRows,
+                            final int pTileColumns,
+                            final int pTileRows,
+                            final double pFloorFraction,
+                            final double pCeilingFraction ) {
+        if ( ( pNumberOfColumns < 1 ) || ( pNumberOfRows < 1 ) || ( pTileColumns < 1 )
+                || ( pTileRows < 1 ) ) {
+            throw new IllegalArgumentException( "Grid and tile dimensions must be positive" ); //$NON-NLS-1$
+        }
+
+        numberOfColumns = pNumberOfColumns;
+        numberOfRows = pNumberOfRows;
+        tileColumns = pTileColumns;
+        tileRows = pTileRows;
+        floorFraction = pFloorFraction;
+        ceilingFraction = pCeilingFraction;
+
+        numberOfTileColumns = ( numberOfColumns + tileColumns - 1 ) / tileColumns;
+        numberOfTileRows = ( numberOfRows + tileRows - 1 ) / tileRows;
+
+        gridHistogram = new SplHistogram();
+        emptyTileHistogram = new SparseSplHistogram( gridHistogram.getBinWidthDb() );
+        tileHistograms = new SparseSplHistogram[ numberOfTileColumns * numberOfTileRows ];
+        Arrays.fill( tileHistograms, emptyTileHistogram );
+        scratchHistogram = ThreadLocal.withInitial( SplHistogram::new );
+    }
+
+    public int getNumberOfTileColumns() {
+        return numberOfTileColumns;
+    }
+
+    public int getNumberOfTileRows() {
+        return numberOfTileRows;
+    }
+
+    public synchronized SplRange getRange() {
+        return SplRange.fromHistogram( gridHistogram, floorFraction, ceilingFraction );
+    }
+
+    public synchronized SplRange getTileRange( final int tileColumn, final int tileRow ) {
+        return SplRange.fromHistogram( tileHistograms[ getTileIndex( tileColumn, tileRow ) ]
+                .toHistogram(), floorFraction, ceilingFraction );
+    }
+
+    public synchronized void reset() {
+        Arrays.fill( tileHistograms, emptyTileHistogram );
+        gridHistogram.reset();
+    }
+
+    /**
+     * Replaces the statistics of every tile that intersects the given region
+     * of the SPL grid, such as the region that was just recomputed.
+     *
+     * @param splGrid
+     *            The full SPL grid, with the region already updated
+     * @param firstColumn
+     *            The first column of the recomputed region
+     * @param firstRow
+     *            The first row of the recomputed region
+     * @param regionColumns
+     *            The number of columns in the recomputed region
+     * @param regionRows
+     *            The number of rows in the recomputed region
+     */
+    public void updateRegion( final SplGrid splGrid,
+                              final int firstColumn,
+                              final int firstRow,
+                              final int regionColumns,
+                              final int regionRows ) {
+        final int firstTileColumn = Math.max( 0, firstColumn / tileColumns );
+        final int firstTileRow = Math.max( 0, firstRow / tileRows );
+        final int lastTileColumn = Math.min( numberOfTileColumns - 1,
+                                             ( firstColumn + regionColumns - 1 ) / tileColumns );
+        final int lastTileRow = Math.min( numberOfTileRows - 1,
+                                          ( firstRow + regionRows - 1 ) / tileRows );
+        for ( int tileRow = firstTileRow; tileRow <= lastTileRow; tileRow++ ) {
+            for ( int tileColumn = firstTileColumn; tileColumn <= lastTileColumn; tileColumn++ ) {
+                updateTile( splGrid, tileColumn, tileRow );
+            }
+        }
+    }
+
+    public void updateTile( final SplGrid splGrid, final int tileColumn, final int tileRow ) {
+        final SparseSplHistogram tileHistogram = reduceTile( splGrid, tileColumn, tileRow );
+        synchronized ( this ) {
+            replaceTileHistogram( getTileIndex( tileColumn, tileRow ), tileHistogram );
+        }
+    }
+
+    // Reduce the current contents of a tile through this thread's scratch
+    // histogram, without locking.
+    private SparseSplHistogram reduceTile( final SplGrid splGrid,
+                                           final int tileColumn,
+                                           final int tileRow ) {
+        final int firstColumn = tileColumn * tileColumns;
+        final int firstRow = tileRow * tileRows;
+        final int lastColumn = Math.min( numberOfColumns, firstColumn + tileColumns );
+        final int lastRow = Math.min( numberOfRows, firstRow + tileRows );
+
+        // NOTE: The scratch histogram is always left empty by the drain.
+        final SplHistogram tileHistogram = scratchHistogram.get();
+        if ( splGrid instanceof MappedSplGrid ) {
+            addMappedTiles( tileHistogram,
+                            ( MappedSplGrid ) splGrid,
+                            firstColumn,
+                            firstRow,
+                            lastColumn,
+                            lastRow );
+        }
+        else {
+            for ( int row = firstRow; row < lastRow; row++ ) {
+                final int rowOffset = row * numberOfColumns;
+                tileHistogram.addAll( splGrid, rowOffset + firstColumn, rowOffset + lastColumn );
+            }
+        }
+
+        return tileHistogram.drain();
+    }
+
+    // Add a region of a mapped grid straight from the views of the grid tiles
+    // that it overlaps, which need not line up with the tracked tiles.
+    private static void addMappedTiles( final SplHistogram histogram,
+                                        final MappedSplGrid splGrid,
+                                        final int firstColumn,
+                                        final int firstRow,
+                                        final int lastColumn,
+                                        final int lastRow ) {
+        final int gridTileSize = splGrid.getTileSize();
+        final int lastGridTileColumn = ( lastColumn - 1 ) / gridTileSize;
+        final int lastGridTileRow = ( lastRow - 1 ) / gridTileSize;
+        for ( int gridTileRow = firstRow / gridTileSize; gridTileRow <= lastGridTileRow;
+              gridTileRow++ ) {
+            final int tileFirstRow = gridTileRow * gridTileSize;
+            final int fromRow = Math.max( firstRow, tileFirstRow );
+            final int toRow = Math.min( lastRow, tileFirstRow + gridTileSize );
+            for ( int gridTileColumn = firstColumn / gridTileSize;
+                  gridTileColumn <= lastGridTileColumn; gridTileColumn++ ) {
+                final int tileFirstColumn = gridTileColumn * gridTileSize;
+                final int fromColumn = Math.max( firstColumn, tileFirstColumn );
+                final int toColumn = Math.min( lastColumn, tileFirstColumn + gridTileSize );
+                histogram.addAll( splGrid.getTile( gridTileColumn, gridTileRow ),
+                                  ( ( fromRow - tileFirstRow ) * gridTileSize )
+                                          + ( fromColumn - tileFirstColumn ),
+                                  gridTileSize,
+                                  toColumn - fromColumn,
+                                  toRow - fromRow );
+            }
+        }
+    }
+
+    private int getTileIndex( final int tileColumn, final int tileRow ) {
+        return ( tileRow * numberOfTileColumns ) + tileColumn;
+    }
+
+    // Replace the tile's old histogram, and fold the difference into the
+    // grid-wide histogram.
+    // NOTE: This must be called while holding the lock.
+    private void replaceTileHistogram( final int tileIndex,
+                                       final SparseSplHistogram tileHistogram ) {
+        final SparseSplHistogram oldTileHistogram = tileHistograms[ tileIndex ];
+        final double oldMinimumDb = gridHistogram.getMinimumDb();
+        final double oldMaximumDb = gridHistogram.getMaximumDb();
+
+        gridHistogram.subtract( oldTileHistogram );
+        gridHistogram.merge( tileHistogram );
+        tileHistograms[ tileIndex ] = tileHistogram;
+
+        // Merging has already widened the extrema to the new tile, so they
+        // only need a rescan if the old tile held one that the new one lacks.
+        // NOTE: Another tile may hold the same extremum, which the rescan finds.
+        final boolean minimumRemoved = ( oldTileHistogram.getMinimumDb() <= oldMinimumDb )
+                && ( tileHistogram.getMinimumDb() > oldMinimumDb );
+        final boolean maximumRemoved = ( oldTileHistogram.getMaximumDb() >= oldMaximumDb )
+                && ( tileHistogram.getMaximumDb() < oldMaximumDb );
+        if ( minimumRemoved || maximumRemoved ) {
+            updateExtrema();
+        }
+    }
+
+    // The extrema cannot be un-merged, so recompute them from the exact
+    // per-tile extrema, which is cheap compared to rescanning the grid.
+    // NOTE: This must be called while holding the lock.
+    private void updateExtrema() {
+        double minimumDb = Double.POSITIVE_INFINITY;
+        double maximumDb = Double.NEGATIVE_INFINITY;
+        for ( final SparseSplHistogram tileHistogram : tileHistograms ) {
+            minimumDb = Math.min( minimumDb, tileHistogram.getMinimumDb() );
+            maximumDb = Math.max( maximumDb, tileHistogram.getMaximumDb() );
+        }
+        gridHistogram.setExtrema( minimumDb, maximumDb );
+    }
+}
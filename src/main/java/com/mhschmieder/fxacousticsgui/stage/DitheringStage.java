@@ -31,6 +31,7 @@
 package com.mhschmieder.fxacousticsgui.stage;
 
 import com.mhschmieder.fxacousticsgui.layout.DitheringPane;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDisplaySettingsReference;
 import com.mhschmieder.fxcontrols.action.SimulationActions;
 import com.mhschmieder.fxcontrols.control.PredictToolBar;
 import com.mhschmieder.fxgui.stage.XStage;
@@ -56,6 +57,10 @@ public final class DitheringStage extends XStage {
     // Initial value for dithering disablement (can't be passed to layout pane).
     protected final boolean initialDisableDithering;
 
+    // Declare the Sound Field display settings that the Dithering settings
+    // are published to, which re-renders the Sound Field when they change.
+    private SoundFieldDisplaySettingsReference soundFieldDisplaySettings;
+
     public DitheringStage( final ProductBranding pProductBranding,
                            final ClientProperties pClientProperties,
                            final boolean pInitialDisableDithering ) {
@@ -70,6 +75,15 @@ public final class DitheringStage extends XStage {
         initStage();
     }
 
+    // Bind the Sound Field display settings (typically those of the SPL Range
+    // Stage) to the Dithering settings, so that changes re-render the image.
+    public void bindSoundFieldDisplaySettings(
+            final SoundFieldDisplaySettingsReference displaySettings ) {
+        soundFieldDisplaySettings = displaySettings;
+
+        publishDithering();
+    }
+
     public double getDitheringAmount() {
         // Forward this method to the Dithering Pane.
         return ditheringPane.getDitheringAmount();
@@ -99,6 +113,13 @@ public final class DitheringStage extends XStage {
     protected Node loadContent() {
         // Instantiate and return the custom Content Node.
         ditheringPane = new DitheringPane( clientProperties, initialDisableDithering );
+
+        // Publish the Dithering settings whenever they change.
+        ditheringPane._useDitheringCheckBox.selectedProperty()
+                .addListener( ( observable, oldValue, newValue ) -> publishDithering() );
+        ditheringPane._ditheringAmountSpinner.valueProperty()
+                .addListener( ( observable, oldValue, newValue ) -> publishDithering() );
+
         return ditheringPane;
     }
 
@@ -112,6 +133,15 @@ public final class DitheringStage extends XStage {
         return toolBar;
     }
 
+    // Publish the current Dithering settings to the bound display settings.
+    private void publishDithering() {
+        if ( soundFieldDisplaySettings == null ) {
+            return;
+        }
+
+        soundFieldDisplaySettings.updateDithering( isUseDithering(), getDitheringAmount() );
+    }
+
     // NOTE: This is the method to use when updating from Preferences.
     public void updateDithering( final boolean useDithering, 
                                  final double ditheringAmount ) {
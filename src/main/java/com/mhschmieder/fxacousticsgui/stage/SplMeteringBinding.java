@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.stage;
+
+import com.mhschmieder.fxacousticsgui.audio.SplMeterReading;
+import com.mhschmieder.fxacousticsgui.audio.StreamingSplMeter;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+import javafx.application.Platform;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * {@code SplMeteringBinding} hands the readings of a live SPL meter to the
+ * JavaFX Application Thread as Auto-Range SPL results, through a single
+ * pending slot, so that a fast meter never floods the event queue.
+ *
+ * @version 1.0
+ */
+final class SplMeteringBinding {
+
+    // Declare the consumer of the measured ranges, on the JavaFX Application
+    // Thread.
+    private final Consumer< SplRange >               autoRangeSplConsumer;
+
+    // Declare the bound meter, its listener, and whether it was started by
+    // this binding, in which case it is also stopped by it.
+    private StreamingSplMeter                        splMeter;
+    private Consumer< SplMeterReading >              splMeterListener;
+    private boolean                                  splMeterStarted;
+
+    // Declare the latest reading that has not been applied yet.
+    private final AtomicReference< SplMeterReading > pendingSplMeterReading;
+
+    SplMeteringBinding( final Consumer< SplRange > pAutoRangeSplConsumer ) {
+        autoRangeSplConsumer = pAutoRangeSplConsumer;
+        pendingSplMeterReading = new AtomicReference<>();
+    }
+
+    // Apply the latest live SPL meter reading to the Auto-Range SPL.
+    private void applySplMeterReading() {
+        final SplMeterReading reading = pendingSplMeterReading.getAndSet( null );
+        if ( ( reading == null ) || ( splMeter == null ) || reading.isEmpty() ) {
+            return;
+        }
+
+        autoRangeSplConsumer.accept( reading.toSplRange() );
+    }
+
+    // Bind the given meter, after unbinding any other one, and start it if it
+    // is not running yet.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    void bind( final StreamingSplMeter meter ) {
+        unbind();
+
+        splMeter = meter;
+        splMeterListener = reading -> {
+            // Only queue an update if none is pending, as the pending one will
+            // pick up this newer reading when it runs.
+            if ( pendingSplMeterReading.getAndSet( reading ) == null ) {
+                Platform.runLater( this::applySplMeterReading );
+            }
+        };
+        splMeter.addListener( splMeterListener );
+        splMeterStarted = !splMeter.isRunning();
+        if ( splMeterStarted ) {
+            splMeter.start();
+        }
+    }
+
+    // Unbind the meter, leaving the last measured Auto-Range SPL in place.
+    // The meter is stopped if this binding started it, but it is never
+    // closed, as it belongs to the caller.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    void unbind() {
+        if ( splMeter == null ) {
+            return;
+        }
+
+        splMeter.removeListener( splMeterListener );
+        if ( splMeterStarted ) {
+            splMeter.stop();
+        }
+        splMeter = null;
+        splMeterStarted = false;
+        splMeterListener = null;
+        pendingSplMeterReading.set( null );
+    }
+}
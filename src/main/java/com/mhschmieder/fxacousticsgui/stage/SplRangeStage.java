@@ -30,14 +30,40 @@
  */
 package com.mhschmieder.fxacousticsgui.stage;
 
+import com.mhschmieder.fxacousticsgui.audio.StreamingSplMeter;
+import com.mhschmieder.fxacousticsgui.batch.SoundFieldSweepExporter;
 import com.mhschmieder.fxacousticsgui.layout.SplRangePane;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldColorizer;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDisplaySettings;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDisplaySettingsReference;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDitherer;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldFrame;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldImageUtilities;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldImageViewPublisher;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldRenderService;
+import com.mhschmieder.fxacousticsgui.render.SplIsobar;
+import com.mhschmieder.fxacousticsgui.soundfield.AutoRangeSplService;
+import com.mhschmieder.fxacousticsgui.soundfield.SplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplProbeReading;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
 import com.mhschmieder.fxcontrols.action.SimulationActions;
 import com.mhschmieder.fxcontrols.control.PredictToolBar;
 import com.mhschmieder.fxgui.stage.XStage;
 import com.mhschmieder.jcommons.branding.ProductBranding;
 import com.mhschmieder.jcommons.util.ClientProperties;
+import javafx.application.Platform;
 import javafx.scene.Node;
 import javafx.scene.control.ToolBar;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public final class SplRangeStage extends XStage {
 
@@ -56,6 +82,25 @@ public final class SplRangeStage extends XStage {
     // Flag for whether to allow extended SPL Range values.
     private final boolean useExtendedRange;
 
+    // Declare the service that computes the Auto-Range SPL off the JavaFX
+    // Application Thread.
+    private final AutoRangeSplService autoRangeSplService;
+
+    // Declare the service that renders, contours and probes the Sound Field.
+    private final SoundFieldRenderService soundFieldRenderService;
+
+    // Declare the binding of the live SPL meter that drives the Auto-Range SPL
+    // in metering mode.
+    private final SplMeteringBinding splMeteringBinding;
+
+    // Count the Auto-Range SPL requests, so that a background result that
+    // arrives after a newer Auto-Range SPL was requested gets dropped.
+    private final AtomicLong autoRangeGeneration;
+
+    // Declare the published snapshot of the Sound Field display settings,
+    // which render threads read instead of the JavaFX controls.
+    private SoundFieldDisplaySettingsReference soundFieldDisplaySettings;
+
     public SplRangeStage( final ProductBranding pProductBranding,
                           final ClientProperties pClientProperties,
                           final boolean pUseExtendedRange ) {
@@ -66,6 +111,12 @@ public final class SplRangeStage extends XStage {
                pClientProperties );
         
         useExtendedRange = pUseExtendedRange;
+        
+        autoRangeSplService = new AutoRangeSplService();
+        soundFieldRenderService = new SoundFieldRenderService(
+                autoRangeSplService.getSplRangeEngine().getForkJoinPool() );
+        splMeteringBinding = new SplMeteringBinding( this::updateAutoRangeSpl );
+        autoRangeGeneration = new AtomicLong( 0L );
 
         try {
             initStage();
@@ -75,6 +126,106 @@ public final class SplRangeStage extends XStage {
         }
     }
 
+    // Bind a Sound Field image to the SPL Range, so that changes only rebuild
+    // the colorizer's lookup table and re-blit the image from it.
+    // NOTE: New SPL grids should be posted via updateSoundFieldSplGrid(), so
+    //  that they are quantized on the render thread, in between re-renders.
+    public void bindSoundFieldImage( final SoundFieldColorizer colorizer,
+                                     final WritableImage image ) {
+        bindSoundFieldImage( colorizer, null, image );
+    }
+
+    // Bind a Sound Field image to the SPL Range, dithered by the given
+    // ditherer, whose initial Dithering settings are published until the
+    // Dithering Stage is bound to this Stage's display settings.
+    public void bindSoundFieldImage( final SoundFieldColorizer colorizer,
+                                     final SoundFieldDitherer ditherer,
+                                     final WritableImage image ) {
+        // A fixed-size image cannot show reduced-size previews, so only the
+        // final frames are rendered, and copied to the image on the next pulse.
+        bindSoundFieldRenderer( colorizer,
+                                ditherer,
+                                frame -> SoundFieldImageUtilities.writeImage( image,
+                                                                              frame.getArgbPixels(),
+                                                                              frame.getNumberOfColumns(),
+                                                                              frame.getNumberOfRows() ),
+                                false );
+    }
+
+    // Bind a Sound Field image view to the SPL Range, dithered by the given
+    // ditherer if any, which lets large images that are slow to render be
+    // previewed progressively, at reduced sizes that the view scales up.
+    public void bindSoundFieldImageView( final SoundFieldColorizer colorizer,
+                                         final SoundFieldDitherer ditherer,
+                                         final ImageView imageView ) {
+        bindSoundFieldRenderer( colorizer,
+                                ditherer,
+                                new SoundFieldImageViewPublisher( imageView ),
+                                true );
+    }
+
+    private void bindSoundFieldRenderer( final SoundFieldColorizer colorizer,
+                                         final SoundFieldDitherer ditherer,
+                                         final Consumer< SoundFieldFrame > publisher,
+                                         final boolean progressive ) {
+        soundFieldRenderService.bind( colorizer, ditherer, publisher, progressive );
+
+        if ( ditherer != null ) {
+            soundFieldDisplaySettings.updateDithering( ditherer.isUseDithering(),
+                                                       ditherer.getDitheringAmount() );
+        }
+
+        recolorSoundField();
+    }
+
+    // Contour the current Sound Field into isobars at every multiple of the
+    // given SPL step within the SPL Range, for the contour overlay.
+    // NOTE: The SPL Range is read here on the JavaFX Application Thread, but
+    //  the contouring itself runs on the pool of the SPL Range Engine.
+    public CompletableFuture< List< SplIsobar > > computeSoundFieldIsobars( final double stepDb ) {
+        return soundFieldRenderService.computeIsobars( getSplRangeDb(), stepDb );
+    }
+
+    // Export the current Sound Field at every combination of the given SPL
+    // Ranges and Dithering Amounts, where a zero amount is undithered, using
+    // the Dithering Mode of the bound ditherer.
+    // NOTE: The latest posted SPL grid is quantized once for all variants,
+    //  into a colorizer of its own, so the displayed image keeps rendering,
+    //  with a span that resolves the widest of the SPL Ranges.
+    public CompletableFuture< List< Path > > exportSoundFieldSweep( final int[] splRangesDb,
+                                                                    final double[] ditheringAmounts,
+                                                                    final Path outputDirectory,
+                                                                    final String baseName ) {
+        final List< SoundFieldDisplaySettings > variants = SoundFieldSweepExporter
+                .makeVariants( splRangesDb, ditheringAmounts );
+        final SoundFieldSweepExporter sweepExporter = new SoundFieldSweepExporter(
+                autoRangeSplService.getSplRangeEngine().getForkJoinPool(),
+                soundFieldRenderService.getDitheringMode() );
+
+        final int widestSplRangeDb = Arrays.stream( splRangesDb ).max().orElse( 0 );
+        return soundFieldRenderService.quantizeSplGridCopy( widestSplRangeDb )
+                .thenCompose( exportColorizer -> ( exportColorizer != null )
+                    ? sweepExporter.export( exportColorizer, variants, outputDirectory, baseName )
+                    : CompletableFuture.completedFuture( Collections.emptyList() ) );
+    }
+
+    public SplRange getAutoRangeSpl() {
+        // Forward this method to the SPL Range Pane.
+        return splRangePane.getAutoRangeSpl();
+    }
+
+    public AutoRangeSplService getAutoRangeSplService() {
+        return autoRangeSplService;
+    }
+
+    public SoundFieldDisplaySettingsReference getSoundFieldDisplaySettings() {
+        return soundFieldDisplaySettings;
+    }
+
+    public SoundFieldRenderService getSoundFieldRenderService() {
+        return soundFieldRenderService;
+    }
+
     public int getSplRangeDb() {
         // Forward this method to the SPL Range Pane.
         return splRangePane.getSplRangeDb();
@@ -105,6 +256,18 @@ public final class SplRangeStage extends XStage {
         // Instantiate and return the custom Content Node.
         splRangePane = new SplRangePane( clientProperties, 
                                          useExtendedRange );
+
+        // Publish the SPL Range settings whenever they change, which
+        // re-colors the Sound Field via the display settings listener.
+        soundFieldDisplaySettings = new SoundFieldDisplaySettingsReference(
+                new SoundFieldDisplaySettings( getSplRangeDb(), isAutoRangeSpl() ) );
+        soundFieldDisplaySettings.addListener( settings -> recolorSoundField() );
+        soundFieldRenderService.setSplRangeDb( getSplRangeDb() );
+        splRangePane._splRangeSpinner.valueProperty()
+                .addListener( ( observable, oldValue, newValue ) -> publishSplRange() );
+        splRangePane._autoRangeSplCheckBox.selectedProperty()
+                .addListener( ( observable, oldValue, newValue ) -> publishSplRange() );
+
         return splRangePane;
     }
 
@@ -119,6 +282,158 @@ public final class SplRangeStage extends XStage {
         return toolBar;
     }
 
+    // Publish the current SPL Range settings to the display settings, and to
+    // the cursor SPL probe, so that probes never have to read the controls.
+    private void publishSplRange() {
+        soundFieldDisplaySettings.updateSplRange( getSplRangeDb(), isAutoRangeSpl() );
+        soundFieldRenderService.setSplRangeDb( getSplRangeDb() );
+    }
+
+    // Read the Sound Field SPL under the cursor, in the screen space of the
+    // probe's screen mapping, which is set from the displayed image's bounds.
+    // NOTE: The probe already holds the latest posted SPL grid and the SPL
+    //  Range, so this takes no lock and is cheap enough for every mouse move.
+    public boolean probeSoundField( final double screenX,
+                                    final double screenY,
+                                    final SplProbeReading reading ) {
+        return soundFieldRenderService.probe( screenX, screenY, reading );
+    }
+
+    // Request a re-color of the bound Sound Field image for the current
+    // display settings, superseding any re-color not yet displayed.
+    public void recolorSoundField() {
+        soundFieldRenderService.requestRender( soundFieldDisplaySettings.get() );
+    }
+
+    // Display the cached Auto-Range SPL of another frequency band of the last
+    // multi-band Sound Field, such as when stepping through the bands.
+    // NOTE: This returns null and leaves the display alone if the band has
+    //  not been auto-ranged.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    public SplRange selectAutoRangeSplBand( final int frequencyBandIndex ) {
+        final SplRange autoRangeSpl = autoRangeSplService.getBandRange( frequencyBandIndex );
+        if ( autoRangeSpl != null ) {
+            updateAutoRangeSpl( autoRangeSpl );
+        }
+        return autoRangeSpl;
+    }
+
+    // Display a background Auto-Range SPL result on the JavaFX Application
+    // Thread, unless a newer Auto-Range SPL was requested since.
+    // NOTE: Results are displayed in the order that they are handed over, so
+    //  an approximate range never replaces the exact one.
+    private void showAutoRangeSpl( final SplRange autoRangeSpl, final long generation ) {
+        Platform.runLater( () -> {
+            if ( generation == autoRangeGeneration.get() ) {
+                splRangePane.updateAutoRangeSpl( autoRangeSpl );
+            }
+        } );
+    }
+
+    // Switch to metering mode, in which the Auto-Range SPL tracks the dynamic
+    // range measured by the given live SPL meter instead of a predicted Sound
+    // Field. The meter is started if it is not running yet.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    public void startSplMetering( final StreamingSplMeter meter ) {
+        splMeteringBinding.bind( meter );
+    }
+
+    // Leave metering mode, leaving the last measured Auto-Range SPL in place.
+    // The meter is stopped if it was started by startSplMetering(), but it is
+    // not closed, as it belongs to the caller.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    public void stopSplMetering() {
+        splMeteringBinding.unbind();
+    }
+
+    // Auto-range the SPL from the predicted Sound Field in the background,
+    // and display the result once it is ready, unless a newer Auto-Range SPL
+    // has been displayed in the meantime.
+    // NOTE: In Approximate Mode, a range within the approximate error bound
+    //  is displayed first, and the exact range replaces it once the exact
+    //  reduction completes, so the grid must not be modified until then.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    public CompletableFuture< SplRange > updateAutoRangeSpl( final SplGrid splGrid ) {
+        final long generation = autoRangeGeneration.incrementAndGet();
+        final CompletableFuture< SplRange > exactRange = autoRangeSplService
+                .computeRangeAsync( splGrid,
+                                    approximateRange -> showAutoRangeSpl( approximateRange,
+                                                                          generation ) );
+        exactRange.whenComplete( ( autoRangeSpl, throwable ) -> {
+            if ( throwable != null ) {
+                throwable.printStackTrace();
+                return;
+            }
+
+            showAutoRangeSpl( autoRangeSpl, generation );
+        } );
+
+        return exactRange;
+    }
+
+    // Cache an Auto-Range SPL result that was computed elsewhere, such as by
+    // an incremental SPL Range Tracker after a partial Sound Field update.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    public void updateAutoRangeSpl( final SplRange autoRangeSpl ) {
+        // Supersede any pending background result.
+        autoRangeGeneration.incrementAndGet();
+
+        // Forward this method to the SPL Range Pane.
+        splRangePane.updateAutoRangeSpl( autoRangeSpl );
+    }
+
+    // Auto-range every band of a band-interleaved multi-band Sound Field in
+    // one parallel pass in the background, and display the range of the
+    // selected band once it is ready, unless a newer Auto-Range SPL has been
+    // displayed in the meantime.
+    // NOTE: The band grid has one column per band and one row per cell, such
+    //  as a DoubleSplGrid or a FloatSplGrid over the interleaved array.
+    // NOTE: The ranges of the other bands stay cached for the model revision,
+    //  so that selecting them later does not rescan the SPL grid.
+    // NOTE: This method must be invoked on the JavaFX Application Thread.
+    public CompletableFuture< SplRange[] > updateMultiBandAutoRangeSpl( final SplGrid bandGrid,
+                                                                        final long modelRevision,
+                                                                        final int frequencyBandIndex ) {
+        final long generation = autoRangeGeneration.incrementAndGet();
+        final CompletableFuture< SplRange[] > bandRanges = autoRangeSplService
+                .computeBandRangesAsync( bandGrid, modelRevision );
+        bandRanges.whenComplete( ( autoRangeSpls, throwable ) -> {
+            if ( throwable != null ) {
+                throwable.printStackTrace();
+                return;
+            }
+
+            Platform.runLater( () -> {
+                if ( generation == autoRangeGeneration.get() ) {
+                    selectAutoRangeSplBand( frequencyBandIndex );
+                }
+            } );
+        } );
+
+        return bandRanges;
+    }
+
+    // Post a new SPL grid to the bound Sound Field image, which is quantized
+    // on the render thread before the image is re-rendered from it.
+    public void updateSoundFieldSplGrid( final SplGrid splGrid, final SplRange splRange ) {
+        if ( soundFieldRenderService.postSplGrid( splGrid, splRange ) ) {
+            recolorSoundField();
+        }
+    }
+
+    // Post a new SPL grid to the bound Sound Field image, identified by the
+    // model revision and frequency band that it was predicted for, so that
+    // images rendered from it are cached for when they are displayed again.
+    public void updateSoundFieldSplGrid( final SplGrid splGrid,
+                                         final SplRange splRange,
+                                         final long modelRevision,
+                                         final int frequencyBandIndex ) {
+        if ( soundFieldRenderService
+                .postSplGrid( splGrid, splRange, modelRevision, frequencyBandIndex ) ) {
+            recolorSoundField();
+        }
+    }
+
     public void updateSplRange( final boolean autoRangeSpl, 
                                 final int splRangeDb ) {
         // Forward this method to the SPL Range Pane.
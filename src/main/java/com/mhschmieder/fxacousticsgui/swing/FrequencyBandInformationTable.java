@@ -0,0 +1,197 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.swing;
+
+import com.mhschmieder.fxacousticsgui.frequency.FractionalOctaveBandIndex;
+import com.mhschmieder.fxacousticsgui.frequency.FrequencyBandLabels;
+import com.mhschmieder.fxacousticsgui.frequency.FrequencyFormatter;
+
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.table.AbstractTableModel;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.Locale;
+
+/**
+ * {@code FrequencyBandInformationTable} is a companion to
+ * {@link FrequencyRangeInformationTable} that lists every band of a
+ * fractional octave analysis, one band per row, such as for a full spectrum
+ * sweep at 1/24 or 1/48 octave.
+ * <p>
+ * The table is virtualized: its model holds the band frequencies in primitive
+ * arrays, and {@link JTable} only asks for the cells of the visible rows, whose
+ * text is formatted on demand and kept in a bounded cache. Rows have a fixed
+ * height and there is no row sorter, so scrolling never touches the cells of
+ * rows that are off-screen.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class FrequencyBandInformationTable extends JScrollPane {
+    /**
+     *
+     */
+    private static final long         serialVersionUID = -6271489013675290938L;
+
+    // Declare the table model, which formats the visible cells on demand.
+    private final FrequencyBandTableModel tableModel;
+
+    // Declare the table that the model is viewed through.
+    private final JTable              table;
+
+    public FrequencyBandInformationTable() {
+        this( Locale.getDefault() );
+    }
+
+    public FrequencyBandInformationTable( final Locale locale ) {
+        // Always call the superclass constructor first!
+        super();
+
+        tableModel = new FrequencyBandTableModel( new FrequencyBandLabels( new FrequencyFormatter( locale ) ) );
+
+        table = new JTable( tableModel );
+        table.setFillsViewportHeight( true );
+        table.setSelectionMode( ListSelectionModel.SINGLE_SELECTION );
+        table.getTableHeader().setReorderingAllowed( false );
+
+        setViewportView( table );
+
+        // Attempt to force a size that shows a screenful of bands.
+        setPreferredSize( new Dimension( 400, 300 ) );
+    }
+
+    public int getSelectedBand() {
+        return table.getSelectedRow();
+    }
+
+    /**
+     * Replaces the listed bands, which are held by reference rather than
+     * copied.
+     * <p>
+     * NOTE: This method must be invoked on the Event Dispatch Thread.
+     *
+     * @param centerFrequencies
+     *            The center frequency of each band, in Hz
+     * @param startFrequencies
+     *            The start frequency of each band, in Hz
+     * @param stopFrequencies
+     *            The stop frequency of each band, in Hz
+     */
+    public void setBands( final double[] centerFrequencies,
+                          final double[] startFrequencies,
+                          final double[] stopFrequencies ) {
+        tableModel.frequencyBandLabels.setBands( centerFrequencies,
+                                                 startFrequencies,
+                                                 stopFrequencies );
+        tableModel.fireTableDataChanged();
+    }
+
+    /**
+     * Replaces the listed bands with every band of the given fractional octave
+     * band index.
+     * <p>
+     * NOTE: This method must be invoked on the Event Dispatch Thread.
+     *
+     * @param frequencyBandIndex
+     *            The fractional octave band index
+     */
+    public void setFrequencyBandIndex( final FractionalOctaveBandIndex frequencyBandIndex ) {
+        tableModel.frequencyBandLabels.setFrequencyBandIndex( frequencyBandIndex );
+        tableModel.fireTableDataChanged();
+    }
+
+    /**
+     * Selects the given band, and scrolls it into view if it is off-screen,
+     * such as to follow the current band of a sweep.
+     * <p>
+     * NOTE: This method must be invoked on the Event Dispatch Thread.
+     *
+     * @param bandNumber
+     *            The number of the band to select, or -1 to clear the selection
+     */
+    public void setSelectedBand( final int bandNumber ) {
+        if ( ( bandNumber < 0 ) || ( bandNumber >= tableModel.getRowCount() ) ) {
+            table.clearSelection();
+            return;
+        }
+
+        table.setRowSelectionInterval( bandNumber, bandNumber );
+        final Rectangle cellRect = table.getCellRect( bandNumber, 0, true );
+        table.scrollRectToVisible( cellRect );
+    }
+
+    /**
+     * {@code FrequencyBandTableModel} is a read-only table model of frequency
+     * bands, whose cell text is produced lazily by {@link FrequencyBandLabels}.
+     */
+    private static final class FrequencyBandTableModel extends AbstractTableModel {
+        private static final long         serialVersionUID = 8570924305817064829L;
+
+        private final FrequencyBandLabels frequencyBandLabels;
+
+        FrequencyBandTableModel( final FrequencyBandLabels pFrequencyBandLabels ) {
+            frequencyBandLabels = pFrequencyBandLabels;
+        }
+
+        @Override
+        public Class< ? > getColumnClass( final int columnIndex ) {
+            return String.class;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return FrequencyBandLabels.NUMBER_OF_COLUMNS;
+        }
+
+        @Override
+        public String getColumnName( final int column ) {
+            return FrequencyBandLabels.getColumnName( column );
+        }
+
+        @Override
+        public int getRowCount() {
+            return frequencyBandLabels.getNumberOfBands();
+        }
+
+        @Override
+        public Object getValueAt( final int rowIndex, final int columnIndex ) {
+            return frequencyBandLabels.getLabel( rowIndex, columnIndex );
+        }
+
+        @Override
+        public boolean isCellEditable( final int rowIndex, final int columnIndex ) {
+            return false;
+        }
+    }
+}
@@ -30,12 +30,15 @@
  */
 package com.mhschmieder.fxacousticsgui.swing;
 
-import com.mhschmieder.jacoustics.FrequencySignalUtilities;
+import com.mhschmieder.fxacousticsgui.frequency.FractionalOctaveBandIndex;
+import com.mhschmieder.fxacousticsgui.frequency.FractionalOctaveSpectrum;
+import com.mhschmieder.fxacousticsgui.frequency.FrequencyFormatter;
 import com.mhschmieder.jgui.component.DataViewXComponent;
 
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
 import java.awt.Dimension;
-import java.text.NumberFormat;
 import java.util.Locale;
 
 /**
@@ -49,6 +52,11 @@ import java.util.Locale;
  * Furthermore, this component has a specific style applied, for blending in
  * with the background (as opposed to usual black text on white background) and
  * skipping the horizontal and vertical grid lines.
+ * <p>
+ * All four rows are replaced in one step, which fires a single rows-updated
+ * event that only covers the rows that changed, so only those rows repaint.
+ * Updates from threads other than the Event Dispatch Thread are coalesced, so
+ * that only the latest one is applied, by one pending {@code invokeLater}.
  *
  * @version 1.0
  *
@@ -68,6 +76,9 @@ public final class FrequencyRangeInformationTable extends DataViewXComponent {
 
     private static final String BANDWIDTH_UNITS            = " octave";                          //$NON-NLS-1$
 
+    // Declare the number of table rows, one per Frequency Range value.
+    private static final int    NUMBER_OF_ROWS             = 4;
+
     // Declare default formatted data for each table row.
     // NOTE: Unless we modify FrequencyRange.java, it is hard to special
     // case for not pre-computing the start and stop frequencies, so we just
@@ -100,9 +111,33 @@ public final class FrequencyRangeInformationTable extends DataViewXComponent {
     public String               _stopFrequency             = STOP_FREQUENCY_DEFAULT;
 
     /**
-     * Number format cache used for locale-specific number formatting.
+     * Frequency formatter used for locale-specific frequency formatting, which
+     * is safe to use from any thread.
+     */
+    protected FrequencyFormatter frequencyFormatter;
+
+    /**
+     * Fractional octave band index, and the table values pre-rendered from it,
+     * so that selecting a band does no number formatting.
      */
-    protected NumberFormat      numberFormat;
+    protected FractionalOctaveBandIndex frequencyBandIndex;
+    protected String            relativeBandwidthValue;
+    protected String[]          centerFrequencyValues;
+    protected String[]          startFrequencyValues;
+    protected String[]          stopFrequencyValues;
+
+    // Cache the table model that the rows are replaced in as a batch.
+    private FrequencyRangeTableModel tableModel;
+
+    // Hold the latest row values posted from other threads, which supersede
+    // any earlier ones that have not been applied yet.
+    private final Object        pendingRowValuesLock       = new Object();
+    private final String[]      pendingRowValues           = new String[ NUMBER_OF_ROWS ];
+    private boolean             pendingRowValuesPosted     = false;
+    private boolean             pendingRowValuesScheduled  = false;
+
+    // Reuse the row values that are applied on the Event Dispatch Thread.
+    private final String[]      rowValues                  = new String[ NUMBER_OF_ROWS ];
 
     public FrequencyRangeInformationTable() {
         // Always call the superclass constructor first!
@@ -120,6 +155,14 @@ public final class FrequencyRangeInformationTable extends DataViewXComponent {
         // First make sure the table components exist and are initialized.
         super.initTable( _rowData, _columnNames, SwingConstants.LEFT, false );
 
+        // Swap in a table model whose rows can be replaced as a batch, keeping
+        // the columns (and their renderers) that were already set up.
+        tableModel = new FrequencyRangeTableModel( _rowData );
+        final boolean autoCreateColumnsFromModel = table.getAutoCreateColumnsFromModel();
+        table.setAutoCreateColumnsFromModel( false );
+        table.setModel( tableModel );
+        table.setAutoCreateColumnsFromModel( autoCreateColumnsFromModel );
+
         // Initialize the Number Formatters, using the host's default Locale.
         initNumberFormatters( Locale.getDefault() );
 
@@ -146,19 +189,59 @@ public final class FrequencyRangeInformationTable extends DataViewXComponent {
      * @version 1.0
      */
     private void initNumberFormatters( final Locale locale ) {
-        // Cache the number formats so that we don't have to get information
-        // about locale from the OS each time we format a number.
-        numberFormat = NumberFormat.getNumberInstance( locale );
+        // Cache the frequency formatter so that we don't have to get
+        // information about locale from the OS each time we format a number.
+        frequencyFormatter = new FrequencyFormatter( locale );
     }
 
-    public void reset() {
-        table.setValueAt( RELATIVE_BANDWIDTH_LABEL + RELATIVE_BANDWIDTH_DEFAULT, 0, 0 );
-        table.setValueAt( CENTER_FREQUENCY_LABEL + CENTER_FREQUENCY_DEFAULT, 1, 0 );
-        table.setValueAt( START_FREQUENCY_LABEL + START_FREQUENCY_DEFAULT, 2, 0 );
-        table.setValueAt( STOP_FREQUENCY_LABEL + STOP_FREQUENCY_DEFAULT, 3, 0 );
+    // Get the table model that the rows are replaced in as a batch.
+    FrequencyRangeTableModel getTableModel() {
+        return tableModel;
+    }
+
+    // Apply the latest row values posted from other threads.
+    private void applyPendingRowValues() {
+        synchronized ( pendingRowValuesLock ) {
+            pendingRowValuesScheduled = false;
+            if ( !pendingRowValuesPosted ) {
+                return;
+            }
 
-        // Force a repaint event, to display/update the new table values.
-        repaint();
+            System.arraycopy( pendingRowValues, 0, rowValues, 0, NUMBER_OF_ROWS );
+            pendingRowValuesPosted = false;
+        }
+
+        tableModel.setRowValues( rowValues );
+    }
+
+    /**
+     * Shows the loudest band of an analyzed spectrum, such as from a streaming
+     * fractional octave analyzer, or resets the table if the spectrum has no
+     * loudest band. This may be invoked from any thread, as the table rows
+     * are then updated through one coalesced {@code invokeLater}.
+     *
+     * @param spectrum
+     *            The analyzed spectrum
+     */
+    public void postFrequencySpectrum( final FractionalOctaveSpectrum spectrum ) {
+        final int bandNumber = spectrum.getLoudestBandNumber();
+        if ( bandNumber < 0 ) {
+            reset();
+            return;
+        }
+
+        final FractionalOctaveBandIndex spectrumBandIndex = spectrum.getFrequencyBandIndex();
+        setFrequencyRange( spectrumBandIndex.getStartFrequency( bandNumber ),
+                           spectrumBandIndex.getStopFrequency( bandNumber ),
+                           spectrumBandIndex.getRelativeBandwidthLabel(),
+                           spectrumBandIndex.getCenterFrequency( bandNumber ) );
+    }
+
+    public void reset() {
+        updateRows( RELATIVE_BANDWIDTH_LABEL + RELATIVE_BANDWIDTH_DEFAULT,
+                    CENTER_FREQUENCY_LABEL + CENTER_FREQUENCY_DEFAULT,
+                    START_FREQUENCY_LABEL + START_FREQUENCY_DEFAULT,
+                    STOP_FREQUENCY_LABEL + STOP_FREQUENCY_DEFAULT );
     }
 
     // Update the cached Frequency Range data.
@@ -168,12 +251,9 @@ public final class FrequencyRangeInformationTable extends DataViewXComponent {
                                    final double stopFrequency,
                                    final String relativeBandwidth,
                                    final double centerFrequency ) {
-        final String sStartFrequency = FrequencySignalUtilities
-                .getFormattedFrequency( startFrequency, numberFormat );
-        final String sStopFrequency = FrequencySignalUtilities
-                .getFormattedFrequency( stopFrequency, numberFormat );
-        final String sCenterFrequency = FrequencySignalUtilities
-                .getFormattedFrequency( centerFrequency, numberFormat );
+        final String sStartFrequency = frequencyFormatter.format( startFrequency );
+        final String sStopFrequency = frequencyFormatter.format( stopFrequency );
+        final String sCenterFrequency = frequencyFormatter.format( centerFrequency );
 
         _relativeBandwidth = " = " + relativeBandwidth + BANDWIDTH_UNITS;
         _centerFrequency = " = " + sCenterFrequency;
@@ -184,13 +264,151 @@ public final class FrequencyRangeInformationTable extends DataViewXComponent {
         update();
     }
 
+    // Set the fractional octave band index that bands are selected from, and
+    // pre-render the table values for all of its bands.
+    @SuppressWarnings("nls")
+    public void setFrequencyBandIndex( final FractionalOctaveBandIndex pFrequencyBandIndex ) {
+        final int numberOfBands = pFrequencyBandIndex.getNumberOfBands();
+        relativeBandwidthValue = " = " + pFrequencyBandIndex.getRelativeBandwidthLabel()
+                + BANDWIDTH_UNITS;
+        centerFrequencyValues = new String[ numberOfBands ];
+        startFrequencyValues = new String[ numberOfBands ];
+        stopFrequencyValues = new String[ numberOfBands ];
+        for ( int bandNumber = 0; bandNumber < numberOfBands; bandNumber++ ) {
+            centerFrequencyValues[ bandNumber ] = " = "
+                    + pFrequencyBandIndex.getCenterFrequencyLabel( bandNumber );
+            startFrequencyValues[ bandNumber ] = " = "
+                    + pFrequencyBandIndex.getStartFrequencyLabel( bandNumber );
+            stopFrequencyValues[ bandNumber ] = " = "
+                    + pFrequencyBandIndex.getStopFrequencyLabel( bandNumber );
+        }
+
+        frequencyBandIndex = pFrequencyBandIndex;
+    }
+
+    // Update the cached Frequency Range data to a band of the current index.
+    // NOTE: This only swaps in pre-rendered values, so it is cheap enough to
+    //  call for every band of a sweep.
+    public void setFrequencyBand( final int bandNumber ) {
+        if ( ( frequencyBandIndex == null ) || ( bandNumber < 0 )
+                || ( bandNumber >= frequencyBandIndex.getNumberOfBands() ) ) {
+            _relativeBandwidth = RELATIVE_BANDWIDTH_DEFAULT;
+            _centerFrequency = CENTER_FREQUENCY_DEFAULT;
+            _startFrequency = START_FREQUENCY_DEFAULT;
+            _stopFrequency = STOP_FREQUENCY_DEFAULT;
+        }
+        else {
+            _relativeBandwidth = relativeBandwidthValue;
+            _centerFrequency = centerFrequencyValues[ bandNumber ];
+            _startFrequency = startFrequencyValues[ bandNumber ];
+            _stopFrequency = stopFrequencyValues[ bandNumber ];
+        }
+
+        // Update the associated labels in the table.
+        update();
+    }
+
     protected void update() {
-        table.setValueAt( RELATIVE_BANDWIDTH_LABEL + _relativeBandwidth, 0, 0 );
-        table.setValueAt( CENTER_FREQUENCY_LABEL + _centerFrequency, 1, 0 );
-        table.setValueAt( START_FREQUENCY_LABEL + _startFrequency, 2, 0 );
-        table.setValueAt( STOP_FREQUENCY_LABEL + _stopFrequency, 3, 0 );
+        updateRows( RELATIVE_BANDWIDTH_LABEL + _relativeBandwidth,
+                    CENTER_FREQUENCY_LABEL + _centerFrequency,
+                    START_FREQUENCY_LABEL + _startFrequency,
+                    STOP_FREQUENCY_LABEL + _stopFrequency );
+    }
+
+    // Replace all of the table rows in one batch, directly on the Event
+    // Dispatch Thread, or else via one coalesced invokeLater().
+    private void updateRows( final String relativeBandwidthRow,
+                             final String centerFrequencyRow,
+                             final String startFrequencyRow,
+                             final String stopFrequencyRow ) {
+        if ( SwingUtilities.isEventDispatchThread() ) {
+            synchronized ( pendingRowValuesLock ) {
+                // Any posted row values are older than these, so drop them.
+                pendingRowValuesPosted = false;
+            }
+
+            rowValues[ 0 ] = relativeBandwidthRow;
+            rowValues[ 1 ] = centerFrequencyRow;
+            rowValues[ 2 ] = startFrequencyRow;
+            rowValues[ 3 ] = stopFrequencyRow;
+            tableModel.setRowValues( rowValues );
+            return;
+        }
+
+        synchronized ( pendingRowValuesLock ) {
+            pendingRowValues[ 0 ] = relativeBandwidthRow;
+            pendingRowValues[ 1 ] = centerFrequencyRow;
+            pendingRowValues[ 2 ] = startFrequencyRow;
+            pendingRowValues[ 3 ] = stopFrequencyRow;
+            pendingRowValuesPosted = true;
+
+            if ( !pendingRowValuesScheduled ) {
+                pendingRowValuesScheduled = true;
+                SwingUtilities.invokeLater( this::applyPendingRowValues );
+            }
+        }
+    }
+
+    /**
+     * {@code FrequencyRangeTableModel} is a read-only, single-column table
+     * model whose rows are replaced as a batch, firing one event for just the
+     * range of rows that changed.
+     */
+    static final class FrequencyRangeTableModel extends AbstractTableModel {
+        private static final long serialVersionUID = -2887467317264941520L;
 
-        // Force a repaint event, to display/update the new table values.
-        repaint();
+        private final Object[]    rowValues;
+
+        FrequencyRangeTableModel( final Object[][] rowData ) {
+            rowValues = new Object[ rowData.length ];
+            for ( int row = 0; row < rowData.length; row++ ) {
+                rowValues[ row ] = rowData[ row ][ 0 ];
+            }
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 1;
+        }
+
+        @Override
+        public String getColumnName( final int column ) {
+            return ""; //$NON-NLS-1$
+        }
+
+        @Override
+        public int getRowCount() {
+            return rowValues.length;
+        }
+
+        @Override
+        public Object getValueAt( final int rowIndex, final int columnIndex ) {
+            return rowValues[ rowIndex ];
+        }
+
+        @Override
+        public boolean isCellEditable( final int rowIndex, final int columnIndex ) {
+            return false;
+        }
+
+        // Replace the row values, and fire one rows-updated event for the
+        // span of rows that actually changed, if any.
+        void setRowValues( final Object[] newRowValues ) {
+            int firstChangedRow = -1;
+            int lastChangedRow = -1;
+            for ( int row = 0; row < rowValues.length; row++ ) {
+                if ( !newRowValues[ row ].equals( rowValues[ row ] ) ) {
+                    rowValues[ row ] = newRowValues[ row ];
+                    if ( firstChangedRow < 0 ) {
+                        firstChangedRow = row;
+                    }
+                    lastChangedRow = row;
+                }
+            }
+
+            if ( firstChangedRow >= 0 ) {
+                fireTableRowsUpdated( firstChangedRow, lastChangedRow );
+            }
+        }
     }
 }
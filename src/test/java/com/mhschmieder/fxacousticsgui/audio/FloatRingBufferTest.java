@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.audio;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the capacity, wraparound and ordering of {@link FloatRingBuffer}.
+ */
+final class FloatRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals( 8, new FloatRingBuffer( 5 ).getCapacity() );
+        assertEquals( 8, new FloatRingBuffer( 8 ).getCapacity() );
+        assertEquals( 16, new FloatRingBuffer( 9 ).getCapacity() );
+    }
+
+    @Test
+    void emptyBufferReadsNothing() {
+        final FloatRingBuffer ringBuffer = new FloatRingBuffer( 8 );
+
+        assertEquals( 0, ringBuffer.read( new float[ 4 ], 0, 4 ) );
+        assertEquals( 0, ringBuffer.getNumberOfReadableSamples() );
+    }
+
+    @Test
+    void fullBufferAcceptsOnlyWhatFits() {
+        final FloatRingBuffer ringBuffer = new FloatRingBuffer( 8 );
+
+        assertEquals( 8, ringBuffer.write( new float[ 10 ], 0, 10 ) );
+        assertEquals( 0, ringBuffer.write( new float[ 1 ], 0, 1 ) );
+        assertEquals( 8, ringBuffer.getNumberOfReadableSamples() );
+    }
+
+    @Test
+    void samplesWrapAroundTheEndInOrder() {
+        final FloatRingBuffer ringBuffer = new FloatRingBuffer( 8 );
+        final float[] target = new float[ 8 ];
+
+        // Advance both positions to near the end of the array, so that the
+        // next write and read each straddle it.
+        assertEquals( 6, ringBuffer.write( new float[ 6 ], 0, 6 ) );
+        assertEquals( 6, ringBuffer.read( target, 0, 6 ) );
+
+        assertEquals( 5, ringBuffer.write( new float[] { 1f, 2f, 3f, 4f, 5f }, 0, 5 ) );
+        assertEquals( 5, ringBuffer.getNumberOfReadableSamples() );
+
+        final float[] wrapped = new float[ 7 ];
+        assertEquals( 5, ringBuffer.read( wrapped, 1, 6 ) );
+        assertArrayEquals( new float[] { 0f, 1f, 2f, 3f, 4f, 5f, 0f }, wrapped );
+        assertEquals( 0, ringBuffer.getNumberOfReadableSamples() );
+    }
+
+    @Test
+    void producerAndConsumerThreadsKeepEverySampleInOrder() throws InterruptedException {
+        final int numberOfSamples = 1 << 16;
+        final FloatRingBuffer ringBuffer = new FloatRingBuffer( 256 );
+
+        final Thread producer = new Thread( () -> {
+            final float[] block = new float[ 37 ];
+            int next = 0;
+            while ( next < numberOfSamples ) {
+                final int length = Math.min( block.length, numberOfSamples - next );
+                for ( int i = 0; i < length; i++ ) {
+                    block[ i ] = next + i;
+                }
+
+                int written = 0;
+                while ( written < length ) {
+                    written += ringBuffer.write( block, written, length - written );
+                }
+                next += length;
+            }
+        } );
+        producer.start();
+
+        final float[] block = new float[ 23 ];
+        int expected = 0;
+        int mismatches = 0;
+        while ( expected < numberOfSamples ) {
+            final int count = ringBuffer.read( block, 0, block.length );
+            for ( int i = 0; i < count; i++ ) {
+                if ( block[ i ] != expected++ ) {
+                    mismatches++;
+                }
+            }
+        }
+        producer.join();
+
+        assertEquals( 0, mismatches );
+        assertEquals( 0, ringBuffer.getNumberOfReadableSamples() );
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.audio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the time-weighting step response and the statistics of
+ * {@link SplMeter}.
+ */
+final class SplMeterTest {
+
+    private static final double SAMPLE_RATE    = 48000.0d;
+    private static final double CALIBRATION_DB = 120.0d;
+
+    // Declare the level tolerance, as the steps are exact in floating point.
+    private static final double TOLERANCE_DB   = 1.0e-3d;
+
+    // Declare the level change after one time constant of a step up from
+    // silence, and of a step down to silence, in dB.
+    private static final double RISE_DB        = 10.0d * Math.log10( 1.0d - Math.exp( -1.0d ) );
+    private static final double DECAY_DB       = 10.0d * Math.log10( Math.exp( -1.0d ) );
+
+    // Feed the meter a constant mean square for the given time, in blocks.
+    private static void processLevel( final SplMeter splMeter,
+                                      final float amplitude,
+                                      final double seconds ) {
+        final float[] block = new float[ 1000 ];
+        Arrays.fill( block, amplitude );
+        int numberOfSamples = ( int ) Math.round( seconds * SAMPLE_RATE );
+        while ( numberOfSamples > 0 ) {
+            final int length = Math.min( block.length, numberOfSamples );
+            splMeter.process( block, 0, length );
+            numberOfSamples -= length;
+        }
+    }
+
+    @Test
+    void stepsSettleWithTheirTimeConstants() {
+        for ( final TimeWeighting timeWeighting : TimeWeighting.values() ) {
+            final SplMeter splMeter = new SplMeter( SAMPLE_RATE, CALIBRATION_DB, timeWeighting );
+
+            // Seed the meter with silence, then step up to full-scale RMS.
+            processLevel( splMeter, 0.0f, 0.1d );
+            processLevel( splMeter, 1.0f, timeWeighting.getRiseTimeSeconds() );
+            assertEquals( CALIBRATION_DB + RISE_DB, splMeter.getLevelDb(), TOLERANCE_DB );
+
+            // Settle at full scale, then step down to silence.
+            processLevel( splMeter, 1.0f, 20.0d * timeWeighting.getRiseTimeSeconds() );
+            assertEquals( CALIBRATION_DB, splMeter.getLevelDb(), TOLERANCE_DB );
+            processLevel( splMeter, 0.0f, timeWeighting.getDecayTimeSeconds() );
+            assertEquals( CALIBRATION_DB + DECAY_DB, splMeter.getLevelDb(), TOLERANCE_DB );
+        }
+    }
+
+    @Test
+    void fastDecaysAtItsStandardRate() {
+        // A Fast meter decays by about 34.7 dB per second, per IEC 61672-1.
+        final SplMeter splMeter = new SplMeter( SAMPLE_RATE,
+                                                CALIBRATION_DB,
+                                                TimeWeighting.FAST );
+        processLevel( splMeter, 1.0f, 1.0d );
+        processLevel( splMeter, 0.0f, 0.5d );
+        final double decayRate = ( CALIBRATION_DB - splMeter.getLevelDb() ) / 0.5d;
+        assertEquals( 34.7d, decayRate, 0.05d );
+    }
+
+    @Test
+    void changingTheTimeWeightingKeepsTheLevel() {
+        final SplMeter splMeter = new SplMeter( SAMPLE_RATE );
+        processLevel( splMeter, 0.5f, 1.0d );
+        final double levelDb = splMeter.getLevelDb();
+
+        splMeter.setTimeWeighting( TimeWeighting.SLOW );
+        assertEquals( TimeWeighting.SLOW, splMeter.getTimeWeighting() );
+        assertEquals( levelDb, splMeter.getLevelDb(), 0.0d );
+
+        // The slower weighting now rises more slowly toward full scale.
+        processLevel( splMeter, 1.0f, TimeWeighting.SLOW.getRiseTimeSeconds() );
+        final double riseDb = 10.0d
+                * Math.log10( 1.0d - ( 0.75d * Math.exp( -1.0d ) ) );
+        assertEquals( CALIBRATION_DB + riseDb, splMeter.getLevelDb(), TOLERANCE_DB );
+    }
+
+    @Test
+    void statisticsCoverTheBlocksSinceTheLastReset() {
+        final SplMeter splMeter = new SplMeter( SAMPLE_RATE, CALIBRATION_DB, TimeWeighting.FAST );
+        assertTrue( Double.isNaN( splMeter.getLevelDb() ) );
+        assertTrue( Double.isNaN( splMeter.getLeqDb() ) );
+        assertTrue( splMeter.makeReading().isEmpty() );
+
+        // One second at a mean square of 1/4, then one second at 1/16.
+        processLevel( splMeter, 0.5f, 1.0d );
+        processLevel( splMeter, 0.25f, 1.0d );
+        assertEquals( CALIBRATION_DB + ( 10.0d * Math.log10( 0.15625d ) ),
+                      splMeter.getLeqDb(),
+                      TOLERANCE_DB );
+        assertEquals( CALIBRATION_DB + ( 10.0d * Math.log10( 0.25d ) ),
+                      splMeter.getPeakDb(),
+                      TOLERANCE_DB );
+        assertEquals( CALIBRATION_DB + ( 10.0d * Math.log10( 0.25d ) ),
+                      splMeter.getMaximumLevelDb(),
+                      TOLERANCE_DB );
+
+        // The Fast level has decayed for eight time constants by the end.
+        final double minimumMeanSquare = 0.0625d + ( 0.1875d * Math.exp( -8.0d ) );
+        assertEquals( CALIBRATION_DB + ( 10.0d * Math.log10( minimumMeanSquare ) ),
+                      splMeter.getMinimumLevelDb(),
+                      TOLERANCE_DB );
+
+        final SplMeterReading reading = splMeter.makeReading();
+        assertEquals( 96000L, reading.getNumberOfSamples() );
+        assertEquals( 2.0d, reading.getDurationSeconds(), 0.0d );
+        assertEquals( reading.getMinimumLevelDb(), reading.toSplRange().getFloorDb(), 0.0d );
+
+        // A reset restarts the statistics, but not the time-weighted level.
+        final double levelDb = splMeter.getLevelDb();
+        splMeter.resetStatistics();
+        assertEquals( 0L, splMeter.getNumberOfSamples() );
+        assertTrue( Double.isNaN( splMeter.getLeqDb() ) );
+        assertEquals( levelDb, splMeter.getLevelDb(), 0.0d );
+    }
+}
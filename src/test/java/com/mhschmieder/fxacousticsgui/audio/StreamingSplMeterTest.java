@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.audio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks the readings that {@link StreamingSplMeter} publishes for a level step
+ * streamed from raw PCM.
+ */
+final class StreamingSplMeterTest {
+
+    private static final float  SAMPLE_RATE         = 8000.0f;
+    private static final double CALIBRATION_DB      = 120.0d;
+
+    // Declare the samples per reading, at the default publishing interval.
+    private static final int    SAMPLES_PER_READING = 1000;
+
+    // Declare the 16-bit sample values before and after the step, which are a
+    // quarter and a half of full scale.
+    private static final short  QUIET_SAMPLE        = 8192;
+    private static final short  LOUD_SAMPLE         = 16384;
+
+    @TempDir
+    Path                         temporaryDirectory;
+
+    // Write half a second of each level as 16-bit little-endian stereo PCM.
+    private static void writeStep( final Path path ) throws IOException {
+        final int numberOfFrames = ( int ) SAMPLE_RATE;
+        final ByteBuffer pcm = ByteBuffer.allocate( numberOfFrames * 4 )
+                .order( ByteOrder.LITTLE_ENDIAN );
+        for ( int frame = 0; frame < numberOfFrames; frame++ ) {
+            final short sample = ( frame < ( numberOfFrames / 2 ) ) ? QUIET_SAMPLE : LOUD_SAMPLE;
+            pcm.putShort( sample ).putShort( sample );
+        }
+        Files.write( path, pcm.array() );
+    }
+
+    // Convert a mean square, relative to full scale, to a calibrated level.
+    private static double toLevelDb( final double meanSquare ) {
+        return CALIBRATION_DB + ( 10.0d * Math.log10( meanSquare ) );
+    }
+
+    @Test
+    void publishedReadingsFollowTheStepResponse() throws IOException, InterruptedException {
+        final Path pcmPath = temporaryDirectory.resolve( "step.pcm" ); //$NON-NLS-1$
+        writeStep( pcmPath );
+
+        final List< SplMeterReading > readings = new CopyOnWriteArrayList<>();
+        final CountDownLatch endLatch = new CountDownLatch( 1 );
+        try ( StreamingSplMeter splMeter = StreamingSplMeter
+                .openPcmPipe( pcmPath, SAMPLE_RATE, 2, CALIBRATION_DB ) ) {
+            splMeter.addListener( reading -> {
+                readings.add( reading );
+                if ( reading.getNumberOfSamples() >= ( long ) SAMPLE_RATE ) {
+                    endLatch.countDown();
+                }
+            } );
+            splMeter.start();
+            assertTrue( endLatch.await( 10L, TimeUnit.SECONDS ) );
+        }
+
+        // One reading per 125 ms of stream time, even from an unpaced pipe.
+        assertEquals( 8, readings.size() );
+        for ( int i = 0; i < readings.size(); i++ ) {
+            assertEquals( ( i + 1L ) * SAMPLES_PER_READING,
+                          readings.get( i ).getNumberOfSamples() );
+            assertEquals( TimeWeighting.FAST, readings.get( i ).getTimeWeighting() );
+        }
+
+        // The quiet half is steady, as the meter seeds from its first block.
+        final double quietMeanSquare = 0.0625d;
+        final double loudMeanSquare = 0.25d;
+        assertEquals( toLevelDb( quietMeanSquare ), readings.get( 3 ).getLevelDb(), 1.0e-3d );
+
+        // One Fast time constant after the step, the level has covered
+        // 1 - 1/e of the way up, in mean square.
+        final double stepMeanSquare = loudMeanSquare
+                - ( ( loudMeanSquare - quietMeanSquare ) * Math.exp( -1.0d ) );
+        assertEquals( toLevelDb( stepMeanSquare ), readings.get( 4 ).getLevelDb(), 1.0e-3d );
+
+        final SplMeterReading lastReading = readings.get( 7 );
+        assertEquals( toLevelDb( quietMeanSquare ), lastReading.getMinimumLevelDb(), 1.0e-3d );
+        assertEquals( toLevelDb( loudMeanSquare ), lastReading.getPeakDb(), 1.0e-3d );
+        assertEquals( toLevelDb( 0.5d * ( quietMeanSquare + loudMeanSquare ) ),
+                      lastReading.getLeqDb(),
+                      1.0e-3d );
+        assertTrue( lastReading.getMaximumLevelDb() < toLevelDb( loudMeanSquare ) );
+    }
+}
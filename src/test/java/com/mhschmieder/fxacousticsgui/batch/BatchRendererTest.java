@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.batch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mhschmieder.fxacousticsgui.render.DitheringMode;
+import com.mhschmieder.fxacousticsgui.render.RenderCancellation;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldColorizer;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDisplaySettings;
+import com.mhschmieder.fxacousticsgui.soundfield.DoubleSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.MappedSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRangeEngine;
+
+/**
+ * Checks that {@link BatchRenderer} renders every band of its SPL grid files to
+ * PNG files that decode to the interactive colormapping of each band.
+ */
+final class BatchRendererTest {
+
+    private static final int NUMBER_OF_COLUMNS = 90;
+    private static final int NUMBER_OF_ROWS    = 70;
+    private static final int NUMBER_OF_BANDS   = 3;
+
+    // Declare the band that is fully masked, and so is not rendered.
+    private static final int MASKED_BAND       = 2;
+
+    @TempDir
+    Path                     temporaryDirectory;
+
+    // Make a band of a falloff from a source, masking one corner.
+    private static double[] makeSplDb( final int band, final double sourceDb ) {
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        for ( int row = 0; row < NUMBER_OF_ROWS; row++ ) {
+            for ( int column = 0; column < NUMBER_OF_COLUMNS; column++ ) {
+                final double distance = Math.hypot( column + 1.0d, row + 1.0d );
+                splDb[ ( row * NUMBER_OF_COLUMNS ) + column ] = ( ( band == MASKED_BAND )
+                        || ( ( column < 10 ) && ( row < 10 ) ) )
+                            ? Double.NaN
+                            : sourceDb - ( 3.0d * band )
+                                    - ( 20.0d * Math.log10( distance ) );
+            }
+        }
+        return splDb;
+    }
+
+    // Colormap a band the way the interactive display does.
+    private static int[] colorize( final double[] splDb, final int splRangeDb ) {
+        final DoubleSplGrid splGrid = new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        final SplRange splRange = new SplRangeEngine().computeRange( splGrid );
+        final SoundFieldColorizer colorizer = new SoundFieldColorizer( NUMBER_OF_COLUMNS,
+                                                                       NUMBER_OF_ROWS );
+        colorizer.setSplGrid( splGrid, splRange, splRangeDb );
+        colorizer.getLookupTable()
+                .update( colorizer.getIndexBuffer(), colorizer.getCeilingDb(), splRangeDb );
+
+        final int[] argbPixels = new int[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        colorizer.blit( colorizer.getLookupTable().getArgbColors(),
+                        argbPixels,
+                        RenderCancellation.NONE );
+        return argbPixels;
+    }
+
+    private static int[] readArgbPixels( final Path path ) throws IOException {
+        final BufferedImage image = ImageIO.read( path.toFile() );
+        assertEquals( NUMBER_OF_COLUMNS, image.getWidth() );
+        assertEquals( NUMBER_OF_ROWS, image.getHeight() );
+        return image.getRGB( 0, 0, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS, null, 0, NUMBER_OF_COLUMNS );
+    }
+
+    private Path createGrid( final String fileName, final double sourceDb ) throws IOException {
+        final Path path = temporaryDirectory.resolve( fileName );
+        MappedSplGrid.create( path,
+                              NUMBER_OF_COLUMNS,
+                              NUMBER_OF_ROWS,
+                              NUMBER_OF_BANDS,
+                              MappedSplGrid.TILE_SIZE_DEFAULT );
+        for ( int band = 0; band < NUMBER_OF_BANDS; band++ ) {
+            try ( final MappedSplGrid splGrid = MappedSplGrid.open( path, band, true ) ) {
+                splGrid.write( new DoubleSplGrid( makeSplDb( band, sourceDb ),
+                                                  NUMBER_OF_COLUMNS,
+                                                  NUMBER_OF_ROWS ) );
+            }
+        }
+        return path;
+    }
+
+    private BatchRenderJob makeJob( final List< Path > splGridPaths,
+                                    final int[] bandIndices,
+                                    final boolean autoRangeSpl ) {
+        return new BatchRenderJob( splGridPaths,
+                                   bandIndices,
+                                   new SoundFieldDisplaySettings( 30, autoRangeSpl ),
+                                   DitheringMode.ORDERED,
+                                   temporaryDirectory.resolve( "images" ), //$NON-NLS-1$
+                                   2,
+                                   BatchRenderJob.COMPRESSION_LEVEL_DEFAULT );
+    }
+
+    @Test
+    void everyBandDecodesToItsColormapping() throws IOException, InterruptedException {
+        final List< Path > splGridPaths = Arrays
+                .asList( createGrid( "hall.splg", 110.0d ), //$NON-NLS-1$
+                         createGrid( "room.splg", 95.0d ) ); //$NON-NLS-1$
+        final BatchRenderJob job = makeJob( splGridPaths, new int[ 0 ], false );
+        final List< Path > imagePaths = new BatchRenderer( job, new ForkJoinPool( 2 ) ).render();
+
+        // The fully masked band has no SPL Range, so it is skipped.
+        final Path imageDirectory = job.getOutputDirectory();
+        assertEquals( new HashSet<>( Arrays
+                .asList( imageDirectory.resolve( "hall-band0.png" ), //$NON-NLS-1$
+                         imageDirectory.resolve( "hall-band1.png" ), //$NON-NLS-1$
+                         imageDirectory.resolve( "room-band0.png" ), //$NON-NLS-1$
+                         imageDirectory.resolve( "room-band1.png" ) ) ), //$NON-NLS-1$
+                      new HashSet<>( imagePaths ) );
+        assertFalse( Files.exists( imageDirectory.resolve( "hall-band2.png" ) ) ); //$NON-NLS-1$
+
+        for ( int band = 0; band < MASKED_BAND; band++ ) {
+            assertArrayEquals( colorize( makeSplDb( band, 110.0d ), 30 ),
+                               readArgbPixels( imageDirectory
+                                       .resolve( "hall-band" + band + ".png" ) ) ); //$NON-NLS-1$ //$NON-NLS-2$
+            assertArrayEquals( colorize( makeSplDb( band, 95.0d ), 30 ),
+                               readArgbPixels( imageDirectory
+                                       .resolve( "room-band" + band + ".png" ) ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    @Test
+    void autoRangedBandsUseTheirOwnSplRange() throws IOException, InterruptedException {
+        final Path splGridPath = createGrid( "hall.splg", 110.0d ); //$NON-NLS-1$
+        final BatchRenderJob job = makeJob( Arrays.asList( splGridPath ), new int[] { 1 }, true );
+        final List< Path > imagePaths = new BatchRenderer( job, new ForkJoinPool( 2 ) ).render();
+        assertEquals( 1, imagePaths.size() );
+
+        final double[] splDb = makeSplDb( 1, 110.0d );
+        final int splRangeDb = new SplRangeEngine()
+                .computeRange( new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ) )
+                .getSplRangeDb();
+        assertArrayEquals( colorize( splDb, splRangeDb ), readArgbPixels( imagePaths.get( 0 ) ) );
+    }
+
+    @Test
+    void missingBandsFailBeforeRendering() throws IOException {
+        final Path splGridPath = createGrid( "hall.splg", 110.0d ); //$NON-NLS-1$
+        final BatchRenderJob job = makeJob( Arrays.asList( splGridPath ),
+                                            new int[] { 0, NUMBER_OF_BANDS },
+                                            false );
+        assertThrows( IllegalArgumentException.class, () -> new BatchRenderer( job ).render() );
+        assertFalse( Files.exists( job.getOutputDirectory() ) );
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.batch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that the PNG files written by {@link PngImageWriter} decode with
+ * ImageIO to exactly the pixels that were written.
+ */
+final class PngImageWriterTest {
+
+    private static final int NUMBER_OF_COLUMNS = 301;
+    private static final int NUMBER_OF_ROWS    = 217;
+
+    @TempDir
+    Path                     temporaryDirectory;
+
+    // Make an image of noise, which spans several IDAT chunks, with opaque,
+    // translucent and fully transparent pixels.
+    private static int[] makeArgbPixels( final long seed ) {
+        final Random random = new Random( seed );
+        final int[] argbPixels = new int[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        for ( int i = 0; i < argbPixels.length; i++ ) {
+            final int alpha;
+            switch ( random.nextInt( 3 ) ) {
+            case 0:
+                alpha = 0x00;
+                break;
+            case 1:
+                alpha = random.nextInt( 256 );
+                break;
+            default:
+                alpha = 0xFF;
+                break;
+            }
+            argbPixels[ i ] = ( alpha << 24 ) | random.nextInt( 1 << 24 );
+        }
+        return argbPixels;
+    }
+
+    private static int[] readArgbPixels( final Path path ) throws IOException {
+        final BufferedImage image = ImageIO.read( path.toFile() );
+        assertEquals( NUMBER_OF_COLUMNS, image.getWidth() );
+        assertEquals( NUMBER_OF_ROWS, image.getHeight() );
+        assertFalse( image.isAlphaPremultiplied() );
+        return image.getRGB( 0, 0, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS, null, 0, NUMBER_OF_COLUMNS );
+    }
+
+    @Test
+    void writtenImagesDecodeToTheSamePixels() throws IOException {
+        final int[] argbPixels = makeArgbPixels( 11L );
+        for ( final int compressionLevel : new int[] { Deflater.NO_COMPRESSION,
+                                                       Deflater.DEFAULT_COMPRESSION,
+                                                       Deflater.BEST_COMPRESSION } ) {
+            final Path path = temporaryDirectory
+                    .resolve( "noise" + compressionLevel + ".png" ); //$NON-NLS-1$ //$NON-NLS-2$
+            PngImageWriter.write( path,
+                                  argbPixels,
+                                  NUMBER_OF_COLUMNS,
+                                  NUMBER_OF_ROWS,
+                                  compressionLevel );
+            assertArrayEquals( argbPixels, readArgbPixels( path ) );
+        }
+    }
+
+    @Test
+    void rewrittenFileIsReplacedWhole() throws IOException {
+        final Path path = temporaryDirectory.resolve( "image.png" ); //$NON-NLS-1$
+        PngImageWriter.write( path,
+                              makeArgbPixels( 1L ),
+                              NUMBER_OF_COLUMNS,
+                              NUMBER_OF_ROWS,
+                              Deflater.NO_COMPRESSION );
+
+        // A smaller, better compressed image leaves no trace of the first one.
+        final int[] argbPixels = new int[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        for ( int i = 0; i < argbPixels.length; i++ ) {
+            argbPixels[ i ] = ( ( i / NUMBER_OF_COLUMNS ) < 100 ) ? 0xFF2060A0 : 0x00000000;
+        }
+        PngImageWriter.write( path,
+                              argbPixels,
+                              NUMBER_OF_COLUMNS,
+                              NUMBER_OF_ROWS,
+                              Deflater.BEST_COMPRESSION );
+        assertArrayEquals( argbPixels, readArgbPixels( path ) );
+        assertFalse( Files.exists( temporaryDirectory.resolve( "image.png.tmp" ) ) ); //$NON-NLS-1$
+    }
+
+    @Test
+    void invalidDimensionsAreRejected() {
+        final Path path = temporaryDirectory.resolve( "invalid.png" ); //$NON-NLS-1$
+        assertThrows( IllegalArgumentException.class,
+                      () -> PngImageWriter.write( path, new int[ 4 ], 0, 4, 6 ) );
+        assertThrows( IllegalArgumentException.class,
+                      () -> PngImageWriter.write( path, new int[ 4 ], 3, 2, 6 ) );
+        assertFalse( Files.exists( path ) );
+    }
+}
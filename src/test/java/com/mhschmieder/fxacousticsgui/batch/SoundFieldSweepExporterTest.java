@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mhschmieder.fxacousticsgui.render.DitheringMode;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldColorizer;
+import com.mhschmieder.fxacousticsgui.render.SoundFieldDisplaySettings;
+import com.mhschmieder.fxacousticsgui.soundfield.DoubleSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+
+/**
+ * Checks that {@link SoundFieldSweepExporter} writes one image per distinct
+ * variant, under names that never collide.
+ */
+final class SoundFieldSweepExporterTest {
+
+    private static final int    NUMBER_OF_COLUMNS = 24;
+    private static final int    NUMBER_OF_ROWS    = 16;
+
+    private static final String BASE_NAME         = "field"; //$NON-NLS-1$
+
+    @TempDir
+    Path                        temporaryDirectory;
+
+    // Make a colorizer that holds a ramp from 0 dB to 100 dB, quantized for
+    // SPL Ranges of up to 60 dB.
+    private static SoundFieldColorizer makeColorizer() {
+        final int numberOfCells = NUMBER_OF_COLUMNS * NUMBER_OF_ROWS;
+        final double[] splDb = new double[ numberOfCells ];
+        for ( int i = 0; i < numberOfCells; i++ ) {
+            splDb[ i ] = ( 100.0d * i ) / ( numberOfCells - 1 );
+        }
+
+        final SoundFieldColorizer colorizer = new SoundFieldColorizer( NUMBER_OF_COLUMNS,
+                                                                       NUMBER_OF_ROWS );
+        colorizer.setSplGrid( new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ),
+                              new SplRange( 50.0d, 100.0d, 0.0d, 100.0d, numberOfCells ),
+                              60.0d );
+        return colorizer;
+    }
+
+    private static SoundFieldDisplaySettings makeVariant( final int splRangeDb,
+                                                          final boolean useDithering,
+                                                          final double ditheringAmount ) {
+        return new SoundFieldDisplaySettings( splRangeDb, false, useDithering, ditheringAmount );
+    }
+
+    private List< Path > listImages() throws IOException {
+        try ( final Stream< Path > paths = Files.list( temporaryDirectory ) ) {
+            return paths.sorted().collect( Collectors.toList() );
+        }
+    }
+
+    @Test
+    void repeatedSettingsMakeOneVariant() {
+        final List< SoundFieldDisplaySettings > variants = SoundFieldSweepExporter
+                .makeVariants( new int[] { 40, 60, 40 },
+                               new double[] { 0.0d, 25.0d, -5.0d, 25.0d } );
+
+        assertEquals( Arrays.asList( makeVariant( 40, false, 0.0d ),
+                                     makeVariant( 40, true, 25.0d ),
+                                     makeVariant( 60, false, 0.0d ),
+                                     makeVariant( 60, true, 25.0d ) ),
+                      variants );
+    }
+
+    @Test
+    void duplicateVariantsShareOneImage() throws IOException {
+        final SoundFieldSweepExporter exporter = new SoundFieldSweepExporter( ForkJoinPool
+                .commonPool(), DitheringMode.ORDERED, 3, 1 );
+
+        // The second variant is undithered despite its Dithering Amount, and
+        // the fourth formats its Dithering Amount like the third.
+        final List< Path > imagePaths = exporter
+                .export( makeColorizer(),
+                         Arrays.asList( makeVariant( 40, false, 0.0d ),
+                                        makeVariant( 40, false, 10.0d ),
+                                        makeVariant( 40, true, 25.0d ),
+                                        makeVariant( 40, true, 25.0d ),
+                                        makeVariant( 60, true, 25.0d ) ),
+                         temporaryDirectory,
+                         BASE_NAME )
+                .join();
+
+        assertEquals( 5, imagePaths.size() );
+        assertSame( imagePaths.get( 0 ), imagePaths.get( 1 ) );
+        assertSame( imagePaths.get( 2 ), imagePaths.get( 3 ) );
+        assertNotEquals( imagePaths.get( 2 ), imagePaths.get( 4 ) );
+        assertEquals( Arrays.asList( temporaryDirectory.resolve( "field-range40dB-dither25.png" ), //$NON-NLS-1$
+                                     temporaryDirectory.resolve( "field-range40dB.png" ), //$NON-NLS-1$
+                                     temporaryDirectory.resolve( "field-range60dB-dither25.png" ) ), //$NON-NLS-1$
+                      listImages() );
+        for ( final Path imagePath : imagePaths ) {
+            assertTrue( Files.size( imagePath ) > 0L );
+        }
+    }
+
+    @Test
+    void unspannedSplRangesAreRejected() throws IOException {
+        final SoundFieldSweepExporter exporter = new SoundFieldSweepExporter( ForkJoinPool
+                .commonPool(), DitheringMode.ORDERED );
+
+        final Throwable cause = exporter
+                .export( makeColorizer(),
+                         Arrays.asList( makeVariant( 40, false, 0.0d ),
+                                        makeVariant( 120, false, 0.0d ) ),
+                         temporaryDirectory,
+                         BASE_NAME )
+                .handle( ( imagePaths, throwable ) -> throwable )
+                .join();
+
+        assertTrue( cause instanceof IllegalArgumentException );
+        assertFalse( Files.exists( temporaryDirectory.resolve( "field-range40dB.png" ) ) ); //$NON-NLS-1$
+    }
+}
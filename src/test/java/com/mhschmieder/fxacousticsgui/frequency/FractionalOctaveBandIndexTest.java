@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.frequency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the band centers, edges and lookups of
+ * {@link FractionalOctaveBandIndex}.
+ */
+final class FractionalOctaveBandIndexTest {
+
+    // Declare the relative tolerance for computed frequencies.
+    private static final double TOLERANCE = 1.0e-9d;
+
+    @Test
+    void thirdOctaveBandsCoverTheAudibleRange() {
+        final FractionalOctaveBandIndex bandIndex = new FractionalOctaveBandIndex(
+                3, OctaveBase.BASE_TEN, Locale.US );
+
+        // The nominal 20 Hz through 20 kHz bands, per IEC 61260.
+        assertEquals( 31, bandIndex.getNumberOfBands() );
+        assertEquals( 19.9526d, bandIndex.getCenterFrequency( 0 ), 1.0e-4d );
+        assertEquals( 1000.0d, bandIndex.getCenterFrequency( 17 ), 1000.0d * TOLERANCE );
+        assertEquals( 19952.6d, bandIndex.getCenterFrequency( 30 ), 0.1d );
+        assertEquals( "1/3", bandIndex.getRelativeBandwidthLabel() ); //$NON-NLS-1$
+    }
+
+    @Test
+    void adjacentBandsShareTheirEdges() {
+        for ( final OctaveBase octaveBase : OctaveBase.values() ) {
+            for ( final int bandsPerOctave : new int[] { 1, 2, 3, 6, 12, 24, 48 } ) {
+                final FractionalOctaveBandIndex bandIndex = new FractionalOctaveBandIndex(
+                        bandsPerOctave, octaveBase, Locale.US );
+                for ( int bandNumber = 1; bandNumber < bandIndex.getNumberOfBands(); bandNumber++ ) {
+                    final double edgeFrequency = bandIndex.getStartFrequency( bandNumber );
+                    assertEquals( edgeFrequency,
+                                  bandIndex.getStopFrequency( bandNumber - 1 ),
+                                  edgeFrequency * TOLERANCE );
+                }
+            }
+        }
+    }
+
+    @Test
+    void rangeEndsLieWithinTheFirstAndLastBands() {
+        final FractionalOctaveBandIndex bandIndex = new FractionalOctaveBandIndex(
+                12, OctaveBase.BASE_TWO, 100.0d, 400.0d, Locale.US );
+        final int lastBandNumber = bandIndex.getNumberOfBands() - 1;
+
+        assertEquals( 0, bandIndex.getBandNumber( 100.0d ) );
+        assertEquals( lastBandNumber, bandIndex.getBandNumber( 400.0d ) );
+        assertEquals( -1, bandIndex.getBandNumber( bandIndex.getStartFrequency( 0 ) * 0.999d ) );
+        assertEquals( -1, bandIndex.getBandNumber( bandIndex.getStopFrequency( lastBandNumber )
+                * 1.001d ) );
+    }
+
+    @Test
+    void frequenciesOnEitherSideOfAnEdgeFallInAdjacentBands() {
+        final FractionalOctaveBandIndex bandIndex = new FractionalOctaveBandIndex(
+                3, OctaveBase.BASE_TEN, Locale.US );
+        for ( int bandNumber = 0; bandNumber < bandIndex.getNumberOfBands(); bandNumber++ ) {
+            assertEquals( bandNumber,
+                          bandIndex.getBandNumber( bandIndex.getCenterFrequency( bandNumber ) ) );
+            assertEquals( bandNumber,
+                          bandIndex.getBandNumber( bandIndex.getStartFrequency( bandNumber )
+                                  * 1.0001d ) );
+            assertEquals( bandNumber,
+                          bandIndex.getBandNumber( bandIndex.getStopFrequency( bandNumber )
+                                  * 0.9999d ) );
+        }
+    }
+
+    @Test
+    void evenBandCountsStraddleTheReferenceFrequency() {
+        final FractionalOctaveBandIndex bandIndex = new FractionalOctaveBandIndex(
+                2, OctaveBase.BASE_TWO, Locale.US );
+        final int upperBandNumber = bandIndex.getBandNumber(
+                FractionalOctaveBandIndex.REFERENCE_FREQUENCY * 1.0001d );
+
+        assertEquals( upperBandNumber - 1,
+                      bandIndex.getBandNumber( FractionalOctaveBandIndex.REFERENCE_FREQUENCY
+                              * 0.9999d ) );
+        assertEquals( FractionalOctaveBandIndex.REFERENCE_FREQUENCY,
+                      bandIndex.getStartFrequency( upperBandNumber ),
+                      FractionalOctaveBandIndex.REFERENCE_FREQUENCY * TOLERANCE );
+        assertEquals( FractionalOctaveBandIndex.REFERENCE_FREQUENCY * Math.pow( 2.0d, 0.25d ),
+                      bandIndex.getCenterFrequency( upperBandNumber ),
+                      FractionalOctaveBandIndex.REFERENCE_FREQUENCY * TOLERANCE );
+    }
+
+    @Test
+    void nonPositiveFrequenciesAreInNoBand() {
+        final FractionalOctaveBandIndex bandIndex = new FractionalOctaveBandIndex(
+                1, OctaveBase.BASE_TWO, Locale.US );
+
+        assertEquals( -1, bandIndex.getBandNumber( 0.0d ) );
+        assertEquals( -1, bandIndex.getBandNumber( -1000.0d ) );
+        assertEquals( -1, bandIndex.getBandNumber( Double.NaN ) );
+    }
+
+    @Test
+    void unsupportedSettingsAreRejected() {
+        assertThrows( IllegalArgumentException.class,
+                      () -> new FractionalOctaveBandIndex( 0, OctaveBase.BASE_TWO, Locale.US ) );
+        assertThrows( IllegalArgumentException.class,
+                      () -> new FractionalOctaveBandIndex( 49, OctaveBase.BASE_TWO, Locale.US ) );
+        assertThrows( IllegalArgumentException.class,
+                      () -> new FractionalOctaveBandIndex( 3,
+                                                           OctaveBase.BASE_TEN,
+                                                           1000.0d,
+                                                           100.0d,
+                                                           Locale.US ) );
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.frequency;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the band levels that {@link FractionalOctaveFilterBank} integrates
+ * from sine waves, and how it handles silence and bands beyond Nyquist.
+ */
+final class FractionalOctaveFilterBankTest {
+
+    private static final double SAMPLE_RATE      = 48000.0d;
+
+    // Declare the sine amplitude, and the level of its mean square in dB.
+    private static final double AMPLITUDE        = 0.5d;
+    private static final double SINE_LEVEL_DB    = 20.0d
+            * Math.log10( AMPLITUDE / Math.sqrt( 2.0d ) );
+
+    // Declare the number of the 1 kHz band in the base ten third octave index.
+    private static final int    BAND_NUMBER_1KHZ = 17;
+
+    // Make a sine wave of the given frequency and length.
+    private static float[] makeSine( final double frequency, final int numberOfSamples ) {
+        final float[] samples = new float[ numberOfSamples ];
+        for ( int i = 0; i < numberOfSamples; i++ ) {
+            samples[ i ] = ( float ) ( AMPLITUDE
+                    * Math.sin( ( 2.0d * Math.PI * frequency * i ) / SAMPLE_RATE ) );
+        }
+        return samples;
+    }
+
+    // Measure the band levels of a sine wave, once its filters have settled.
+    private static int measureSine( final FractionalOctaveFilterBank filterBank,
+                                    final double frequency,
+                                    final double[] bandLevelsDb ) {
+        final float[] samples = makeSine( frequency, ( int ) SAMPLE_RATE );
+        filterBank.process( samples, 0, samples.length / 2 );
+        filterBank.drainBandLevels( bandLevelsDb );
+        filterBank.process( samples, samples.length / 2, samples.length / 2 );
+        return filterBank.drainBandLevels( bandLevelsDb );
+    }
+
+    @Test
+    void sineLandsInItsBandAtItsLevel() {
+        final FractionalOctaveBandIndex bandIndex = new FractionalOctaveBandIndex(
+                3, OctaveBase.BASE_TEN, Locale.US );
+        final FractionalOctaveFilterBank filterBank = new FractionalOctaveFilterBank(
+                bandIndex, SAMPLE_RATE );
+        final double[] bandLevelsDb = new double[ bandIndex.getNumberOfBands() ];
+
+        assertEquals( BAND_NUMBER_1KHZ, measureSine( filterBank, 1000.0d, bandLevelsDb ) );
+        assertEquals( SINE_LEVEL_DB, bandLevelsDb[ BAND_NUMBER_1KHZ ], 0.2d );
+
+        // The fourth-order skirts fall off by at least 6 dB at the adjacent
+        // band centers, and by at least 15 dB a band further out.
+        assertTrue( bandLevelsDb[ BAND_NUMBER_1KHZ - 1 ] < ( SINE_LEVEL_DB - 6.0d ) );
+        assertTrue( bandLevelsDb[ BAND_NUMBER_1KHZ + 1 ] < ( SINE_LEVEL_DB - 6.0d ) );
+        assertTrue( bandLevelsDb[ BAND_NUMBER_1KHZ - 2 ] < ( SINE_LEVEL_DB - 15.0d ) );
+        assertTrue( bandLevelsDb[ BAND_NUMBER_1KHZ + 2 ] < ( SINE_LEVEL_DB - 15.0d ) );
+
+        // At a band limit, the cascade is 3 dB down in both adjacent bands.
+        filterBank.reset();
+        measureSine( filterBank, bandIndex.getStopFrequency( BAND_NUMBER_1KHZ ), bandLevelsDb );
+        assertEquals( SINE_LEVEL_DB - 3.0d, bandLevelsDb[ BAND_NUMBER_1KHZ ], 0.5d );
+        assertEquals( SINE_LEVEL_DB - 3.0d, bandLevelsDb[ BAND_NUMBER_1KHZ + 1 ], 0.5d );
+    }
+
+    @Test
+    void blockSizeDoesNotChangeTheLevels() {
+        final FractionalOctaveBandIndex bandIndex = new FractionalOctaveBandIndex(
+                6, OctaveBase.BASE_TWO, Locale.US );
+        final float[] samples = makeSine( 440.0d, 9600 );
+
+        final FractionalOctaveFilterBank oneBlockFilterBank = new FractionalOctaveFilterBank(
+                bandIndex, SAMPLE_RATE );
+        oneBlockFilterBank.process( samples, 0, samples.length );
+        final double[] oneBlockLevelsDb = new double[ bandIndex.getNumberOfBands() ];
+        final int oneBlockLoudestBand = oneBlockFilterBank.drainBandLevels( oneBlockLevelsDb );
+
+        final FractionalOctaveFilterBank smallBlockFilterBank = new FractionalOctaveFilterBank(
+                bandIndex, SAMPLE_RATE );
+        for ( int offset = 0; offset < samples.length; offset += 64 ) {
+            smallBlockFilterBank.process( samples, offset, 64 );
+        }
+        assertEquals( samples.length, smallBlockFilterBank.getNumberOfIntegratedSamples() );
+        final double[] smallBlockLevelsDb = new double[ bandIndex.getNumberOfBands() ];
+        assertEquals( oneBlockLoudestBand,
+                      smallBlockFilterBank.drainBandLevels( smallBlockLevelsDb ) );
+        assertArrayEquals( oneBlockLevelsDb, smallBlockLevelsDb, 1.0e-9d );
+    }
+
+    @Test
+    void silenceAndUnanalyzedBandsHaveNoLevel() {
+        final FractionalOctaveBandIndex bandIndex = new FractionalOctaveBandIndex(
+                3, OctaveBase.BASE_TEN, Locale.US );
+
+        // At 8 kHz, the bands above about 3.8 kHz cannot be realized.
+        final FractionalOctaveFilterBank filterBank = new FractionalOctaveFilterBank(
+                bandIndex, 8000.0d );
+        final int numberOfAnalyzedBands = filterBank.getNumberOfAnalyzedBands();
+        assertTrue( numberOfAnalyzedBands < bandIndex.getNumberOfBands() );
+        assertTrue( bandIndex.getStopFrequency( numberOfAnalyzedBands - 1 ) <= 3800.0d );
+
+        final double[] bandLevelsDb = new double[ bandIndex.getNumberOfBands() ];
+        assertEquals( -1, filterBank.drainBandLevels( bandLevelsDb ) );
+        for ( final double bandLevelDb : bandLevelsDb ) {
+            assertTrue( Double.isNaN( bandLevelDb ) );
+        }
+
+        final float[] silence = new float[ 8000 ];
+        filterBank.process( silence, 0, silence.length );
+        filterBank.drainBandLevels( bandLevelsDb );
+        for ( int bandNumber = 0; bandNumber < bandLevelsDb.length; bandNumber++ ) {
+            if ( bandNumber < numberOfAnalyzedBands ) {
+                assertEquals( FractionalOctaveFilterBank.LEVEL_DB_SILENCE,
+                              bandLevelsDb[ bandNumber ] );
+            }
+            else {
+                assertTrue( Double.isNaN( bandLevelsDb[ bandNumber ] ) );
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.frequency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the cell text and the bounded label cache of
+ * {@link FrequencyBandLabels}.
+ */
+final class FrequencyBandLabelsTest {
+
+    private static final FrequencyFormatter FREQUENCY_FORMATTER = new FrequencyFormatter(
+            Locale.US );
+
+    @Test
+    void cellsShowEveryBandOfTheIndex() {
+        final FractionalOctaveBandIndex bandIndex = new FractionalOctaveBandIndex(
+                48, OctaveBase.BASE_TWO, Locale.US );
+        final FrequencyBandLabels bandLabels = new FrequencyBandLabels( FREQUENCY_FORMATTER );
+        bandLabels.setFrequencyBandIndex( bandIndex );
+
+        final int numberOfBands = bandIndex.getNumberOfBands();
+        assertEquals( numberOfBands, bandLabels.getNumberOfBands() );
+        for ( int bandNumber = 0; bandNumber < numberOfBands; bandNumber += 37 ) {
+            assertEquals( Integer.toString( bandNumber + 1 ),
+                          bandLabels.getLabel( bandNumber,
+                                               FrequencyBandLabels.COLUMN_BAND_NUMBER ) );
+            assertEquals( FREQUENCY_FORMATTER.format( bandIndex.getCenterFrequency( bandNumber ) ),
+                          bandLabels.getLabel( bandNumber,
+                                               FrequencyBandLabels.COLUMN_CENTER_FREQUENCY ) );
+            assertEquals( FREQUENCY_FORMATTER.format( bandIndex.getStartFrequency( bandNumber ) ),
+                          bandLabels.getLabel( bandNumber,
+                                               FrequencyBandLabels.COLUMN_START_FREQUENCY ) );
+            assertEquals( FREQUENCY_FORMATTER.format( bandIndex.getStopFrequency( bandNumber ) ),
+                          bandLabels.getLabel( bandNumber,
+                                               FrequencyBandLabels.COLUMN_STOP_FREQUENCY ) );
+        }
+
+        assertThrows( IllegalArgumentException.class,
+                      () -> bandLabels.getFrequency( 0, FrequencyBandLabels.COLUMN_BAND_NUMBER ) );
+    }
+
+    @Test
+    void cacheEvictsTheLeastRecentlyUsedCells() {
+        final FrequencyBandLabels bandLabels = new FrequencyBandLabels( FREQUENCY_FORMATTER, 3 );
+        bandLabels.setBands( new double[] { 100.0d, 200.0d, 400.0d },
+                             new double[] { 70.7d, 141.4d, 282.8d },
+                             new double[] { 141.4d, 282.8d, 565.7d } );
+
+        final int column = FrequencyBandLabels.COLUMN_CENTER_FREQUENCY;
+        final String firstLabel = bandLabels.getLabel( 0, column );
+        final String secondLabel = bandLabels.getLabel( 1, column );
+        bandLabels.getLabel( 2, column );
+        assertEquals( 3, bandLabels.getCacheSize() );
+
+        // Touch the first cell, so that the second is the eldest when a fourth
+        // cell is formatted.
+        assertSame( firstLabel, bandLabels.getLabel( 0, column ) );
+        bandLabels.getLabel( 0, FrequencyBandLabels.COLUMN_STOP_FREQUENCY );
+        assertEquals( 3, bandLabels.getCacheSize() );
+        assertSame( firstLabel, bandLabels.getLabel( 0, column ) );
+
+        final String reformattedLabel = bandLabels.getLabel( 1, column );
+        assertEquals( secondLabel, reformattedLabel );
+        assertNotSame( secondLabel, reformattedLabel );
+        assertEquals( 3, bandLabels.getCacheSize() );
+    }
+
+    @Test
+    void replacingTheBandsDropsTheCachedCells() {
+        final FrequencyBandLabels bandLabels = new FrequencyBandLabels( FREQUENCY_FORMATTER );
+        bandLabels.setBands( new double[] { 100.0d }, new double[] { 90.0d },
+                             new double[] { 110.0d } );
+        bandLabels.getLabel( 0, FrequencyBandLabels.COLUMN_CENTER_FREQUENCY );
+        assertEquals( 1, bandLabels.getCacheSize() );
+
+        bandLabels.setBands( new double[] { 500.0d }, new double[] { 450.0d },
+                             new double[] { 550.0d } );
+        assertEquals( 0, bandLabels.getCacheSize() );
+        assertEquals( FREQUENCY_FORMATTER.format( 500.0d ),
+                      bandLabels.getLabel( 0, FrequencyBandLabels.COLUMN_CENTER_FREQUENCY ) );
+
+        assertThrows( IllegalArgumentException.class,
+                      () -> bandLabels.setBands( new double[ 2 ],
+                                                 new double[ 2 ],
+                                                 new double[ 1 ] ) );
+    }
+}
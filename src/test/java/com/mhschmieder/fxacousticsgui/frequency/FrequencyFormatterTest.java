@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.frequency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.mhschmieder.jacoustics.FrequencySignalUtilities;
+
+/**
+ * Checks that {@link FrequencyFormatter} formats like a freshly configured
+ * number format, in its locale and precision, from any number of threads.
+ */
+final class FrequencyFormatterTest {
+
+    private static final int      NUMBER_OF_THREADS = 8;
+
+    // Cover low, fractional, and kHz frequencies.
+    private static final double[] FREQUENCIES       = new double[] { 15.625d, 19.9526d, 31.5d,
+            63.0957d, 125.0d, 1000.0d, 1234.5678d, 12589.2541d, 19952.6231d };
+
+    // Format a frequency the way each client used to, with its own number format.
+    private static String formatDirectly( final double frequency,
+                                          final Locale locale,
+                                          final int maximumFractionDigits ) {
+        final NumberFormat numberFormat = NumberFormat.getNumberInstance( locale );
+        numberFormat.setMinimumFractionDigits( 0 );
+        numberFormat.setMaximumFractionDigits( maximumFractionDigits );
+        return FrequencySignalUtilities.getFormattedFrequency( frequency, numberFormat );
+    }
+
+    @Test
+    void formatsInItsLocaleAndPrecision() {
+        for ( final Locale locale : new Locale[] { Locale.US, Locale.GERMANY, Locale.FRANCE } ) {
+            for ( final int maximumFractionDigits : new int[] { 0, 1, 3 } ) {
+                final FrequencyFormatter formatter = new FrequencyFormatter(
+                        locale, maximumFractionDigits );
+                for ( final double frequency : FREQUENCIES ) {
+                    assertEquals( formatDirectly( frequency, locale, maximumFractionDigits ),
+                                  formatter.format( frequency ) );
+                }
+            }
+        }
+
+        final FrequencyFormatter formatter = new FrequencyFormatter( Locale.GERMANY );
+        assertEquals( FrequencyFormatter.FRACTION_DIGITS_DEFAULT,
+                      formatter.getMaximumFractionDigits() );
+        assertEquals( Locale.GERMANY, formatter.getLocale() );
+    }
+
+    @Test
+    void concurrentThreadsFormatIndependently()
+            throws InterruptedException, ExecutionException {
+        final FrequencyFormatter formatter = new FrequencyFormatter( Locale.GERMANY );
+        final String[] expectedLabels = new String[ FREQUENCIES.length ];
+        for ( int i = 0; i < FREQUENCIES.length; i++ ) {
+            expectedLabels[ i ] = formatDirectly( FREQUENCIES[ i ],
+                                                  Locale.GERMANY,
+                                                  FrequencyFormatter.FRACTION_DIGITS_DEFAULT );
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool( NUMBER_OF_THREADS );
+        try {
+            final List< Future< List< String > > > results = new ArrayList<>();
+            for ( int i = 0; i < NUMBER_OF_THREADS; i++ ) {
+                results.add( executor.submit( () -> {
+                    final List< String > labels = new ArrayList<>();
+                    for ( int pass = 0; pass < 2000; pass++ ) {
+                        for ( final double frequency : FREQUENCIES ) {
+                            labels.add( formatter.format( frequency ) );
+                        }
+                    }
+                    return labels;
+                } ) );
+            }
+
+            for ( final Future< List< String > > result : results ) {
+                final List< String > labels = result.get();
+                for ( int i = 0; i < labels.size(); i++ ) {
+                    assertEquals( expectedLabels[ i % FREQUENCIES.length ], labels.get( i ) );
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link FrequencyRangeUpdateSlot} coalesces any number of posts
+ * into one apply task that shows only the latest update.
+ */
+final class FrequencyRangeUpdateSlotTest {
+
+    private static final int NUMBER_OF_POSTS = 10000;
+
+    // Run every queued apply task, as a pulse of the applying thread would,
+    // and return how many there were.
+    private static int runQueuedTasks( final Queue< Runnable > applyTasks ) {
+        int numberOfTasks = 0;
+        for ( Runnable applyTask = applyTasks.poll(); applyTask != null; applyTask = applyTasks
+                .poll() ) {
+            applyTask.run();
+            numberOfTasks++;
+        }
+        return numberOfTasks;
+    }
+
+    @Test
+    void burstOfPostsAppliesOnlyTheLatest() {
+        final Queue< Runnable > applyTasks = new ArrayDeque<>();
+        final RecordingTarget target = new RecordingTarget();
+        final FrequencyRangeUpdateSlot slot = new FrequencyRangeUpdateSlot( applyTasks::add,
+                                                                            target );
+
+        slot.postReset();
+        for ( int bandNumber = 0; bandNumber < 30; bandNumber++ ) {
+            slot.postFrequencyBand( bandNumber );
+        }
+        slot.postLabelTexts( "a", "b", "c", "d" ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        slot.postFrequencyBand( 12 );
+
+        assertEquals( 1, runQueuedTasks( applyTasks ) );
+        assertEquals( Collections.singletonList( "band 12" ), target.updates ); //$NON-NLS-1$
+
+        // Once applied, the next post queues a new task.
+        slot.postLabelTexts( "a", "b", "c", "d" ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        slot.postReset();
+        assertEquals( 1, runQueuedTasks( applyTasks ) );
+        assertEquals( Arrays.asList( "band 12", "reset" ), target.updates ); //$NON-NLS-1$ //$NON-NLS-2$
+
+        slot.postFrequencyBand( 3 );
+        slot.postLabelTexts( "e", "f", "g", "h" ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        assertEquals( 1, runQueuedTasks( applyTasks ) );
+        assertEquals( "texts e f g h", target.updates.get( 2 ) ); //$NON-NLS-1$
+    }
+
+    @Test
+    void discardedPostsAreNeverApplied() {
+        final Queue< Runnable > applyTasks = new ArrayDeque<>();
+        final RecordingTarget target = new RecordingTarget();
+        final FrequencyRangeUpdateSlot slot = new FrequencyRangeUpdateSlot( applyTasks::add,
+                                                                            target );
+
+        // A direct update discards the post, but its queued task still runs.
+        slot.postFrequencyBand( 5 );
+        slot.discard();
+        assertEquals( 1, runQueuedTasks( applyTasks ) );
+        assertTrue( target.updates.isEmpty() );
+
+        slot.postReset();
+        assertEquals( 1, runQueuedTasks( applyTasks ) );
+        assertEquals( Collections.singletonList( "reset" ), target.updates ); //$NON-NLS-1$
+    }
+
+    @Test
+    void concurrentPostsQueueOneTaskAtATime() throws InterruptedException {
+        final Queue< Runnable > applyTasks = new ArrayDeque<>();
+        final RecordingTarget target = new RecordingTarget();
+        final FrequencyRangeUpdateSlot slot = new FrequencyRangeUpdateSlot( applyTask -> {
+            synchronized ( applyTasks ) {
+                applyTasks.add( applyTask );
+            }
+        }, target );
+
+        final CountDownLatch startLatch = new CountDownLatch( 1 );
+        final List< Thread > postingThreads = new ArrayList<>();
+        for ( int i = 0; i < 4; i++ ) {
+            final Thread postingThread = new Thread( () -> {
+                try {
+                    startLatch.await();
+                }
+                catch ( final InterruptedException ie ) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for ( int bandNumber = 0; bandNumber < NUMBER_OF_POSTS; bandNumber++ ) {
+                    slot.postFrequencyBand( bandNumber );
+                }
+            } );
+            postingThread.start();
+            postingThreads.add( postingThread );
+        }
+        startLatch.countDown();
+        for ( final Thread postingThread : postingThreads ) {
+            postingThread.join();
+        }
+
+        assertEquals( 1, applyTasks.size() );
+        assertEquals( 1, runQueuedTasks( applyTasks ) );
+        assertEquals( Collections.singletonList( "band " + ( NUMBER_OF_POSTS - 1 ) ), //$NON-NLS-1$
+                      target.updates );
+    }
+
+    /**
+     * Records each update that reaches the labels.
+     */
+    private static final class RecordingTarget implements FrequencyRangeUpdateSlot.UpdateTarget {
+        private final List< String > updates = new ArrayList<>();
+
+        @Override
+        public void resetLabels() {
+            updates.add( "reset" ); //$NON-NLS-1$
+        }
+
+        @Override
+        public void setFrequencyBand( final int bandNumber ) {
+            updates.add( "band " + bandNumber ); //$NON-NLS-1$
+        }
+
+        @Override
+        public void setLabelTexts( final String relativeBandwidthLabelText,
+                                   final String centerFrequencyLabelText,
+                                   final String startFrequencyLabelText,
+                                   final String stopFrequencyLabelText ) {
+            updates.add( String.join( " ", //$NON-NLS-1$
+                                      "texts", //$NON-NLS-1$
+                                      relativeBandwidthLabelText,
+                                      centerFrequencyLabelText,
+                                      startFrequencyLabelText,
+                                      stopFrequencyLabelText ) );
+        }
+    }
+}
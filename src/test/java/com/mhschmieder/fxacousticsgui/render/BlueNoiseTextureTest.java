@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks the threshold distribution of {@link BlueNoiseTexture}, and the round
+ * trip through its cache file.
+ */
+final class BlueNoiseTextureTest {
+
+    private static final long             SEED        = 42L;
+
+    // Declare the size of the blocks whose share of low thresholds must stay
+    // close to half, which white noise would routinely miss.
+    private static final int              BLOCK_SIZE  = 8;
+    private static final int              BLOCK_SLACK = 6;
+
+    private static final BlueNoiseTexture TEXTURE     = BlueNoiseTexture.generate( SEED );
+
+    @TempDir
+    Path                                  temporaryDirectory;
+
+    @Test
+    void everyThresholdLevelIsUsedEqually() {
+        final int[] levelCounts = new int[ BlueNoiseTexture.NUMBER_OF_LEVELS ];
+        for ( final byte threshold : TEXTURE.getThresholds() ) {
+            levelCounts[ threshold & 0xFF ]++;
+        }
+
+        final int[] expectedCounts = new int[ BlueNoiseTexture.NUMBER_OF_LEVELS ];
+        Arrays.fill( expectedCounts,
+                     ( BlueNoiseTexture.TEXTURE_SIZE * BlueNoiseTexture.TEXTURE_SIZE )
+                             / BlueNoiseTexture.NUMBER_OF_LEVELS );
+        assertArrayEquals( expectedCounts, levelCounts );
+    }
+
+    @Test
+    void lowThresholdsAreSpreadEvenly() {
+        final int halfLevel = BlueNoiseTexture.NUMBER_OF_LEVELS / 2;
+        final int expectedCount = ( BLOCK_SIZE * BLOCK_SIZE ) / 2;
+        for ( int blockRow = 0; blockRow < BlueNoiseTexture.TEXTURE_SIZE; blockRow += BLOCK_SIZE ) {
+            for ( int blockColumn = 0; blockColumn < BlueNoiseTexture.TEXTURE_SIZE;
+                    blockColumn += BLOCK_SIZE ) {
+                int lowCount = 0;
+                for ( int row = blockRow; row < ( blockRow + BLOCK_SIZE ); row++ ) {
+                    for ( int column = blockColumn; column < ( blockColumn + BLOCK_SIZE );
+                            column++ ) {
+                        if ( TEXTURE.getThreshold( column, row ) < halfLevel ) {
+                            lowCount++;
+                        }
+                    }
+                }
+                assertEquals( expectedCount, lowCount, BLOCK_SLACK );
+            }
+        }
+    }
+
+    @Test
+    void textureTilesAcrossTheImage() {
+        for ( int row = 0; row < BlueNoiseTexture.TEXTURE_SIZE; row += 7 ) {
+            for ( int column = 0; column < BlueNoiseTexture.TEXTURE_SIZE; column += 5 ) {
+                assertEquals( TEXTURE.getThreshold( column, row ),
+                              TEXTURE.getThreshold( column + BlueNoiseTexture.TEXTURE_SIZE,
+                                                    row + ( 3 * BlueNoiseTexture.TEXTURE_SIZE ) ) );
+            }
+        }
+    }
+
+    @Test
+    void generationIsReproducible() {
+        assertArrayEquals( TEXTURE.getThresholds(),
+                           BlueNoiseTexture.generate( SEED ).getThresholds() );
+    }
+
+    @Test
+    void savedTextureLoadsBack() throws IOException {
+        final Path cachePath = temporaryDirectory.resolve( "cache" ).resolve( "noise.bin" ); //$NON-NLS-1$ //$NON-NLS-2$
+        TEXTURE.save( cachePath );
+        assertArrayEquals( TEXTURE.getThresholds(),
+                           BlueNoiseTexture.load( cachePath ).getThresholds() );
+
+        // Only the cache file itself is left behind.
+        try ( final Stream< Path > paths = Files.list( cachePath.getParent() ) ) {
+            assertEquals( 1L, paths.count() );
+        }
+    }
+
+    @Test
+    void invalidCacheFilesAreRejected() throws IOException {
+        final Path cachePath = temporaryDirectory.resolve( "noise.bin" ); //$NON-NLS-1$
+        TEXTURE.save( cachePath );
+        final byte[] cacheBytes = Files.readAllBytes( cachePath );
+
+        final byte[] truncatedBytes = Arrays.copyOf( cacheBytes, cacheBytes.length - 1 );
+        Files.write( cachePath, truncatedBytes );
+        assertThrows( IOException.class, () -> BlueNoiseTexture.load( cachePath ) );
+
+        final byte[] foreignBytes = cacheBytes.clone();
+        foreignBytes[ 0 ] ^= 0x01;
+        Files.write( cachePath, foreignBytes );
+        assertThrows( IOException.class, () -> BlueNoiseTexture.load( cachePath ) );
+    }
+}
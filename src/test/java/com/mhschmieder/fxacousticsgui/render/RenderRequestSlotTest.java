@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link RenderRequestSlot} hands the consumer only the latest
+ * request, with the generation it was posted under.
+ */
+final class RenderRequestSlotTest {
+
+    @Test
+    void newSlotHasNothingPending() {
+        final RenderRequestSlot< String > requestSlot = new RenderRequestSlot<>();
+
+        assertFalse( requestSlot.hasPendingRequest() );
+        assertNull( requestSlot.take() );
+    }
+
+    @Test
+    void laterRequestsSupersedeEarlierOnes() {
+        final RenderRequestSlot< String > requestSlot = new RenderRequestSlot<>();
+
+        assertEquals( 1L, requestSlot.post( "first" ) ); //$NON-NLS-1$
+        assertEquals( 2L, requestSlot.post( "second" ) ); //$NON-NLS-1$
+        assertEquals( 3L, requestSlot.post( "third" ) ); //$NON-NLS-1$
+        assertTrue( requestSlot.hasPendingRequest() );
+
+        final RenderRequestSlot.Request< String > request = requestSlot.take();
+        assertEquals( "third", request.getSettings() ); //$NON-NLS-1$
+        assertEquals( 3L, request.getGeneration() );
+        assertTrue( requestSlot.isSuperseded( 2L ) );
+        assertFalse( requestSlot.isSuperseded( 3L ) );
+
+        // The taken request is not handed out again.
+        assertFalse( requestSlot.hasPendingRequest() );
+        assertNull( requestSlot.take() );
+    }
+
+    @Test
+    void requestPostedDuringARenderSupersedesIt() {
+        final RenderRequestSlot< String > requestSlot = new RenderRequestSlot<>();
+        requestSlot.post( "rendering" ); //$NON-NLS-1$
+        final long renderingGeneration = requestSlot.take().getGeneration();
+
+        requestSlot.post( "newer" ); //$NON-NLS-1$
+
+        assertTrue( requestSlot.isSuperseded( renderingGeneration ) );
+        assertTrue( requestSlot.hasPendingRequest() );
+        assertEquals( "newer", requestSlot.take().getSettings() ); //$NON-NLS-1$
+    }
+
+    @Test
+    void concurrentPostsAreTakenInGenerationOrderWithTheirOwnSettings()
+            throws InterruptedException {
+        final int numberOfProducers = 4;
+        final int postsPerProducer = 5000;
+        final RenderRequestSlot< Object > requestSlot = new RenderRequestSlot<>();
+
+        // Record the settings that each generation was posted with.
+        final Map< Long, Object > postedSettings = new ConcurrentHashMap<>();
+        final List< Thread > producers = new ArrayList<>();
+        for ( int i = 0; i < numberOfProducers; i++ ) {
+            final Thread producer = new Thread( () -> {
+                for ( int j = 0; j < postsPerProducer; j++ ) {
+                    final Object settings = new Object();
+                    postedSettings.put( requestSlot.post( settings ), settings );
+                }
+            } );
+            producers.add( producer );
+            producer.start();
+        }
+
+        final List< RenderRequestSlot.Request< Object > > takenRequests = new ArrayList<>();
+        boolean producing = true;
+        while ( producing || requestSlot.hasPendingRequest() ) {
+            producing = false;
+            for ( final Thread producer : producers ) {
+                producing |= producer.isAlive();
+            }
+
+            final RenderRequestSlot.Request< Object > request = requestSlot.take();
+            if ( request != null ) {
+                takenRequests.add( request );
+            }
+            else {
+                Thread.yield();
+            }
+        }
+        for ( final Thread producer : producers ) {
+            producer.join();
+        }
+
+        final long lastGeneration = ( long ) numberOfProducers * postsPerProducer;
+        assertEquals( lastGeneration, postedSettings.size() );
+        assertEquals( lastGeneration,
+                      takenRequests.get( takenRequests.size() - 1 ).getGeneration() );
+
+        long previousGeneration = 0L;
+        for ( final RenderRequestSlot.Request< Object > request : takenRequests ) {
+            assertTrue( request.getGeneration() > previousGeneration );
+            assertEquals( postedSettings.get( request.getGeneration() ), request.getSettings() );
+            previousGeneration = request.getGeneration();
+        }
+    }
+}
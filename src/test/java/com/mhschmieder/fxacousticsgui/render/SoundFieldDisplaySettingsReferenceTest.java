@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the snapshots that {@link SoundFieldDisplaySettingsReference}
+ * publishes, and that concurrent updates of separate settings never lose
+ * each other.
+ */
+final class SoundFieldDisplaySettingsReferenceTest {
+
+    private static final int NUMBER_OF_UPDATES = 10000;
+
+    // Make auto-ranged settings of 40 dB, with dithering off.
+    private static SoundFieldDisplaySettings makeInitialSettings() {
+        return new SoundFieldDisplaySettings( 40, true, false, 50.0d );
+    }
+
+    private static void awaitQuietly( final CountDownLatch latch ) {
+        try {
+            latch.await();
+        }
+        catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void unchangedSettingsAreTheSameSnapshot() {
+        final SoundFieldDisplaySettings initialSettings = makeInitialSettings();
+        assertSame( initialSettings, initialSettings.withSplRange( 40, true ) );
+        assertSame( initialSettings, initialSettings.withDithering( false, 50.0d ) );
+
+        final SoundFieldDisplaySettings settings = initialSettings.withDithering( true, 50.0d );
+        assertTrue( settings.isDitheringEnabled() );
+        assertEquals( new SoundFieldDisplaySettings( 40, true, true, 50.0d ), settings );
+        assertEquals( settings.hashCode(),
+                      new SoundFieldDisplaySettings( 40, true, true, 50.0d ).hashCode() );
+        assertFalse( settings.withDithering( true, 0.0d ).isDitheringEnabled() );
+    }
+
+    @Test
+    void listenersSeeOnlyActualChanges() {
+        final SoundFieldDisplaySettingsReference reference = new SoundFieldDisplaySettingsReference(
+                makeInitialSettings() );
+        final List< SoundFieldDisplaySettings > publishedSettings = new ArrayList<>();
+        final Consumer< SoundFieldDisplaySettings > listener = publishedSettings::add;
+        reference.addListener( listener );
+
+        reference.updateSplRange( 40, true );
+        reference.updateDithering( false, 50.0d );
+        assertTrue( publishedSettings.isEmpty() );
+
+        reference.updateSplRange( 60, false );
+        reference.updateDithering( true, 25.0d );
+        assertEquals( 2, publishedSettings.size() );
+        assertEquals( new SoundFieldDisplaySettings( 60, false, false, 50.0d ),
+                      publishedSettings.get( 0 ) );
+        assertSame( reference.get(), publishedSettings.get( 1 ) );
+        assertEquals( new SoundFieldDisplaySettings( 60, false, true, 25.0d ), reference.get() );
+
+        reference.removeListener( listener );
+        reference.updateSplRange( 70, false );
+        assertEquals( 2, publishedSettings.size() );
+    }
+
+    @Test
+    void concurrentUpdatesKeepEachOthersChanges() throws InterruptedException {
+        final SoundFieldDisplaySettingsReference reference = new SoundFieldDisplaySettingsReference(
+                makeInitialSettings() );
+        final CountDownLatch startLatch = new CountDownLatch( 1 );
+        final Thread splRangeThread = new Thread( () -> {
+            awaitQuietly( startLatch );
+            for ( int i = 1; i <= NUMBER_OF_UPDATES; i++ ) {
+                reference.updateSplRange( i, false );
+            }
+        } );
+        final Thread ditheringThread = new Thread( () -> {
+            awaitQuietly( startLatch );
+            for ( int i = 1; i <= NUMBER_OF_UPDATES; i++ ) {
+                reference.updateDithering( true, i );
+            }
+        } );
+
+        splRangeThread.start();
+        ditheringThread.start();
+        startLatch.countDown();
+        splRangeThread.join();
+        ditheringThread.join();
+
+        assertEquals( new SoundFieldDisplaySettings( NUMBER_OF_UPDATES,
+                                                     false,
+                                                     true,
+                                                     NUMBER_OF_UPDATES ),
+                      reference.get() );
+    }
+}
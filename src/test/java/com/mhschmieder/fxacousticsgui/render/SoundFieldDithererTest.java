@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.mhschmieder.fxacousticsgui.soundfield.DoubleSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+
+/**
+ * Checks the ordered, blue-noise and error diffusion passes of
+ * {@link SoundFieldDitherer} against the undithered image.
+ */
+final class SoundFieldDithererTest {
+
+    // Use a grid that splits into more than one row band.
+    private static final int      NUMBER_OF_COLUMNS = 300;
+    private static final int      NUMBER_OF_ROWS    = 260;
+
+    private static final SplRange SPL_RANGE         = new SplRange( 60.0d,
+                                                                    100.0d,
+                                                                    50.0d,
+                                                                    110.0d,
+                                                                    NUMBER_OF_COLUMNS
+                                                                            * NUMBER_OF_ROWS );
+
+    private static final int      SPL_RANGE_DB      = 40;
+
+    // Make a colorizer for a slightly noisy ramp, with some masked cells, and
+    // update its lookup table for the SPL Range.
+    private static SoundFieldColorizer makeColorizer() {
+        final Random random = new Random( 5L );
+        final int numberOfCells = NUMBER_OF_COLUMNS * NUMBER_OF_ROWS;
+        final double[] splDb = new double[ numberOfCells ];
+        for ( int i = 0; i < numberOfCells; i++ ) {
+            splDb[ i ] = ( ( i % 17 ) == 0 )
+                ? Double.NaN
+                : 50.0d + ( ( 60.0d * i ) / numberOfCells ) + random.nextDouble();
+        }
+
+        final SoundFieldColorizer colorizer = new SoundFieldColorizer( NUMBER_OF_COLUMNS,
+                                                                       NUMBER_OF_ROWS );
+        colorizer.setSplGrid( new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ),
+                              SPL_RANGE,
+                              SPL_RANGE_DB );
+        colorizer.getLookupTable()
+                .update( colorizer.getIndexBuffer(), colorizer.getCeilingDb(), SPL_RANGE_DB );
+        return colorizer;
+    }
+
+    private static int[] blit( final SoundFieldColorizer colorizer ) {
+        final int[] argbPixels = new int[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        colorizer.blit( colorizer.getLookupTable().getArgbColors(),
+                        argbPixels,
+                        RenderCancellation.NONE );
+        return argbPixels;
+    }
+
+    private static int[] dither( final SoundFieldColorizer colorizer,
+                                 final ForkJoinPool forkJoinPool,
+                                 final DitheringMode ditheringMode,
+                                 final double ditheringAmount ) {
+        final SoundFieldDitherer ditherer = new SoundFieldDitherer( forkJoinPool );
+        ditherer.setDitheringMode( ditheringMode );
+        final int[] argbPixels = new int[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        ditherer.dither( colorizer.getIndexBuffer(),
+                         colorizer.getLookupTable(),
+                         argbPixels,
+                         ditheringAmount,
+                         RenderCancellation.NONE );
+        return argbPixels;
+    }
+
+    // Check that every dithered pixel keeps its transparency, and is at most
+    // one palette band away from its undithered color, and that some are.
+    private static void assertWithinOneBand( final SoundFieldColorizer colorizer,
+                                             final int[] argbPixels ) {
+        final short[] codes = colorizer.getIndexBuffer().getCodes();
+        final byte[] colorIndices = colorizer.getLookupTable().getColorIndices();
+        int numberOfChangedPixels = 0;
+        for ( int i = 0; i < codes.length; i++ ) {
+            if ( codes[ i ] == SplIndexBuffer.NO_DATA_CODE ) {
+                assertEquals( JetPalette.NO_DATA_ARGB, argbPixels[ i ] );
+                continue;
+            }
+
+            final int colorIndex = colorIndices[ codes[ i ] ] & 0xFF;
+            if ( argbPixels[ i ] == JetPalette.getArgb( colorIndex ) ) {
+                continue;
+            }
+            assertTrue( ( ( colorIndex > 0 )
+                    && ( argbPixels[ i ] == JetPalette.getArgb( colorIndex - 1 ) ) )
+                    || ( ( colorIndex < ( JetPalette.NUMBER_OF_COLORS - 1 ) )
+                            && ( argbPixels[ i ] == JetPalette.getArgb( colorIndex + 1 ) ) ),
+                        "Pixel " + i + " is dithered beyond a neighboring band" ); //$NON-NLS-1$ //$NON-NLS-2$
+            numberOfChangedPixels++;
+        }
+        assertTrue( numberOfChangedPixels > 0 );
+    }
+
+    @Test
+    void zeroDitheringAmountMatchesTheUnditheredImage() {
+        final SoundFieldColorizer colorizer = makeColorizer();
+        final int[] argbPixels = blit( colorizer );
+        assertArrayEquals( argbPixels,
+                           dither( colorizer,
+                                   ForkJoinPool.commonPool(),
+                                   DitheringMode.ORDERED,
+                                   0.0d ) );
+        assertArrayEquals( argbPixels,
+                           dither( colorizer,
+                                   ForkJoinPool.commonPool(),
+                                   DitheringMode.ERROR_DIFFUSION,
+                                   0.0d ) );
+    }
+
+    @Test
+    void orderedDitheringStaysWithinOneBand() {
+        final SoundFieldColorizer colorizer = makeColorizer();
+        assertWithinOneBand( colorizer,
+                             dither( colorizer,
+                                     ForkJoinPool.commonPool(),
+                                     DitheringMode.ORDERED,
+                                     SoundFieldDitherer.DITHERING_AMOUNT_MAXIMUM ) );
+    }
+
+    @Test
+    void errorDiffusionStaysWithinOneBand() {
+        final SoundFieldColorizer colorizer = makeColorizer();
+        assertWithinOneBand( colorizer,
+                             dither( colorizer,
+                                     ForkJoinPool.commonPool(),
+                                     DitheringMode.ERROR_DIFFUSION,
+                                     SoundFieldDitherer.DITHERING_AMOUNT_MAXIMUM ) );
+    }
+
+    @Test
+    void blueNoiseDitheringStaysWithinOneBand() {
+        final SoundFieldColorizer colorizer = makeColorizer();
+        final SoundFieldDitherer ditherer = new SoundFieldDitherer();
+        ditherer.setDitheringMode( DitheringMode.BLUE_NOISE );
+        ditherer.setBlueNoiseTexture( BlueNoiseTexture.generate( 7L ) );
+        final int[] argbPixels = new int[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        ditherer.dither( colorizer.getIndexBuffer(),
+                         colorizer.getLookupTable(),
+                         argbPixels,
+                         SoundFieldDitherer.DITHERING_AMOUNT_MAXIMUM,
+                         RenderCancellation.NONE );
+        assertWithinOneBand( colorizer, argbPixels );
+    }
+
+    @Test
+    void errorDiffusionWavefrontMatchesASingleThread() {
+        final SoundFieldColorizer colorizer = makeColorizer();
+        final ForkJoinPool singleThreadPool = new ForkJoinPool( 1 );
+        final ForkJoinPool wavefrontPool = new ForkJoinPool( 4 );
+        try {
+            assertArrayEquals( dither( colorizer,
+                                       singleThreadPool,
+                                       DitheringMode.ERROR_DIFFUSION,
+                                       75.0d ),
+                               dither( colorizer,
+                                       wavefrontPool,
+                                       DitheringMode.ERROR_DIFFUSION,
+                                       75.0d ) );
+        }
+        finally {
+            singleThreadPool.shutdown();
+            wavefrontPool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.mhschmieder.fxacousticsgui.soundfield.DoubleSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+
+/**
+ * Checks the byte-bounded LRU eviction of {@link SoundFieldImageCache}, the
+ * identity of {@link SoundFieldImageKey}s, and the images that the render
+ * pipeline settles into the cache.
+ */
+final class SoundFieldImageCacheTest {
+
+    // Use images of 100 pixels, and a budget of three images.
+    private static final int  NUMBER_OF_COLUMNS = 10;
+    private static final int  NUMBER_OF_ROWS    = 10;
+    private static final long BYTE_BUDGET       = 3L * 4L * NUMBER_OF_COLUMNS * NUMBER_OF_ROWS;
+
+    private static SoundFieldImageKey makeKey( final long modelRevision ) {
+        return new SoundFieldImageKey( modelRevision,
+                                       0,
+                                       new SoundFieldDisplaySettings( 40, false ),
+                                       0L );
+    }
+
+    private static boolean put( final SoundFieldImageCache cache,
+                                final SoundFieldImageKey key,
+                                final int numberOfPixels ) {
+        return cache.put( key,
+                          NUMBER_OF_COLUMNS,
+                          numberOfPixels / NUMBER_OF_COLUMNS,
+                          new int[ numberOfPixels ],
+                          key.getModelRevision() );
+    }
+
+    @Test
+    void leastRecentlyUsedImagesAreEvictedFirst() {
+        final SoundFieldImageCache cache = new SoundFieldImageCache( BYTE_BUDGET );
+        final int numberOfPixels = NUMBER_OF_COLUMNS * NUMBER_OF_ROWS;
+        assertTrue( put( cache, makeKey( 1L ), numberOfPixels ) );
+        assertTrue( put( cache, makeKey( 2L ), numberOfPixels ) );
+        assertTrue( put( cache, makeKey( 3L ), numberOfPixels ) );
+        assertEquals( BYTE_BUDGET, cache.getNumberOfBytes() );
+
+        // Touch the oldest image, so that the second one is evicted instead.
+        assertEquals( 1L, cache.get( makeKey( 1L ) ).getContentRevision() );
+        assertTrue( put( cache, makeKey( 4L ), numberOfPixels ) );
+        assertTrue( cache.contains( makeKey( 1L ) ) );
+        assertFalse( cache.contains( makeKey( 2L ) ) );
+        assertNull( cache.get( makeKey( 2L ) ) );
+        assertEquals( 3, cache.getNumberOfEntries() );
+        assertEquals( BYTE_BUDGET, cache.getNumberOfBytes() );
+
+        // A double-size image evicts the two least recently used ones.
+        assertTrue( put( cache, makeKey( 5L ), 2 * numberOfPixels ) );
+        assertEquals( 2, cache.getNumberOfEntries() );
+        assertTrue( cache.contains( makeKey( 4L ) ) );
+        assertTrue( cache.contains( makeKey( 5L ) ) );
+
+        assertEquals( 1L, cache.getNumberOfHits() );
+        assertEquals( 1L, cache.getNumberOfMisses() );
+        assertEquals( 3L, cache.getNumberOfEvictions() );
+    }
+
+    @Test
+    void replacedAndOversizedImagesKeepTheByteCount() {
+        final SoundFieldImageCache cache = new SoundFieldImageCache( BYTE_BUDGET );
+        final int numberOfPixels = NUMBER_OF_COLUMNS * NUMBER_OF_ROWS;
+        assertTrue( put( cache, makeKey( 1L ), numberOfPixels ) );
+        assertTrue( put( cache, makeKey( 1L ), numberOfPixels ) );
+        assertEquals( 4L * numberOfPixels, cache.getNumberOfBytes() );
+
+        assertFalse( put( cache, makeKey( 2L ), 4 * numberOfPixels ) );
+        assertEquals( 1, cache.getNumberOfEntries() );
+        assertEquals( 0L, cache.getNumberOfEvictions() );
+
+        cache.clear();
+        assertEquals( 0, cache.getNumberOfEntries() );
+        assertEquals( 0L, cache.getNumberOfBytes() );
+    }
+
+    @Test
+    void keysIgnoreTheSettingsThatDoNotAffectTheImage() {
+        final SoundFieldDisplaySettings undithered = new SoundFieldDisplaySettings( 40,
+                                                                                    false,
+                                                                                    false,
+                                                                                    30.0d );
+        final SoundFieldDisplaySettings dithered = undithered.withDithering( true, 30.0d );
+
+        // The Dithering Amount and revision only matter when dithering.
+        assertEquals( new SoundFieldImageKey( 7L, 2, undithered, 1L ),
+                      new SoundFieldImageKey( 7L,
+                                              2,
+                                              undithered.withDithering( false, 60.0d ),
+                                              2L ) );
+        assertNotEquals( new SoundFieldImageKey( 7L, 2, dithered, 1L ),
+                         new SoundFieldImageKey( 7L, 2, dithered, 2L ) );
+        assertNotEquals( new SoundFieldImageKey( 7L, 2, undithered, 1L ),
+                         new SoundFieldImageKey( 7L, 3, undithered, 1L ) );
+
+        // Anonymous grids only match their own token.
+        final Object splGridToken = new Object();
+        assertEquals( new SoundFieldImageKey( splGridToken, undithered, 1L ),
+                      new SoundFieldImageKey( splGridToken, undithered, 1L ) );
+        assertNotEquals( new SoundFieldImageKey( splGridToken, undithered, 1L ),
+                         new SoundFieldImageKey( new Object(), undithered, 1L ) );
+        assertNotEquals( new SoundFieldImageKey( splGridToken, undithered, 1L ),
+                         new SoundFieldImageKey( -1L, -1, undithered, 1L ) );
+    }
+
+    @Test
+    void settledImagesAreRedisplayedWithoutRendering() {
+        final int numberOfCells = NUMBER_OF_COLUMNS * NUMBER_OF_ROWS;
+        final double[] splDb = new double[ numberOfCells ];
+        for ( int i = 0; i < numberOfCells; i++ ) {
+            splDb[ i ] = i;
+        }
+
+        final SoundFieldRenderPipeline pipeline = new SoundFieldRenderPipeline(
+                new SoundFieldColorizer( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ) );
+        final SoundFieldImageCache cache = new SoundFieldImageCache( BYTE_BUDGET );
+        pipeline.setImageCache( cache );
+        pipeline.setSplGrid( new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ),
+                             new SplRange( 59.0d, 99.0d, 0.0d, 99.0d, numberOfCells ),
+                             3L,
+                             0 );
+
+        final SoundFieldFrame frame = new SoundFieldFrame( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        final SoundFieldDisplaySettings settings = new SoundFieldDisplaySettings( 40, false );
+        assertTrue( pipeline.render( settings, frame, RenderCancellation.NONE ) );
+        final int[] argbPixels = frame.getArgbPixels().clone();
+
+        // Only settled images are cached.
+        assertEquals( 0, cache.getNumberOfEntries() );
+        pipeline.settle();
+        assertEquals( 1, cache.getNumberOfEntries() );
+
+        // The next image of its kind must not overwrite the cached buffer.
+        assertTrue( pipeline.render( settings.withSplRange( 60, false ),
+                                     frame,
+                                     RenderCancellation.NONE ) );
+        pipeline.settle();
+        assertEquals( 2, cache.getNumberOfEntries() );
+
+        assertTrue( pipeline.render( settings, frame, RenderCancellation.NONE ) );
+        assertEquals( EnumSet.of( SoundFieldRenderStage.DISPLAY ),
+                      pipeline.getLastExecutedStages() );
+        assertArrayEquals( argbPixels, frame.getArgbPixels() );
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.mhschmieder.fxacousticsgui.soundfield.DoubleSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+
+/**
+ * Checks that {@link SoundFieldRenderPipeline} re-runs exactly the stages
+ * whose inputs changed since the previous render.
+ */
+final class SoundFieldRenderPipelineTest {
+
+    private static final int NUMBER_OF_COLUMNS = 40;
+    private static final int NUMBER_OF_ROWS    = 30;
+
+    // Make a ramp from 0 dB to the given ceiling, whose statistics span every
+    // SPL Range used here.
+    private static SplGrid makeSplGrid( final double ceilingDb ) {
+        final int numberOfCells = NUMBER_OF_COLUMNS * NUMBER_OF_ROWS;
+        final double[] splDb = new double[ numberOfCells ];
+        for ( int i = 0; i < numberOfCells; i++ ) {
+            splDb[ i ] = ( ceilingDb * i ) / ( numberOfCells - 1 );
+        }
+        return new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+    }
+
+    private static SplRange makeSplRange( final double ceilingDb ) {
+        return new SplRange( ceilingDb - 40.0d,
+                             ceilingDb,
+                             0.0d,
+                             ceilingDb,
+                             NUMBER_OF_COLUMNS * NUMBER_OF_ROWS );
+    }
+
+    private static SoundFieldRenderPipeline makePipeline() {
+        final SoundFieldRenderPipeline pipeline = new SoundFieldRenderPipeline(
+                new SoundFieldColorizer( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ),
+                new SoundFieldDitherer() );
+        pipeline.getDitherer().setDitheringMode( DitheringMode.ORDERED );
+
+        // Leave the image cache out, as it skips the stages altogether.
+        pipeline.setImageCache( null );
+        pipeline.setSplGrid( makeSplGrid( 100.0d ), makeSplRange( 100.0d ) );
+        return pipeline;
+    }
+
+    private static SoundFieldDisplaySettings makeSettings( final int splRangeDb,
+                                                           final double ditheringAmount ) {
+        return new SoundFieldDisplaySettings( splRangeDb,
+                                              false,
+                                              ditheringAmount > 0.0d,
+                                              ditheringAmount );
+    }
+
+    private static void assertStages( final SoundFieldRenderPipeline pipeline,
+                                      final SoundFieldRenderStage... stages ) {
+        final EnumSet< SoundFieldRenderStage > expectedStages = EnumSet
+                .noneOf( SoundFieldRenderStage.class );
+        for ( final SoundFieldRenderStage stage : stages ) {
+            expectedStages.add( stage );
+        }
+        assertEquals( expectedStages, pipeline.getLastExecutedStages() );
+        assertEquals( stages.length, pipeline.getLastExecutedStageCount() );
+    }
+
+    @Test
+    void onlyChangedStagesAreRerun() {
+        final SoundFieldRenderPipeline pipeline = makePipeline();
+        final SoundFieldFrame frame = new SoundFieldFrame( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+
+        assertTrue( pipeline.render( makeSettings( 40, 0.0d ), frame, RenderCancellation.NONE ) );
+        assertStages( pipeline,
+                      SoundFieldRenderStage.SPL_GRID,
+                      SoundFieldRenderStage.RANGE_NORMALIZATION,
+                      SoundFieldRenderStage.COLORMAP,
+                      SoundFieldRenderStage.DISPLAY );
+
+        // The frame already holds the image of unchanged settings.
+        assertTrue( pipeline.render( makeSettings( 40, 0.0d ), frame, RenderCancellation.NONE ) );
+        assertStages( pipeline );
+
+        assertTrue( pipeline.render( makeSettings( 30, 0.0d ), frame, RenderCancellation.NONE ) );
+        assertStages( pipeline,
+                      SoundFieldRenderStage.RANGE_NORMALIZATION,
+                      SoundFieldRenderStage.COLORMAP,
+                      SoundFieldRenderStage.DISPLAY );
+
+        assertTrue( pipeline.render( makeSettings( 30, 50.0d ), frame, RenderCancellation.NONE ) );
+        assertStages( pipeline, SoundFieldRenderStage.DITHERING, SoundFieldRenderStage.DISPLAY );
+
+        assertTrue( pipeline.render( makeSettings( 30, 80.0d ), frame, RenderCancellation.NONE ) );
+        assertStages( pipeline, SoundFieldRenderStage.DITHERING, SoundFieldRenderStage.DISPLAY );
+
+        // Both images stay cached, so toggling dithering is a transfer.
+        assertTrue( pipeline.render( makeSettings( 30, 0.0d ), frame, RenderCancellation.NONE ) );
+        assertStages( pipeline, SoundFieldRenderStage.DISPLAY );
+        assertTrue( pipeline.render( makeSettings( 30, 80.0d ), frame, RenderCancellation.NONE ) );
+        assertStages( pipeline, SoundFieldRenderStage.DISPLAY );
+
+        pipeline.getDitherer().setDitheringMode( DitheringMode.ERROR_DIFFUSION );
+        assertTrue( pipeline.render( makeSettings( 30, 80.0d ), frame, RenderCancellation.NONE ) );
+        assertStages( pipeline, SoundFieldRenderStage.DITHERING, SoundFieldRenderStage.DISPLAY );
+
+        pipeline.setSplGrid( makeSplGrid( 90.0d ), makeSplRange( 90.0d ) );
+        assertTrue( pipeline.render( makeSettings( 30, 80.0d ), frame, RenderCancellation.NONE ) );
+        assertStages( pipeline,
+                      SoundFieldRenderStage.SPL_GRID,
+                      SoundFieldRenderStage.RANGE_NORMALIZATION,
+                      SoundFieldRenderStage.DITHERING,
+                      SoundFieldRenderStage.DISPLAY );
+
+        assertEquals( 2L, pipeline.getExecutionCount( SoundFieldRenderStage.SPL_GRID ) );
+        assertEquals( 4L, pipeline.getExecutionCount( SoundFieldRenderStage.DITHERING ) );
+        assertEquals( 9L, pipeline.getNumberOfRenders() );
+    }
+
+    @Test
+    void cancelledStagesAreRerun() {
+        final SoundFieldRenderPipeline pipeline = makePipeline();
+        final SoundFieldFrame frame = new SoundFieldFrame( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+
+        assertFalse( pipeline.render( makeSettings( 40, 0.0d ), frame, () -> true ) );
+        assertEquals( -1L, frame.getContentRevision() );
+
+        assertTrue( pipeline.render( makeSettings( 40, 0.0d ), frame, RenderCancellation.NONE ) );
+        assertStages( pipeline, SoundFieldRenderStage.COLORMAP, SoundFieldRenderStage.DISPLAY );
+    }
+
+    @Test
+    void renderedImageMatchesTheColorizerBlit() {
+        final SoundFieldRenderPipeline pipeline = makePipeline();
+        final SoundFieldFrame frame = new SoundFieldFrame( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        assertTrue( pipeline.render( makeSettings( 40, 0.0d ), frame, RenderCancellation.NONE ) );
+
+        final SoundFieldColorizer colorizer = pipeline.getColorizer();
+        final int[] argbPixels = new int[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        colorizer.blit( colorizer.getLookupTable().getArgbColors(),
+                        argbPixels,
+                        RenderCancellation.NONE );
+        assertArrayEquals( argbPixels, frame.getArgbPixels() );
+    }
+}
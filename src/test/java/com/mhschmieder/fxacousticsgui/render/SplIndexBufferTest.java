@@ -0,0 +1,245 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mhschmieder.fxacousticsgui.soundfield.DoubleSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.MappedSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.QuantizedSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRangeEngine;
+
+/**
+ * Checks the quantization of SPL grids into the codes of
+ * {@link SplIndexBuffer}, and the colors that {@link SplColorLookupTable}
+ * maps those codes to.
+ */
+final class SplIndexBufferTest {
+
+    // Use a grid whose last tile column and row are partial.
+    private static final int      NUMBER_OF_COLUMNS = 70;
+    private static final int      NUMBER_OF_ROWS    = 40;
+
+    // Declare statistics whose span, with the margin, is 40 dB to 120 dB,
+    // for a ramp that runs from 0 dB to 120 dB.
+    private static final SplRange RAMP_SPL_RANGE    = new SplRange( 60.0d,
+                                                                    100.0d,
+                                                                    0.0d,
+                                                                    120.0d,
+                                                                    NUMBER_OF_COLUMNS
+                                                                            * NUMBER_OF_ROWS );
+
+    // Declare a manual SPL Range whose palette floor of 20 dB lies well below
+    // the span of the ramp statistics.
+    private static final int      WIDE_SPL_RANGE_DB = 80;
+
+    @TempDir
+    Path                          temporaryDirectory;
+
+    // Make a grid whose SPL rises evenly from 0 dB to 120 dB, with some
+    // masked cells.
+    private static double[] makeRampSplDb() {
+        final int numberOfCells = NUMBER_OF_COLUMNS * NUMBER_OF_ROWS;
+        final double[] splDb = new double[ numberOfCells ];
+        for ( int i = 0; i < numberOfCells; i++ ) {
+            splDb[ i ] = ( ( i % 13 ) == 0 ) ? Double.NaN : ( 120.0d * i ) / ( numberOfCells - 1 );
+        }
+        return splDb;
+    }
+
+    // Check that every valid cell within the span decodes to within half a
+    // step of its SPL, and that the cells beyond it are clamped.
+    private static void assertRoundTrip( final SplIndexBuffer indexBuffer,
+                                         final double[] splDb,
+                                         final double lowerDb,
+                                         final double upperDb ) {
+        final short[] codes = indexBuffer.getCodes();
+        final double toleranceDb = ( 0.5d * indexBuffer.getStepDb() ) + 1.0e-9d;
+        for ( int i = 0; i < splDb.length; i++ ) {
+            if ( Double.isNaN( splDb[ i ] ) ) {
+                assertEquals( SplIndexBuffer.NO_DATA_CODE, codes[ i ] );
+            }
+            else if ( splDb[ i ] < lowerDb ) {
+                assertEquals( 0, codes[ i ] );
+            }
+            else if ( splDb[ i ] > upperDb ) {
+                assertEquals( SplIndexBuffer.MAXIMUM_DATA_CODE, codes[ i ] );
+            }
+            else {
+                assertEquals( splDb[ i ], indexBuffer.getDb( codes[ i ] ), toleranceDb );
+            }
+        }
+    }
+
+    // Make a grid of noisy SPL with some masked cells, rounded to floats so
+    // that every grid storage holds the same values.
+    private static double[] makeSplDb( final long seed ) {
+        final Random random = new Random( seed );
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        for ( int i = 0; i < splDb.length; i++ ) {
+            splDb[ i ] = ( random.nextInt( 10 ) == 0 )
+                ? Double.NaN
+                : ( float ) ( 90.0d + ( 15.0d * random.nextGaussian() ) );
+        }
+        return splDb;
+    }
+
+    private static short[] quantize( final SplGrid splGrid, final SplRange splRange ) {
+        final SplIndexBuffer indexBuffer = new SplIndexBuffer( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        indexBuffer.quantize( ForkJoinPool.commonPool(), splGrid, splRange );
+        return indexBuffer.getCodes();
+    }
+
+    @Test
+    void quantizedCellsDecodeWithinHalfAStep() {
+        final double[] splDb = makeRampSplDb();
+        final SplIndexBuffer indexBuffer = new SplIndexBuffer( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        indexBuffer.quantize( ForkJoinPool.commonPool(),
+                              new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ),
+                              RAMP_SPL_RANGE );
+
+        assertEquals( 40.0d, indexBuffer.getBaseDb(), 1.0e-9d );
+        assertEquals( 80.0d / SplIndexBuffer.MAXIMUM_DATA_CODE, indexBuffer.getStepDb(), 1.0e-12d );
+        assertRoundTrip( indexBuffer, splDb, 40.0d, 120.0d );
+
+        assertTrue( indexBuffer.isSpanning( 40.0d ) );
+        assertFalse( indexBuffer.isSpanning( 39.9d ) );
+    }
+
+    @Test
+    void wideManualSplRangeWidensTheSpan() {
+        final double[] splDb = makeRampSplDb();
+        final SplGrid splGrid = new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        final double paletteFloorDb = RAMP_SPL_RANGE.getCeilingDb() - WIDE_SPL_RANGE_DB;
+
+        final SoundFieldColorizer colorizer = new SoundFieldColorizer( NUMBER_OF_COLUMNS,
+                                                                       NUMBER_OF_ROWS );
+        colorizer.setSplGrid( splGrid, RAMP_SPL_RANGE );
+        assertFalse( colorizer.isSpanning( WIDE_SPL_RANGE_DB ) );
+
+        colorizer.setSplGrid( splGrid, RAMP_SPL_RANGE, WIDE_SPL_RANGE_DB );
+        assertTrue( colorizer.isSpanning( WIDE_SPL_RANGE_DB ) );
+        final SplIndexBuffer indexBuffer = colorizer.getIndexBuffer();
+        assertEquals( paletteFloorDb, indexBuffer.getBaseDb(), 1.0e-9d );
+        assertRoundTrip( indexBuffer, splDb, paletteFloorDb, 120.0d );
+
+        // A palette floor below the grid minimum clamps no cells at all.
+        colorizer.setSplGrid( splGrid, RAMP_SPL_RANGE, 200.0d );
+        assertEquals( 0.0d, indexBuffer.getBaseDb(), 1.0e-9d );
+        assertTrue( colorizer.isSpanning( 1000.0d ) );
+    }
+
+    @Test
+    void lookupTableColorsEachCellForItsSplRange() {
+        final double[] splDb = makeRampSplDb();
+        final SoundFieldColorizer colorizer = new SoundFieldColorizer( NUMBER_OF_COLUMNS,
+                                                                       NUMBER_OF_ROWS );
+        colorizer.setSplGrid( new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ),
+                              RAMP_SPL_RANGE,
+                              WIDE_SPL_RANGE_DB );
+
+        final SplIndexBuffer indexBuffer = colorizer.getIndexBuffer();
+        final SplColorLookupTable lookupTable = colorizer.getLookupTable();
+        final double ceilingDb = colorizer.getCeilingDb();
+        assertTrue( lookupTable.update( indexBuffer, ceilingDb, WIDE_SPL_RANGE_DB ) );
+        assertFalse( lookupTable.update( indexBuffer, ceilingDb, WIDE_SPL_RANGE_DB ) );
+
+        final int[] argbPixels = new int[ splDb.length ];
+        colorizer.blit( lookupTable.getArgbColors(), argbPixels, RenderCancellation.NONE );
+
+        // Skip cells within a step of a palette band edge, whose quantized SPL
+        // may fall into the neighboring band.
+        final double paletteFloorDb = ceilingDb - WIDE_SPL_RANGE_DB;
+        final double bandWidthDb = ( double ) WIDE_SPL_RANGE_DB / JetPalette.NUMBER_OF_COLORS;
+        for ( int i = 0; i < splDb.length; i++ ) {
+            if ( Double.isNaN( splDb[ i ] ) ) {
+                assertEquals( JetPalette.NO_DATA_ARGB, argbPixels[ i ] );
+                continue;
+            }
+
+            final double bandOffsetDb = Math.IEEEremainder( splDb[ i ] - paletteFloorDb,
+                                                            bandWidthDb );
+            if ( Math.abs( bandOffsetDb ) <= indexBuffer.getStepDb() ) {
+                continue;
+            }
+            final double normalizedValue = ( splDb[ i ] - paletteFloorDb ) / WIDE_SPL_RANGE_DB;
+            assertEquals( JetPalette.getArgb( JetPalette.getColorIndex( normalizedValue ) ),
+                          argbPixels[ i ] );
+        }
+
+        assertTrue( lookupTable.update( indexBuffer, ceilingDb, 40.0d ) );
+    }
+
+    @Test
+    void quantizedGridQuantizesLikeItsDecodedGrid() {
+        final QuantizedSplGrid splGrid = QuantizedSplGrid
+                .quantize( new DoubleSplGrid( makeSplDb( 5L ), NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ),
+                           QuantizedSplGrid.RESOLUTION_DB_DEFAULT );
+        final double[] decodedSplDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        splGrid.copySplDb( 0, decodedSplDb.length, decodedSplDb, 0 );
+        final SplRange splRange = new SplRangeEngine().computeRange( splGrid );
+
+        assertArrayEquals( quantize( new DoubleSplGrid( decodedSplDb,
+                                                        NUMBER_OF_COLUMNS,
+                                                        NUMBER_OF_ROWS ),
+                                     splRange ),
+                           quantize( splGrid, splRange ) );
+    }
+
+    @Test
+    void mappedGridQuantizesLikeTheRowMajorGrid() throws IOException {
+        final SplGrid rowMajorSplGrid = new DoubleSplGrid( makeSplDb( 3L ),
+                                                           NUMBER_OF_COLUMNS,
+                                                           NUMBER_OF_ROWS );
+        final SplRange splRange = new SplRangeEngine().computeRange( rowMajorSplGrid );
+
+        final Path path = temporaryDirectory.resolve( "grid.spl" ); //$NON-NLS-1$
+        MappedSplGrid.create( path, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS, 1, 32 );
+        try ( final MappedSplGrid splGrid = MappedSplGrid.open( path, 0, true ) ) {
+            splGrid.write( rowMajorSplGrid );
+            assertArrayEquals( quantize( rowMajorSplGrid, splRange ),
+                               quantize( splGrid, splRange ) );
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.mhschmieder.fxacousticsgui.soundfield.DoubleSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplGrid;
+
+/**
+ * Checks the stitching of isobars across tiles, the resolution of saddles and
+ * the per-level caching of {@link SplIsobarGenerator}.
+ */
+final class SplIsobarGeneratorTest {
+
+    // Declare the largest distance between consecutive points of an isobar,
+    // which cross adjacent grid squares.
+    private static final double MAXIMUM_POINT_SPACING = Math.sqrt( 2.0d ) + 1.0e-6d;
+
+    // Make a grid whose SPL falls off by 1 dB per cell from a peak of 100 dB.
+    private static SplGrid makePeak( final int numberOfColumns,
+                                     final int numberOfRows,
+                                     final double peakX,
+                                     final double peakY ) {
+        final double[] splDb = new double[ numberOfColumns * numberOfRows ];
+        for ( int row = 0; row < numberOfRows; row++ ) {
+            for ( int column = 0; column < numberOfColumns; column++ ) {
+                splDb[ ( row * numberOfColumns ) + column ] = 100.0d
+                        - Math.hypot( column - peakX, row - peakY );
+            }
+        }
+        return new DoubleSplGrid( splDb, numberOfColumns, numberOfRows );
+    }
+
+    private static SplIsobarGenerator makeIsobarGenerator( final int tileSize ) {
+        return new SplIsobarGenerator( ForkJoinPool.commonPool(), tileSize, 64 );
+    }
+
+    private static SplIsobar getIsobar( final SplIsobarGenerator isobarGenerator,
+                                        final SplGrid splGrid,
+                                        final double levelDb ) {
+        final List< SplIsobar > isobars = isobarGenerator
+                .getIsobars( splGrid, 1L, 0, levelDb, 0.0d, 1.0d );
+        assertEquals( 1, isobars.size() );
+        return isobars.get( 0 );
+    }
+
+    private static void assertContinuous( final SplIsobar isobar, final int polylineIndex ) {
+        final float[] polyline = isobar.getPolyline( polylineIndex );
+        final int numberOfPoints = polyline.length >> 1;
+        final int numberOfSegments = isobar.isClosed( polylineIndex )
+            ? numberOfPoints
+            : numberOfPoints - 1;
+        for ( int i = 0; i < numberOfSegments; i++ ) {
+            final int next = ( i + 1 ) % numberOfPoints;
+            final double spacing = Math.hypot( polyline[ 2 * next ] - polyline[ 2 * i ],
+                                               polyline[ ( 2 * next ) + 1 ]
+                                                       - polyline[ ( 2 * i ) + 1 ] );
+            assertTrue( spacing <= MAXIMUM_POINT_SPACING, "Gap after point " + i ); //$NON-NLS-1$
+        }
+    }
+
+    private static boolean containsPoint( final float[] polyline, final double x, final double y ) {
+        for ( int i = 0; i < polyline.length; i += 2 ) {
+            if ( ( Math.abs( polyline[ i ] - x ) < 1.0e-6d )
+                    && ( Math.abs( polyline[ i + 1 ] - y ) < 1.0e-6d ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsSegment( final float[] polyline,
+                                            final double x0,
+                                            final double y0,
+                                            final double x1,
+                                            final double y1 ) {
+        return containsPoint( polyline, x0, y0 ) && containsPoint( polyline, x1, y1 );
+    }
+
+    @Test
+    void closedIsobarIsStitchedAcrossTiles() {
+        final SplGrid splGrid = makePeak( 41, 37, 20.3d, 17.6d );
+        final SplIsobar singleTileIsobar = getIsobar( makeIsobarGenerator( 64 ), splGrid, 88.0d );
+
+        for ( final int tileSize : new int[] { 1, 3, 8, 16 } ) {
+            final SplIsobar isobar = getIsobar( makeIsobarGenerator( tileSize ), splGrid, 88.0d );
+
+            assertEquals( 1, isobar.getNumberOfPolylines(), "Tile size " + tileSize ); //$NON-NLS-1$
+            assertTrue( isobar.isClosed( 0 ) );
+            assertEquals( singleTileIsobar.getNumberOfPoints(), isobar.getNumberOfPoints() );
+            assertContinuous( isobar, 0 );
+
+            // Linear interpolation between cells stays close to the circle.
+            final float[] polyline = isobar.getPolyline( 0 );
+            for ( int i = 0; i < polyline.length; i += 2 ) {
+                final double radius = Math.hypot( polyline[ i ] - 20.3d,
+                                                  polyline[ i + 1 ] - 17.6d );
+                assertEquals( 12.0d, radius, 0.1d );
+            }
+        }
+    }
+
+    @Test
+    void openIsobarEndsOnTheGridEdges() {
+        final int numberOfColumns = 30;
+        final int numberOfRows = 25;
+        final double[] splDb = new double[ numberOfColumns * numberOfRows ];
+        for ( int row = 0; row < numberOfRows; row++ ) {
+            for ( int column = 0; column < numberOfColumns; column++ ) {
+                splDb[ ( row * numberOfColumns ) + column ] = 60.0d + column + ( 0.25d * row );
+            }
+        }
+
+        final SplGrid splGrid = new DoubleSplGrid( splDb, numberOfColumns, numberOfRows );
+        final SplIsobar isobar = getIsobar( makeIsobarGenerator( 4 ), splGrid, 75.0d );
+
+        assertEquals( 1, isobar.getNumberOfPolylines() );
+        assertFalse( isobar.isClosed( 0 ) );
+        assertContinuous( isobar, 0 );
+
+        final float[] polyline = isobar.getPolyline( 0 );
+        final float firstY = polyline[ 1 ];
+        final float lastY = polyline[ polyline.length - 1 ];
+        assertEquals( 0.0d, Math.min( firstY, lastY ), 1.0e-6d );
+        assertEquals( numberOfRows - 1, Math.max( firstY, lastY ), 1.0e-6d );
+        for ( int i = 0; i < polyline.length; i += 2 ) {
+            assertEquals( 75.0d, 60.0d + polyline[ i ] + ( 0.25d * polyline[ i + 1 ] ), 1.0e-4d );
+        }
+    }
+
+    @Test
+    void maskedCellsBreakTheIsobar() {
+        final SplGrid peak = makePeak( 41, 41, 20.0d, 20.0d );
+        final double[] splDb = new double[ 41 * 41 ];
+        peak.copySplDb( 0, splDb.length, splDb, 0 );
+
+        // Mask a cell that the isobar passes through.
+        splDb[ ( 20 * 41 ) + 30 ] = Double.NaN;
+
+        final SplIsobar isobar = getIsobar( makeIsobarGenerator( 8 ),
+                                            new DoubleSplGrid( splDb, 41, 41 ),
+                                            90.0d );
+
+        assertEquals( 1, isobar.getNumberOfPolylines() );
+        assertFalse( isobar.isClosed( 0 ) );
+        assertContinuous( isobar, 0 );
+    }
+
+    @Test
+    void saddleKeepsTheCornersOnTheSideOfTheCenterConnected() {
+        // The top left and bottom right corners are above the level, and the
+        // other two are below it.
+        final double[] splDb = { 80.0d, 70.0d, 72.0d, 80.0d };
+        final SplGrid saddle = new DoubleSplGrid( splDb, 2, 2 );
+        final SplIsobarGenerator isobarGenerator = makeIsobarGenerator( 8 );
+
+        // With the center (75.5 dB) above the level, the isobar cuts off the
+        // low corners, each with a segment of its own.
+        final SplIsobar lowIsobar = getIsobar( isobarGenerator, saddle, 75.0d );
+        assertEquals( 2, lowIsobar.getNumberOfPolylines() );
+        assertLowCornersCutOff( lowIsobar );
+
+        // With the center below the level, it cuts off the high corners.
+        final SplIsobar highIsobar = getIsobar( isobarGenerator, saddle, 76.0d );
+        assertEquals( 2, highIsobar.getNumberOfPolylines() );
+        assertHighCornersCutOff( highIsobar );
+    }
+
+    private static void assertLowCornersCutOff( final SplIsobar isobar ) {
+        // Cut off the top right corner, from the top edge to the right edge,
+        // and the bottom left corner, from the bottom edge to the left edge.
+        boolean topRight = false;
+        boolean bottomLeft = false;
+        for ( int i = 0; i < isobar.getNumberOfPolylines(); i++ ) {
+            final float[] polyline = isobar.getPolyline( i );
+            topRight |= containsSegment( polyline, 0.5d, 0.0d, 1.0d, 0.5d );
+            bottomLeft |= containsSegment( polyline, 0.375d, 1.0d, 0.0d, 0.625d );
+        }
+        assertTrue( topRight && bottomLeft );
+    }
+
+    private static void assertHighCornersCutOff( final SplIsobar isobar ) {
+        // Cut off the top left corner, from the left edge to the top edge,
+        // and the bottom right corner, from the right edge to the bottom edge.
+        boolean topLeft = false;
+        boolean bottomRight = false;
+        for ( int i = 0; i < isobar.getNumberOfPolylines(); i++ ) {
+            final float[] polyline = isobar.getPolyline( i );
+            topLeft |= containsSegment( polyline, 0.0d, 0.5d, 0.4d, 0.0d );
+            bottomRight |= containsSegment( polyline, 1.0d, 0.6d, 0.5d, 1.0d );
+        }
+        assertTrue( topLeft && bottomRight );
+    }
+
+    @Test
+    void cachedLevelsAreNotContouredAgain() {
+        final SplGrid splGrid = makePeak( 32, 32, 16.0d, 16.0d );
+        final SplIsobarGenerator isobarGenerator = makeIsobarGenerator( 8 );
+
+        assertEquals( 4, isobarGenerator.getIsobars( splGrid, 1L, 0, 95.0d, 12.0d, 3.0d ).size() );
+        assertEquals( 4L, isobarGenerator.getNumberOfContouredLevels() );
+
+        // A wider range only contours the levels it adds, and another band or
+        // revision contours them all again.
+        assertEquals( 6, isobarGenerator.getIsobars( splGrid, 1L, 0, 95.0d, 18.0d, 3.0d ).size() );
+        assertEquals( 6L, isobarGenerator.getNumberOfContouredLevels() );
+        isobarGenerator.getIsobars( splGrid, 1L, 1, 95.0d, 12.0d, 3.0d );
+        assertEquals( 10L, isobarGenerator.getNumberOfContouredLevels() );
+        isobarGenerator.getIsobars( splGrid, 2L, 0, 95.0d, 12.0d, 3.0d );
+        assertEquals( 14L, isobarGenerator.getNumberOfContouredLevels() );
+    }
+
+    @Test
+    void levelsAreMultiplesOfTheStepWithinTheRange() {
+        assertArrayEquals( new double[] { 84.0d, 87.0d, 90.0d, 93.0d },
+                           SplIsobarGenerator.getLevelsDb( 95.0d, 12.0d, 3.0d ),
+                           1.0e-9d );
+        assertArrayEquals( new double[] { 80.0d, 90.0d },
+                           SplIsobarGenerator.getLevelsDb( 90.0d, 10.0d, 10.0d ),
+                           1.0e-9d );
+        assertEquals( 0, SplIsobarGenerator.getLevelsDb( Double.NaN, 10.0d, 1.0d ).length );
+        assertEquals( 0, SplIsobarGenerator.getLevelsDb( 90.0d, 10.0d, 0.0d ).length );
+    }
+}
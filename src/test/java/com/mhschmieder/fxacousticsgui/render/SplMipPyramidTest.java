@@ -0,0 +1,222 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.mhschmieder.fxacousticsgui.soundfield.DoubleSplGrid;
+import com.mhschmieder.fxacousticsgui.soundfield.SplRange;
+
+/**
+ * Checks the levels that {@link SplMipPyramid} reduces an index buffer to,
+ * and the previews that the render pipeline colormaps from them.
+ */
+final class SplMipPyramidTest {
+
+    // Use a grid whose last blocks of either level are partial.
+    private static final int NUMBER_OF_COLUMNS = 70;
+    private static final int NUMBER_OF_ROWS    = 45;
+
+    // Make an index buffer of random codes, with one fully masked 8x8 block
+    // and scattered masked cells elsewhere.
+    private static SplIndexBuffer makeIndexBuffer() {
+        final SplIndexBuffer indexBuffer = new SplIndexBuffer( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        final short[] codes = indexBuffer.getCodes();
+        final Random random = new Random( 11L );
+        for ( int row = 0; row < NUMBER_OF_ROWS; row++ ) {
+            for ( int column = 0; column < NUMBER_OF_COLUMNS; column++ ) {
+                final boolean masked = ( ( row < 8 ) && ( column < 8 ) )
+                        || ( random.nextInt( 7 ) == 0 );
+                codes[ ( row * NUMBER_OF_COLUMNS ) + column ] = masked
+                    ? SplIndexBuffer.NO_DATA_CODE
+                    : ( short ) random.nextInt( SplIndexBuffer.MAXIMUM_DATA_CODE + 1 );
+            }
+        }
+        return indexBuffer;
+    }
+
+    // Compute the rounded mean of the data codes in one block of a level, or
+    // the no-data code if the block only holds masked cells.
+    private static int reduceBlock( final short[] codes,
+                                    final int columns,
+                                    final int rows,
+                                    final int blockColumn,
+                                    final int blockRow,
+                                    final int blockSize ) {
+        int codeSum = 0;
+        int codeCount = 0;
+        for ( int row = blockRow * blockSize; row < Math.min( rows, ( blockRow + 1 )
+                * blockSize ); row++ ) {
+            for ( int column = blockColumn * blockSize; column < Math
+                    .min( columns, ( blockColumn + 1 ) * blockSize ); column++ ) {
+                final int code = codes[ ( row * columns ) + column ];
+                if ( code != SplIndexBuffer.NO_DATA_CODE ) {
+                    codeSum += code;
+                    codeCount++;
+                }
+            }
+        }
+        return ( codeCount == 0 )
+            ? SplIndexBuffer.NO_DATA_CODE
+            : ( codeSum + ( codeCount >> 1 ) ) / codeCount;
+    }
+
+    // Check each cell of one level against its block of a finer level.
+    private static void assertLevel( final SplMipPyramid mipPyramid,
+                                     final int level,
+                                     final short[] sourceCodes,
+                                     final int sourceColumns,
+                                     final int sourceRows,
+                                     final int blockSize ) {
+        final int levelColumns = mipPyramid.getLevelColumns( level );
+        final int levelRows = mipPyramid.getLevelRows( level );
+        assertEquals( ( sourceColumns + blockSize - 1 ) / blockSize, levelColumns );
+        assertEquals( ( sourceRows + blockSize - 1 ) / blockSize, levelRows );
+
+        final short[] levelCodes = mipPyramid.getLevelCodes( level );
+        for ( int row = 0; row < levelRows; row++ ) {
+            for ( int column = 0; column < levelColumns; column++ ) {
+                assertEquals( reduceBlock( sourceCodes,
+                                           sourceColumns,
+                                           sourceRows,
+                                           column,
+                                           row,
+                                           blockSize ),
+                              levelCodes[ ( row * levelColumns ) + column ] );
+            }
+        }
+    }
+
+    @Test
+    void levelsHoldTheMeanCodeOfTheirBlocks() {
+        final SplIndexBuffer indexBuffer = makeIndexBuffer();
+        final SplMipPyramid mipPyramid = new SplMipPyramid( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        mipPyramid.build( ForkJoinPool.commonPool(), indexBuffer );
+
+        assertEquals( 2, SplMipPyramid.NUMBER_OF_LEVELS );
+        assertEquals( 3, mipPyramid.getLevelShift( 0 ) );
+        assertEquals( 2, mipPyramid.getLevelShift( 1 ) );
+
+        // The 1/4 level reduces the full resolution, and the 1/8 level the
+        // 1/4 level, so the masked 8x8 block stays masked at both.
+        assertLevel( mipPyramid, 1, indexBuffer.getCodes(), NUMBER_OF_COLUMNS, NUMBER_OF_ROWS, 4 );
+        assertLevel( mipPyramid,
+                     0,
+                     mipPyramid.getLevelCodes( 1 ),
+                     mipPyramid.getLevelColumns( 1 ),
+                     mipPyramid.getLevelRows( 1 ),
+                     2 );
+        assertEquals( SplIndexBuffer.NO_DATA_CODE, mipPyramid.getLevelCodes( 0 )[ 0 ] );
+    }
+
+    @Test
+    void blitColorsOnlyTheCellsOfTheLevel() {
+        final SplIndexBuffer indexBuffer = makeIndexBuffer();
+        final SplMipPyramid mipPyramid = new SplMipPyramid( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        mipPyramid.build( ForkJoinPool.commonPool(), indexBuffer );
+
+        // Color each code by its own value, to compare the blit to the codes.
+        final int[] argbColors = new int[ SplIndexBuffer.NO_DATA_CODE + 1 ];
+        for ( int code = 0; code < argbColors.length; code++ ) {
+            argbColors[ code ] = code + 1;
+        }
+
+        final int[] argbPixels = new int[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        mipPyramid.blit( ForkJoinPool.commonPool(),
+                         0,
+                         argbColors,
+                         argbPixels,
+                         RenderCancellation.NONE );
+
+        final short[] levelCodes = mipPyramid.getLevelCodes( 0 );
+        for ( int i = 0; i < argbPixels.length; i++ ) {
+            assertEquals( ( i < levelCodes.length ) ? levelCodes[ i ] + 1 : 0, argbPixels[ i ] );
+        }
+    }
+
+    @Test
+    void slowLargeRendersPreviewEachLevel() {
+        // Use the smallest square grid that the pipeline renders progressively.
+        final int size = ( int ) Math
+                .ceil( Math.sqrt( SoundFieldRenderPipeline.PROGRESSIVE_PIXELS_MINIMUM ) );
+        final int numberOfCells = size * size;
+        final double[] splDb = new double[ numberOfCells ];
+        for ( int i = 0; i < numberOfCells; i++ ) {
+            splDb[ i ] = ( 100.0d * i ) / numberOfCells;
+        }
+
+        final SoundFieldDitherer ditherer = new SoundFieldDitherer();
+        ditherer.setDitheringMode( DitheringMode.ERROR_DIFFUSION );
+        final SoundFieldRenderPipeline pipeline = new SoundFieldRenderPipeline(
+                new SoundFieldColorizer( size, size ),
+                ditherer );
+        pipeline.setSplGrid( new DoubleSplGrid( splDb, size, size ),
+                             new SplRange( 60.0d, 100.0d, 0.0d, 100.0d, numberOfCells ) );
+
+        // Only the slow error diffusion pass is previewed.
+        final SoundFieldDisplaySettings colormapSettings = new SoundFieldDisplaySettings( 40,
+                                                                                          false );
+        final SoundFieldDisplaySettings ditheredSettings = colormapSettings
+                .withDithering( true, 100.0d );
+        assertEquals( 1, pipeline.getNumberOfPasses( colormapSettings ) );
+        assertEquals( SplMipPyramid.NUMBER_OF_LEVELS + 1,
+                      pipeline.getNumberOfPasses( ditheredSettings ) );
+
+        final SoundFieldFrame frame = new SoundFieldFrame( size, size );
+        for ( int pass = 0; pass < SplMipPyramid.NUMBER_OF_LEVELS; pass++ ) {
+            assertTrue( pipeline
+                    .renderPass( ditheredSettings, pass, frame, RenderCancellation.NONE ) );
+            final int levelSize = ( size + ( 1 << ( 3 - pass ) ) - 1 ) >> ( 3 - pass );
+            assertEquals( levelSize, frame.getImageColumns() );
+            assertEquals( levelSize, frame.getImageRows() );
+            assertFalse( frame.isFullImage() );
+        }
+
+        assertTrue( pipeline.renderPass( ditheredSettings,
+                                         SplMipPyramid.NUMBER_OF_LEVELS,
+                                         frame,
+                                         RenderCancellation.NONE ) );
+        assertTrue( frame.isFullImage() );
+
+        // Once rendered, the final image is no longer worth previewing.
+        assertEquals( 1, pipeline.getNumberOfPasses( ditheredSettings ) );
+        pipeline.setProgressive( false );
+        assertEquals( 1, pipeline.getNumberOfPasses( ditheredSettings.withDithering( true,
+                                                                                     50.0d ) ) );
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that {@link MappedSplGrid} rejects corrupt headers before mapping,
+ * that its tile views address the same cells as its row-major accessors, and
+ * that reducing it tile by tile matches reducing the row-major grid.
+ */
+final class MappedSplGridTest {
+
+    // Use a grid whose last tile column and row are partial.
+    private static final int NUMBER_OF_COLUMNS = 70;
+    private static final int NUMBER_OF_ROWS    = 40;
+    private static final int NUMBER_OF_BANDS   = 2;
+    private static final int TILE_SIZE         = 32;
+
+    // Declare the byte offsets of the header fields.
+    private static final int MAGIC_OFFSET      = 0;
+    private static final int VERSION_OFFSET    = 4;
+    private static final int COLUMNS_OFFSET    = 8;
+    private static final int TILE_SIZE_OFFSET  = 16;
+
+    @TempDir
+    Path                     temporaryDirectory;
+
+    // Encode the cell position in its SPL, which is exact as a float.
+    private static double getSplDb( final int column, final int row, final int band ) {
+        return ( band * 100000.0d ) + ( column * 100.0d ) + row;
+    }
+
+    private static void assertSameRange( final SplRange expected, final SplRange actual ) {
+        assertEquals( expected.getCellCount(), actual.getCellCount() );
+        assertEquals( expected.getMinimumDb(), actual.getMinimumDb() );
+        assertEquals( expected.getMaximumDb(), actual.getMaximumDb() );
+        assertEquals( expected.getFloorDb(), actual.getFloorDb() );
+        assertEquals( expected.getCeilingDb(), actual.getCeilingDb() );
+    }
+
+    private static void overwriteInt( final Path path, final long position, final int value )
+            throws IOException {
+        try ( final FileChannel fileChannel = FileChannel.open( path,
+                                                                StandardOpenOption.WRITE ) ) {
+            final ByteBuffer buffer = ByteBuffer.allocate( Integer.BYTES );
+            buffer.putInt( value );
+            buffer.flip();
+            fileChannel.write( buffer, position );
+        }
+    }
+
+    private Path createGrid( final String fileName ) throws IOException {
+        final Path path = temporaryDirectory.resolve( fileName );
+        MappedSplGrid.create( path, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS, NUMBER_OF_BANDS, TILE_SIZE );
+        for ( int band = 0; band < NUMBER_OF_BANDS; band++ ) {
+            final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+            for ( int row = 0; row < NUMBER_OF_ROWS; row++ ) {
+                for ( int column = 0; column < NUMBER_OF_COLUMNS; column++ ) {
+                    splDb[ ( row * NUMBER_OF_COLUMNS ) + column ] = getSplDb( column, row, band );
+                }
+            }
+            try ( final MappedSplGrid splGrid = MappedSplGrid.open( path, band, true ) ) {
+                splGrid.write( new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ) );
+            }
+        }
+        return path;
+    }
+
+    @Test
+    void tileViewsAddressTheirOwnCells() throws IOException {
+        final Path path = createGrid( "grid.spl" ); //$NON-NLS-1$
+        for ( int band = 0; band < NUMBER_OF_BANDS; band++ ) {
+            try ( final MappedSplGrid splGrid = MappedSplGrid.open( path, band, false ) ) {
+                assertEquals( 3, splGrid.getNumberOfTileColumns() );
+                assertEquals( 2, splGrid.getNumberOfTileRows() );
+                assertEquals( 6, splGrid.getTileColumns( 2 ) );
+                assertEquals( 8, splGrid.getTileRows( 1 ) );
+
+                for ( int tileRow = 0; tileRow < splGrid.getNumberOfTileRows(); tileRow++ ) {
+                    for ( int tileColumn = 0; tileColumn < splGrid
+                            .getNumberOfTileColumns(); tileColumn++ ) {
+                        final FloatBuffer tile = splGrid.getTile( tileColumn, tileRow );
+                        assertEquals( TILE_SIZE * TILE_SIZE, tile.capacity() );
+                        for ( int row = 0; row < TILE_SIZE; row++ ) {
+                            for ( int column = 0; column < TILE_SIZE; column++ ) {
+                                final int gridColumn = ( tileColumn * TILE_SIZE ) + column;
+                                final int gridRow = ( tileRow * TILE_SIZE ) + row;
+                                final float splDb = tile.get( ( row * TILE_SIZE ) + column );
+                                if ( ( column < splGrid.getTileColumns( tileColumn ) )
+                                        && ( row < splGrid.getTileRows( tileRow ) ) ) {
+                                    assertEquals( getSplDb( gridColumn, gridRow, band ), splDb );
+                                    assertEquals( splDb, splGrid.getSplDb( gridColumn, gridRow ) );
+                                }
+                                else {
+                                    // The padding of edge tiles stays masked.
+                                    assertTrue( Float.isNaN( splDb ) );
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void tileReductionsMatchTheRowMajorGrid() throws IOException {
+        // Round the SPL to floats up front, as the mapping stores floats.
+        final Random random = new Random( 5L );
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        for ( int i = 0; i < splDb.length; i++ ) {
+            splDb[ i ] = ( random.nextInt( 10 ) == 0 )
+                ? Double.NaN
+                : ( float ) ( 90.0d + ( 15.0d * random.nextGaussian() ) );
+        }
+        final SplGrid rowMajorSplGrid = new DoubleSplGrid( splDb,
+                                                           NUMBER_OF_COLUMNS,
+                                                           NUMBER_OF_ROWS );
+
+        final Path path = temporaryDirectory.resolve( "random.spl" ); //$NON-NLS-1$
+        MappedSplGrid.create( path, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS, 1, TILE_SIZE );
+        try ( final MappedSplGrid splGrid = MappedSplGrid.open( path, 0, true ) ) {
+            splGrid.write( rowMajorSplGrid );
+
+            // Use task tiles smaller than a grid tile, which must not split it.
+            final SplRangeEngine engine =
+                    new SplRangeEngine( new ForkJoinPool( 2 ),
+                                        100,
+                                        SplRangeEngine.FLOOR_FRACTION_DEFAULT,
+                                        SplRangeEngine.CEILING_FRACTION_DEFAULT );
+            assertSameRange( engine.computeRange( rowMajorSplGrid ),
+                             engine.computeRange( splGrid ) );
+            assertSameRange( engine.computeApproximateRange( rowMajorSplGrid, 1.0d ),
+                             engine.computeApproximateRange( splGrid, 1.0d ) );
+
+            // Use tracked tiles that straddle the grid tiles.
+            final SplRangeTracker rowMajorTracker = new SplRangeTracker( NUMBER_OF_COLUMNS,
+                                                                         NUMBER_OF_ROWS,
+                                                                         20,
+                                                                         15 );
+            final SplRangeTracker tracker = new SplRangeTracker( NUMBER_OF_COLUMNS,
+                                                                 NUMBER_OF_ROWS,
+                                                                 20,
+                                                                 15 );
+            rowMajorTracker
+                    .updateRegion( rowMajorSplGrid, 0, 0, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+            tracker.updateRegion( splGrid, 0, 0, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+            assertSameRange( rowMajorTracker.getRange(), tracker.getRange() );
+            for ( int tileRow = 0; tileRow < tracker.getNumberOfTileRows(); tileRow++ ) {
+                for ( int tileColumn = 0; tileColumn < tracker
+                        .getNumberOfTileColumns(); tileColumn++ ) {
+                    assertSameRange( rowMajorTracker.getTileRange( tileColumn, tileRow ),
+                                     tracker.getTileRange( tileColumn, tileRow ) );
+                }
+            }
+        }
+    }
+
+    @Test
+    void copiedRunsCrossTileBoundaries() throws IOException {
+        final Path path = createGrid( "grid.spl" ); //$NON-NLS-1$
+        try ( final MappedSplGrid splGrid = MappedSplGrid.open( path, 1, false ) ) {
+            final int fromIndex = ( 30 * NUMBER_OF_COLUMNS ) + 20;
+            final int toIndex = ( 34 * NUMBER_OF_COLUMNS ) + 50;
+            final double[] splDb = new double[ ( toIndex - fromIndex ) + 1 ];
+            splGrid.copySplDb( fromIndex, toIndex, splDb, 1 );
+            for ( int index = fromIndex; index < toIndex; index++ ) {
+                assertEquals( getSplDb( index % NUMBER_OF_COLUMNS, index / NUMBER_OF_COLUMNS, 1 ),
+                              splDb[ ( index - fromIndex ) + 1 ] );
+            }
+        }
+    }
+
+    @Test
+    void corruptHeadersAreRejected() throws IOException {
+        final Path path = createGrid( "grid.spl" ); //$NON-NLS-1$
+        overwriteInt( path, MAGIC_OFFSET, 0 );
+        assertThrows( IOException.class, () -> MappedSplGrid.open( path, 0, false ) );
+
+        final Path versionPath = createGrid( "version.spl" ); //$NON-NLS-1$
+        overwriteInt( versionPath, VERSION_OFFSET, 2 );
+        assertThrows( IOException.class, () -> MappedSplGrid.open( versionPath, 0, false ) );
+
+        final Path columnsPath = createGrid( "columns.spl" ); //$NON-NLS-1$
+        overwriteInt( columnsPath, COLUMNS_OFFSET, 0 );
+        assertThrows( IOException.class, () -> MappedSplGrid.open( columnsPath, 0, false ) );
+
+        final Path tileSizePath = createGrid( "tileSize.spl" ); //$NON-NLS-1$
+        overwriteInt( tileSizePath, TILE_SIZE_OFFSET, 48 );
+        assertThrows( IOException.class, () -> MappedSplGrid.open( tileSizePath, 0, false ) );
+
+        // Dimensions this large would overflow the file size computation.
+        final Path overflowPath = createGrid( "overflow.spl" ); //$NON-NLS-1$
+        overwriteInt( overflowPath, COLUMNS_OFFSET, Integer.MAX_VALUE );
+        assertThrows( IOException.class, () -> MappedSplGrid.open( overflowPath, 0, false ) );
+    }
+
+    @Test
+    void truncatedFilesAreRejected() throws IOException {
+        final Path path = createGrid( "grid.spl" ); //$NON-NLS-1$
+        try ( final FileChannel fileChannel = FileChannel.open( path, StandardOpenOption.WRITE ) ) {
+            fileChannel.truncate( fileChannel.size() - 1L );
+        }
+        assertThrows( IOException.class, () -> MappedSplGrid.open( path, 0, false ) );
+
+        try ( final FileChannel fileChannel = FileChannel.open( path, StandardOpenOption.WRITE ) ) {
+            fileChannel.truncate( 10L );
+        }
+        assertThrows( IOException.class, () -> MappedSplGrid.open( path, 0, false ) );
+    }
+
+    @Test
+    void missingBandsAreRejected() throws IOException {
+        final Path path = createGrid( "grid.spl" ); //$NON-NLS-1$
+        assertThrows( IndexOutOfBoundsException.class,
+                      () -> MappedSplGrid.open( path, NUMBER_OF_BANDS, false ) );
+        assertThrows( IndexOutOfBoundsException.class,
+                      () -> MappedSplGrid.open( path, -1, false ) );
+    }
+}
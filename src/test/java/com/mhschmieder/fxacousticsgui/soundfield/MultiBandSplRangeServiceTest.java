@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link MultiBandSplRangeService} ranges each band of a
+ * band-interleaved grid as if it were its own grid, and caches the ranges by
+ * model revision.
+ */
+final class MultiBandSplRangeServiceTest {
+
+    private static final int NUMBER_OF_BANDS = 7;
+
+    // Use enough cells that the reduction is split across several tasks.
+    private static final int NUMBER_OF_CELLS = 200003;
+
+    // Use small tiles so that each task copies many short runs of cells.
+    private static final int TILE_SIZE       = 1000;
+
+    // Make a band-interleaved grid, where each band has its own level and
+    // spread, and a few masked cells.
+    private static double[] makeInterleavedSplDb( final long seed ) {
+        final Random random = new Random( seed );
+        final double[] splDb = new double[ NUMBER_OF_CELLS * NUMBER_OF_BANDS ];
+        for ( int cellIndex = 0; cellIndex < NUMBER_OF_CELLS; cellIndex++ ) {
+            for ( int bandIndex = 0; bandIndex < NUMBER_OF_BANDS; bandIndex++ ) {
+                splDb[ ( cellIndex * NUMBER_OF_BANDS ) + bandIndex ] = ( random
+                        .nextInt( 500 ) == 0 )
+                            ? Double.NaN
+                            : 60.0d + ( 5.0d * bandIndex )
+                                    + ( ( 2.0d + bandIndex ) * random.nextGaussian() );
+            }
+        }
+        return splDb;
+    }
+
+    // Pull one band out of a band-interleaved grid, as a grid of its own.
+    private static SplGrid makeBandGrid( final double[] interleavedSplDb, final int bandIndex ) {
+        final double[] splDb = new double[ NUMBER_OF_CELLS ];
+        for ( int cellIndex = 0; cellIndex < NUMBER_OF_CELLS; cellIndex++ ) {
+            splDb[ cellIndex ] = interleavedSplDb[ ( cellIndex * NUMBER_OF_BANDS ) + bandIndex ];
+        }
+        return new DoubleSplGrid( splDb, NUMBER_OF_CELLS, 1 );
+    }
+
+    private static SplRangeEngine makeEngine() {
+        return new SplRangeEngine( new ForkJoinPool( 4 ),
+                                   TILE_SIZE,
+                                   SplRangeEngine.FLOOR_FRACTION_DEFAULT,
+                                   SplRangeEngine.CEILING_FRACTION_DEFAULT );
+    }
+
+    private static void assertSameRange( final SplRange expectedRange,
+                                         final SplRange splRange ) {
+        assertEquals( expectedRange.getCellCount(), splRange.getCellCount() );
+        assertEquals( expectedRange.getFloorDb(), splRange.getFloorDb(), 0.0d );
+        assertEquals( expectedRange.getCeilingDb(), splRange.getCeilingDb(), 0.0d );
+        assertEquals( expectedRange.getMinimumDb(), splRange.getMinimumDb(), 0.0d );
+        assertEquals( expectedRange.getMaximumDb(), splRange.getMaximumDb(), 0.0d );
+    }
+
+    @Test
+    void eachBandIsRangedLikeItsOwnGrid() throws InterruptedException, ExecutionException {
+        final SplRangeEngine engine = makeEngine();
+        final MultiBandSplRangeService service = new MultiBandSplRangeService( engine );
+        final double[] interleavedSplDb = makeInterleavedSplDb( 3L );
+        final SplGrid bandGrid = new DoubleSplGrid( interleavedSplDb,
+                                                    NUMBER_OF_BANDS,
+                                                    NUMBER_OF_CELLS );
+
+        final SplRange[] bandRanges = service.computeRangesAsync( bandGrid, 1L ).get();
+        assertEquals( NUMBER_OF_BANDS, bandRanges.length );
+        assertEquals( NUMBER_OF_BANDS, service.getNumberOfBands() );
+        for ( int bandIndex = 0; bandIndex < NUMBER_OF_BANDS; bandIndex++ ) {
+            final SplRange expectedRange = engine
+                    .computeRange( makeBandGrid( interleavedSplDb, bandIndex ) );
+            assertSameRange( expectedRange, bandRanges[ bandIndex ] );
+            assertSameRange( expectedRange, service.getRange( bandIndex ) );
+        }
+
+        assertNull( service.getRange( -1 ) );
+        assertNull( service.getRange( NUMBER_OF_BANDS ) );
+    }
+
+    @Test
+    void rangesAreCachedByModelRevision() {
+        final SplRangeEngine engine = makeEngine();
+        final MultiBandSplRangeService service = new MultiBandSplRangeService( engine );
+        final double[] interleavedSplDb = makeInterleavedSplDb( 5L );
+        final SplGrid bandGrid = new DoubleSplGrid( interleavedSplDb,
+                                                    NUMBER_OF_BANDS,
+                                                    NUMBER_OF_CELLS );
+        assertEquals( MultiBandSplRangeService.MODEL_REVISION_NONE, service.getModelRevision() );
+
+        final SplRange[] firstRanges = service.computeRanges( bandGrid, 2L );
+        final double firstMaximumDb = firstRanges[ 0 ].getMaximumDb();
+
+        // Raise the loudest cell of the first band, which the cached ranges of
+        // the same revision do not see, without rescanning the grid.
+        interleavedSplDb[ 0 ] = firstMaximumDb + 20.0d;
+        assertEquals( firstMaximumDb, service.computeRanges( bandGrid, 2L )[ 0 ].getMaximumDb() );
+
+        // A newer revision is reduced again, and an older one never replaces it.
+        assertEquals( firstMaximumDb + 20.0d,
+                      service.computeRanges( bandGrid, 3L )[ 0 ].getMaximumDb() );
+        interleavedSplDb[ 0 ] = firstMaximumDb;
+        assertEquals( firstMaximumDb, service.computeRanges( bandGrid, 1L )[ 0 ].getMaximumDb() );
+        assertEquals( 3L, service.getModelRevision() );
+        assertEquals( firstMaximumDb + 20.0d, service.getRange( 0 ).getMaximumDb() );
+
+        service.clear();
+        assertEquals( MultiBandSplRangeService.MODEL_REVISION_NONE, service.getModelRevision() );
+        assertEquals( 0, service.getNumberOfBands() );
+        assertNull( service.getRange( 0 ) );
+
+        assertThrows( IllegalArgumentException.class,
+                      () -> service.computeRanges( new DoubleSplGrid( new double[ 0 ], 0, 5 ),
+                                                   4L ) );
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the code width, round trip and range queries of
+ * {@link QuantizedSplGrid}.
+ */
+final class QuantizedSplGridTest {
+
+    private static final int NUMBER_OF_COLUMNS = 83;
+    private static final int NUMBER_OF_ROWS    = 61;
+
+    // Make a noisy grid within the given span, with some masked cells and
+    // some infinite ones, which are masked as well once quantized.
+    private static double[] makeSplDb( final long seed,
+                                       final double minimumDb,
+                                       final double maximumDb ) {
+        final Random random = new Random( seed );
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        for ( int i = 0; i < splDb.length; i++ ) {
+            final int draw = random.nextInt( 50 );
+            if ( draw == 0 ) {
+                splDb[ i ] = Double.NaN;
+            }
+            else if ( draw == 1 ) {
+                splDb[ i ] = Double.NEGATIVE_INFINITY;
+            }
+            else {
+                splDb[ i ] = minimumDb + ( ( maximumDb - minimumDb ) * random.nextDouble() );
+            }
+        }
+        splDb[ 1 ] = minimumDb;
+        splDb[ 2 ] = maximumDb;
+        return splDb;
+    }
+
+    private static QuantizedSplGrid quantize( final double[] splDb, final double resolutionDb ) {
+        return QuantizedSplGrid.quantize( new DoubleSplGrid( splDb,
+                                                             NUMBER_OF_COLUMNS,
+                                                             NUMBER_OF_ROWS ),
+                                          resolutionDb );
+    }
+
+    // Check that every finite cell decodes to within half a step, and that
+    // every other cell is masked.
+    private static void assertRoundTrip( final QuantizedSplGrid splGrid, final double[] splDb ) {
+        final double toleranceDb = ( 0.5d * splGrid.getResolutionDb() ) + 1.0e-9d;
+        final double[] decodedSplDb = new double[ splDb.length ];
+        splGrid.copySplDb( 0, splDb.length, decodedSplDb, 0 );
+        for ( int i = 0; i < splDb.length; i++ ) {
+            if ( Double.isFinite( splDb[ i ] ) ) {
+                assertEquals( splDb[ i ], decodedSplDb[ i ], toleranceDb );
+                assertEquals( decodedSplDb[ i ], splGrid.getSplDb( i ) );
+            }
+            else {
+                assertEquals( splGrid.getNoDataCode(), splGrid.getCode( i ) );
+                assertTrue( Double.isNaN( decodedSplDb[ i ] ) );
+            }
+        }
+    }
+
+    @Test
+    void narrowSpansAreStoredAsBytes() {
+        final double[] splDb = makeSplDb( 1L, 80.0d, 100.0d );
+        final QuantizedSplGrid splGrid = quantize( splDb, QuantizedSplGrid.RESOLUTION_DB_DEFAULT );
+
+        assertTrue( splGrid.isByteCoded() );
+        assertNull( splGrid.getShortCodes() );
+        assertEquals( 201, splGrid.getNumberOfLevels() );
+        assertEquals( QuantizedSplGrid.BYTE_NO_DATA_CODE, splGrid.getNoDataCode() );
+        assertEquals( splDb.length, splGrid.getSizeInBytes() );
+        assertEquals( 80.0d, splGrid.getOffsetDb() );
+        assertRoundTrip( splGrid, splDb );
+    }
+
+    @Test
+    void wideSpansAreStoredAsShorts() {
+        final double[] splDb = makeSplDb( 2L, 20.0d, 130.0d );
+        final QuantizedSplGrid splGrid = quantize( splDb, QuantizedSplGrid.RESOLUTION_DB_DEFAULT );
+
+        assertFalse( splGrid.isByteCoded() );
+        assertNull( splGrid.getByteCodes() );
+        assertEquals( QuantizedSplGrid.SHORT_NO_DATA_CODE, splGrid.getNoDataCode() );
+        assertEquals( 2L * splDb.length, splGrid.getSizeInBytes() );
+        assertRoundTrip( splGrid, splDb );
+
+        // The coarse resolution brings the same span back down to bytes.
+        final QuantizedSplGrid coarseSplGrid = quantize( splDb,
+                                                         QuantizedSplGrid.RESOLUTION_DB_COARSE );
+        assertTrue( coarseSplGrid.isByteCoded() );
+        assertRoundTrip( coarseSplGrid, splDb );
+    }
+
+    @Test
+    void fullyMaskedGridStaysMasked() {
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        Arrays.fill( splDb, Double.NaN );
+        final QuantizedSplGrid splGrid = quantize( splDb, QuantizedSplGrid.RESOLUTION_DB_DEFAULT );
+
+        assertEquals( 1, splGrid.getNumberOfLevels() );
+        assertRoundTrip( splGrid, splDb );
+        assertTrue( new SplRangeEngine().computeRange( splGrid ).isEmpty() );
+    }
+
+    @Test
+    void invalidResolutionsAreRejected() {
+        final double[] splDb = makeSplDb( 3L, 20.0d, 130.0d );
+        assertThrows( IllegalArgumentException.class, () -> quantize( splDb, 0.0d ) );
+        assertThrows( IllegalArgumentException.class, () -> quantize( splDb, Double.NaN ) );
+        assertThrows( IllegalArgumentException.class, () -> quantize( splDb, 0.001d ) );
+    }
+
+    @Test
+    void codeCountsMatchTheDecodedGrid() {
+        final double[] splDb = makeSplDb( 4L, 40.0d, 110.0d );
+        final QuantizedSplGrid splGrid = quantize( splDb, QuantizedSplGrid.RESOLUTION_DB_DEFAULT );
+        final double[] decodedSplDb = new double[ splDb.length ];
+        splGrid.copySplDb( 0, splDb.length, decodedSplDb, 0 );
+
+        final long[] codeCounts = new long[ splGrid.getNumberOfLevels() ];
+        splGrid.countCodes( 0, splDb.length, codeCounts );
+        assertEquals( Arrays.stream( decodedSplDb ).filter( Double::isFinite ).count(),
+                      Arrays.stream( codeCounts ).sum() );
+
+        // The code histogram holds the same values as the decoded grid.
+        final SplRangeEngine engine = new SplRangeEngine();
+        final SplRange splRange = engine.computeRange( splGrid );
+        final SplRange decodedSplRange = engine.computeRange( new DoubleSplGrid( decodedSplDb,
+                                                                                 NUMBER_OF_COLUMNS,
+                                                                                 NUMBER_OF_ROWS ) );
+        assertEquals( decodedSplRange.getFloorDb(), splRange.getFloorDb(), 1.0e-9d );
+        assertEquals( decodedSplRange.getCeilingDb(), splRange.getCeilingDb(), 1.0e-9d );
+        assertEquals( decodedSplRange.getMinimumDb(), splRange.getMinimumDb(), 1.0e-9d );
+        assertEquals( decodedSplRange.getMaximumDb(), splRange.getMaximumDb(), 1.0e-9d );
+        assertEquals( decodedSplRange.getCellCount(), splRange.getCellCount() );
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the percentiles, extrema and merging of {@link SplHistogram}.
+ */
+final class SplHistogramTest {
+
+    // Fill a histogram with one cell per bin center, from 50.05 dB up.
+    private static SplHistogram makeRamp( final int numberOfCells ) {
+        final SplHistogram histogram = new SplHistogram();
+        for ( int i = 0; i < numberOfCells; i++ ) {
+            histogram.add( 50.05d + ( i * 0.1d ) );
+        }
+        return histogram;
+    }
+
+    @Test
+    void emptyHistogramHasNoPercentiles() {
+        final SplHistogram histogram = new SplHistogram();
+
+        assertTrue( histogram.isEmpty() );
+        assertTrue( Double.isNaN( histogram.getPercentileDb( 0.5d ) ) );
+    }
+
+    @Test
+    void percentilesAreBinCentersWithinBinWidth() {
+        final SplHistogram histogram = makeRamp( 1000 );
+
+        assertEquals( 1000L, histogram.getCount() );
+        assertEquals( 50.05d, histogram.getPercentileDb( 0.001d ), 1.0e-9d );
+        assertEquals( 59.95d, histogram.getPercentileDb( 0.1d ), 1.0e-9d );
+        assertEquals( 99.95d, histogram.getPercentileDb( 0.5d ), 1.0e-9d );
+        assertEquals( 149.85d, histogram.getPercentileDb( 0.999d ), 1.0e-9d );
+    }
+
+    @Test
+    void percentilesAtTheEndsAreTheExactExtrema() {
+        final SplHistogram histogram = new SplHistogram();
+        histogram.add( 61.29d );
+        histogram.add( 70.0d );
+        histogram.add( 88.81d );
+
+        assertEquals( 61.29d, histogram.getPercentileDb( 0.0d ) );
+        assertEquals( 88.81d, histogram.getPercentileDb( 1.0d ) );
+
+        // Bin centers are clamped to the extrema, so the extreme cells read
+        // back exactly rather than as the centers of their bins.
+        assertEquals( 61.29d, histogram.getPercentileDb( 0.01d ) );
+        assertEquals( 88.81d, histogram.getPercentileDb( 0.99d ) );
+    }
+
+    @Test
+    void nonFiniteCellsAreSkipped() {
+        final SplHistogram histogram = new SplHistogram();
+        histogram.addAll( new double[] { Double.NaN, 72.0d, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, 74.0d }, 0, 5 );
+
+        assertEquals( 2L, histogram.getCount() );
+        assertEquals( 72.0d, histogram.getMinimumDb() );
+        assertEquals( 74.0d, histogram.getMaximumDb() );
+    }
+
+    @Test
+    void outOfDomainCellsAreClampedToTheEdgeBins() {
+        final SplHistogram histogram = new SplHistogram();
+        histogram.add( -100.0d );
+        histogram.add( 500.0d );
+
+        assertEquals( 0, histogram.getBinIndex( -100.0d ) );
+        assertEquals( histogram.getBinIndex( SplHistogram.SPL_DB_MAXIMUM ),
+                      histogram.getBinIndex( 500.0d ) );
+        assertEquals( -100.0d, histogram.getPercentileDb( 0.0d ) );
+        assertEquals( 500.0d, histogram.getPercentileDb( 1.0d ) );
+    }
+
+    @Test
+    void stridedAddReadsOneBandOfAnInterleavedArray() {
+        final double[] interleavedSplDb = { 60.0d, 90.0d, 61.0d, 91.0d, 62.0d, 92.0d };
+        final SplHistogram histogram = new SplHistogram();
+        histogram.addAll( interleavedSplDb, 1, interleavedSplDb.length, 2 );
+
+        assertEquals( 3L, histogram.getCount() );
+        assertEquals( 90.0d, histogram.getMinimumDb() );
+        assertEquals( 92.0d, histogram.getMaximumDb() );
+    }
+
+    @Test
+    void gridAddMatchesArrayAdd() {
+        // Span several copy blocks, with a ragged last one.
+        final double[] splDb = new double[ 5000 ];
+        for ( int i = 0; i < splDb.length; i++ ) {
+            splDb[ i ] = ( ( i % 7 ) == 0 ) ? Double.NaN : 40.0d + ( ( i * 37 ) % 600 ) * 0.1d;
+        }
+
+        final SplHistogram arrayHistogram = new SplHistogram();
+        arrayHistogram.addAll( splDb, 3, splDb.length );
+        final SplHistogram gridHistogram = new SplHistogram();
+        gridHistogram.addAll( new FloatSplGrid( toFloats( splDb ), 100, 50 ), 3, splDb.length );
+
+        assertEquals( arrayHistogram.getCount(), gridHistogram.getCount() );
+        for ( double fraction = 0.0d; fraction <= 1.0d; fraction += 0.125d ) {
+            assertEquals( arrayHistogram.getPercentileDb( fraction ),
+                          gridHistogram.getPercentileDb( fraction ),
+                          1.0e-4d );
+        }
+    }
+
+    @Test
+    void mergeThenSubtractRestoresTheBins() {
+        final SplHistogram histogram = makeRamp( 100 );
+        final SplHistogram other = new SplHistogram();
+        other.add( 120.04d, 400L );
+        other.add( 130.0d );
+
+        histogram.merge( other );
+        assertEquals( 501L, histogram.getCount() );
+        assertEquals( 130.0d, histogram.getMaximumDb() );
+        assertEquals( 120.05d, histogram.getPercentileDb( 0.5d ), 1.0e-9d );
+
+        // Extrema cannot be un-merged, so only the bins are checked.
+        histogram.subtract( other );
+        assertEquals( 100L, histogram.getCount() );
+        assertEquals( 54.95d, histogram.getPercentileDb( 0.5d ), 1.0e-9d );
+    }
+
+    @Test
+    void mergingDifferentBinWidthsFails() {
+        final SplHistogram histogram = new SplHistogram( 0.1d );
+
+        assertThrows( IllegalArgumentException.class,
+                      () -> histogram.merge( new SplHistogram( 0.5d ) ) );
+    }
+
+    private static float[] toFloats( final double[] values ) {
+        final float[] floats = new float[ values.length ];
+        for ( int i = 0; i < values.length; i++ ) {
+            floats[ i ] = ( float ) values[ i ];
+        }
+        return floats;
+    }
+}
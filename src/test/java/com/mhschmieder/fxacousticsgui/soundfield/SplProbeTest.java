@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the bilinear interpolation, masking, screen mapping and colormap
+ * position of {@link SplProbe}.
+ */
+final class SplProbeTest {
+
+    private static final int    NUMBER_OF_COLUMNS = 8;
+    private static final int    NUMBER_OF_ROWS    = 6;
+
+    // Declare the screen position of the image, which is drawn at one screen
+    // pixel per grid cell.
+    private static final double IMAGE_MIN_X       = 10.0d;
+    private static final double IMAGE_MIN_Y       = 20.0d;
+
+    private static final double TOLERANCE_DB      = 1.0e-6d;
+
+    // Make a grid whose SPL is linear in both directions, which bilinear
+    // interpolation reproduces exactly.
+    private static double[] makeLinearSplDb() {
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        for ( int row = 0; row < NUMBER_OF_ROWS; row++ ) {
+            for ( int column = 0; column < NUMBER_OF_COLUMNS; column++ ) {
+                splDb[ ( row * NUMBER_OF_COLUMNS ) + column ] = getLinearSplDb( column, row );
+            }
+        }
+        return splDb;
+    }
+
+    private static double getLinearSplDb( final double gridX, final double gridY ) {
+        return 60.0d + gridX + ( 10.0d * gridY );
+    }
+
+    private static SplProbe makeProbe( final double[] splDb ) {
+        final SplProbe splProbe = new SplProbe();
+        splProbe.setScreenMapping( IMAGE_MIN_X,
+                                   IMAGE_MIN_Y,
+                                   NUMBER_OF_COLUMNS,
+                                   NUMBER_OF_ROWS,
+                                   100,
+                                   100 );
+        splProbe.setSplGrid( new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ),
+                             1L,
+                             2,
+                             100.0d );
+        splProbe.setSplRangeDb( 40.0d );
+        return splProbe;
+    }
+
+    @Test
+    void gridPositionsAreInterpolatedBilinearly() {
+        final SplProbe splProbe = makeProbe( makeLinearSplDb() );
+        final SplProbeReading reading = new SplProbeReading();
+
+        final double[][] gridPositions = { { 0.0d, 0.0d }, { 3.0d, 2.0d }, { 3.25d, 2.75d },
+            { 6.5d, 4.5d }, { 7.0d, 5.0d } };
+        for ( final double[] gridPosition : gridPositions ) {
+            assertTrue( splProbe.probeGrid( gridPosition[ 0 ], gridPosition[ 1 ], reading ) );
+            assertTrue( reading.isValid() );
+            assertEquals( getLinearSplDb( gridPosition[ 0 ], gridPosition[ 1 ] ),
+                          reading.getSplDb(),
+                          TOLERANCE_DB );
+            assertEquals( gridPosition[ 0 ], reading.getGridX(), TOLERANCE_DB );
+            assertEquals( gridPosition[ 1 ], reading.getGridY(), TOLERANCE_DB );
+            assertEquals( 2, reading.getFrequencyBandIndex() );
+        }
+
+        // The nearest cell is the one the image shows at the position.
+        assertTrue( splProbe.probeGrid( 3.25d, 2.75d, reading ) );
+        assertEquals( 3, reading.getColumn() );
+        assertEquals( 3, reading.getRow() );
+
+        assertFalse( splProbe.probeGrid( -0.5d, 1.0d, reading ) );
+        assertFalse( splProbe.probeGrid( 1.0d, NUMBER_OF_ROWS - 0.5d, reading ) );
+        assertFalse( reading.isValid() );
+    }
+
+    @Test
+    void screenPixelsMapToTheCellsUnderThem() {
+        final SplProbe splProbe = makeProbe( makeLinearSplDb() );
+        final SplProbeReading reading = new SplProbeReading();
+
+        for ( int row = 0; row < NUMBER_OF_ROWS; row++ ) {
+            for ( int column = 0; column < NUMBER_OF_COLUMNS; column++ ) {
+                assertTrue( splProbe.probe( IMAGE_MIN_X + column + 0.5d,
+                                            IMAGE_MIN_Y + row + 0.5d,
+                                            reading ) );
+                assertEquals( getLinearSplDb( column, row ), reading.getSplDb(), TOLERANCE_DB );
+                assertEquals( column, reading.getColumn() );
+                assertEquals( row, reading.getRow() );
+            }
+        }
+
+        assertFalse( splProbe.probe( IMAGE_MIN_X - 1.0d, IMAGE_MIN_Y, reading ) );
+        assertFalse( splProbe.probe( IMAGE_MIN_X + NUMBER_OF_COLUMNS, IMAGE_MIN_Y, reading ) );
+        assertFalse( splProbe.probe( IMAGE_MIN_X, IMAGE_MIN_Y + NUMBER_OF_ROWS, reading ) );
+        assertFalse( splProbe.probe( 1000.0d, 1000.0d, reading ) );
+    }
+
+    @Test
+    void maskedCellsAreSkippedOrReadAsNothing() {
+        final double[] splDb = makeLinearSplDb();
+        splDb[ ( 2 * NUMBER_OF_COLUMNS ) + 4 ] = Double.NaN;
+        final SplProbe splProbe = makeProbe( splDb );
+        final SplProbeReading reading = new SplProbeReading();
+
+        // A masked nearest cell reads as nothing, as the image shows no data.
+        assertFalse( splProbe.probeGrid( 3.75d, 2.25d, reading ) );
+        assertFalse( reading.isValid() );
+
+        // Any other masked corner is left out, and the rest are renormalized.
+        assertTrue( splProbe.probeGrid( 3.25d, 2.25d, reading ) );
+        final double topLeftWeight = 0.75d * 0.75d;
+        final double bottomLeftWeight = 0.75d * 0.25d;
+        final double bottomRightWeight = 0.25d * 0.25d;
+        final double expectedSplDb = ( ( topLeftWeight * getLinearSplDb( 3, 2 ) )
+                + ( bottomLeftWeight * getLinearSplDb( 3, 3 ) )
+                + ( bottomRightWeight * getLinearSplDb( 4, 3 ) ) )
+                / ( topLeftWeight + bottomLeftWeight + bottomRightWeight );
+        assertEquals( expectedSplDb, reading.getSplDb(), TOLERANCE_DB );
+    }
+
+    @Test
+    void colormapPositionFollowsTheSplRange() {
+        final SplProbe splProbe = makeProbe( makeLinearSplDb() );
+        final SplProbeReading reading = new SplProbeReading();
+
+        // The colormap spans 60 dB to 100 dB, and clamps beyond it.
+        assertTrue( splProbe.probeGrid( 0.0d, 2.0d, reading ) );
+        assertEquals( 0.5d, reading.getColormapPosition(), TOLERANCE_DB );
+        assertTrue( splProbe.probeGrid( 0.0d, 0.0d, reading ) );
+        assertEquals( 0.0d, reading.getColormapPosition(), TOLERANCE_DB );
+        assertTrue( splProbe.probeGrid( 7.0d, 5.0d, reading ) );
+        assertEquals( 1.0d, reading.getColormapPosition(), TOLERANCE_DB );
+
+        assertTrue( splProbe.setColormapRange( 100.0d, 80.0d ) );
+        assertFalse( splProbe.setColormapRange( 100.0d, 80.0d ) );
+        assertTrue( splProbe.probeGrid( 0.0d, 2.0d, reading ) );
+        assertEquals( 0.75d, reading.getColormapPosition(), TOLERANCE_DB );
+    }
+
+    @Test
+    void settingTheSameGridIsSkippedAndClearingDropsIt() {
+        final double[] splDb = makeLinearSplDb();
+        final SplProbe splProbe = makeProbe( splDb );
+        final SplProbeReading reading = new SplProbeReading();
+        final SplGrid otherSplGrid = new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+
+        assertTrue( splProbe.setSplGrid( otherSplGrid, 1L, 2, 100.0d ) );
+        assertFalse( splProbe.setSplGrid( otherSplGrid, 1L, 2, 100.0d ) );
+        assertTrue( splProbe.setSplGrid( otherSplGrid, 2L, 2, 100.0d ) );
+        assertEquals( 2L, splProbe.getModelRevision() );
+
+        splProbe.clearSplGrid();
+        assertFalse( splProbe.probe( IMAGE_MIN_X + 0.5d, IMAGE_MIN_Y + 0.5d, reading ) );
+        assertFalse( splProbe.probeGrid( 1.0d, 1.0d, reading ) );
+        assertEquals( -1, splProbe.getFrequencyBandIndex() );
+    }
+}
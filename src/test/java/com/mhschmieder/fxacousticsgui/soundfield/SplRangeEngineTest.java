@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the approximate Auto-Range SPL of {@link SplRangeEngine} stays
+ * within its error bound of the exact percentiles of the grid.
+ */
+final class SplRangeEngineTest {
+
+    private static final int NUMBER_OF_COLUMNS = 301;
+    private static final int NUMBER_OF_ROWS    = 157;
+
+    // Use small tiles so that the reduction is split and merged many times.
+    private static final int TILE_SIZE         = 1024;
+
+    // Make a noisy grid with masked cells and a few extreme outliers, which
+    // is where sampling would miss the tails.
+    private static double[] makeSplDb( final long seed ) {
+        final Random random = new Random( seed );
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        for ( int i = 0; i < splDb.length; i++ ) {
+            final int draw = random.nextInt( 200 );
+            if ( draw == 0 ) {
+                splDb[ i ] = Double.NaN;
+            }
+            else if ( draw == 1 ) {
+                splDb[ i ] = -20.0d + ( 10.0d * random.nextDouble() );
+            }
+            else if ( draw == 2 ) {
+                splDb[ i ] = 150.0d + ( 30.0d * random.nextDouble() );
+            }
+            else {
+                splDb[ i ] = 90.0d + ( 12.0d * random.nextGaussian() );
+            }
+        }
+        return splDb;
+    }
+
+    // Find the exact percentile by rank, as the histogram defines it.
+    private static double getPercentileDb( final double[] sortedSplDb, final double fraction ) {
+        final long targetRank = Math.max( 1L,
+                                          ( long ) Math.ceil( fraction * sortedSplDb.length ) );
+        return sortedSplDb[ ( int ) targetRank - 1 ];
+    }
+
+    private static double[] sortValid( final double[] splDb ) {
+        final double[] validSplDb = Arrays.stream( splDb ).filter( value -> !Double.isNaN( value ) )
+                .toArray();
+        Arrays.sort( validSplDb );
+        return validSplDb;
+    }
+
+    private static SplRangeEngine makeEngine() {
+        return new SplRangeEngine( new ForkJoinPool( 2 ),
+                                   TILE_SIZE,
+                                   SplRangeEngine.FLOOR_FRACTION_DEFAULT,
+                                   SplRangeEngine.CEILING_FRACTION_DEFAULT );
+    }
+
+    @Test
+    void approximateRangeIsWithinTheErrorBound() {
+        final SplRangeEngine engine = makeEngine();
+        final double[] errorBoundsDb = { 0.25d, 0.5d, 1.0d, 3.0d, 10.0d };
+        for ( long seed = 1L; seed <= 4L; seed++ ) {
+            final double[] splDb = makeSplDb( seed );
+            final double[] sortedSplDb = sortValid( splDb );
+            final double floorDb = getPercentileDb( sortedSplDb,
+                                                    SplRangeEngine.FLOOR_FRACTION_DEFAULT );
+            final double ceilingDb = getPercentileDb( sortedSplDb,
+                                                      SplRangeEngine.CEILING_FRACTION_DEFAULT );
+            final SplGrid splGrid = new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+
+            for ( final double errorBoundDb : errorBoundsDb ) {
+                final SplRange splRange = engine.computeApproximateRange( splGrid, errorBoundDb );
+                assertTrue( splRange.isApproximate() );
+                assertEquals( sortedSplDb.length, splRange.getCellCount() );
+                assertEquals( sortedSplDb[ 0 ], splRange.getMinimumDb() );
+                assertEquals( sortedSplDb[ sortedSplDb.length - 1 ], splRange.getMaximumDb() );
+                assertTrue( Math.abs( splRange.getFloorDb() - floorDb ) <= errorBoundDb,
+                            "floor " + splRange.getFloorDb() + " vs " + floorDb );
+                assertTrue( Math.abs( splRange.getCeilingDb() - ceilingDb ) <= errorBoundDb,
+                            "ceiling " + splRange.getCeilingDb() + " vs " + ceilingDb );
+            }
+        }
+    }
+
+    @Test
+    void approximateRangeOfAQuantizedGridIsWithinTheErrorBound() {
+        final SplRangeEngine engine = makeEngine();
+        final double[] splDb = makeSplDb( 7L );
+        final QuantizedSplGrid splGrid = QuantizedSplGrid
+                .quantize( new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS ),
+                           QuantizedSplGrid.RESOLUTION_DB_DEFAULT );
+
+        // Compare against the quantized values, which are what the grid holds.
+        final double[] quantizedSplDb = new double[ splDb.length ];
+        splGrid.copySplDb( 0, quantizedSplDb.length, quantizedSplDb, 0 );
+        final double[] sortedSplDb = sortValid( quantizedSplDb );
+
+        final double errorBoundDb = 1.0d;
+        final SplRange splRange = engine.computeApproximateRange( splGrid, errorBoundDb );
+        assertEquals( sortedSplDb[ 0 ], splRange.getMinimumDb() );
+        assertEquals( sortedSplDb[ sortedSplDb.length - 1 ], splRange.getMaximumDb() );
+        assertTrue( Math.abs( splRange.getFloorDb()
+                - getPercentileDb( sortedSplDb, SplRangeEngine.FLOOR_FRACTION_DEFAULT ) )
+                <= errorBoundDb );
+        assertTrue( Math.abs( splRange.getCeilingDb()
+                - getPercentileDb( sortedSplDb, SplRangeEngine.CEILING_FRACTION_DEFAULT ) )
+                <= errorBoundDb );
+    }
+
+    @Test
+    void approximateRangeOfAnEmptyGridIsEmpty() {
+        final double[] splDb = new double[ 64 ];
+        Arrays.fill( splDb, Double.NaN );
+        final SplRange splRange = makeEngine()
+                .computeApproximateRange( new DoubleSplGrid( splDb, 8, 8 ), 1.0d );
+        assertTrue( splRange.isEmpty() );
+    }
+
+    @Test
+    void nonPositiveErrorBoundIsRejected() {
+        final SplGrid splGrid = new DoubleSplGrid( makeSplDb( 1L ),
+                                                   NUMBER_OF_COLUMNS,
+                                                   NUMBER_OF_ROWS );
+        assertThrows( IllegalArgumentException.class,
+                      () -> makeEngine().computeApproximateRange( splGrid, 0.0d ) );
+    }
+}
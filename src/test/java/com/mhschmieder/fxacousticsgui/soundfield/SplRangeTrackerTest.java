@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.soundfield;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the incremental statistics of {@link SplRangeTracker} always
+ * match a full recompute of the grid.
+ */
+final class SplRangeTrackerTest {
+
+    // Use a grid whose last tile column and row are partial.
+    private static final int NUMBER_OF_COLUMNS = 50;
+    private static final int NUMBER_OF_ROWS    = 37;
+    private static final int TILE_SIZE         = 8;
+
+    // Fill a rectangle of the grid with random SPL, masking some cells.
+    private static void fillRandom( final double[] splDb,
+                                    final Random random,
+                                    final int firstColumn,
+                                    final int firstRow,
+                                    final int regionColumns,
+                                    final int regionRows,
+                                    final double meanDb ) {
+        for ( int row = firstRow; row < firstRow + regionRows; row++ ) {
+            for ( int column = firstColumn; column < firstColumn + regionColumns; column++ ) {
+                splDb[ ( row * NUMBER_OF_COLUMNS ) + column ] = ( random.nextInt( 20 ) == 0 )
+                    ? Double.NaN
+                    : meanDb + ( 10.0d * random.nextGaussian() );
+            }
+        }
+    }
+
+    private static SplRange recompute( final SplGrid splGrid ) {
+        final SplHistogram histogram = new SplHistogram();
+        histogram.addAll( splGrid, 0, NUMBER_OF_COLUMNS * NUMBER_OF_ROWS );
+        return SplRange.fromHistogram( histogram,
+                                       SplRangeEngine.FLOOR_FRACTION_DEFAULT,
+                                       SplRangeEngine.CEILING_FRACTION_DEFAULT );
+    }
+
+    private static void assertSameRange( final SplRange expected, final SplRange actual ) {
+        assertEquals( expected.getCellCount(), actual.getCellCount() );
+        assertEquals( expected.getMinimumDb(), actual.getMinimumDb() );
+        assertEquals( expected.getMaximumDb(), actual.getMaximumDb() );
+        assertEquals( expected.getFloorDb(), actual.getFloorDb() );
+        assertEquals( expected.getCeilingDb(), actual.getCeilingDb() );
+    }
+
+    private static SplRangeTracker makeTracker() {
+        return new SplRangeTracker( NUMBER_OF_COLUMNS, NUMBER_OF_ROWS, TILE_SIZE, TILE_SIZE );
+    }
+
+    @Test
+    void incrementalUpdatesMatchAFullRecompute() {
+        final Random random = new Random( 3L );
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        final SplGrid splGrid = new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        fillRandom( splDb, random, 0, 0, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS, 80.0d );
+
+        final SplRangeTracker tracker = makeTracker();
+        tracker.updateRegion( splGrid, 0, 0, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        assertSameRange( recompute( splGrid ), tracker.getRange() );
+
+        // Recompute random regions at shifting levels, so that the extrema
+        // move up and down between updates.
+        for ( int update = 0; update < 200; update++ ) {
+            final int firstColumn = random.nextInt( NUMBER_OF_COLUMNS );
+            final int firstRow = random.nextInt( NUMBER_OF_ROWS );
+            final int regionColumns = 1 + random.nextInt( NUMBER_OF_COLUMNS - firstColumn );
+            final int regionRows = 1 + random.nextInt( NUMBER_OF_ROWS - firstRow );
+            fillRandom( splDb,
+                        random,
+                        firstColumn,
+                        firstRow,
+                        regionColumns,
+                        regionRows,
+                        60.0d + random.nextInt( 40 ) );
+            tracker.updateRegion( splGrid, firstColumn, firstRow, regionColumns, regionRows );
+
+            assertSameRange( recompute( splGrid ), tracker.getRange() );
+        }
+    }
+
+    @Test
+    void removingTheExtremaOfATileShrinksTheGridExtrema() {
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        final SplGrid splGrid = new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        Arrays.fill( splDb, 80.0d );
+        splDb[ ( 20 * NUMBER_OF_COLUMNS ) + 30 ] = 130.0d;
+        splDb[ ( 5 * NUMBER_OF_COLUMNS ) + 45 ] = 20.0d;
+
+        final SplRangeTracker tracker = makeTracker();
+        tracker.updateRegion( splGrid, 0, 0, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        assertEquals( 20.0d, tracker.getRange().getMinimumDb() );
+        assertEquals( 130.0d, tracker.getRange().getMaximumDb() );
+
+        splDb[ ( 20 * NUMBER_OF_COLUMNS ) + 30 ] = 90.0d;
+        tracker.updateTile( splGrid, 30 / TILE_SIZE, 20 / TILE_SIZE );
+        assertEquals( 90.0d, tracker.getRange().getMaximumDb() );
+
+        splDb[ ( 5 * NUMBER_OF_COLUMNS ) + 45 ] = 75.0d;
+        tracker.updateTile( splGrid, 45 / TILE_SIZE, 5 / TILE_SIZE );
+        assertEquals( 75.0d, tracker.getRange().getMinimumDb() );
+        assertSameRange( recompute( splGrid ), tracker.getRange() );
+    }
+
+    @Test
+    void tileRangesCoverOnlyTheirOwnCells() {
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        final SplGrid splGrid = new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        for ( int i = 0; i < splDb.length; i++ ) {
+            splDb[ i ] = 40.0d + ( i % NUMBER_OF_COLUMNS );
+        }
+
+        final SplRangeTracker tracker = makeTracker();
+        tracker.updateRegion( splGrid, 0, 0, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+
+        // The last tile column is two cells wide and every row of it is alike.
+        final SplRange tileRange = tracker.getTileRange( 6, 4 );
+        assertEquals( 2L * 5L, tileRange.getCellCount() );
+        assertEquals( 88.0d, tileRange.getMinimumDb() );
+        assertEquals( 89.0d, tileRange.getMaximumDb() );
+    }
+
+    @Test
+    void resetEmptiesEveryTile() {
+        final double[] splDb = new double[ NUMBER_OF_COLUMNS * NUMBER_OF_ROWS ];
+        final SplGrid splGrid = new DoubleSplGrid( splDb, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        fillRandom( splDb, new Random( 5L ), 0, 0, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS, 80.0d );
+
+        final SplRangeTracker tracker = makeTracker();
+        tracker.updateRegion( splGrid, 0, 0, NUMBER_OF_COLUMNS, NUMBER_OF_ROWS );
+        tracker.reset();
+
+        assertTrue( tracker.getRange().isEmpty() );
+        assertTrue( tracker.getTileRange( 0, 0 ).isEmpty() );
+
+        tracker.updateTile( splGrid, 1, 1 );
+        assertEquals( tracker.getTileRange( 1, 1 ).getCellCount(),
+                      tracker.getRange().getCellCount() );
+    }
+}
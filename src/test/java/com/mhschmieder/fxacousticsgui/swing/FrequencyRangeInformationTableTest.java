@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxAcoustics Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxAcoustics Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxacoustics
+ */
+package com.mhschmieder.fxacousticsgui.swing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link FrequencyRangeInformationTable} replaces its rows with a
+ * single rows-updated event, and coalesces updates from other threads.
+ */
+final class FrequencyRangeInformationTableTest {
+
+    private static final int NUMBER_OF_POSTS = 500;
+
+    // Make a table model holding the given single-column rows.
+    private static FrequencyRangeInformationTable.FrequencyRangeTableModel makeTableModel(
+            final String... rowValues ) {
+        final Object[][] rowData = new Object[ rowValues.length ][];
+        for ( int row = 0; row < rowValues.length; row++ ) {
+            rowData[ row ] = new Object[] { rowValues[ row ] };
+        }
+        return new FrequencyRangeInformationTable.FrequencyRangeTableModel( rowData );
+    }
+
+    @Test
+    void onlyTheChangedRowsAreUpdated() {
+        final FrequencyRangeInformationTable.FrequencyRangeTableModel tableModel = makeTableModel(
+                "a", "b", "c", "d" ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        final List< TableModelEvent > events = new ArrayList<>();
+        tableModel.addTableModelListener( events::add );
+
+        tableModel.setRowValues( new Object[] { "a", "x", "y", "d" } ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        assertEquals( 1, events.size() );
+        final TableModelEvent event = events.get( 0 );
+        assertEquals( TableModelEvent.UPDATE, event.getType() );
+        assertEquals( 1, event.getFirstRow() );
+        assertEquals( 2, event.getLastRow() );
+        assertEquals( "x", tableModel.getValueAt( 1, 0 ) ); //$NON-NLS-1$
+        assertEquals( "y", tableModel.getValueAt( 2, 0 ) ); //$NON-NLS-1$
+
+        // Equal row values fire nothing, even if they are new instances.
+        tableModel.setRowValues( new Object[] { "a", new String( "x" ), "y", "d" } ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        assertEquals( 1, events.size() );
+
+        tableModel.setRowValues( new Object[] { "z", "x", "y", "w" } ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        assertEquals( 2, events.size() );
+        assertEquals( 0, events.get( 1 ).getFirstRow() );
+        assertEquals( 3, events.get( 1 ).getLastRow() );
+    }
+
+    @Test
+    void updatesFromOtherThreadsAreCoalesced()
+            throws InterruptedException, InvocationTargetException {
+        final List< FrequencyRangeInformationTable > tables = new ArrayList<>();
+        final List< TableModelEvent > events = new ArrayList<>();
+        SwingUtilities.invokeAndWait( () -> {
+            final FrequencyRangeInformationTable table = new FrequencyRangeInformationTable();
+            table.getTableModel().addTableModelListener( events::add );
+            tables.add( table );
+        } );
+        final FrequencyRangeInformationTable table = tables.get( 0 );
+
+        // Hold up the Event Dispatch Thread while posting, as a busy one would.
+        final CountDownLatch postingLatch = new CountDownLatch( 1 );
+        SwingUtilities.invokeLater( () -> {
+            try {
+                postingLatch.await();
+            }
+            catch ( final InterruptedException ie ) {
+                Thread.currentThread().interrupt();
+            }
+        } );
+        assertFalse( SwingUtilities.isEventDispatchThread() );
+        for ( int i = 1; i <= NUMBER_OF_POSTS; i++ ) {
+            table.setFrequencyRange( 100.0d * i, 200.0d * i, "1/3", 150.0d * i ); //$NON-NLS-1$
+        }
+        postingLatch.countDown();
+
+        // Let the one queued update run, then check that it showed the latest
+        // values, by re-applying those directly and seeing no change.
+        final List< Integer > numberOfEvents = new ArrayList<>();
+        SwingUtilities.invokeAndWait( () -> {
+            numberOfEvents.add( events.size() );
+            table.setFrequencyRange( 100.0d * NUMBER_OF_POSTS,
+                                     200.0d * NUMBER_OF_POSTS,
+                                     "1/3", //$NON-NLS-1$
+                                     150.0d * NUMBER_OF_POSTS );
+            numberOfEvents.add( events.size() );
+        } );
+        assertEquals( 1, numberOfEvents.get( 0 ).intValue() );
+        assertEquals( 1, numberOfEvents.get( 1 ).intValue() );
+
+        // A direct reset replaces every row in one event.
+        SwingUtilities.invokeAndWait( table::reset );
+        assertEquals( 2, events.size() );
+        assertEquals( 0, events.get( 1 ).getFirstRow() );
+        assertEquals( 3, events.get( 1 ).getLastRow() );
+    }
+}